@@ -21,7 +21,6 @@ import org.jboss.arquillian.test.api.ArquillianResource;
 import org.jboss.as.arquillian.container.ManagementClient;
 import org.jboss.eap.qe.microprofile.health.tools.HealthUrlProvider;
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.ConfigurationException;
-import org.jboss.eap.qe.microprofile.tooling.server.configuration.arquillian.ArquillianContainerProperties;
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.arquillian.ArquillianDescriptorWrapper;
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ManagementClientProvider;
 import org.junit.Before;
@@ -48,10 +47,7 @@ public abstract class FailSafeCDIHealthBaseTest {
 
     @Before
     public void before() throws ConfigurationException, InterruptedException, TimeoutException, IOException {
-        ArquillianContainerProperties arqProps = new ArquillianContainerProperties(
-                ArquillianDescriptorWrapper.getArquillianDescriptor());
-        String url = "http://" + arqProps.getDefaultManagementAddress() + ":" + arqProps.getDefaultManagementPort()
-                + "/metrics";
+        String url = ArquillianDescriptorWrapper.getArquillianContainerProperties().getMetricsUri().toString();
         metricsRequest = given().baseUri(url).accept(ContentType.JSON);
         // reset MP Config properties
         new Administration(ManagementClientProvider.onlineStandalone(managementClient)).reload();
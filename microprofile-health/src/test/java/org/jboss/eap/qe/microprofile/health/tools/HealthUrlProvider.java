@@ -1,7 +1,6 @@
 package org.jboss.eap.qe.microprofile.health.tools;
 
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.ConfigurationException;
-import org.jboss.eap.qe.microprofile.tooling.server.configuration.arquillian.ArquillianContainerProperties;
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.arquillian.ArquillianDescriptorWrapper;
 
 /**
@@ -10,22 +9,14 @@ import org.jboss.eap.qe.microprofile.tooling.server.configuration.arquillian.Arq
  */
 public class HealthUrlProvider {
     public static String healthEndpoint() throws ConfigurationException {
-        ArquillianContainerProperties arqProps = new ArquillianContainerProperties(
-                ArquillianDescriptorWrapper.getArquillianDescriptor());
-        return "http://" + arqProps.getDefaultManagementAddress() + ":" + arqProps.getDefaultManagementPort() + "/health";
+        return ArquillianDescriptorWrapper.getArquillianContainerProperties().getHealthUri().toString();
     }
 
     public static String liveEndpoint() throws ConfigurationException {
-        ArquillianContainerProperties arqProps = new ArquillianContainerProperties(
-                ArquillianDescriptorWrapper.getArquillianDescriptor());
-        return "http://" + arqProps.getDefaultManagementAddress() + ":" + arqProps.getDefaultManagementPort()
-                + "/health/live";
+        return ArquillianDescriptorWrapper.getArquillianContainerProperties().getHealthLiveUri().toString();
     }
 
     public static String readyEndpoint() throws ConfigurationException {
-        ArquillianContainerProperties arqProps = new ArquillianContainerProperties(
-                ArquillianDescriptorWrapper.getArquillianDescriptor());
-        return "http://" + arqProps.getDefaultManagementAddress() + ":" + arqProps.getDefaultManagementPort()
-                + "/health/ready";
+        return ArquillianDescriptorWrapper.getArquillianContainerProperties().getHealthReadyUri().toString();
     }
 }
@@ -19,7 +19,7 @@ import org.jboss.eap.qe.microprofile.jwt.testapp.jaxrs.JaxRsTestApplication;
 import org.jboss.eap.qe.microprofile.jwt.testapp.jaxrs.SecuredJaxRsEndpoint;
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.ConfigurationException;
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ManagementClientProvider;
-import org.jboss.eap.qe.microprofile.tooling.server.log.ModelNodeLogChecker;
+import org.jboss.eap.qe.microprofile.tooling.server.log.LogCheckers;
 import org.jboss.shrinkwrap.api.ShrinkWrap;
 import org.jboss.shrinkwrap.api.asset.StringAsset;
 import org.jboss.shrinkwrap.api.spec.WebArchive;
@@ -75,7 +75,7 @@ public class CorruptedKeyTest {
                 .statusCode(500);
 
         try (final OnlineManagementClient client = ManagementClientProvider.onlineStandalone()) {
-            new ModelNodeLogChecker(client, 20).logContains("UT005023");
+            LogCheckers.serverLog(client, 20).logContains("UT005023");
         }
     }
 
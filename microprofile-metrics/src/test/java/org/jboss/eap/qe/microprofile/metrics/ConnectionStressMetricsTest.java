@@ -18,9 +18,7 @@ import org.jboss.arquillian.junit.Arquillian;
 import org.jboss.arquillian.test.api.ArquillianResource;
 import org.jboss.as.arquillian.api.ContainerResource;
 import org.jboss.as.arquillian.container.ManagementClient;
-import org.jboss.eap.qe.microprofile.metrics.hello.MetricsApp;
-import org.jboss.shrinkwrap.api.ShrinkWrap;
-import org.jboss.shrinkwrap.api.asset.EmptyAsset;
+import org.jboss.eap.qe.microprofile.tooling.server.deployment.ReusableDeployments;
 import org.jboss.shrinkwrap.api.spec.WebArchive;
 import org.junit.Before;
 import org.junit.Test;
@@ -29,6 +27,7 @@ import org.junit.runner.RunWith;
 import io.restassured.http.ContentType;
 
 @RunWith(Arquillian.class)
+@ReusableDeployments
 public class ConnectionStressMetricsTest {
 
     @ContainerResource
@@ -37,11 +36,12 @@ public class ConnectionStressMetricsTest {
     private URL deploymentUrl;
     private URL metricsURL;
 
+    /**
+     * Archive of {@link MetricsTest}, it can be kept deployed between the classes
+     */
     @Deployment
     public static WebArchive createDeployment() {
-        return ShrinkWrap.create(WebArchive.class, ConnectionStressMetricsTest.class.getSimpleName() + ".war")
-                .addPackage(MetricsApp.class.getPackage())
-                .addAsManifestResource(EmptyAsset.INSTANCE, "beans.xml");
+        return MetricsTest.createDeployment();
     }
 
     @Before
@@ -67,6 +67,9 @@ public class ConnectionStressMetricsTest {
     @Test
     @RunAsClient
     public void stressTest() throws Exception {
+        // deployment can be reused from previous test class, so the counter may not start at zero
+        final int helloCount = given().baseUri(metricsURL.toString()).accept(ContentType.JSON).get().then().extract()
+                .path("application.hello-count");
         final List<HttpURLConnection> connections = new ArrayList<>(2000);
         try {
             for (int i = 0; i < 1000; i++) {
@@ -89,7 +92,7 @@ public class ConnectionStressMetricsTest {
                     .header("Content-Type", containsString("application/json"))
                     .body("$", hasKey("application"),
                             "application", hasKey("hello-count"),
-                            "application.hello-count", equalTo(10));
+                            "application.hello-count", equalTo(helloCount + 10));
 
         } finally {
             connections.forEach(HttpURLConnection::disconnect);
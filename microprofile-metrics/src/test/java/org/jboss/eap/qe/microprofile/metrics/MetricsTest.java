@@ -24,6 +24,7 @@ import org.jboss.arquillian.test.api.ArquillianResource;
 import org.jboss.as.arquillian.api.ContainerResource;
 import org.jboss.as.arquillian.container.ManagementClient;
 import org.jboss.eap.qe.microprofile.metrics.hello.MetricsApp;
+import org.jboss.eap.qe.microprofile.tooling.server.deployment.ReusableDeployments;
 import org.jboss.shrinkwrap.api.ShrinkWrap;
 import org.jboss.shrinkwrap.api.asset.EmptyAsset;
 import org.jboss.shrinkwrap.api.spec.WebArchive;
@@ -35,6 +36,7 @@ import io.restassured.http.ContentType;
 import io.restassured.specification.RequestSpecification;
 
 @RunWith(Arquillian.class)
+@ReusableDeployments
 public class MetricsTest {
 
     @ArquillianResource
@@ -46,9 +48,12 @@ public class MetricsTest {
     private RequestSpecification jsonMetricsRequest;
     private RequestSpecification textMetricsRequest;
 
+    /**
+     * The same archive is deployed by {@link ConnectionStressMetricsTest}, so it can be kept deployed between the classes
+     */
     @Deployment
     public static WebArchive createDeployment() {
-        return ShrinkWrap.create(WebArchive.class, MetricsTest.class.getSimpleName() + ".war")
+        return ShrinkWrap.create(WebArchive.class, MetricsApp.class.getSimpleName() + ".war")
                 .addPackage(MetricsApp.class.getPackage())
                 .addAsWebInfResource(EmptyAsset.INSTANCE, "beans.xml");
     }
@@ -141,6 +146,11 @@ public class MetricsTest {
     @Test
     @RunAsClient
     public void dataTest() {
+        // deployment can be reused from previous test class, so counters may not start at zero
+        int helloCount = jsonMetricsRequest.get().then().extract().path("application.hello-count");
+        int helloTimeCount = jsonMetricsRequest.get().then().extract().path("application.hello-time.count");
+        int helloFreqCount = jsonMetricsRequest.get().then().extract().path("application.hello-freq.count");
+
         get(deploymentUrl.toString()).then()
                 .statusCode(200)
                 .body(equalTo("Hello from counted and timed and metered and concurrent-gauged method"));
@@ -154,30 +164,30 @@ public class MetricsTest {
                     .statusCode(200);
         }
 
-        jsonData();
-        prometheusData();
+        jsonData(helloCount + 12, helloTimeCount + 11, helloFreqCount + 11);
+        prometheusData(helloCount + 12, helloTimeCount + 11, helloFreqCount + 11);
     }
 
     /**
      * Verify application metrics in JSON format.
      */
-    private void jsonData() {
+    private void jsonData(int helloCount, int helloTimeCount, int helloFreqCount) {
         jsonMetricsRequest.get().then()
                 .contentType(ContentType.JSON)
                 .header("Content-Type", containsString("application/json"))
                 .body("$", hasKey("application"),
                         "application", hasKey("hello-count"),
-                        "application.hello-count", equalTo(12), // 11 at `/` + 1 at `/another-hello`
+                        "application.hello-count", equalTo(helloCount), // 11 at `/` + 1 at `/another-hello`
 
                         "application", hasKey("hello-time"),
-                        "application.hello-time.count", equalTo(11),
+                        "application.hello-time.count", equalTo(helloTimeCount),
                         "application.hello-time.min.toDouble()", greaterThanOrEqualTo(1.0),
                         "application.hello-time.min.toDouble()", lessThanOrEqualTo(110.0),
                         "application.hello-time.max.toDouble()", greaterThanOrEqualTo(1.0),
                         "application.hello-time.max.toDouble()", lessThanOrEqualTo(110.0),
 
                         "application", hasKey("hello-freq"),
-                        "application.hello-freq.count", equalTo(11),
+                        "application.hello-freq.count", equalTo(helloFreqCount),
 
                         "application", hasKey("hello-invocations"),
                         "application.hello-invocations.current", equalTo(0));
@@ -186,17 +196,17 @@ public class MetricsTest {
     /**
      * Verify application metrics in prometheus format.
      */
-    private void prometheusData() {
+    private void prometheusData(int helloCount, int helloTimeCount, int helloFreqCount) {
         textMetricsRequest.get().then()
                 .contentType(ContentType.TEXT)
                 .header("Content-Type", containsString("text/plain"))
                 .body(
-                        containsString("application_hello_count_total 12.0"),
-                        containsString("application_hello_time_seconds_count 11.0"),
-                        containsString("application_hello_time_seconds_count 11.0"),
+                        containsString("application_hello_count_total " + (double) helloCount),
+                        containsString("application_hello_time_seconds_count " + (double) helloTimeCount),
+                        containsString("application_hello_time_seconds_count " + (double) helloTimeCount),
                         new PrometheusMetricValueMatcher("application_hello_time_min_seconds", greaterThanOrEqualTo(0.001),
                                 lessThanOrEqualTo(0.110)),
-                        containsString("application_hello_freq_total 11.0"),
+                        containsString("application_hello_freq_total " + (double) helloFreqCount),
                         containsString("application_hello_invocations_current 0.0"),
                         new PrometheusMetricValueMatcher("application_hello_time_min_seconds", greaterThanOrEqualTo(0.001),
                                 lessThanOrEqualTo(0.110)));
@@ -14,6 +14,7 @@ import org.jboss.as.arquillian.api.ServerSetupTask;
 import org.jboss.as.arquillian.container.ManagementClient;
 import org.jboss.eap.qe.microprofile.tooling.server.ModuleUtil;
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ManagementClientProvider;
+import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ServerSnapshot;
 import org.jboss.shrinkwrap.api.ShrinkWrap;
 import org.jboss.shrinkwrap.api.asset.EmptyAsset;
 import org.jboss.shrinkwrap.api.spec.WebArchive;
@@ -68,9 +69,12 @@ public class CustomMetricCustomConfigSourceProviderTest extends CustomMetricDyna
     static class SetupTask implements ServerSetupTask {
         private static final String TEST_MODULE_NAME = "test.custom-config-source-provider";
 
+        private ServerSnapshot snapshot;
+
         @Override
         public void setup(ManagementClient managementClient, String s) throws Exception {
             try (OnlineManagementClient client = ManagementClientProvider.onlineStandalone()) {
+                snapshot = ServerSnapshot.take(client);
                 client.execute(String.format("/system-property=%s:add(value=%s)", CustomConfigSource.FILEPATH_PROPERTY,
                         SetupTask.class.getResource(PROPERTY_FILENAME).getPath()));
                 ModuleUtil.add(TEST_MODULE_NAME)
@@ -86,8 +90,7 @@ public class CustomMetricCustomConfigSourceProviderTest extends CustomMetricDyna
         @Override
         public void tearDown(ManagementClient managementClient, String s) throws Exception {
             try (OnlineManagementClient client = ManagementClientProvider.onlineStandalone()) {
-                client.execute(String.format("/system-property=%s:remove", CustomConfigSource.FILEPATH_PROPERTY));
-                client.execute("/subsystem=microprofile-config-smallrye/config-source-provider=cs-from-provider:remove");
+                snapshot.restore(client);
                 ModuleUtil.remove(TEST_MODULE_NAME).executeOn(client);
             }
         }
@@ -1,16 +1,16 @@
 package org.jboss.eap.qe.microprofile.openapi;
 
 import java.io.IOException;
-import java.util.concurrent.TimeoutException;
 
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ManagementClientHelper;
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ManagementClientRelatedException;
+import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ServerState;
+import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ServerStatePlanner;
 import org.wildfly.extras.creaper.core.online.ModelNodeResult;
 import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.OperationException;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 /**
  * Helper that provides operations to manage the OpenAPI extension configuration via
@@ -18,6 +18,18 @@ import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
  */
 public class OpenApiServerConfiguration {
 
+    private static final String OPEN_API_EXTENSION = "/extension=org.wildfly.extension.microprofile.openapi-smallrye";
+    private static final String OPEN_API_SUBSYSTEM = "/subsystem=microprofile-openapi-smallrye";
+
+    private static final ServerState OPEN_API_ENABLED = new ServerState.Builder("MP OpenAPI enabled")
+            .present(OPEN_API_EXTENSION)
+            .present(OPEN_API_SUBSYSTEM)
+            .build();
+    private static final ServerState OPEN_API_DISABLED = new ServerState.Builder("MP OpenAPI disabled")
+            .absent(OPEN_API_EXTENSION)
+            .absent(OPEN_API_SUBSYSTEM)
+            .build();
+
     /**
      * Executes CLI command to remove MP OpenAPI extension
      *
@@ -73,47 +85,42 @@ public class OpenApiServerConfiguration {
     }
 
     /**
-     * Executes a batch of CLI commands to enable MP OpenAPI feature
+     * Enables MP OpenAPI feature. Extension and subsystem are added by one composite operation followed by a single
+     * reload, nothing is done if they are present already.
      *
      * @param client {@link OnlineManagementClient} instance used to execute the command
      * @throws ManagementClientRelatedException Wraps exceptions thrown by the internal operation executed by
      *         {@link OnlineManagementClient} API
      */
     public static void enableOpenApi(OnlineManagementClient client) throws ManagementClientRelatedException {
-        if (openApiSubsystemExists(client)) {
-            return;
-        }
-        try {
-            ModelNodeResult result = addOpenApiExtension(client);
-            result.assertSuccess();
-            result = addOpenApiSubsystem(client);
-            result.assertSuccess();
-            new Administration(client).reload();
-        } catch (TimeoutException | IOException | InterruptedException e) {
-            throw new ManagementClientRelatedException(e);
-        }
+        ServerStatePlanner.getInstance(client).apply(client, OPEN_API_ENABLED);
     }
 
     /**
-     * Executes a batch of CLI commands to disable MP OpenAPI feature
+     * Disables MP OpenAPI feature immediately. Subsystem and extension are removed by one composite operation followed
+     * by a single reload, nothing is done if they are absent already.
      *
      * @param client {@link OnlineManagementClient} instance used to execute the command
      * @throws ManagementClientRelatedException Wraps exceptions thrown by the internal operation executed by
      *         {@link OnlineManagementClient} API
      */
     public static void disableOpenApi(OnlineManagementClient client) throws ManagementClientRelatedException {
-        if (!openApiSubsystemExists(client)) {
-            return;
-        }
-        try {
-            ModelNodeResult result = removeOpenApiSubsystem(client);
-            result.assertSuccess();
-            result = removeOpenApiExtension(client);
-            result.assertSuccess();
-            new Administration(client).reload();
-        } catch (TimeoutException | IOException | InterruptedException e) {
-            throw new ManagementClientRelatedException(e);
-        }
+        ServerStatePlanner planner = ServerStatePlanner.getInstance(client);
+        planner.apply(client, OPEN_API_DISABLED);
+        planner.release(OPEN_API_DISABLED);
+    }
+
+    /**
+     * Marks MP OpenAPI feature enabled by {@link #enableOpenApi(OnlineManagementClient)} as not required anymore. The
+     * feature is disabled when a different server state is applied or after the test suite, so test classes which
+     * enable it one after another don't reload the server in between. See {@link ServerStatePlanner}.
+     *
+     * @param client {@link OnlineManagementClient} instance connected to the server
+     * @throws ManagementClientRelatedException Wraps exceptions thrown by the internal operation executed by
+     *         {@link OnlineManagementClient} API
+     */
+    public static void releaseOpenApi(OnlineManagementClient client) throws ManagementClientRelatedException {
+        ServerStatePlanner.getInstance(client).release(OPEN_API_ENABLED);
     }
 
     /**
@@ -70,7 +70,7 @@ public class AcceptHeadersAndFormatParameterInteractionTest {
 
         @Override
         public void tearDown(ManagementClient managementClient, String containerId) throws Exception {
-            OpenApiServerConfiguration.disableOpenApi(ManagementClientProvider.onlineStandalone(managementClient));
+            OpenApiServerConfiguration.releaseOpenApi(ManagementClientProvider.onlineStandalone(managementClient));
         }
     }
 
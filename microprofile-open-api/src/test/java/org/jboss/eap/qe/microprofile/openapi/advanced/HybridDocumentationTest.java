@@ -75,8 +75,8 @@ public class HybridDocumentationTest {
             + "\n" +
             "services.provider.port=%d";
 
-    private static ArquillianContainerProperties arquillianContainerProperties = new ArquillianContainerProperties(
-            ArquillianDescriptorWrapper.getArquillianDescriptor());
+    private static ArquillianContainerProperties arquillianContainerProperties =
+            ArquillianDescriptorWrapper.getArquillianContainerProperties();
 
     /**
      * Builds a deployment archive with MP OpenAPI disabled to reflect the real life scenario in which the
@@ -156,7 +156,7 @@ public class HybridDocumentationTest {
 
         @Override
         public void tearDown(ManagementClient managementClient, String containerId) throws Exception {
-            OpenApiServerConfiguration.disableOpenApi(ManagementClientProvider.onlineStandalone(managementClient));
+            OpenApiServerConfiguration.releaseOpenApi(ManagementClientProvider.onlineStandalone(managementClient));
         }
     }
 
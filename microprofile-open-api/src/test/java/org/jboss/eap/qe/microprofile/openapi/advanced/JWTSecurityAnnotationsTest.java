@@ -64,8 +64,8 @@ public class JWTSecurityAnnotationsTest {
             + "\n" +
             "services.provider.port=%d";
 
-    private static ArquillianContainerProperties arquillianContainerProperties = new ArquillianContainerProperties(
-            ArquillianDescriptorWrapper.getArquillianDescriptor());
+    private static ArquillianContainerProperties arquillianContainerProperties =
+            ArquillianDescriptorWrapper.getArquillianContainerProperties();
 
     @Deployment(name = PROVIDER_DEPLOYMENT_NAME, order = 1, testable = false)
     public static Archive<?> serviceProviderDeployment() {
@@ -133,7 +133,7 @@ public class JWTSecurityAnnotationsTest {
 
         @Override
         public void tearDown(ManagementClient managementClient, String containerId) throws Exception {
-            OpenApiServerConfiguration.disableOpenApi(ManagementClientProvider.onlineStandalone(managementClient));
+            OpenApiServerConfiguration.releaseOpenApi(ManagementClientProvider.onlineStandalone(managementClient));
         }
     }
 
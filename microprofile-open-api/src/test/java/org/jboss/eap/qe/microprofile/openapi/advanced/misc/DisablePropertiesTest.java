@@ -29,7 +29,8 @@ import org.jboss.eap.qe.microprofile.tooling.server.configuration.arquillian.Arq
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.arquillian.ArquillianDescriptorWrapper;
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ManagementClientProvider;
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ManagementClientRelatedException;
-import org.jboss.eap.qe.microprofile.tooling.server.log.ModelNodeLogChecker;
+import org.jboss.eap.qe.microprofile.tooling.server.log.LogChecker;
+import org.jboss.eap.qe.microprofile.tooling.server.log.LogCheckers;
 import org.jboss.shrinkwrap.api.ShrinkWrap;
 import org.jboss.shrinkwrap.api.asset.EmptyAsset;
 import org.jboss.shrinkwrap.api.asset.StringAsset;
@@ -55,8 +56,8 @@ public class DisablePropertiesTest {
     private final static String PROVIDER_DEPLOYMENT_NAME = "serviceProviderDeployment";
     private final static String ROUTER_DEPLOYMENT_NAME = "localServicesRouterDeployment";
 
-    private static ArquillianContainerProperties arquillianContainerProperties = new ArquillianContainerProperties(
-            ArquillianDescriptorWrapper.getArquillianDescriptor());
+    private static ArquillianContainerProperties arquillianContainerProperties =
+            ArquillianDescriptorWrapper.getArquillianContainerProperties();
 
     private final static String CONFIGURATION_TEMPLATE = "mp.openapi.scan.exclude.packages=org.jboss.eap.qe.microprofile.openapi.apps.routing.router.rest.routed"
             + "\n" +
@@ -139,7 +140,7 @@ public class DisablePropertiesTest {
 
         @Override
         public void tearDown(ManagementClient managementClient, String containerId) throws Exception {
-            OpenApiServerConfiguration.disableOpenApi(ManagementClientProvider.onlineStandalone(managementClient));
+            OpenApiServerConfiguration.releaseOpenApi(ManagementClientProvider.onlineStandalone(managementClient));
         }
     }
 
@@ -158,8 +159,8 @@ public class DisablePropertiesTest {
     @Test
     public void testWarningIsLoggedBecauseOfSkippedBadlyConfiguredDeployment() throws ConfigurationException, IOException {
         try (OnlineManagementClient client = ManagementClientProvider.onlineStandalone()) {
-            ModelNodeLogChecker modelNodeLogChecker = new ModelNodeLogChecker(client, 100);
-            Assert.assertTrue(modelNodeLogChecker.logContains("WFLYMPOAI0003"));
+            LogChecker logChecker = LogCheckers.serverLog(client, 100);
+            Assert.assertTrue(logChecker.logContains("WFLYMPOAI0003"));
         }
     }
 }
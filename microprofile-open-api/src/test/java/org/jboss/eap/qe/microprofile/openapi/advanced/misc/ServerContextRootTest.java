@@ -67,8 +67,8 @@ public class ServerContextRootTest {
     public static final String SERVER_ELEMENT_CENTRAL_SERVICE_PROVIDER_URL = "http://127.0.0.1:8080/serviceProviderDeployment";
     public static final String SERVER_ELEMENT_CENTRAL_SERVICE_PROVIDER_DESCRIPTION = "Central Service Provider server";
 
-    private static ArquillianContainerProperties arquillianContainerProperties = new ArquillianContainerProperties(
-            ArquillianDescriptorWrapper.getArquillianDescriptor());
+    private static ArquillianContainerProperties arquillianContainerProperties =
+            ArquillianDescriptorWrapper.getArquillianContainerProperties();
 
     private final static String CONFIGURATION_TEMPLATE = "mp.openapi.scan.exclude.packages=org.jboss.eap.qe.microprofile.openapi.apps.routing.router.rest.routed"
             + "\n" +
@@ -148,7 +148,7 @@ public class ServerContextRootTest {
 
         @Override
         public void tearDown(ManagementClient managementClient, String containerId) throws Exception {
-            OpenApiServerConfiguration.disableOpenApi(ManagementClientProvider.onlineStandalone(managementClient));
+            OpenApiServerConfiguration.releaseOpenApi(ManagementClientProvider.onlineStandalone(managementClient));
         }
     }
 
@@ -81,8 +81,8 @@ public class StaticFilesTest {
     private final static String BIG_STATIC_FILE_ROUTER_DEPLOYMENT_NAME = "big-static-file-" + ROUTER_DEPLOYMENT_NAME;
     public static final int REPEAT_BODY_CONTENTS_ITERATIONS = 2048;
 
-    private static ArquillianContainerProperties arquillianContainerProperties = new ArquillianContainerProperties(
-            ArquillianDescriptorWrapper.getArquillianDescriptor());
+    private static ArquillianContainerProperties arquillianContainerProperties =
+            ArquillianDescriptorWrapper.getArquillianContainerProperties();
 
     private final static String CONFIGURATION_TEMPLATE = "mp.openapi.scan.exclude.packages=org.jboss.eap.qe.microprofile.openapi.apps.routing.router.rest.routed"
             + "\n" +
@@ -249,7 +249,7 @@ public class StaticFilesTest {
 
         @Override
         public void tearDown(ManagementClient managementClient, String containerId) throws Exception {
-            OpenApiServerConfiguration.disableOpenApi(ManagementClientProvider.onlineStandalone(managementClient));
+            OpenApiServerConfiguration.releaseOpenApi(ManagementClientProvider.onlineStandalone(managementClient));
         }
     }
 
@@ -20,8 +20,8 @@ import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
 @RunWith(Arquillian.class)
 public class ConfigureMicroProfileOpenApiExtensionTest {
 
-    static ArquillianContainerProperties arquillianContainerProperties = new ArquillianContainerProperties(
-            ArquillianDescriptorWrapper.getArquillianDescriptor());
+    static ArquillianContainerProperties arquillianContainerProperties =
+            ArquillianDescriptorWrapper.getArquillianContainerProperties();
 
     /**
      * @tpTestDetails Testing CLI operations to configure subsystem (add and removal)
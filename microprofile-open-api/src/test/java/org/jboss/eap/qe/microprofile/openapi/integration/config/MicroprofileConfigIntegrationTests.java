@@ -36,7 +36,8 @@ import org.jboss.eap.qe.microprofile.tooling.server.configuration.arquillian.Arq
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.arquillian.ArquillianDescriptorWrapper;
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ManagementClientProvider;
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ManagementClientRelatedException;
-import org.jboss.eap.qe.microprofile.tooling.server.log.ModelNodeLogChecker;
+import org.jboss.eap.qe.microprofile.tooling.server.log.LogChecker;
+import org.jboss.eap.qe.microprofile.tooling.server.log.LogCheckers;
 import org.jboss.shrinkwrap.api.Archive;
 import org.jboss.shrinkwrap.api.ShrinkWrap;
 import org.jboss.shrinkwrap.api.asset.EmptyAsset;
@@ -61,8 +62,8 @@ public class MicroprofileConfigIntegrationTests {
     private final static String BADLY_CONFIGURED_ROUTER_DEPLOYMENT_NAME = "localServicesRouterBadlyConfiguredDeployment";
     private final static String SCAN_DISABLING_ROUTER_DEPLOYMENT_NAME = "localServicesRouterScanDisablingDeployment";
 
-    private static ArquillianContainerProperties arquillianContainerProperties = new ArquillianContainerProperties(
-            ArquillianDescriptorWrapper.getArquillianDescriptor());
+    private static ArquillianContainerProperties arquillianContainerProperties =
+            ArquillianDescriptorWrapper.getArquillianContainerProperties();
 
     @Deployment(name = PROVIDER_DEPLOYMENT_NAME, order = 1, testable = false)
     public static Archive<?> serviceProviderDeployment() {
@@ -190,7 +191,7 @@ public class MicroprofileConfigIntegrationTests {
 
         @Override
         public void tearDown(ManagementClient managementClient, String containerId) throws Exception {
-            OpenApiServerConfiguration.disableOpenApi(ManagementClientProvider.onlineStandalone(managementClient));
+            OpenApiServerConfiguration.releaseOpenApi(ManagementClientProvider.onlineStandalone(managementClient));
         }
     }
 
@@ -204,8 +205,8 @@ public class MicroprofileConfigIntegrationTests {
     @Test
     public void testWarningIsLoggedBecauseOfNonConventionalOpenApiUrl() throws ConfigurationException, IOException {
         try (OnlineManagementClient client = ManagementClientProvider.onlineStandalone()) {
-            ModelNodeLogChecker modelNodeLogChecker = new ModelNodeLogChecker(client, 100);
-            Assert.assertTrue(modelNodeLogChecker.logContains("WFLYMPOAI0007"));
+            LogChecker logChecker = LogCheckers.serverLog(client, 100);
+            Assert.assertTrue(logChecker.logContains("WFLYMPOAI0007"));
         }
     }
 
@@ -220,8 +221,8 @@ public class MicroprofileConfigIntegrationTests {
     @Test
     public void testWarningIsLoggedBecauseOfSkippedBadlyConfiguredDeployment() throws ConfigurationException, IOException {
         try (OnlineManagementClient client = ManagementClientProvider.onlineStandalone()) {
-            ModelNodeLogChecker modelNodeLogChecker = new ModelNodeLogChecker(client, 100);
-            Assert.assertTrue(modelNodeLogChecker.logContains("WFLYMPOAI0003"));
+            LogChecker logChecker = LogCheckers.serverLog(client, 100);
+            Assert.assertTrue(logChecker.logContains("WFLYMPOAI0003"));
         }
     }
 
@@ -36,7 +36,8 @@ import org.jboss.eap.qe.microprofile.tooling.server.configuration.ConfigurationE
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.arquillian.ArquillianContainerProperties;
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.arquillian.ArquillianDescriptorWrapper;
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ManagementClientProvider;
-import org.jboss.eap.qe.microprofile.tooling.server.log.ModelNodeLogChecker;
+import org.jboss.eap.qe.microprofile.tooling.server.log.LogChecker;
+import org.jboss.eap.qe.microprofile.tooling.server.log.LogCheckers;
 import org.jboss.shrinkwrap.api.Archive;
 import org.jboss.shrinkwrap.api.ShrinkWrap;
 import org.jboss.shrinkwrap.api.asset.EmptyAsset;
@@ -64,8 +65,8 @@ public class ListenerSecurityConfigurationTest {
 
     private final static String DEPLOYMENT_NAME = ListenerSecurityConfigurationTest.class.getSimpleName();
 
-    private static ArquillianContainerProperties arquillianContainerProperties = new ArquillianContainerProperties(
-            ArquillianDescriptorWrapper.getArquillianDescriptor());
+    private static ArquillianContainerProperties arquillianContainerProperties =
+            ArquillianDescriptorWrapper.getArquillianContainerProperties();
     private static int configuredHTTPPort, configuredHTTPSPort;
     private static Path keyStoreFile;
     private static String jbossHome;
@@ -115,7 +116,7 @@ public class ListenerSecurityConfigurationTest {
 
         @Override
         public void tearDown(ManagementClient managementClient, String containerId) throws Exception {
-            OpenApiServerConfiguration.disableOpenApi(ManagementClientProvider.onlineStandalone(managementClient));
+            OpenApiServerConfiguration.releaseOpenApi(ManagementClientProvider.onlineStandalone(managementClient));
         }
     }
 
@@ -264,8 +265,8 @@ public class ListenerSecurityConfigurationTest {
      */
     @Test
     @InSequence(2)
-    public void testMissingHTTPListenerWarningLogged() {
-        ModelNodeLogChecker modelNodeLogChecker = new ModelNodeLogChecker(listenersConfigurationOnlineManagementClient, 200);
-        Assert.assertTrue(modelNodeLogChecker.logContains("WFLYMPOAI0006"));
+    public void testMissingHTTPListenerWarningLogged() throws IOException {
+        LogChecker logChecker = LogCheckers.serverLog(listenersConfigurationOnlineManagementClient, 200);
+        Assert.assertTrue(logChecker.logContains("WFLYMPOAI0006"));
     }
 }
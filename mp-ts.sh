@@ -1,21 +1,33 @@
 #!/bin/bash
 
-DOCKER_IMAGES=`git grep Docker.Builder 2>/dev/null | sed "s/.*Docker.Builder//g" | cut -d, -f2 | cut -d\" -f2 | sort | uniq | grep -v Invalid`
+# images of DockerContainers are listed by DockerImages class of tooling-docker module
+docker_images() {
+   ./mvnw -q -pl tooling-docker compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt >&2
+   java -cp tooling-docker/target/classes:`cat tooling-docker/target/classpath.txt` \
+      org.jboss.eap.qe.ts.common.docker.DockerImages --list
+}
 
 case "$1" in 
 fetch-images)
-   for i in $DOCKER_IMAGES; do 
-      docker pull $i
-   done
+   # images are pulled in parallel, pull time is not counted into container startup in tests
+   docker_images | xargs -n 1 -P 4 docker pull
    ;;
 save-images)
    $0 fetch-images
-   docker save `echo $DOCKER_IMAGES | tr "\n" " "` | gzip > docker-images.tar.gz
+   docker save `docker_images | tr "\n" " "` | gzip > docker-images.tar.gz
    du -h docker-images.tar.gz
    ;;
 load-images)
    docker load --input docker-images.tar.gz
    ;;
+stop-shared-containers)
+   SHARED_CONTAINERS=`docker ps -a -q --filter label=org.jboss.eap.qe.ts.docker.fingerprint`
+   [ -n "$SHARED_CONTAINERS" ] && docker rm -f $SHARED_CONTAINERS
+   ;;
+remove-warm-images)
+   WARM_IMAGES=`docker images -q --filter label=org.jboss.eap.qe.ts.docker.warm.base | sort | uniq`
+   [ -n "$WARM_IMAGES" ] && docker rmi -f $WARM_IMAGES
+   ;;
 ts-maven-repo)
    rm -rf local-repo/
    ##  vvvv doesn'r cover download of surefire-junit4-2.22.2.jar because no tests were executed vvvv
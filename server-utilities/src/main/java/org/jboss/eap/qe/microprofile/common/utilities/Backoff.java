@@ -0,0 +1,80 @@
+package org.jboss.eap.qe.microprofile.common.utilities;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delay between checks of a condition used by {@link Waiter}. Delay grows exponentially from minimal to maximal
+ * interval, so fast conditions are detected early and slow conditions are not checked too often.
+ */
+public final class Backoff {
+
+    private final long minNanos;
+    private final long maxNanos;
+    private final double multiplier;
+    private final double jitter;
+
+    private Backoff(long minNanos, long maxNanos, double multiplier, double jitter) {
+        if (minNanos <= 0 || maxNanos < minNanos) {
+            throw new IllegalArgumentException("Minimal interval must be positive and not greater than maximal interval");
+        }
+        if (multiplier < 1) {
+            throw new IllegalArgumentException("Multiplier must not be lower than 1, was " + multiplier);
+        }
+        if (jitter < 0 || jitter >= 1) {
+            throw new IllegalArgumentException("Jitter must be in interval [0, 1), was " + jitter);
+        }
+        this.minNanos = minNanos;
+        this.maxNanos = maxNanos;
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+    }
+
+    /**
+     * @param interval delay between checks
+     * @param timeUnit time unit of the interval
+     * @return backoff with constant delay
+     */
+    public static Backoff fixed(final long interval, final TimeUnit timeUnit) {
+        return new Backoff(timeUnit.toNanos(interval), timeUnit.toNanos(interval), 1, 0);
+    }
+
+    /**
+     * @param min delay after the first check
+     * @param max maximal delay
+     * @param timeUnit time unit of the intervals
+     * @return backoff doubling the delay after each check until it reaches maximal delay
+     */
+    public static Backoff exponential(final long min, final long max, final TimeUnit timeUnit) {
+        return new Backoff(timeUnit.toNanos(min), timeUnit.toNanos(max), 2, 0);
+    }
+
+    /**
+     * Randomizes the delays, so checks of many conditions with the same backoff are spread in time.
+     *
+     * @param jitter fraction of the delay which is random, for example 0.2 shortens each delay by up to 20 %
+     * @return backoff with randomized delays
+     */
+    public Backoff withJitter(final double jitter) {
+        return new Backoff(minNanos, maxNanos, multiplier, jitter);
+    }
+
+    /**
+     * @param attempt number of checks done so far, starting with 1
+     * @return delay before next check in nanoseconds
+     */
+    public long nextDelayNanos(final int attempt) {
+        double delay = minNanos * Math.pow(multiplier, Math.max(0, attempt - 1));
+        long cappedDelay = delay >= maxNanos ? maxNanos : (long) delay;
+        if (jitter == 0) {
+            return cappedDelay;
+        }
+        return cappedDelay - (long) (cappedDelay * jitter * ThreadLocalRandom.current().nextDouble());
+    }
+
+    @Override
+    public String toString() {
+        return "Backoff{min=" + TimeUnit.NANOSECONDS.toMillis(minNanos) + " ms, max="
+                + TimeUnit.NANOSECONDS.toMillis(maxNanos) + " ms, multiplier=" + multiplier + ", jitter=" + jitter + "}";
+    }
+}
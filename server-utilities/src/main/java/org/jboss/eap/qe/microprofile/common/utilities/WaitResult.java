@@ -0,0 +1,58 @@
+package org.jboss.eap.qe.microprofile.common.utilities;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result and statistics of waiting for a condition by {@link Waiter}.
+ */
+public final class WaitResult {
+
+    private final boolean satisfied;
+    private final int attempts;
+    private final long elapsedNanos;
+    private final long sleepingNanos;
+
+    WaitResult(final boolean satisfied, final int attempts, final long elapsedNanos, final long sleepingNanos) {
+        this.satisfied = satisfied;
+        this.attempts = attempts;
+        this.elapsedNanos = elapsedNanos;
+        this.sleepingNanos = sleepingNanos;
+    }
+
+    /**
+     * @return true if the condition was satisfied within timeout
+     */
+    public boolean isSatisfied() {
+        return satisfied;
+    }
+
+    /**
+     * @return number of checks of the condition
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * @param timeUnit time unit of the result
+     * @return total time of waiting, including time spent by checks of the condition
+     */
+    public long getElapsed(final TimeUnit timeUnit) {
+        return timeUnit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param timeUnit time unit of the result
+     * @return time spent between checks of the condition
+     */
+    public long getSleeping(final TimeUnit timeUnit) {
+        return timeUnit.convert(sleepingNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return "WaitResult{satisfied=" + satisfied + ", attempts=" + attempts + ", elapsed="
+                + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + " ms, sleeping="
+                + TimeUnit.NANOSECONDS.toMillis(sleepingNanos) + " ms}";
+    }
+}
@@ -1,22 +1,48 @@
 package org.jboss.eap.qe.microprofile.common.utilities;
 
-import java.util.Date;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BooleanSupplier;
 
 /**
  * Class implementing waiting on condition functionality
+ * <p>
+ * Condition is checked with {@link Backoff}, by default the delay between checks grows from 50 to 500 milliseconds.
+ * Time is measured by monotonic clock ({@link System#nanoTime()}) and the condition is checked once more when the
+ * timeout elapses, so condition satisfied just before the timeout is not missed.
+ * <p>
+ * Asynchronous waits do not block a thread each. Their checks are scheduled on a small pool of threads shared by all
+ * waits, so many conditions can be awaited at once, see {@link #allOf(CompletableFuture[])} and
+ * {@link #anyOf(CompletableFuture[])}. Conditions of asynchronous waits are expected to be short running as they share
+ * the threads.
  */
 public final class Waiter {
 
+    /**
+     * Backoff used by methods without explicit backoff
+     */
+    public static final Backoff DEFAULT_BACKOFF = Backoff.exponential(50, 500, TimeUnit.MILLISECONDS);
+
+    private static final AtomicInteger SCHEDULER_THREADS = new AtomicInteger();
+    private static final ScheduledExecutorService SCHEDULER = Executors.newScheduledThreadPool(
+            Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())), runnable -> {
+                Thread thread = new Thread(runnable, "waiter-" + SCHEDULER_THREADS.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
     private Waiter() {
         //intentionally left empty
     }
 
     /**
-     * Wait for condition to become true. First check is done without additional wait and there is delay of 500
-     * milliseconds between checks.
-     * 
+     * Wait for condition to become true. First check is done without additional wait, delay between checks is given
+     * by {@link #DEFAULT_BACKOFF} and last check is done when the time elapses.
+     *
      * @param condition condition which will be checked
      * @param time time for which it will be waited. The wait will take this amount or less if condition is
      *        satisfied.
@@ -26,15 +52,185 @@ public final class Waiter {
      */
     public static boolean waitFor(final BooleanSupplier condition, final long time, final TimeUnit timeUnit)
             throws InterruptedException {
-        final long start = new Date().getTime();
-        final long timeout = timeUnit.toMillis(time);
-        while (new Date().getTime() - start < timeout) {
+        return waitFor(condition, time, timeUnit, DEFAULT_BACKOFF).isSatisfied();
+    }
+
+    /**
+     * Wait for condition to become true. First check is done without additional wait, delay between checks is given
+     * by backoff and last check is done when the time elapses.
+     *
+     * @param condition condition which will be checked
+     * @param time time for which it will be waited. The wait will take this amount or less if condition is
+     *        satisfied.
+     * @param timeUnit time unit of wait
+     * @param backoff delay between checks
+     * @return result of waiting with number of attempts and time spent
+     * @throws InterruptedException
+     */
+    public static WaitResult waitFor(final BooleanSupplier condition, final long time, final TimeUnit timeUnit,
+            final Backoff backoff) throws InterruptedException {
+        final long start = System.nanoTime();
+        final long deadline = start + timeUnit.toNanos(time);
+        int attempts = 0;
+        long sleepingNanos = 0;
+        while (true) {
+            attempts++;
             if (condition.getAsBoolean()) {
-                return true;
+                return new WaitResult(true, attempts, System.nanoTime() - start, sleepingNanos);
+            }
+            final long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return new WaitResult(false, attempts, System.nanoTime() - start, sleepingNanos);
+            }
+            // the last delay is shortened so the last check is done right at the deadline
+            final long delay = Math.min(backoff.nextDelayNanos(attempts), remaining);
+            final long sleepStart = System.nanoTime();
+            TimeUnit.NANOSECONDS.sleep(delay);
+            sleepingNanos += System.nanoTime() - sleepStart;
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #waitFor(BooleanSupplier, long, TimeUnit, Backoff)} with {@link #DEFAULT_BACKOFF}.
+     *
+     * @param condition condition which will be checked
+     * @param time time for which it will be waited
+     * @param timeUnit time unit of wait
+     * @return future completed with result of waiting once the condition is satisfied or time elapses
+     */
+    public static CompletableFuture<WaitResult> waitForAsync(final BooleanSupplier condition, final long time,
+            final TimeUnit timeUnit) {
+        return waitForAsync(condition, time, timeUnit, DEFAULT_BACKOFF);
+    }
+
+    /**
+     * Asynchronous variant of {@link #waitFor(BooleanSupplier, long, TimeUnit, Backoff)}. Checks of the condition are
+     * scheduled on threads shared by all asynchronous waits, no thread is blocked between the checks. Cancelling the
+     * returned future stops checking of the condition.
+     *
+     * @param condition condition which will be checked
+     * @param time time for which it will be waited
+     * @param timeUnit time unit of wait
+     * @param backoff delay between checks
+     * @return future completed with result of waiting once the condition is satisfied or time elapses, it's completed
+     *         exceptionally if the condition throws an exception
+     */
+    public static CompletableFuture<WaitResult> waitForAsync(final BooleanSupplier condition, final long time,
+            final TimeUnit timeUnit, final Backoff backoff) {
+        final AsyncWait wait = new AsyncWait(condition, timeUnit.toNanos(time), backoff);
+        SCHEDULER.execute(wait);
+        return wait.result;
+    }
+
+    /**
+     * Combines asynchronous waits, result is true once all conditions are satisfied. Result is false as soon as any of
+     * the conditions is not satisfied within its timeout, remaining waits are cancelled then.
+     *
+     * @param waits asynchronous waits, see {@link #waitForAsync(BooleanSupplier, long, TimeUnit)}
+     * @return future completed with true if all conditions were satisfied, false otherwise
+     */
+    @SafeVarargs
+    public static CompletableFuture<Boolean> allOf(final CompletableFuture<WaitResult>... waits) {
+        final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        final AtomicInteger remaining = new AtomicInteger(waits.length);
+        if (waits.length == 0) {
+            result.complete(true);
+        }
+        for (CompletableFuture<WaitResult> wait : waits) {
+            wait.whenComplete((waitResult, failure) -> {
+                if (failure != null) {
+                    result.completeExceptionally(failure);
+                } else if (!waitResult.isSatisfied()) {
+                    result.complete(false);
+                } else if (remaining.decrementAndGet() == 0) {
+                    result.complete(true);
+                }
+            });
+        }
+        return cancelRemainingOnCompletion(result, waits);
+    }
+
+    /**
+     * Combines asynchronous waits, result is true as soon as any of the conditions is satisfied, remaining waits are
+     * cancelled then. Result is false if none of the conditions is satisfied within its timeout.
+     *
+     * @param waits asynchronous waits, see {@link #waitForAsync(BooleanSupplier, long, TimeUnit)}
+     * @return future completed with true if any condition was satisfied, false otherwise
+     */
+    @SafeVarargs
+    public static CompletableFuture<Boolean> anyOf(final CompletableFuture<WaitResult>... waits) {
+        final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        final AtomicInteger remaining = new AtomicInteger(waits.length);
+        if (waits.length == 0) {
+            result.complete(false);
+        }
+        for (CompletableFuture<WaitResult> wait : waits) {
+            wait.whenComplete((waitResult, failure) -> {
+                if (failure != null) {
+                    result.completeExceptionally(failure);
+                } else if (waitResult.isSatisfied()) {
+                    result.complete(true);
+                } else if (remaining.decrementAndGet() == 0) {
+                    result.complete(false);
+                }
+            });
+        }
+        return cancelRemainingOnCompletion(result, waits);
+    }
+
+    private static CompletableFuture<Boolean> cancelRemainingOnCompletion(final CompletableFuture<Boolean> result,
+            final CompletableFuture<WaitResult>[] waits) {
+        result.whenComplete((value, failure) -> Arrays.stream(waits).forEach(wait -> wait.cancel(false)));
+        return result;
+    }
+
+    /**
+     * Single check of asynchronous wait, it schedules itself until the condition is satisfied or time elapses
+     */
+    private static final class AsyncWait implements Runnable {
+
+        private final CompletableFuture<WaitResult> result = new CompletableFuture<>();
+        private final BooleanSupplier condition;
+        private final Backoff backoff;
+        private final long start;
+        private final long deadline;
+        private int attempts;
+        private long sleepingNanos;
+
+        private AsyncWait(final BooleanSupplier condition, final long timeoutNanos, final Backoff backoff) {
+            this.condition = condition;
+            this.backoff = backoff;
+            this.start = System.nanoTime();
+            this.deadline = start + timeoutNanos;
+        }
+
+        @Override
+        public void run() {
+            if (result.isDone()) {
+                // cancelled
+                return;
+            }
+            attempts++;
+            final boolean satisfied;
+            try {
+                satisfied = condition.getAsBoolean();
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                return;
+            }
+            if (satisfied) {
+                result.complete(new WaitResult(true, attempts, System.nanoTime() - start, sleepingNanos));
+                return;
+            }
+            final long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                result.complete(new WaitResult(false, attempts, System.nanoTime() - start, sleepingNanos));
+                return;
             }
-            Thread.sleep(500);
+            final long delay = Math.min(backoff.nextDelayNanos(attempts), remaining);
+            sleepingNanos += delay;
+            SCHEDULER.schedule(this, delay, TimeUnit.NANOSECONDS);
         }
-        return false;
     }
 
 }
@@ -1,8 +1,12 @@
 package org.jboss.eap.qe.common.utilities;
 
 import java.util.Date;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.jboss.eap.qe.microprofile.common.utilities.Backoff;
+import org.jboss.eap.qe.microprofile.common.utilities.WaitResult;
 import org.jboss.eap.qe.microprofile.common.utilities.Waiter;
 import org.junit.Assert;
 import org.junit.Test;
@@ -25,4 +29,96 @@ public class WaiterTestCase {
 
         Assert.assertFalse("Condition was satisfied - weird, huh?", conditionSatisfied);
     }
+
+    @Test
+    public void testConditionIsCheckedAtDeadline() throws InterruptedException {
+        final long start = System.nanoTime();
+
+        final WaitResult result = Waiter.waitFor(() -> System.nanoTime() - start > TimeUnit.MILLISECONDS.toNanos(500),
+                600, TimeUnit.MILLISECONDS, Backoff.fixed(5, TimeUnit.SECONDS));
+
+        Assert.assertTrue("Condition should be checked when timeout elapses: " + result, result.isSatisfied());
+        Assert.assertEquals(2, result.getAttempts());
+    }
+
+    @Test
+    public void testFastConditionIsDetectedEarly() throws InterruptedException {
+        final AtomicInteger checks = new AtomicInteger();
+
+        final WaitResult result = Waiter.waitFor(() -> checks.incrementAndGet() == 3, 2, TimeUnit.SECONDS,
+                Backoff.exponential(10, 500, TimeUnit.MILLISECONDS));
+
+        Assert.assertTrue(result.isSatisfied());
+        Assert.assertEquals(3, result.getAttempts());
+        Assert.assertTrue("Backoff should start with minimal interval: " + result,
+                result.getElapsed(TimeUnit.MILLISECONDS) < 500);
+        Assert.assertTrue(result.getSleeping(TimeUnit.MILLISECONDS) >= 30);
+    }
+
+    @Test
+    public void testExponentialBackoff() {
+        final Backoff backoff = Backoff.exponential(10, 50, TimeUnit.MILLISECONDS);
+
+        Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(10), backoff.nextDelayNanos(1));
+        Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(20), backoff.nextDelayNanos(2));
+        Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(40), backoff.nextDelayNanos(3));
+        Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(50), backoff.nextDelayNanos(4));
+        Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(50), backoff.nextDelayNanos(100));
+
+        final long jittered = backoff.withJitter(0.5).nextDelayNanos(1);
+        Assert.assertTrue(jittered > TimeUnit.MILLISECONDS.toNanos(5) && jittered <= TimeUnit.MILLISECONDS.toNanos(10));
+    }
+
+    @Test
+    public void testAsyncWaiting() throws Exception {
+        final long start = System.nanoTime();
+
+        final WaitResult result = Waiter.waitForAsync(
+                () -> System.nanoTime() - start > TimeUnit.MILLISECONDS.toNanos(200), 2, TimeUnit.SECONDS)
+                .get(5, TimeUnit.SECONDS);
+
+        Assert.assertTrue(result.isSatisfied());
+        Assert.assertFalse(Waiter.waitForAsync(() -> false, 100, TimeUnit.MILLISECONDS).get(5, TimeUnit.SECONDS)
+                .isSatisfied());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testManyConcurrentWaitsShareFewThreads() throws Exception {
+        final long start = System.nanoTime();
+        final CompletableFuture<WaitResult>[] waits = new CompletableFuture[500];
+        for (int i = 0; i < waits.length; i++) {
+            final long readyAfterNanos = TimeUnit.MILLISECONDS.toNanos(100 + i % 200);
+            waits[i] = Waiter.waitForAsync(() -> System.nanoTime() - start > readyAfterNanos, 5, TimeUnit.SECONDS);
+        }
+
+        Assert.assertTrue("All conditions should be satisfied", Waiter.allOf(waits).get(10, TimeUnit.SECONDS));
+        final long waiterThreads = Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith("waiter-"))
+                .count();
+        Assert.assertTrue("Waits should share few threads, there are " + waiterThreads, waiterThreads <= 4);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAllOfFailsOnFirstUnsatisfiedCondition() throws Exception {
+        final CompletableFuture<WaitResult> neverSatisfied = Waiter.waitForAsync(() -> false, 100,
+                TimeUnit.MILLISECONDS);
+        final CompletableFuture<WaitResult> slow = Waiter.waitForAsync(() -> false, 1, TimeUnit.MINUTES);
+
+        Assert.assertFalse(Waiter.allOf(neverSatisfied, slow).get(5, TimeUnit.SECONDS));
+        Assert.assertTrue("Remaining wait should be cancelled", slow.isCancelled());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAnyOf() throws Exception {
+        final CompletableFuture<WaitResult> slow = Waiter.waitForAsync(() -> false, 1, TimeUnit.MINUTES);
+
+        Assert.assertTrue(Waiter.anyOf(slow, Waiter.waitForAsync(() -> true, 1, TimeUnit.SECONDS))
+                .get(5, TimeUnit.SECONDS));
+        Assert.assertTrue("Remaining wait should be cancelled", slow.isCancelled());
+        Assert.assertFalse(Waiter.anyOf(Waiter.waitForAsync(() -> false, 100, TimeUnit.MILLISECONDS),
+                Waiter.waitForAsync(() -> false, 200, TimeUnit.MILLISECONDS)).get(5, TimeUnit.SECONDS));
+    }
 }
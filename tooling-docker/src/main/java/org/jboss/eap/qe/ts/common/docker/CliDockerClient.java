@@ -0,0 +1,305 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * {@link DockerClient} which executes {@code docker} command line tool for every operation.
+ */
+public class CliDockerClient implements DockerClient {
+
+    @Override
+    public void checkDockerPresent() throws Exception {
+        Process dockerInfoProcess = new ProcessBuilder()
+                .redirectErrorStream(true)
+                .command(new String[] { "docker", "info" })
+                .start();
+        dockerInfoProcess.waitFor();
+        if (dockerInfoProcess.exitValue() != 0) {
+            throw new DockerException("Docker is either not present or not installed on this machine. It must be installed " +
+                    "and started up for executing tests with docker container.");
+        }
+    }
+
+    @Override
+    public String getEndpoint() {
+        // docker command line tool talks to Docker Engine given by DOCKER_HOST or by the selected docker context
+        String dockerHost = System.getenv(EngineApiEndpoint.DOCKER_HOST_ENV_VARIABLE);
+        if (dockerHost != null && !dockerHost.isEmpty()) {
+            return dockerHost;
+        }
+        String dockerContext = System.getenv("DOCKER_CONTEXT");
+        return "docker context " + (dockerContext != null && !dockerContext.isEmpty() ? dockerContext : "default");
+    }
+
+    @Override
+    public StartedContainer run(ContainerSpec spec) throws Exception {
+        List<String> cmd = new ArrayList<>();
+
+        cmd.add("docker");
+        cmd.add("run");
+        cmd.add("--name");
+        cmd.add(spec.getName());
+
+        for (String port : spec.getPorts()) {
+            cmd.add("-p");
+            cmd.add(port);
+        }
+
+        for (Map.Entry<String, String> envVar : spec.getEnvironmentVariables().entrySet()) {
+            cmd.add("-e");
+            cmd.add(envVar.getKey() + "=" + envVar.getValue());
+        }
+
+        for (Map.Entry<String, String> label : spec.getLabels().entrySet()) {
+            cmd.add("--label");
+            cmd.add(label.getKey() + "=" + label.getValue());
+        }
+
+        cmd.addAll(spec.getOptions());
+
+        cmd.add(spec.getImage());
+
+        cmd.addAll(spec.getCommandArguments());
+
+        return startProcess(cmd);
+    }
+
+    @Override
+    public boolean isImagePresent(String image) throws Exception {
+        Process dockerInspectProcess = new ProcessBuilder()
+                .redirectErrorStream(true)
+                .command("docker", "image", "inspect", "--format", "{{.Id}}", image)
+                .start();
+        readOutput(dockerInspectProcess);
+        return dockerInspectProcess.exitValue() == 0;
+    }
+
+    @Override
+    public void pull(String image) throws Exception {
+        Process dockerPullProcess = new ProcessBuilder()
+                .redirectErrorStream(true)
+                .command("docker", "pull", image)
+                .start();
+        String output = readOutput(dockerPullProcess);
+        if (dockerPullProcess.exitValue() != 0) {
+            throw new DockerException("Pulling image " + image + " failed: " + output.trim());
+        }
+    }
+
+    @Override
+    public String getImageId(String image) throws Exception {
+        Process dockerInspectProcess = new ProcessBuilder()
+                .redirectErrorStream(true)
+                .command("docker", "image", "inspect", "--format", "{{.Id}}", image)
+                .start();
+        String output = readOutput(dockerInspectProcess).trim();
+        return dockerInspectProcess.exitValue() == 0 && !output.isEmpty() ? output : null;
+    }
+
+    @Override
+    public void commit(String containerName, String image, Map<String, String> labels) throws Exception {
+        List<String> cmd = new ArrayList<>(Arrays.asList("docker", "commit"));
+        for (Map.Entry<String, String> label : labels.entrySet()) {
+            cmd.add("--change");
+            cmd.add("LABEL " + label.getKey() + "=" + label.getValue());
+        }
+        cmd.add(containerName);
+        cmd.add(image);
+        Process dockerCommitProcess = new ProcessBuilder()
+                .redirectErrorStream(true)
+                .command(cmd)
+                .start();
+        String output = readOutput(dockerCommitProcess);
+        if (dockerCommitProcess.exitValue() != 0) {
+            throw new DockerException("Committing container " + containerName + " into image " + image + " failed: "
+                    + output.trim());
+        }
+    }
+
+    /**
+     * Reads whole output of the process and waits for its end
+     */
+    private static String readOutput(Process process) throws IOException, InterruptedException {
+        StringBuilder output = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                output.append(line).append(System.lineSeparator());
+            }
+        }
+        process.waitFor();
+        return output.toString();
+    }
+
+    @Override
+    public StartedContainer attach(String containerName) throws Exception {
+        return startProcess(Arrays.asList("docker", "logs", "--follow", containerName));
+    }
+
+    private static StartedContainer startProcess(List<String> cmd) throws IOException {
+        Process dockerProcess = new ProcessBuilder()
+                .redirectErrorStream(true)
+                .command(cmd)
+                .start();
+
+        return new StartedContainer() {
+            @Override
+            public InputStream getOutput() {
+                return dockerProcess.getInputStream();
+            }
+
+            @Override
+            public boolean hasFailed() {
+                return !dockerProcess.isAlive() && dockerProcess.exitValue() != 0;
+            }
+
+            @Override
+            public String getStartCommand() {
+                return String.join(" ", cmd);
+            }
+
+            @Override
+            public void close() {
+                // process ends together with the container
+            }
+        };
+    }
+
+    @Override
+    public boolean isRunning(String containerName) throws Exception {
+        Process dockerRunProcess = new ProcessBuilder()
+                .redirectErrorStream(true)
+                .command(new String[] { "docker", "ps" })
+                .start();
+
+        dockerRunProcess.waitFor();
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(dockerRunProcess.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.contains(containerName)) {
+                    return true;
+                }
+            }
+        } catch (IOException ignored) {
+            // ignore as any stop of docker container breaks the reader stream
+            // note that shutdown of docker would be already logged
+        }
+        return false;
+    }
+
+    @Override
+    public String findRunningContainer(String labelName, String labelValue) throws Exception {
+        Process dockerPsProcess = new ProcessBuilder()
+                .command("docker", "ps", "--filter", "label=" + labelName + "=" + labelValue, "--format", "{{.Names}}")
+                .start();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(dockerPsProcess.getInputStream(), StandardCharsets.UTF_8))) {
+            String containerName = reader.readLine();
+            dockerPsProcess.waitFor();
+            return containerName == null || containerName.trim().isEmpty() ? null : containerName.trim();
+        }
+    }
+
+    @Override
+    public void stop(String containerName, long timeout, TimeUnit unit) throws Exception {
+        new ProcessBuilder()
+                .command("docker", "stop", containerName)
+                .start()
+                .waitFor(timeout, unit);
+    }
+
+    @Override
+    public void kill(String containerName) throws Exception {
+        new ProcessBuilder()
+                .command("docker", "kill", containerName)
+                .start()
+                .waitFor(10, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void remove(String containerName) throws Exception {
+        new ProcessBuilder()
+                .command("docker", "rm", containerName)
+                .start()
+                .waitFor(10, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public Map<String, Integer> getMappedPorts(String containerName) throws Exception {
+        Process dockerPortProcess = new ProcessBuilder()
+                .command("docker", "port", containerName)
+                .redirectErrorStream(true)
+                .start();
+        Map<String, Integer> mappedPorts = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(dockerPortProcess.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // lines are in format "8080/tcp -> 0.0.0.0:32768", port bound to IPv6 address follows IPv4 one
+                int arrow = line.indexOf(" -> ");
+                if (arrow == -1) {
+                    continue;
+                }
+                String hostPort = line.substring(line.lastIndexOf(':') + 1).trim();
+                try {
+                    mappedPorts.putIfAbsent(line.substring(0, arrow).trim(), Integer.parseInt(hostPort));
+                } catch (NumberFormatException ignored) {
+                    // not a port mapping, for example error message of docker
+                }
+            }
+            dockerPortProcess.waitFor();
+        }
+        return mappedPorts;
+    }
+
+    @Override
+    public String getHealthStatus(String containerName) throws Exception {
+        Process dockerInspectProcess = new ProcessBuilder()
+                .command("docker", "inspect", "--format", "{{if .State.Health}}{{.State.Health.Status}}{{end}}",
+                        containerName)
+                .start();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(dockerInspectProcess.getInputStream(), StandardCharsets.UTF_8))) {
+            String status = reader.readLine();
+            dockerInspectProcess.waitFor();
+            return status == null || status.trim().isEmpty() ? null : status.trim();
+        }
+    }
+
+    @Override
+    public AutoCloseable watchHealthStatus(String containerName, Consumer<String> listener) throws Exception {
+        Process dockerEventsProcess = new ProcessBuilder()
+                .command("docker", "events", "--filter", "container=" + containerName, "--filter",
+                        "event=health_status", "--format", "{{.Status}}")
+                .start();
+        Thread eventReader = new Thread(() -> {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(dockerEventsProcess.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    // events are in format "health_status: healthy"
+                    listener.accept(line.substring(line.indexOf(':') + 1).trim());
+                }
+            } catch (IOException ignored) {
+                // subscription was closed
+            }
+        }, containerName + "-health-events");
+        eventReader.setDaemon(true);
+        eventReader.start();
+        return dockerEventsProcess::destroy;
+    }
+}
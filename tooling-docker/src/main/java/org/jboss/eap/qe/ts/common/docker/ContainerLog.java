@@ -0,0 +1,127 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.fusesource.jansi.Ansi;
+
+/**
+ * Recent output of a container. Lines are kept in a ring buffer of fixed size so memory used by chatty containers is
+ * bounded, older lines are dropped. Whole output can be kept in a file, see {@link Docker.Builder#withLogFile(Path)}.
+ */
+public final class ContainerLog {
+
+    private final String containerName;
+    private final String consolePrefix;
+    private final String[] lines;
+    private final Path file;
+    private long lineCount;
+    private Writer fileWriter;
+
+    ContainerLog(String containerName, int capacity, Path file) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity of container log must be positive, was " + capacity);
+        }
+        this.containerName = containerName;
+        this.consolePrefix = Ansi.ansi().fgCyan().a(containerName).reset().a("> ").toString();
+        this.lines = new String[capacity];
+        this.file = file;
+    }
+
+    synchronized void append(String line) {
+        lines[(int) (lineCount % lines.length)] = line;
+        lineCount++;
+    }
+
+    /**
+     * @return recent lines of container output from the oldest one, at most {@link #getCapacity()} lines
+     */
+    public synchronized List<String> getLines() {
+        int size = (int) Math.min(lineCount, lines.length);
+        List<String> recentLines = new ArrayList<>(size);
+        for (long i = lineCount - size; i < lineCount; i++) {
+            recentLines.add(lines[(int) (i % lines.length)]);
+        }
+        return recentLines;
+    }
+
+    /**
+     * @param pattern pattern the whole line is matched against
+     * @return true if any of recent lines matches the pattern
+     */
+    public boolean containsLineMatching(Pattern pattern) {
+        return getLines().stream().anyMatch(line -> pattern.matcher(line).matches());
+    }
+
+    /**
+     * @param subString sub string searched in recent lines
+     * @return true if any of recent lines contains the sub string
+     */
+    public boolean contains(String subString) {
+        return getLines().stream().anyMatch(line -> line.contains(subString));
+    }
+
+    /**
+     * @return number of lines the container printed, including lines which were already dropped from the buffer
+     */
+    public synchronized long getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * @return maximum number of lines kept in the buffer
+     */
+    public int getCapacity() {
+        return lines.length;
+    }
+
+    /**
+     * @return file the whole output is written to, null if output is not written to a file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    String getContainerName() {
+        return containerName;
+    }
+
+    /**
+     * @return prefix of lines printed to console
+     */
+    String getConsolePrefix() {
+        return consolePrefix;
+    }
+
+    /**
+     * Writes line into log file, it's called by {@link ContainerLogPump} writer thread only.
+     */
+    void writeToFile(CharSequence text) throws IOException {
+        if (fileWriter == null) {
+            if (file.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+            }
+            fileWriter = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        }
+        fileWriter.append(text);
+    }
+
+    void flushFile() throws IOException {
+        if (fileWriter != null) {
+            fileWriter.flush();
+        }
+    }
+
+    void closeFile() throws IOException {
+        if (fileWriter != null) {
+            fileWriter.close();
+            fileWriter = null;
+        }
+    }
+}
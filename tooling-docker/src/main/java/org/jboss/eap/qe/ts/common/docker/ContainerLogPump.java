@@ -0,0 +1,177 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Streams output of all containers. Output stream of each container is read on its own daemon reader thread named after
+ * the container, lines are stored into {@link ContainerLog} of the container and queued for a single writer thread. The
+ * writer prints queued lines in batches, so chatty containers do not contend on {@link System#out} line by line, and tees
+ * them into log files.
+ * <p>
+ * Queue of lines is bounded, readers are blocked when the writer can not keep up. As all threads are daemon threads, a stream
+ * which never ends does not keep the JVM alive.
+ */
+final class ContainerLogPump {
+
+    private static final int QUEUE_CAPACITY = 10_000;
+    private static final int MAX_BATCH_SIZE = 1_000;
+
+    private static final ContainerLogPump INSTANCE = new ContainerLogPump(System.out);
+
+    private final PrintStream console;
+    private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+
+    ContainerLogPump(PrintStream console) {
+        this.console = console;
+        Thread writer = new Thread(this::writeLines, "docker-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    static ContainerLogPump getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts streaming of container output.
+     *
+     * @param output output of the container, stream ends when the container stops
+     * @param log log the output is stored in
+     * @param lineListener listener notified about each line as soon as it's read
+     * @return future completed once the output stream ended and all its lines were written
+     */
+    CompletableFuture<Void> pump(InputStream output, ContainerLog log, Consumer<String> lineListener) {
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        Thread readerThread = new Thread(() -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(output, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    log.append(line);
+                    lineListener.accept(line);
+                    queue.put(new Entry(log, line, null));
+                }
+            } catch (IOException ignored) {
+                // ignore as any stop of docker container breaks the reader stream
+                // note that shutdown of docker would be already logged
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                // end of output is queued so it's completed after all lines of the container are written
+                putUninterruptibly(new Entry(log, null, written));
+            }
+        }, "docker-log-reader-" + log.getContainerName());
+        readerThread.setDaemon(true);
+        readerThread.start();
+        return written;
+    }
+
+    private void putUninterruptibly(Entry entry) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(entry);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLines() {
+        List<Entry> batch = new ArrayList<>();
+        Set<ContainerLog> writtenLogs = new LinkedHashSet<>();
+        StringBuilder text = new StringBuilder();
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+
+            for (Entry entry : batch) {
+                if (entry.line != null) {
+                    text.append(entry.log.getConsolePrefix()).append(entry.line).append(System.lineSeparator());
+                }
+            }
+            if (text.length() > 0) {
+                console.print(text);
+                console.flush();
+                text.setLength(0);
+            }
+
+            for (Entry entry : batch) {
+                if (entry.log.getFile() == null) {
+                    if (entry.written != null) {
+                        entry.written.complete(null);
+                    }
+                    continue;
+                }
+                if (entry.line != null) {
+                    writeToFile(entry.log, entry.line);
+                    writtenLogs.add(entry.log);
+                } else {
+                    closeFile(entry.log);
+                    writtenLogs.remove(entry.log);
+                    entry.written.complete(null);
+                }
+            }
+            for (ContainerLog log : writtenLogs) {
+                try {
+                    log.flushFile();
+                } catch (IOException e) {
+                    console.println("Failed writing log file " + log.getFile() + ": " + e.getMessage());
+                }
+            }
+            writtenLogs.clear();
+            batch.clear();
+        }
+    }
+
+    private void writeToFile(ContainerLog log, String line) {
+        try {
+            log.writeToFile(line + System.lineSeparator());
+        } catch (IOException e) {
+            console.println("Failed writing log file " + log.getFile() + ": " + e.getMessage());
+        }
+    }
+
+    private void closeFile(ContainerLog log) {
+        try {
+            log.closeFile();
+        } catch (IOException e) {
+            console.println("Failed closing log file " + log.getFile() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Line of container output or end of the output if line is null
+     */
+    private static final class Entry {
+        private final ContainerLog log;
+        private final String line;
+        private final CompletableFuture<Void> written;
+
+        private Entry(ContainerLog log, String line, CompletableFuture<Void> written) {
+            this.log = log;
+            this.line = line;
+            this.written = written;
+        }
+    }
+}
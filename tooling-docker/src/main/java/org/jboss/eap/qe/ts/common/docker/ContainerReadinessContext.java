@@ -0,0 +1,39 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import java.util.function.Consumer;
+
+/**
+ * Context of container passed to {@link ContainerReadyCondition#containerStarted(ContainerReadinessContext)}. It's valid
+ * until the container is ready or the waiting for it fails.
+ */
+public interface ContainerReadinessContext {
+
+    /**
+     * @return unique name of the started container
+     */
+    String getContainerName();
+
+    /**
+     * @return client managing the container
+     */
+    DockerClient getDockerClient();
+
+    /**
+     * Registers listener which receives every line of container output.
+     *
+     * @param listener listener of output lines, it must not block
+     */
+    void addOutputListener(Consumer<String> listener);
+
+    /**
+     * Registers resource which is closed once the waiting for container readiness ends.
+     *
+     * @param resource resource to be closed, for example subscription to docker events
+     */
+    void addResource(AutoCloseable resource);
+
+    /**
+     * Wakes up waiting for the container so {@link ContainerReadyCondition#isReady()} is checked immediately.
+     */
+    void signal();
+}
@@ -0,0 +1,128 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Waits for container readiness. {@link ContainerReadyCondition} is checked on a dedicated thread of the container, so
+ * hanging condition can be detected. Between the checks the waiter sleeps with bounded exponential backoff unless it's
+ * woken up by {@link #signal()} from event driven condition.
+ */
+final class ContainerReadinessWaiter implements ContainerReadinessContext, AutoCloseable {
+
+    static final long MIN_BACKOFF_MILLIS = 10;
+    static final long MAX_BACKOFF_MILLIS = 500;
+
+    private final String containerName;
+    private final DockerClient dockerClient;
+    private final List<Consumer<String>> outputListeners = new CopyOnWriteArrayList<>();
+    private final List<AutoCloseable> resources = new CopyOnWriteArrayList<>();
+    private final ExecutorService checker;
+    private long backoffMillis = MIN_BACKOFF_MILLIS;
+    private boolean signalled;
+
+    ContainerReadinessWaiter(String containerName, DockerClient dockerClient) {
+        this.containerName = containerName;
+        this.dockerClient = dockerClient;
+        this.checker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, containerName + "-readiness");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Checks the condition on the readiness thread.
+     *
+     * @param condition condition to be checked
+     * @param timeoutMillis the maximum time to wait for the result of the check
+     * @return result of the condition
+     * @throws TimeoutException if the check takes longer than timeout, the check is interrupted
+     */
+    boolean check(ContainerReadyCondition condition, long timeoutMillis) throws Exception {
+        Future<Boolean> result = checker.submit(condition::isReady);
+        try {
+            return result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // in case condition hangs interrupt it so there are no zombie threads
+            result.cancel(true);
+            throw e;
+        }
+    }
+
+    /**
+     * Waits until next check. Waiting ends when backoff delay elapses, the deadline is reached or the waiter is
+     * signalled.
+     *
+     * @param deadlineNanos deadline in {@link System#nanoTime()} units
+     */
+    synchronized void awaitNextCheck(long deadlineNanos) throws InterruptedException {
+        long waitMillis = Math.min(backoffMillis, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+        if (!signalled && waitMillis > 0) {
+            wait(waitMillis);
+        }
+        if (signalled) {
+            signalled = false;
+            backoffMillis = MIN_BACKOFF_MILLIS;
+        } else {
+            backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+        }
+    }
+
+    /**
+     * Passes line of container output to registered listeners
+     *
+     * @param line line of container output
+     */
+    void onOutputLine(String line) {
+        for (Consumer<String> listener : outputListeners) {
+            listener.accept(line);
+        }
+    }
+
+    @Override
+    public String getContainerName() {
+        return containerName;
+    }
+
+    @Override
+    public DockerClient getDockerClient() {
+        return dockerClient;
+    }
+
+    @Override
+    public void addOutputListener(Consumer<String> listener) {
+        outputListeners.add(listener);
+    }
+
+    @Override
+    public void addResource(AutoCloseable resource) {
+        resources.add(resource);
+    }
+
+    @Override
+    public synchronized void signal() {
+        signalled = true;
+        notifyAll();
+    }
+
+    @Override
+    public void close() {
+        outputListeners.clear();
+        for (AutoCloseable resource : resources) {
+            try {
+                resource.close();
+            } catch (Exception ignored) {
+                // resource is not needed anymore
+            }
+        }
+        resources.clear();
+        checker.shutdownNow();
+    }
+}
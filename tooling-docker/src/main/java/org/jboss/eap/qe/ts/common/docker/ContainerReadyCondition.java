@@ -12,4 +12,17 @@ public interface ContainerReadyCondition {
      * @return true if container is ready, otherwise false
      */
     boolean isReady();
+
+    /**
+     * Called once the container was started, before {@link #isReady()} is checked for the first time. Conditions
+     * driven by container events register their listeners here and call {@link ContainerReadinessContext#signal()}
+     * when the container might have become ready, so they do not need to wait for the next check.
+     * <p>
+     * See {@link ContainerReadyConditions} for conditions provided out of the box.
+     *
+     * @param context context of started container
+     */
+    default void containerStarted(ContainerReadinessContext context) throws Exception {
+        // plain conditions are just polled
+    }
 }
@@ -0,0 +1,171 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Factory of commonly used {@link ContainerReadyCondition}s.
+ */
+public final class ContainerReadyConditions {
+
+    private static final int PROBE_TIMEOUT_MILLIS = 1000;
+
+    private ContainerReadyConditions() {
+    } // avoid instantiation
+
+    /**
+     * Container is ready once a line of its output matches the pattern. Output is matched as it is streamed, there is no
+     * polling involved.
+     *
+     * @param pattern pattern the whole line is matched against
+     * @return condition satisfied by first matching line of container output
+     */
+    public static ContainerReadyCondition logLineMatches(Pattern pattern) {
+        return new ContainerReadyCondition() {
+            private volatile boolean matched;
+
+            @Override
+            public boolean isReady() {
+                return matched;
+            }
+
+            @Override
+            public void containerStarted(ContainerReadinessContext context) {
+                matched = false;
+                context.addOutputListener(line -> {
+                    if (!matched && pattern.matcher(line).matches()) {
+                        matched = true;
+                        context.signal();
+                    }
+                });
+            }
+        };
+    }
+
+    /**
+     * Container is ready once a line of its output contains the sub string.
+     *
+     * @param subString sub string searched in container output
+     * @return condition satisfied by first line of container output containing the sub string
+     */
+    public static ContainerReadyCondition logLineContains(String subString) {
+        return logLineMatches(Pattern.compile(".*" + Pattern.quote(subString) + ".*"));
+    }
+
+    /**
+     * Container is ready once the port accepts TCP connections.
+     *
+     * @param host host name or address
+     * @param port TCP port
+     * @return condition satisfied once the port is opened
+     */
+    public static ContainerReadyCondition tcpPortOpened(String host, int port) {
+        return () -> {
+            try (Socket socket = new Socket()) {
+                socket.connect(new InetSocketAddress(host, port), PROBE_TIMEOUT_MILLIS);
+                return true;
+            } catch (IOException e) {
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Container is ready once TCP port of the container accepts connections on host port it's published on. Port can be
+     * published on ephemeral host port, see {@link Docker.Builder#withEphemeralPort(int)}.
+     *
+     * @param containerPort TCP port in the container
+     * @return condition satisfied once the published port is opened
+     */
+    public static ContainerReadyCondition publishedTcpPortOpened(int containerPort) {
+        return new ContainerReadyCondition() {
+            private volatile ContainerReadinessContext context;
+            private volatile int hostPort = -1;
+
+            @Override
+            public boolean isReady() {
+                if (hostPort == -1) {
+                    // ports are published once docker has started the container
+                    Integer published;
+                    try {
+                        Map<String, Integer> ports = context.getDockerClient()
+                                .getMappedPorts(context.getContainerName());
+                        published = ports.get(containerPort + "/tcp");
+                    } catch (Exception e) {
+                        return false;
+                    }
+                    if (published == null) {
+                        return false;
+                    }
+                    hostPort = published;
+                }
+                return tcpPortOpened("127.0.0.1", hostPort).isReady();
+            }
+
+            @Override
+            public void containerStarted(ContainerReadinessContext context) {
+                this.context = context;
+                this.hostPort = -1;
+            }
+        };
+    }
+
+    /**
+     * Container is ready once HTTP GET request on given URL returns successful (2xx) response.
+     *
+     * @param url URL to be checked, for example health check endpoint of the container
+     * @return condition satisfied once the URL returns successful response
+     */
+    public static ContainerReadyCondition httpResponds(String url) {
+        return () -> {
+            try {
+                HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+                connection.setConnectTimeout(PROBE_TIMEOUT_MILLIS);
+                connection.setReadTimeout(PROBE_TIMEOUT_MILLIS);
+                try {
+                    int status = connection.getResponseCode();
+                    return status >= 200 && status < 300;
+                } finally {
+                    connection.disconnect();
+                }
+            } catch (IOException e) {
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Container is ready once Docker reports it as healthy. Container image (or {@code --health-cmd} option) must define
+     * health check. Health status changes are received as Docker events.
+     *
+     * @return condition satisfied once the container is healthy
+     */
+    public static ContainerReadyCondition healthy() {
+        return new ContainerReadyCondition() {
+            private volatile String healthStatus;
+
+            @Override
+            public boolean isReady() {
+                return "healthy".equals(healthStatus);
+            }
+
+            @Override
+            public void containerStarted(ContainerReadinessContext context) throws Exception {
+                context.addResource(context.getDockerClient().watchHealthStatus(context.getContainerName(), status -> {
+                    healthStatus = status;
+                    context.signal();
+                }));
+                // container might have become healthy before the subscription
+                String currentStatus = context.getDockerClient().getHealthStatus(context.getContainerName());
+                if (healthStatus == null) {
+                    healthStatus = currentStatus;
+                }
+            }
+        };
+    }
+}
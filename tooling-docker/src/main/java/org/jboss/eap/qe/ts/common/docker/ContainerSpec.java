@@ -0,0 +1,67 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Specification of container to be started by {@link DockerClient}. Instances are created by {@link Docker}.
+ */
+public final class ContainerSpec {
+
+    private final String name;
+    private final String image;
+    private final List<String> ports;
+    private final Map<String, String> environmentVariables;
+    private final Map<String, String> labels;
+    private final List<String> options;
+    private final List<String> commandArguments;
+
+    ContainerSpec(String name, String image, List<String> ports, Map<String, String> environmentVariables,
+            Map<String, String> labels, List<String> options, List<String> commandArguments) {
+        this.name = name;
+        this.image = image;
+        this.ports = Collections.unmodifiableList(ports);
+        this.environmentVariables = Collections.unmodifiableMap(environmentVariables);
+        this.labels = Collections.unmodifiableMap(labels);
+        this.options = Collections.unmodifiableList(options);
+        this.commandArguments = Collections.unmodifiableList(commandArguments);
+    }
+
+    /**
+     * @return unique name of the container
+     */
+    public String getName() {
+        return name;
+    }
+
+    public String getImage() {
+        return image;
+    }
+
+    /**
+     * @return port mappings in format used by docker command, for example "8080:80" or "8080:80/tcp"
+     */
+    public List<String> getPorts() {
+        return ports;
+    }
+
+    public Map<String, String> getEnvironmentVariables() {
+        return environmentVariables;
+    }
+
+    public Map<String, String> getLabels() {
+        return labels;
+    }
+
+    /**
+     * @return additional options of "docker run" command
+     */
+    public List<String> getOptions() {
+        return options;
+    }
+
+    public List<String> getCommandArguments() {
+        return commandArguments;
+    }
+}
@@ -1,17 +1,12 @@
 package org.jboss.eap.qe.ts.common.docker;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -25,91 +20,160 @@ import org.junit.rules.ExternalResource;
  */
 public class Docker extends ExternalResource {
 
+    /**
+     * System property with default number of recent output lines kept for each container
+     */
+    public static final String LOG_BUFFER_SIZE_PROPERTY = "docker.log.buffer.lines";
+
+    /**
+     * System property enabling warm images of all containers, see {@link Builder#setWarmImage(boolean)}
+     */
+    public static final String WARM_IMAGES_PROPERTY = "docker.warm.images";
+
     private String uuid;
     private String name;
     private String image;
     private List<String> ports = new ArrayList<>();
     private Map<String, String> environmentVariables = new HashMap<>();
+    private Map<String, String> labels = new HashMap<>();
     private List<String> options = new ArrayList<>();
     private List<String> commandArguments = new ArrayList<>();
+    private String fingerprint;
+    private DockerContainerPool pool;
     private ContainerReadyCondition containerReadyCondition;
     private long containerReadyTimeout;
-    private ExecutorService outputPrinter;
-    private Process dockerRunProcess;
+    private DockerClient dockerClient;
+    private int logBufferSize;
+    private Path logFile;
+    private ContainerLog log;
+    private CompletableFuture<Void> outputWritten;
+    private volatile Map<String, Integer> mappedPorts;
+    private StartedContainer startedContainer;
+    private ContainerReadinessWaiter readinessWaiter;
+    private volatile long timeToReadyMillis = -1;
+    private volatile long pullTimeMillis;
+    private boolean warmImageEnabled;
+    private volatile boolean startedFromWarmImage;
 
     private Docker() {
     } // avoid instantiation, use Builder
 
     public void start() throws Exception {
 
-        checkDockerPresent();
+        dockerClient.checkDockerPresent();
 
-        List<String> cmd = new ArrayList<>();
+        // missing image is pulled before the container is started, so the pull does not count into ready timeout
+        try {
+            pullTimeMillis = DockerImages.ensurePresent(dockerClient, image);
+        } catch (DockerException e) {
+            // failure is reported by starting of the container together with the rest of its configuration
+            System.out.println(Ansi.ansi().reset().a("Image ").fgYellow().a(image).reset()
+                    .a(" was not pulled in advance: " + e.getMessage()));
+            pullTimeMillis = 0;
+        }
 
-        cmd.add("docker");
-        cmd.add("run");
-        cmd.add("--name");
-        cmd.add(uuid);
+        System.out.println(Ansi.ansi().reset().a("Starting container ").fgCyan().a(name).reset()
+                .a(" with ID ").fgYellow().a(uuid).reset());
 
-        for (String port : ports) {
-            cmd.add("-p");
-            cmd.add(port);
+        long startTime = System.nanoTime();
+        String warmImage = warmImageEnabled ? resolveWarmImage() : null;
+        startedFromWarmImage = warmImage != null && dockerClient.isImagePresent(warmImage);
+        readinessWaiter = new ContainerReadinessWaiter(uuid, dockerClient);
+        startedContainer = dockerClient.run(new ContainerSpec(uuid, startedFromWarmImage ? warmImage : image, ports,
+                environmentVariables, labels, options, commandArguments));
+        awaitReady(startTime);
+        if (warmImage != null && !startedFromWarmImage) {
+            commitWarmImage(warmImage);
         }
+    }
 
-        for (Map.Entry<String, String> envVar : environmentVariables.entrySet()) {
-            cmd.add("-e");
-            cmd.add(envVar.getKey() + "=" + envVar.getValue());
+    /**
+     * @return name of warm image for current version of the image, null if it can't be resolved
+     */
+    private String resolveWarmImage() throws Exception {
+        String baseImageId = dockerClient.getImageId(image);
+        if (baseImageId == null) {
+            return null;
         }
+        return WarmImages.warmImageName(name, baseImageId, environmentVariables, options, commandArguments);
+    }
 
-        cmd.addAll(options);
-
-        cmd.add(image);
+    private void commitWarmImage(String warmImage) {
+        long startTime = System.nanoTime();
+        try {
+            Map<String, String> warmImageLabels = new HashMap<>();
+            warmImageLabels.put(WarmImages.BASE_IMAGE_LABEL, dockerClient.getImageId(image));
+            dockerClient.commit(uuid, warmImage, warmImageLabels);
+            System.out.println(Ansi.ansi().reset().a("Container ").fgCyan().a(name).reset()
+                    .a(" was committed into warm image ").fgYellow().a(warmImage).reset()
+                    .a(" in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) + " ms"));
+        } catch (Exception e) {
+            // container is ready anyway, it will be started from the base image next time
+            System.out.println(Ansi.ansi().reset().a("Failed committing container ").fgCyan().a(name).reset()
+                    .a(" into warm image ").fgYellow().a(warmImage).reset().a(": " + e.getMessage()));
+        }
+    }
 
-        cmd.addAll(commandArguments);
+    /**
+     * Binds this instance to already running container, for example container started by other JVM. Output of the
+     * container is streamed from its beginning and the container is stopped by {@link #stop()} as if it was started by
+     * this instance.
+     *
+     * @param containerName name of running container
+     */
+    void attach(String containerName) throws Exception {
+        uuid = containerName;
+        startedFromWarmImage = false;
 
-        System.out.println(Ansi.ansi().reset().a("Starting container ").fgCyan().a(name).reset()
+        System.out.println(Ansi.ansi().reset().a("Reusing container ").fgCyan().a(name).reset()
                 .a(" with ID ").fgYellow().a(uuid).reset());
 
-        dockerRunProcess = new ProcessBuilder()
-                .redirectErrorStream(true)
-                .command(cmd)
-                .start();
-        outputPrinter = Executors.newSingleThreadExecutor();
-        outputPrinter.execute(() -> {
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(dockerRunProcess.getInputStream(), StandardCharsets.UTF_8))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    System.out.println(Ansi.ansi().fgCyan().a(name).reset().a("> ").a(line));
-                }
-            } catch (IOException ignored) {
-                // ignore as any stop of docker container breaks the reader stream
-                // note that shutdown of docker would be already logged
-            }
-        });
+        long startTime = System.nanoTime();
+        readinessWaiter = new ContainerReadinessWaiter(uuid, dockerClient);
+        startedContainer = dockerClient.attach(uuid);
+        awaitReady(startTime);
+    }
 
-        long startTime = System.currentTimeMillis();
-        while (!isContainerReady()) {
-            if (System.currentTimeMillis() - startTime > containerReadyTimeout) {
-                stop();
-                throw new DockerTimeoutException(uuid + " - Container was not ready in " + containerReadyTimeout + " ms");
-            }
-            // fail fast mechanism in case of malformed docker command, for example bad arguments, invalid format of port mapping, image version,...
-            if (!dockerRunProcess.isAlive() && dockerRunProcess.exitValue() != 0) {
-                throw new DockerException(uuid + " - Starting of docker container using command: \"" + String.join(" ", cmd)
-                        + "\" failed. Check that provided command is correct.");
+    private void startOutputPrinter() {
+        log = new ContainerLog(name, logBufferSize, logFile);
+        outputWritten = ContainerLogPump.getInstance().pump(startedContainer.getOutput(), log,
+                readinessWaiter::onOutputLine);
+    }
+
+    private void awaitReady(long startTime) throws Exception {
+        try {
+            // listeners of the condition must be registered before container output is streamed
+            containerReadyCondition.containerStarted(readinessWaiter);
+            startOutputPrinter();
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(containerReadyTimeout);
+            while (!isContainerReady()) {
+                if (System.nanoTime() - deadline > 0) {
+                    stop();
+                    throw new DockerTimeoutException(uuid + " - Container was not ready in " + containerReadyTimeout + " ms");
+                }
+                // fail fast mechanism in case of malformed docker command, for example bad arguments, invalid format of port mapping, image version,...
+                if (startedContainer.hasFailed()) {
+                    throw new DockerException(uuid + " - Starting of docker container using command: \""
+                            + startedContainer.getStartCommand()
+                            + "\" failed. Check that provided command is correct.");
+                }
+                readinessWaiter.awaitNextCheck(deadline);
             }
+        } finally {
+            readinessWaiter.close();
         }
+
+        timeToReadyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        System.out.println(Ansi.ansi().reset().a("Container ").fgCyan().a(name).reset()
+                .a(" with ID ").fgYellow().a(uuid).reset().a(" is ready in " + timeToReadyMillis + " ms")
+                .a(startedFromWarmImage ? " (warm image)" : ""));
     }
 
     private boolean isContainerReady() throws Exception {
-        CompletableFuture<Boolean> condition = new CompletableFuture().supplyAsync(() -> containerReadyCondition.isReady());
         try {
-            return condition.get(containerReadyTimeout, TimeUnit.MILLISECONDS);
+            return readinessWaiter.check(containerReadyCondition, containerReadyTimeout);
         } catch (TimeoutException ex) {
             stop();
-            // in case condition hangs interrupt it so there are no zombie threads
-            condition.cancel(true);
 
             throw new ContainerReadyConditionException(uuid + " - Provided ContainerReadyCondition.isReady() method took " +
                     "longer than containerReadyTimeout: " + containerReadyTimeout + " ms. Check it does not hang and does " +
@@ -118,52 +182,115 @@ public class Docker extends ExternalResource {
         }
     }
 
-    private void checkDockerPresent() throws Exception {
-        Process dockerInfoProcess = new ProcessBuilder()
-                .redirectErrorStream(true)
-                .command(new String[] { "docker", "info" })
-                .start();
-        dockerInfoProcess.waitFor();
-        if (dockerInfoProcess.exitValue() != 0) {
-            throw new DockerException("Docker is either not present or not installed on this machine. It must be installed " +
-                    "and started up for executing tests with docker container.");
+    /**
+     * @return time in milliseconds it took from starting the container until it was ready, -1 if container was not
+     *         ready yet
+     */
+    public long getTimeToReadyMillis() {
+        return timeToReadyMillis;
+    }
+
+    /**
+     * @return time in milliseconds it took to pull image of the container before it was started, 0 if the image was
+     *         present locally
+     */
+    public long getPullTimeMillis() {
+        return pullTimeMillis;
+    }
+
+    /**
+     * @return true if the container was started from warm image, see {@link Builder#setWarmImage(boolean)}
+     */
+    public boolean isStartedFromWarmImage() {
+        return startedFromWarmImage;
+    }
+
+    /**
+     * @return image of the container
+     */
+    public String getImage() {
+        return image;
+    }
+
+    /**
+     * Resolves host port the TCP port of the container is published on.
+     *
+     * @param containerPort port in the container
+     * @return host port
+     * @throws DockerException if the container is not started or the port is not published
+     */
+    public int getMappedPort(int containerPort) throws Exception {
+        return getMappedPort(containerPort, "tcp");
+    }
+
+    /**
+     * Resolves host port the port of the container is published on. Ports are resolved once after the container is
+     * started.
+     *
+     * @param containerPort port in the container
+     * @param protocol protocol of the port, "tcp" or "udp"
+     * @return host port
+     * @throws DockerException if the container is not started or the port is not published
+     */
+    public int getMappedPort(int containerPort, String protocol) throws Exception {
+        if (!isStarted()) {
+            throw new DockerException(uuid + " - Ports can not be resolved, container " + name + " is not started");
         }
+        Map<String, Integer> ports = mappedPorts;
+        if (ports == null || ports.isEmpty()) {
+            ports = dockerClient.getMappedPorts(uuid);
+            mappedPorts = ports;
+        }
+        Integer hostPort = ports.get(containerPort + "/" + protocol);
+        if (hostPort == null) {
+            throw new DockerException(uuid + " - Port " + containerPort + "/" + protocol + " of container " + name
+                    + " is not published, published ports are " + ports.keySet());
+        }
+        return hostPort;
+    }
+
+    /**
+     * @return recent output of the container, null if the container was not started yet
+     */
+    public ContainerLog getLog() {
+        return log;
+    }
+
+    /**
+     * @return true if the container was started (or attached) by this instance and it was not stopped yet
+     */
+    boolean isStarted() {
+        return startedContainer != null;
+    }
+
+    /**
+     * @return fingerprint of container configuration if the container is shared, null otherwise
+     */
+    String getFingerprint() {
+        return fingerprint;
+    }
+
+    DockerClient getDockerClient() {
+        return dockerClient;
+    }
+
+    @Override
+    public String toString() {
+        return name + " with ID " + uuid;
     }
 
     /**
      * @return Returns true if docker container is running. It does NOT check whether container is ready.
      */
     public boolean isRunning() throws Exception {
-        Process dockerRunProcess = new ProcessBuilder()
-                .redirectErrorStream(true)
-                .command(new String[] { "docker", "ps" })
-                .start();
-
-        dockerRunProcess.waitFor();
-
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(dockerRunProcess.getInputStream(), StandardCharsets.UTF_8))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.contains(uuid)) {
-                    return true;
-                }
-            }
-        } catch (IOException ignored) {
-            // ignore as any stop of docker container breaks the reader stream
-            // note that shutdown of docker would be already logged
-        }
-        return false;
+        return dockerClient.isRunning(uuid);
     }
 
     public void stop() throws Exception {
         System.out.println(Ansi.ansi().reset().a("Stopping container ").fgCyan().a(name).reset()
                 .a(" with ID ").fgYellow().a(uuid).reset());
 
-        new ProcessBuilder()
-                .command("docker", "stop", uuid)
-                .start()
-                .waitFor(10, TimeUnit.SECONDS);
+        dockerClient.stop(uuid, 10, TimeUnit.SECONDS);
         terminateThreadPools();
         removeDockerContainer();
     }
@@ -172,33 +299,54 @@ public class Docker extends ExternalResource {
         System.out.println(Ansi.ansi().reset().a("Killing container ").fgCyan().a(name).reset()
                 .a(" with ID ").fgYellow().a(uuid).reset());
 
-        new ProcessBuilder()
-                .command("docker", "kill", uuid)
-                .start()
-                .waitFor(10, TimeUnit.SECONDS);
+        dockerClient.kill(uuid);
         terminateThreadPools();
         removeDockerContainer();
     }
 
     private void terminateThreadPools() throws Exception {
-        outputPrinter.shutdown();
-        outputPrinter.awaitTermination(10, TimeUnit.SECONDS);
+        if (outputWritten != null) {
+            try {
+                outputWritten.get(10, TimeUnit.SECONDS);
+            } catch (TimeoutException ignored) {
+                // output stream is closed below
+            }
+            outputWritten = null;
+        }
+        if (readinessWaiter != null) {
+            readinessWaiter.close();
+        }
+        if (startedContainer != null) {
+            startedContainer.close();
+            startedContainer = null;
+        }
+        mappedPorts = null;
     }
 
     private void removeDockerContainer() throws Exception {
-        new ProcessBuilder()
-                .command("docker", "rm", uuid)
-                .start()
-                .waitFor(10, TimeUnit.SECONDS);
+        dockerClient.remove(uuid);
     }
 
-    @Override
-    protected void before() throws Throwable {
-        start();
+    /**
+     * Starts the container, shared container is acquired from the pool.
+     */
+    void acquire() throws Exception {
+        if (pool != null) {
+            pool.acquire(this);
+        } else {
+            start();
+        }
     }
 
-    @Override
-    protected void after() {
+    /**
+     * Stops the container, shared container is released to the pool and kept running.
+     */
+    void release() {
+        if (pool != null) {
+            // shared container is kept running for other test classes, it's stopped at JVM shutdown
+            pool.release(this);
+            return;
+        }
         try {
             stop();
         } catch (Exception e) {
@@ -207,15 +355,35 @@ public class Docker extends ExternalResource {
         }
     }
 
+    String getName() {
+        return name;
+    }
+
+    @Override
+    protected void before() throws Throwable {
+        acquire();
+    }
+
+    @Override
+    protected void after() {
+        release();
+    }
+
     public static class Builder {
         private String uuid;
         private String name;
         private String image;
         private List<String> ports = new ArrayList<>();
         private Map<String, String> environmentVariables = new HashMap<>();
+        private Map<String, String> labels = new HashMap<>();
         private List<String> options = new ArrayList<>();
         private List<String> commandArguments = new ArrayList<>();
         private long containerReadyTimeoutInMillis = 120_000; // 2 minutes
+        private int logBufferSize = Integer.getInteger(LOG_BUFFER_SIZE_PROPERTY, 1000);
+        private Path logFile;
+        private DockerClient dockerClient;
+        private boolean shared;
+        private boolean warmImage = Boolean.getBoolean(WARM_IMAGES_PROPERTY);
 
         // by default - do not make any check
         private ContainerReadyCondition containerReadyCondition = () -> true;
@@ -226,6 +394,10 @@ public class Docker extends ExternalResource {
             this.image = image;
         }
 
+        String getName() {
+            return name;
+        }
+
         /**
          * Timeout to wait until container is ready/starts
          *
@@ -248,6 +420,28 @@ public class Docker extends ExternalResource {
             return this;
         }
 
+        /**
+         * Publishes TCP port of the container on a free host port chosen by docker, so several containers of the same
+         * configuration can run on one machine at once. Host port is resolved by {@link Docker#getMappedPort(int)} once
+         * the container is started.
+         *
+         * @param containerPort port in the container
+         */
+        public Builder withEphemeralPort(int containerPort) {
+            return withEphemeralPort(containerPort, "tcp");
+        }
+
+        /**
+         * Publishes port of the container on a free host port chosen by docker, see {@link #withEphemeralPort(int)}.
+         *
+         * @param containerPort port in the container
+         * @param protocol protocol of the port, "tcp" or "udp"
+         */
+        public Builder withEphemeralPort(int containerPort, String protocol) {
+            this.ports.add(containerPort + "/" + protocol);
+            return this;
+        }
+
         /**
          * Adds environment variable passed to docker container
          *
@@ -259,6 +453,17 @@ public class Docker extends ExternalResource {
             return this;
         }
 
+        /**
+         * Adds label to docker container
+         *
+         * @param key name of label
+         * @param value value of label
+         */
+        public Builder withLabel(String key, String value) {
+            labels.put(key, value);
+            return this;
+        }
+
         /**
          * Adds options into starting docker command.
          * <p>
@@ -292,11 +497,95 @@ public class Docker extends ExternalResource {
         }
 
         /**
-         * Builds instance of Docker class.
+         * Number of recent lines of container output kept in {@link Docker#getLog()}. Default is 1000 lines or value of
+         * {@code docker.log.buffer.lines} system property.
+         *
+         * @param lines maximum number of lines kept in memory
+         */
+        public Builder setLogBufferSize(int lines) {
+            this.logBufferSize = lines;
+            return this;
+        }
+
+        /**
+         * Writes whole output of the container into the file in addition to console.
+         *
+         * @param logFile file the output is written to, it's overwritten when the container is started
+         */
+        public Builder withLogFile(Path logFile) {
+            this.logFile = logFile;
+            return this;
+        }
+
+        /**
+         * Sets backend used to manage the container. {@link DockerClients#getDefault()} is used if not set.
+         *
+         * @param dockerClient docker client, for example {@link CliDockerClient} or {@link EngineApiDockerClient}
+         */
+        public Builder withDockerClient(DockerClient dockerClient) {
+            this.dockerClient = dockerClient;
+            return this;
+        }
+
+        /**
+         * Marks container as shared. Shared containers with identical configuration (name, image, ports, environment
+         * variables, options and arguments) are started once per JVM and reused by all test classes using them as
+         * JUnit @ClassRule. They are stopped at JVM shutdown. See {@link DockerContainerPool} for details.
+         * <p>
+         * Note that container ready condition is not part of the configuration, condition of the first built instance
+         * is used.
+         *
+         * @param shared true if container should be shared
+         */
+        public Builder setShared(boolean shared) {
+            this.shared = shared;
+            return this;
+        }
+
+        /**
+         * Container is committed into local warm image once it's ready and next runs start from the warm image, so
+         * initialization the container does at the first start (and stores in its file system) is skipped. Warm image
+         * is bound to ID of the image, environment variables, options and arguments. If any of them changes, for
+         * example newer version of the image is pulled, container is started from the image and new warm image is
+         * created.
+         * <p>
+         * Only file system of the container is kept, data in volumes and running processes are not. Default is value
+         * of {@code docker.warm.images} system property, warm images can be removed by
+         * {@code ./mp-ts.sh remove-warm-images}.
+         *
+         * @param warmImage true if container should be started from warm image
+         */
+        public Builder setWarmImage(boolean warmImage) {
+            this.warmImage = warmImage;
+            return this;
+        }
+
+        /**
+         * Builds instance of Docker class. The same instance is returned for shared containers with identical
+         * configuration.
          *
          * @return build Docker instance
          */
         public Docker build() {
+            return build(DockerContainerPool.getInstance());
+        }
+
+        Docker build(DockerContainerPool pool) {
+            if (shared) {
+                String fingerprint = DockerContainerPool.fingerprint(name, image, ports, environmentVariables, labels,
+                        options, commandArguments);
+                labels.put(DockerContainerPool.FINGERPRINT_LABEL, fingerprint);
+                return pool.get(fingerprint, () -> {
+                    Docker docker = buildDocker();
+                    docker.fingerprint = fingerprint;
+                    docker.pool = pool;
+                    return docker;
+                });
+            }
+            return buildDocker();
+        }
+
+        private Docker buildDocker() {
             Docker docker = new Docker();
             docker.uuid = this.uuid;
             docker.name = this.name;
@@ -304,9 +593,14 @@ public class Docker extends ExternalResource {
             docker.ports = this.ports;
             docker.options = this.options;
             docker.environmentVariables = this.environmentVariables;
+            docker.labels = this.labels;
             docker.commandArguments = this.commandArguments;
             docker.containerReadyCondition = containerReadyCondition;
             docker.containerReadyTimeout = containerReadyTimeoutInMillis;
+            docker.logBufferSize = logBufferSize;
+            docker.logFile = logFile;
+            docker.warmImageEnabled = warmImage;
+            docker.dockerClient = dockerClient != null ? dockerClient : DockerClients.getDefault();
             return docker;
         }
     }
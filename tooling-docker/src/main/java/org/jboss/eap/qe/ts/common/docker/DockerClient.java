@@ -0,0 +1,135 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Backend used by {@link Docker} to manage lifecycle of docker containers.
+ * <p>
+ * Default implementation is selected by {@link DockerClients#getDefault()}.
+ */
+public interface DockerClient {
+
+    /**
+     * Checks that docker is present and running on this machine.
+     *
+     * @throws DockerException if docker is not available
+     */
+    void checkDockerPresent() throws Exception;
+
+    /**
+     * @return address of Docker Engine the client manages containers on, for example
+     *         {@code unix:///var/run/docker.sock}
+     */
+    String getEndpoint();
+
+    /**
+     * Creates and starts a new container.
+     *
+     * @param spec specification of the container to be started
+     * @return handle to started container providing its output
+     */
+    StartedContainer run(ContainerSpec spec) throws Exception;
+
+    /**
+     * @param image image name including tag, for example "jaegertracing/all-in-one:1.15.1"
+     * @return true if the image is present locally, so container can be started without pulling it
+     */
+    boolean isImagePresent(String image) throws Exception;
+
+    /**
+     * Pulls image from registry.
+     *
+     * @param image image name including tag, for example "jaegertracing/all-in-one:1.15.1"
+     * @throws DockerException if pull fails
+     */
+    void pull(String image) throws Exception;
+
+    /**
+     * @param image image name including tag
+     * @return ID (digest of configuration) of local image, null if the image is not present locally
+     */
+    String getImageId(String image) throws Exception;
+
+    /**
+     * Creates image from current state of the container file system.
+     *
+     * @param containerName name of the container
+     * @param image name of the new image including tag
+     * @param labels labels of the new image
+     */
+    void commit(String containerName, String image, Map<String, String> labels) throws Exception;
+
+    /**
+     * Attaches to output of already running container. Output is streamed from the beginning.
+     *
+     * @param containerName name of the container
+     * @return handle to the container providing its output
+     */
+    StartedContainer attach(String containerName) throws Exception;
+
+    /**
+     * @param containerName name of the container
+     * @return true if container with given name exists and is running
+     */
+    boolean isRunning(String containerName) throws Exception;
+
+    /**
+     * Resolves host ports the container ports are published on. It's needed for ports published without host port, see
+     * {@link Docker.Builder#withEphemeralPort(int)}, which are bound to a free port chosen by docker.
+     *
+     * @param containerName name of the container
+     * @return host ports by container port in format "port/protocol", for example "8080/tcp"; empty map if the
+     *         container is not running or it publishes no ports
+     */
+    Map<String, Integer> getMappedPorts(String containerName) throws Exception;
+
+    /**
+     * Finds running container by label.
+     *
+     * @param labelName name of label
+     * @param labelValue value of label
+     * @return name of running container having the label or null if there is no such container
+     */
+    String findRunningContainer(String labelName, String labelValue) throws Exception;
+
+    /**
+     * Stops container, it's killed if it does not stop within given timeout.
+     *
+     * @param containerName name of the container
+     * @param timeout the maximum time to wait
+     * @param unit the time unit of the {@code timeout} argument
+     */
+    void stop(String containerName, long timeout, TimeUnit unit) throws Exception;
+
+    /**
+     * Kills container.
+     *
+     * @param containerName name of the container
+     */
+    void kill(String containerName) throws Exception;
+
+    /**
+     * Removes stopped container.
+     *
+     * @param containerName name of the container
+     */
+    void remove(String containerName) throws Exception;
+
+    /**
+     * @param containerName name of the container
+     * @return current health status of the container, for example "starting" or "healthy", null if container does not
+     *         define health check
+     */
+    String getHealthStatus(String containerName) throws Exception;
+
+    /**
+     * Subscribes for health status changes of the container reported by Docker events.
+     *
+     * @param containerName name of the container
+     * @param listener listener receiving new health status, for example "healthy"
+     * @return subscription, closing it stops receiving events
+     */
+    AutoCloseable watchHealthStatus(String containerName, Consumer<String> listener) throws Exception;
+}
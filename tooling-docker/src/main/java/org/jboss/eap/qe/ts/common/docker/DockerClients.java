@@ -0,0 +1,44 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+/**
+ * Provides default {@link DockerClient} used by {@link Docker} instances.
+ * <p>
+ * The client is selected by {@code docker.client} system property:
+ * <ul>
+ * <li>{@code cli} (default) - {@link CliDockerClient} executing {@code docker} command line tool</li>
+ * <li>{@code engine-api} - {@link EngineApiDockerClient} talking to Docker Engine REST API on address given by
+ * {@code DOCKER_HOST} environment variable or {@code /var/run/docker.sock}</li>
+ * </ul>
+ */
+public final class DockerClients {
+
+    public static final String DOCKER_CLIENT_PROPERTY = "docker.client";
+    public static final String CLI = "cli";
+    public static final String ENGINE_API = "engine-api";
+
+    private static DockerClient defaultClient;
+
+    private DockerClients() {
+    } // avoid instantiation
+
+    /**
+     * @return shared instance of {@link DockerClient} selected by {@code docker.client} system property
+     */
+    public static synchronized DockerClient getDefault() {
+        if (defaultClient == null) {
+            String client = System.getProperty(DOCKER_CLIENT_PROPERTY, CLI);
+            switch (client) {
+                case CLI:
+                    defaultClient = new CliDockerClient();
+                    break;
+                case ENGINE_API:
+                    defaultClient = new EngineApiDockerClient();
+                    break;
+                default:
+                    throw new DockerException("Unknown value of " + DOCKER_CLIENT_PROPERTY + " system property: " + client
+                            + ". Supported values are " + CLI + " and " + ENGINE_API + ".");
+            }
+        }
+        return defaultClient;
+    }
+}
@@ -0,0 +1,180 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.fusesource.jansi.Ansi;
+
+/**
+ * Pool of shared docker containers, see {@link Docker.Builder#setShared(boolean)}.
+ * <p>
+ * Shared container is started when it's acquired for the first time and it's kept running until JVM shutdown, when it's
+ * stopped by reaper registered as shutdown hook. Number of test classes using the container at the moment is tracked by
+ * reference count.
+ * <p>
+ * Containers can be reused across JVMs, for example Maven forks or modules, when {@code docker.pool.reuse} system
+ * property is set to true. Shared containers are labelled by fingerprint of their configuration. If there is a running
+ * container with the same fingerprint it's reused instead of starting a new one and reaper leaves the containers running
+ * for next JVMs. Such containers can be removed by {@code ./mp-ts.sh stop-shared-containers}.
+ */
+public final class DockerContainerPool {
+
+    public static final String REUSE_PROPERTY = "docker.pool.reuse";
+    public static final String FINGERPRINT_LABEL = "org.jboss.eap.qe.ts.docker.fingerprint";
+
+    private static final DockerContainerPool INSTANCE = new DockerContainerPool(Boolean.getBoolean(REUSE_PROPERTY));
+
+    private final boolean reuseAcrossJvms;
+    private final Map<String, PooledContainer> containers = new ConcurrentHashMap<>();
+    private Thread reaper;
+
+    DockerContainerPool(boolean reuseAcrossJvms) {
+        this.reuseAcrossJvms = reuseAcrossJvms;
+    }
+
+    public static DockerContainerPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns shared container with given fingerprint, it's created by the factory if there is none yet.
+     *
+     * @param fingerprint fingerprint of container configuration
+     * @param factory factory creating the container
+     * @return shared container
+     */
+    Docker get(String fingerprint, Supplier<Docker> factory) {
+        return containers.computeIfAbsent(fingerprint, key -> new PooledContainer(factory.get())).docker;
+    }
+
+    /**
+     * Starts shared container if it's not running yet and increments its reference count.
+     *
+     * @param docker shared container
+     */
+    void acquire(Docker docker) throws Exception {
+        PooledContainer pooled = getPooledContainer(docker);
+        synchronized (pooled) {
+            if (!docker.isStarted()) {
+                registerReaper();
+                String runningContainer = reuseAcrossJvms
+                        ? docker.getDockerClient().findRunningContainer(FINGERPRINT_LABEL, docker.getFingerprint())
+                        : null;
+                if (runningContainer != null) {
+                    docker.attach(runningContainer);
+                } else {
+                    docker.start();
+                }
+            }
+            pooled.references++;
+        }
+    }
+
+    /**
+     * Decrements reference count of shared container. The container is kept running.
+     *
+     * @param docker shared container
+     */
+    void release(Docker docker) {
+        PooledContainer pooled = getPooledContainer(docker);
+        synchronized (pooled) {
+            if (pooled.references > 0) {
+                pooled.references--;
+            }
+        }
+    }
+
+    /**
+     * @param docker shared container
+     * @return number of test classes using the container at the moment
+     */
+    public int getReferenceCount(Docker docker) {
+        PooledContainer pooled = getPooledContainer(docker);
+        synchronized (pooled) {
+            return pooled.references;
+        }
+    }
+
+    /**
+     * Stops all started shared containers. Called by reaper at JVM shutdown unless containers are reused across JVMs.
+     */
+    void stopAll() {
+        for (PooledContainer pooled : containers.values()) {
+            synchronized (pooled) {
+                if (pooled.references > 0) {
+                    System.out.println(Ansi.ansi().reset().a("Shared container ").fgCyan().a(pooled.docker.toString())
+                            .reset().a(" is still used by " + pooled.references + " test classes"));
+                }
+                if (pooled.docker.isStarted()) {
+                    try {
+                        pooled.docker.stop();
+                    } catch (Exception e) {
+                        System.out.println(Ansi.ansi().reset().a("Failed stopping shared container ").fgCyan()
+                                .a(pooled.docker.toString()).reset());
+                    }
+                }
+                pooled.references = 0;
+            }
+        }
+    }
+
+    private PooledContainer getPooledContainer(Docker docker) {
+        PooledContainer pooled = containers.get(docker.getFingerprint());
+        if (pooled == null || pooled.docker != docker) {
+            throw new IllegalArgumentException("Container " + docker + " is not managed by this pool");
+        }
+        return pooled;
+    }
+
+    private synchronized void registerReaper() {
+        if (reaper != null || reuseAcrossJvms) {
+            return;
+        }
+        reaper = new Thread(this::stopAll, "docker-container-pool-reaper");
+        Runtime.getRuntime().addShutdownHook(reaper);
+    }
+
+    /**
+     * Computes fingerprint of container configuration, fingerprint label itself is not included.
+     *
+     * @return hex encoded SHA-256 hash of the configuration
+     */
+    static String fingerprint(String name, String image, List<String> ports, Map<String, String> environmentVariables,
+            Map<String, String> labels, List<String> options, List<String> commandArguments) {
+        Map<String, String> otherLabels = new TreeMap<>(labels);
+        otherLabels.remove(FINGERPRINT_LABEL);
+        return sha256(String.join("\n", name, image, ports.toString(), new TreeMap<>(environmentVariables).toString(),
+                otherLabels.toString(), options.toString(), commandArguments.toString()));
+    }
+
+    /**
+     * @return hex encoded SHA-256 hash of the text
+     */
+    static String sha256(String text) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : hash) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by this JVM", e);
+        }
+    }
+
+    private static final class PooledContainer {
+        private final Docker docker;
+        private int references;
+
+        private PooledContainer(Docker docker) {
+            this.docker = docker;
+        }
+    }
+}
@@ -1,39 +1,79 @@
 package org.jboss.eap.qe.ts.common.docker;
 
-import java.io.IOException;
-import java.net.Socket;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Purpose of this class is to have single place for configuration of docker containers which are used and started in tests.
+ * <p>
+ * Ports of the containers are published on ephemeral host ports so several test suites can run on one machine at once.
+ * Host ports are resolved by {@link Docker#getMappedPort(int)} once the container is started, for example
+ * {@code jaeger.getMappedPort(DockerContainers.JAEGER_QUERY_PORT)}.
  */
 public class DockerContainers {
 
+    /**
+     * Image of {@link #jaeger()} container, images of all containers are listed by {@link DockerImages#getImages()}
+     */
+    public static final String JAEGER_IMAGE = "jaegertracing/all-in-one:1.15.1";
+
+    /**
+     * Jaeger agent port accepting spans in compact thrift protocol (UDP)
+     */
+    public static final int JAEGER_AGENT_COMPACT_PORT = 6831;
+    /**
+     * Jaeger agent port accepting spans in binary thrift protocol (UDP)
+     */
+    public static final int JAEGER_AGENT_BINARY_PORT = 6832;
+    /**
+     * Jaeger query service and UI
+     */
+    public static final int JAEGER_QUERY_PORT = 16686;
+    /**
+     * Jaeger collector accepting spans over HTTP
+     */
+    public static final int JAEGER_COLLECTOR_HTTP_PORT = 14268;
+    /**
+     * Jaeger collector accepting spans over gRPC
+     */
+    public static final int JAEGER_COLLECTOR_GRPC_PORT = 14250;
+    /**
+     * Zipkin compatible collector
+     */
+    public static final int JAEGER_ZIPKIN_PORT = 9411;
+
     private DockerContainers() {
     } // avoid instantiation
 
+    /**
+     * Jaeger container is shared by all test classes, see {@link Docker.Builder#setShared(boolean)}
+     *
+     * @return shared Jaeger container
+     */
     public static Docker jaeger() {
-        return new Docker.Builder("jaeger", "jaegertracing/all-in-one:1.15.1")
-                .setContainerReadyCondition(() -> {
-                    try {
-                        new Socket("127.0.0.1", 16686).close();
-                        return true;
-                    } catch (IOException e) {
-                        return false;
-                    }
-                })
+        return new Docker.Builder("jaeger", JAEGER_IMAGE)
+                .setContainerReadyCondition(ContainerReadyConditions.publishedTcpPortOpened(JAEGER_QUERY_PORT))
                 .setContainerReadyTimeout(3, TimeUnit.MINUTES)
-                .withPortMapping("5775:5775/udp")
-                .withPortMapping("6831:6831/udp")
-                .withPortMapping("6832:6832/udp")
-                .withPortMapping("5778:5778")
-                .withPortMapping("16686:16686")
-                .withPortMapping("14250:14250")
-                .withPortMapping("14267:14267")
-                .withPortMapping("14268:14268")
-                .withPortMapping("9411:9411")
-                .withEnvVar("COLLECTOR_ZIPKIN_HTTP_PORT", "9411")
-                .withCmdArg("--reporter.grpc.host-port=localhost:14250")
+                .withEphemeralPort(5775, "udp")
+                .withEphemeralPort(JAEGER_AGENT_COMPACT_PORT, "udp")
+                .withEphemeralPort(JAEGER_AGENT_BINARY_PORT, "udp")
+                .withEphemeralPort(5778)
+                .withEphemeralPort(JAEGER_QUERY_PORT)
+                .withEphemeralPort(JAEGER_COLLECTOR_GRPC_PORT)
+                .withEphemeralPort(14267)
+                .withEphemeralPort(JAEGER_COLLECTOR_HTTP_PORT)
+                .withEphemeralPort(JAEGER_ZIPKIN_PORT)
+                .withEnvVar("COLLECTOR_ZIPKIN_HTTP_PORT", String.valueOf(JAEGER_ZIPKIN_PORT))
+                // agent reports to collector inside the container, so container port is used
+                .withCmdArg("--reporter.grpc.host-port=localhost:" + JAEGER_COLLECTOR_GRPC_PORT)
+                .setShared(true)
                 .build();
     }
+
+    /**
+     * @param jaeger started Jaeger container
+     * @return base URL of Jaeger query service, for example {@code http://127.0.0.1:32768}
+     */
+    public static String jaegerQueryUrl(Docker jaeger) throws Exception {
+        return "http://127.0.0.1:" + jaeger.getMappedPort(JAEGER_QUERY_PORT);
+    }
 }
@@ -0,0 +1,294 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.fusesource.jansi.Ansi;
+import org.junit.rules.ExternalResource;
+
+/**
+ * Set of docker containers with dependencies between them. Containers which do not depend on each other are started
+ * concurrently, container is started once all containers it depends on are ready. Containers are stopped in reverse
+ * order - container is stopped once all containers depending on it are stopped.
+ * <p>
+ * Intended to be used as a JUnit @ClassRule instead of several {@link Docker} rules:
+ *
+ * <pre>
+ * &#64;ClassRule
+ * public static DockerEnvironment environment = new DockerEnvironment.Builder()
+ *         .withContainer(new Docker.Builder("db", "postgres:12"))
+ *         .withContainer(new Docker.Builder("app", "app:latest"), "db")
+ *         .build();
+ * </pre>
+ */
+public class DockerEnvironment extends ExternalResource {
+
+    private final Map<String, Docker> containers;
+    private final Map<String, Set<String>> dependencies;
+    private final Map<String, Set<String>> dependents;
+    private final Map<String, ContainerTimeline> timeline = new LinkedHashMap<>();
+    private long environmentStartTime;
+
+    private DockerEnvironment(Map<String, Docker> containers, Map<String, Set<String>> dependencies) {
+        this.containers = containers;
+        this.dependencies = dependencies;
+        this.dependents = new HashMap<>();
+        containers.keySet().forEach(name -> dependents.put(name, new HashSet<>()));
+        dependencies.forEach((name, containerDependencies) -> containerDependencies
+                .forEach(dependency -> dependents.get(dependency).add(name)));
+    }
+
+    /**
+     * @param name name of the container as given to {@link Docker.Builder}
+     * @return container of this environment
+     */
+    public Docker getContainer(String name) {
+        Docker container = containers.get(name);
+        if (container == null) {
+            throw new IllegalArgumentException("There is no container " + name + " in the environment, containers are "
+                    + containers.keySet());
+        }
+        return container;
+    }
+
+    /**
+     * Starts all containers and waits until they are ready. If any container fails to start, already started containers
+     * are stopped.
+     */
+    public void start() throws Exception {
+        environmentStartTime = System.nanoTime();
+        timeline.clear();
+        containers.keySet().forEach(name -> timeline.put(name, new ContainerTimeline(name)));
+        // images are pulled in parallel up front instead of one by one when dependent containers are started
+        Map<DockerClient, Set<String>> imagesByClient = new LinkedHashMap<>();
+        containers.values().forEach(container -> imagesByClient
+                .computeIfAbsent(container.getDockerClient(), client -> new LinkedHashSet<>()).add(container.getImage()));
+        for (Map.Entry<DockerClient, Set<String>> images : imagesByClient.entrySet()) {
+            DockerImages.pullMissing(images.getKey(), images.getValue());
+        }
+        try {
+            runInDependencyOrder(new ArrayList<>(containers.keySet()), dependencies::get, name -> {
+                ContainerTimeline containerTimeline = timeline.get(name);
+                containerTimeline.startRequestedMillis = elapsedMillis();
+                containers.get(name).acquire();
+                containerTimeline.readyMillis = elapsedMillis();
+            });
+        } catch (Exception e) {
+            stop();
+            throw e;
+        }
+        printTimeline();
+    }
+
+    /**
+     * Stops all started containers.
+     */
+    public void stop() {
+        List<String> stopOrder = new ArrayList<>(containers.keySet());
+        Collections.reverse(stopOrder);
+        try {
+            runInDependencyOrder(stopOrder, dependents::get, name -> {
+                Docker container = containers.get(name);
+                ContainerTimeline containerTimeline = timeline.get(name);
+                if (containerTimeline.readyMillis < 0 && !container.isStarted()) {
+                    // container was not started
+                    return;
+                }
+                containerTimeline.stopRequestedMillis = elapsedMillis();
+                container.release();
+                containerTimeline.stoppedMillis = elapsedMillis();
+            });
+        } catch (Exception e) {
+            System.out.println(Ansi.ansi().reset().a("Failed stopping docker environment: ").a(e.getMessage()));
+        }
+        printTimeline();
+    }
+
+    /**
+     * @return start, ready and stop times of every container in the environment
+     */
+    public List<ContainerTimeline> getTimeline() {
+        return new ArrayList<>(timeline.values());
+    }
+
+    private long elapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - environmentStartTime);
+    }
+
+    private void printTimeline() {
+        Ansi report = Ansi.ansi().reset().a("Docker environment timeline (ms since start):");
+        for (ContainerTimeline containerTimeline : timeline.values()) {
+            report.newline().a("    ").fgCyan().a(containerTimeline.getName()).reset().a(" - ").a(containerTimeline);
+        }
+        System.out.println(report);
+    }
+
+    /**
+     * Runs the action on every container. Action on a container runs once it finished on all its prerequisites,
+     * containers without pending prerequisites are processed concurrently.
+     *
+     * @param order containers in order where prerequisites of a container always precede it
+     * @param prerequisites function returning prerequisites of a container
+     * @param action action to be run on the container
+     */
+    private void runInDependencyOrder(List<String> order, Function<String, Set<String>> prerequisites,
+            ContainerAction action) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, order.size()), runnable -> {
+            Thread thread = new Thread(runnable, "docker-environment");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Map<String, CompletableFuture<Void>> futures = new HashMap<>();
+        try {
+            for (String name : order) {
+                CompletableFuture<?>[] prerequisiteFutures = prerequisites.apply(name).stream()
+                        .map(futures::get)
+                        .toArray(CompletableFuture[]::new);
+                futures.put(name, CompletableFuture.allOf(prerequisiteFutures).thenRunAsync(() -> {
+                    try {
+                        action.run(name);
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor));
+            }
+            CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Override
+    protected void before() throws Throwable {
+        start();
+    }
+
+    @Override
+    protected void after() {
+        stop();
+    }
+
+    @FunctionalInterface
+    private interface ContainerAction {
+        void run(String name) throws Exception;
+    }
+
+    /**
+     * Start, ready and stop times of the container in milliseconds since the environment start, -1 if it did not happen
+     */
+    public static class ContainerTimeline {
+        private final String name;
+        private volatile long startRequestedMillis = -1;
+        private volatile long readyMillis = -1;
+        private volatile long stopRequestedMillis = -1;
+        private volatile long stoppedMillis = -1;
+
+        private ContainerTimeline(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getStartRequestedMillis() {
+            return startRequestedMillis;
+        }
+
+        public long getReadyMillis() {
+            return readyMillis;
+        }
+
+        public long getStopRequestedMillis() {
+            return stopRequestedMillis;
+        }
+
+        public long getStoppedMillis() {
+            return stoppedMillis;
+        }
+
+        @Override
+        public String toString() {
+            String started = "start: " + startRequestedMillis + ", ready: " + readyMillis + " ("
+                    + (readyMillis - startRequestedMillis) + ")";
+            if (stoppedMillis < 0) {
+                return started;
+            }
+            return started + ", stop: " + stopRequestedMillis + ", stopped: " + stoppedMillis + " ("
+                    + (stoppedMillis - stopRequestedMillis) + ")";
+        }
+    }
+
+    public static class Builder {
+        private final Map<String, Docker.Builder> containers = new LinkedHashMap<>();
+        private final Map<String, Set<String>> dependencies = new LinkedHashMap<>();
+
+        /**
+         * Adds container into the environment
+         *
+         * @param container builder of the container, its name must be unique within the environment
+         * @param dependsOn names of containers which must be ready before this container is started
+         */
+        public Builder withContainer(Docker.Builder container, String... dependsOn) {
+            if (containers.containsKey(container.getName())) {
+                throw new IllegalArgumentException("Container " + container.getName() + " is already in the environment");
+            }
+            containers.put(container.getName(), container);
+            dependencies.put(container.getName(), new LinkedHashSet<>(Arrays.asList(dependsOn)));
+            return this;
+        }
+
+        /**
+         * Builds instance of DockerEnvironment class.
+         *
+         * @return build DockerEnvironment instance
+         * @throws IllegalArgumentException if dependency is not part of the environment or dependencies are cyclic
+         */
+        public DockerEnvironment build() {
+            Map<String, Docker> sortedContainers = new LinkedHashMap<>();
+            Set<String> visiting = new HashSet<>();
+            for (String name : containers.keySet()) {
+                addInDependencyOrder(name, sortedContainers, visiting);
+            }
+            return new DockerEnvironment(sortedContainers, dependencies);
+        }
+
+        private void addInDependencyOrder(String name, Map<String, Docker> sortedContainers, Set<String> visiting) {
+            if (sortedContainers.containsKey(name)) {
+                return;
+            }
+            if (!visiting.add(name)) {
+                throw new IllegalArgumentException("Cyclic dependency of container " + name);
+            }
+            for (String dependency : dependencies.get(name)) {
+                if (!containers.containsKey(dependency)) {
+                    throw new IllegalArgumentException("Container " + name + " depends on " + dependency
+                            + " which is not part of the environment");
+                }
+                addInDependencyOrder(dependency, sortedContainers, visiting);
+            }
+            visiting.remove(name);
+            sortedContainers.put(name, containers.get(name).build());
+        }
+    }
+}
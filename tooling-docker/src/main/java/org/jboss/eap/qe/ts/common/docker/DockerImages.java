@@ -0,0 +1,155 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.fusesource.jansi.Ansi;
+
+/**
+ * Makes sure docker images are present locally before containers are started. Image missing locally would be pulled by
+ * {@code docker run} within container ready timeout, so time of the pull would be reported as time of container
+ * startup. Images are pulled in advance instead and pull time is reported separately.
+ * <p>
+ * Images needed by the test suite can be pulled before tests start by {@link #pullMissing(DockerClient, Collection)}
+ * with images of {@link #getImages()} or by running this class: {@code java DockerImages [additional images]}.
+ * {@code java DockerImages --list} prints the images without pulling them.
+ */
+public final class DockerImages {
+
+    public static final String LIST_ARGUMENT = "--list";
+
+    private static final int PARALLEL_PULLS = 4;
+
+    // images known to be present by Docker Engine endpoint, there is no need to check them again
+    private static final Map<String, Set<String>> PRESENT_IMAGES = new ConcurrentHashMap<>();
+    private static final Map<String, Object> IMAGE_LOCKS = new ConcurrentHashMap<>();
+
+    private DockerImages() {
+    } // avoid instantiation
+
+    /**
+     * Images are read from {@code *_IMAGE} constants of {@link DockerContainers}, containers are not created, so shared
+     * containers are not registered in {@link DockerContainerPool}.
+     *
+     * @return images of all containers defined in {@link DockerContainers}
+     */
+    public static Set<String> getImages() {
+        Set<String> images = new LinkedHashSet<>();
+        for (Field field : DockerContainers.class.getFields()) {
+            if (Modifier.isStatic(field.getModifiers()) && String.class.equals(field.getType())
+                    && field.getName().endsWith("_IMAGE")) {
+                try {
+                    images.add((String) field.get(null));
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException("Failed to get image from " + field, e);
+                }
+            }
+        }
+        return images;
+    }
+
+    /**
+     * Pulls image if it's not present locally. Concurrent calls for the same image and Docker Engine pull it once.
+     *
+     * @param dockerClient docker client
+     * @param image image name including tag
+     * @return time of the pull in milliseconds, 0 if the image was present
+     */
+    public static long ensurePresent(DockerClient dockerClient, String image) throws Exception {
+        String endpoint = dockerClient.getEndpoint();
+        Set<String> presentImages = PRESENT_IMAGES.computeIfAbsent(endpoint, key -> ConcurrentHashMap.newKeySet());
+        if (presentImages.contains(image)) {
+            return 0;
+        }
+        synchronized (IMAGE_LOCKS.computeIfAbsent(endpoint + " " + image, key -> new Object())) {
+            if (presentImages.contains(image)) {
+                return 0;
+            }
+            long pullTime = 0;
+            if (!dockerClient.isImagePresent(image)) {
+                System.out.println(Ansi.ansi().reset().a("Pulling image ").fgYellow().a(image).reset());
+                long startTime = System.nanoTime();
+                dockerClient.pull(image);
+                pullTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+                System.out.println(Ansi.ansi().reset().a("Image ").fgYellow().a(image).reset()
+                        .a(" pulled in " + pullTime + " ms"));
+            }
+            presentImages.add(image);
+            return pullTime;
+        }
+    }
+
+    /**
+     * Pulls images missing locally in parallel.
+     *
+     * @param dockerClient docker client
+     * @param images images to be pulled if they are missing
+     * @return time of the pull in milliseconds by image, 0 if the image was present
+     * @throws DockerException if any of the pulls failed, other images are pulled anyway
+     */
+    public static Map<String, Long> pullMissing(DockerClient dockerClient, Collection<String> images) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(PARALLEL_PULLS, images.size())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "docker-image-pull");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        try {
+            Map<String, Future<Long>> pulls = new LinkedHashMap<>();
+            for (String image : images) {
+                pulls.put(image, executor.submit(() -> ensurePresent(dockerClient, image)));
+            }
+            Map<String, Long> pullTimes = new LinkedHashMap<>();
+            List<String> failures = new ArrayList<>();
+            for (Map.Entry<String, Future<Long>> pull : pulls.entrySet()) {
+                try {
+                    pullTimes.put(pull.getKey(), pull.getValue().get());
+                } catch (ExecutionException e) {
+                    failures.add(e.getCause().getMessage());
+                }
+            }
+            if (!failures.isEmpty()) {
+                throw new DockerException("Pulling of docker images failed: " + failures);
+            }
+            return pullTimes;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Pulls images of {@link DockerContainers} and images given as arguments which are missing locally. Images are only
+     * printed, one per line, if {@value #LIST_ARGUMENT} is the only argument.
+     *
+     * @param args additional images or {@value #LIST_ARGUMENT}
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length == 1 && LIST_ARGUMENT.equals(args[0])) {
+            getImages().forEach(System.out::println);
+            return;
+        }
+        Set<String> images = getImages();
+        images.addAll(Arrays.asList(args));
+        DockerClient dockerClient = DockerClients.getDefault();
+        dockerClient.checkDockerPresent();
+        long startTime = System.nanoTime();
+        Map<String, Long> pullTimes = pullMissing(dockerClient, images);
+        pullTimes.forEach((image, pullTime) -> System.out.println(Ansi.ansi().reset().fgYellow().a(image).reset()
+                .a(pullTime == 0 ? " - present" : " - pulled in " + pullTime + " ms")));
+        System.out.println("Images are ready in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) + " ms");
+    }
+}
@@ -0,0 +1,39 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Single connection to Docker Engine REST API
+ */
+final class EngineApiConnection implements Closeable {
+
+    private final Closeable socket;
+    private final InputStream input;
+    private final OutputStream output;
+
+    EngineApiConnection(Closeable socket, InputStream input, OutputStream output) {
+        this.socket = socket;
+        this.input = input;
+        this.output = output;
+    }
+
+    InputStream getInput() {
+        return input;
+    }
+
+    OutputStream getOutput() {
+        return output;
+    }
+
+    @Override
+    public void close() {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // connection is being discarded
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * {@link DockerClient} which talks directly to Docker Engine REST API, by default over Unix socket
+ * {@code /var/run/docker.sock}. There is no process spawned for any operation and connections to Docker Engine are
+ * reused.
+ * <p>
+ * Options added by {@link Docker.Builder#withCmdOption(String)} are specific to {@code docker run} command and they are
+ * not supported by this client, use {@link CliDockerClient} for containers which need them.
+ */
+public class EngineApiDockerClient implements DockerClient, AutoCloseable {
+
+    private final EngineApiEndpoint endpoint;
+    private final EngineApiHttpClient httpClient;
+
+    /**
+     * Creates client for endpoint defined by {@code DOCKER_HOST} environment variable
+     */
+    public EngineApiDockerClient() {
+        this(EngineApiEndpoint.fromEnvironment());
+    }
+
+    public EngineApiDockerClient(EngineApiEndpoint endpoint) {
+        this.endpoint = endpoint;
+        this.httpClient = new EngineApiHttpClient(endpoint);
+    }
+
+    @Override
+    public void checkDockerPresent() {
+        try {
+            EngineApiHttpClient.Response response = httpClient.execute("GET", "/_ping", null);
+            if (response.isSuccessful()) {
+                return;
+            }
+        } catch (IOException e) {
+            // handled below
+        }
+        throw new DockerException("Docker is either not present or not installed on this machine. It must be installed " +
+                "and started up for executing tests with docker container.");
+    }
+
+    @Override
+    public String getEndpoint() {
+        return endpoint.toString();
+    }
+
+    @Override
+    public StartedContainer run(ContainerSpec spec) throws Exception {
+        if (!spec.getOptions().isEmpty()) {
+            throw new DockerException(spec.getName() + " - Options " + spec.getOptions() + " are not supported by "
+                    + getClass().getSimpleName() + ". Use " + CliDockerClient.class.getSimpleName() + " instead.");
+        }
+        String createPath = "/containers/create?name=" + encode(spec.getName());
+        String createBody = createContainerRequest(spec).toString();
+
+        EngineApiHttpClient.Response created = httpClient.execute("POST", createPath, createBody);
+        if (created.getStatus() == 404) {
+            // image is not present locally, docker run pulls the image as well
+            pull(spec.getImage());
+            created = httpClient.execute("POST", createPath, createBody);
+        }
+        checkSuccess(created, "creating container " + spec.getName());
+        checkSuccess(httpClient.execute("POST", containerPath(spec.getName()) + "/start", null),
+                "starting container " + spec.getName());
+
+        return attach(spec.getName(), "POST " + createPath + " " + createBody);
+    }
+
+    @Override
+    public boolean isImagePresent(String image) throws Exception {
+        return getImageId(image) != null;
+    }
+
+    @Override
+    public String getImageId(String image) throws Exception {
+        // image name is part of the path as it is, slashes of repository name included
+        EngineApiHttpClient.Response response = httpClient.execute("GET", "/images/" + image + "/json", null);
+        if (response.getStatus() == 404) {
+            return null;
+        }
+        checkSuccess(response, "inspecting image " + image);
+        return JsonParser.parseString(response.getBody()).getAsJsonObject().get("Id").getAsString();
+    }
+
+    @Override
+    public void commit(String containerName, String image, Map<String, String> labels) throws Exception {
+        String[] nameAndTag = splitTag(image);
+        StringBuilder path = new StringBuilder("/commit?container=").append(encode(containerName))
+                .append("&repo=").append(encode(nameAndTag[0]))
+                .append("&tag=").append(encode(nameAndTag[1]));
+        for (Map.Entry<String, String> label : labels.entrySet()) {
+            path.append("&changes=").append(encode("LABEL " + label.getKey() + "=" + label.getValue()));
+        }
+        checkSuccess(httpClient.execute("POST", path.toString(), null),
+                "committing container " + containerName + " into image " + image);
+    }
+
+    @Override
+    public StartedContainer attach(String containerName) throws Exception {
+        return attach(containerName, "POST " + containerPath(containerName) + "/attach");
+    }
+
+    private StartedContainer attach(String containerName, String startCommand) throws IOException {
+        MultiplexedStreamInputStream output = new MultiplexedStreamInputStream(httpClient.openStream("POST",
+                containerPath(containerName) + "/attach?logs=1&stream=1&stdout=1&stderr=1", true));
+
+        return new StartedContainer() {
+            private Integer exitCode;
+
+            @Override
+            public InputStream getOutput() {
+                return output;
+            }
+
+            @Override
+            public boolean hasFailed() throws Exception {
+                // output stream ends when the container stops, there is no need to ask Docker Engine before
+                if (!output.isEndOfStream()) {
+                    return false;
+                }
+                if (exitCode == null) {
+                    JsonObject state = inspect(containerName);
+                    exitCode = state == null ? -1 : state.getAsJsonObject("State").get("ExitCode").getAsInt();
+                }
+                return exitCode != 0;
+            }
+
+            @Override
+            public String getStartCommand() {
+                return startCommand;
+            }
+
+            @Override
+            public void close() {
+                try {
+                    output.close();
+                } catch (IOException ignored) {
+                    // stream is being discarded
+                }
+            }
+        };
+    }
+
+    @Override
+    public boolean isRunning(String containerName) throws Exception {
+        JsonObject container = inspect(containerName);
+        return container != null && container.getAsJsonObject("State").get("Running").getAsBoolean();
+    }
+
+    @Override
+    public Map<String, Integer> getMappedPorts(String containerName) throws Exception {
+        Map<String, Integer> mappedPorts = new HashMap<>();
+        JsonObject container = inspect(containerName);
+        if (container == null || !container.has("NetworkSettings")) {
+            return mappedPorts;
+        }
+        JsonElement ports = container.getAsJsonObject("NetworkSettings").get("Ports");
+        if (ports == null || ports.isJsonNull()) {
+            return mappedPorts;
+        }
+        for (Map.Entry<String, JsonElement> port : ports.getAsJsonObject().entrySet()) {
+            // exposed but not published ports have null bindings
+            if (port.getValue().isJsonArray() && port.getValue().getAsJsonArray().size() > 0) {
+                String hostPort = port.getValue().getAsJsonArray().get(0).getAsJsonObject().get("HostPort")
+                        .getAsString();
+                if (!hostPort.isEmpty()) {
+                    mappedPorts.put(port.getKey(), Integer.parseInt(hostPort));
+                }
+            }
+        }
+        return mappedPorts;
+    }
+
+    @Override
+    public String findRunningContainer(String labelName, String labelValue) throws Exception {
+        JsonObject filters = new JsonObject();
+        JsonArray label = new JsonArray();
+        label.add(labelName + "=" + labelValue);
+        filters.add("label", label);
+        EngineApiHttpClient.Response response = httpClient.execute("GET",
+                "/containers/json?filters=" + encode(filters.toString()), null);
+        checkSuccess(response, "listing containers");
+        JsonArray containers = JsonParser.parseString(response.getBody()).getAsJsonArray();
+        if (containers.size() == 0) {
+            return null;
+        }
+        // names are prefixed by "/"
+        return containers.get(0).getAsJsonObject().getAsJsonArray("Names").get(0).getAsString().substring(1);
+    }
+
+    @Override
+    public void stop(String containerName, long timeout, TimeUnit unit) throws Exception {
+        httpClient.execute("POST", containerPath(containerName) + "/stop?t=" + unit.toSeconds(timeout), null);
+    }
+
+    @Override
+    public void kill(String containerName) throws Exception {
+        httpClient.execute("POST", containerPath(containerName) + "/kill", null);
+    }
+
+    @Override
+    public void remove(String containerName) throws Exception {
+        httpClient.execute("DELETE", containerPath(containerName), null);
+    }
+
+    @Override
+    public String getHealthStatus(String containerName) throws Exception {
+        JsonObject container = inspect(containerName);
+        if (container == null) {
+            return null;
+        }
+        JsonElement health = container.getAsJsonObject("State").get("Health");
+        return health == null || health.isJsonNull() ? null : health.getAsJsonObject().get("Status").getAsString();
+    }
+
+    @Override
+    public AutoCloseable watchHealthStatus(String containerName, Consumer<String> listener) throws Exception {
+        JsonObject filters = new JsonObject();
+        JsonArray container = new JsonArray();
+        container.add(containerName);
+        filters.add("container", container);
+        JsonArray event = new JsonArray();
+        event.add("health_status");
+        filters.add("event", event);
+        InputStream events = httpClient.openStream("GET", "/events?filters=" + encode(filters.toString()), false);
+
+        Thread eventReader = new Thread(() -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(events, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.trim().isEmpty()) {
+                        continue;
+                    }
+                    // events are JSON objects with status in format "health_status: healthy"
+                    String status = JsonParser.parseString(line).getAsJsonObject().get("status").getAsString();
+                    listener.accept(status.substring(status.indexOf(':') + 1).trim());
+                }
+            } catch (IOException ignored) {
+                // subscription was closed
+            }
+        }, containerName + "-health-events");
+        eventReader.setDaemon(true);
+        eventReader.start();
+        return events::close;
+    }
+
+    /**
+     * Closes idle connections to Docker Engine
+     */
+    @Override
+    public void close() {
+        httpClient.close();
+    }
+
+    /**
+     * @param containerName name of the container
+     * @return JSON returned by container inspect or null if container does not exist
+     */
+    JsonObject inspect(String containerName) throws IOException {
+        EngineApiHttpClient.Response response = httpClient.execute("GET", containerPath(containerName) + "/json", null);
+        if (response.getStatus() == 404) {
+            return null;
+        }
+        checkSuccess(response, "inspecting container " + containerName);
+        return JsonParser.parseString(response.getBody()).getAsJsonObject();
+    }
+
+    @Override
+    public void pull(String image) throws IOException {
+        String[] nameAndTag = splitTag(image);
+        EngineApiHttpClient.Response response = httpClient.execute("POST",
+                "/images/create?fromImage=" + encode(nameAndTag[0]) + "&tag=" + encode(nameAndTag[1]), null);
+        checkSuccess(response, "pulling image " + image);
+        // progress of the pull is streamed as JSON messages, failure is reported in the last one
+        try (BufferedReader reader = new BufferedReader(new StringReader(response.getBody()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.contains("\"error\"")) {
+                    throw new DockerException("Pulling image " + image + " failed: " + line);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return image name and tag, "latest" if the image has no tag
+     */
+    private static String[] splitTag(String image) {
+        int tagSeparator = image.lastIndexOf(':');
+        if (tagSeparator > image.lastIndexOf('/')) {
+            return new String[] { image.substring(0, tagSeparator), image.substring(tagSeparator + 1) };
+        }
+        return new String[] { image, "latest" };
+    }
+
+    private static JsonObject createContainerRequest(ContainerSpec spec) {
+        JsonObject request = new JsonObject();
+        request.addProperty("Image", spec.getImage());
+
+        JsonArray env = new JsonArray();
+        for (Map.Entry<String, String> envVar : spec.getEnvironmentVariables().entrySet()) {
+            env.add(envVar.getKey() + "=" + envVar.getValue());
+        }
+        request.add("Env", env);
+
+        JsonObject labels = new JsonObject();
+        spec.getLabels().forEach(labels::addProperty);
+        request.add("Labels", labels);
+
+        if (!spec.getCommandArguments().isEmpty()) {
+            JsonArray cmd = new JsonArray();
+            spec.getCommandArguments().forEach(cmd::add);
+            request.add("Cmd", cmd);
+        }
+
+        JsonObject exposedPorts = new JsonObject();
+        JsonObject portBindings = new JsonObject();
+        for (String port : spec.getPorts()) {
+            PortMapping portMapping = PortMapping.parse(port);
+            exposedPorts.add(portMapping.getContainerPortKey(), new JsonObject());
+            JsonObject binding = new JsonObject();
+            binding.addProperty("HostIp", portMapping.getHostIp());
+            binding.addProperty("HostPort", portMapping.getHostPort());
+            JsonElement bindings = portBindings.get(portMapping.getContainerPortKey());
+            if (bindings == null) {
+                bindings = new JsonArray();
+                portBindings.add(portMapping.getContainerPortKey(), bindings);
+            }
+            bindings.getAsJsonArray().add(binding);
+        }
+        request.add("ExposedPorts", exposedPorts);
+
+        JsonObject hostConfig = new JsonObject();
+        hostConfig.add("PortBindings", portBindings);
+        request.add("HostConfig", hostConfig);
+        return request;
+    }
+
+    private static void checkSuccess(EngineApiHttpClient.Response response, String action) {
+        if (!response.isSuccessful() && response.getStatus() != 304) {
+            throw new DockerException("Docker Engine failed " + action + ": " + response.getErrorMessage());
+        }
+    }
+
+    private static String containerPath(String containerName) {
+        return "/containers/" + encode(containerName);
+    }
+
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
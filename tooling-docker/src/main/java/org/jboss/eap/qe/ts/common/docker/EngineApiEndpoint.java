@@ -0,0 +1,123 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.InetSocketAddress;
+import java.net.ProtocolFamily;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Address of Docker Engine REST API. Engine listens on Unix socket {@code /var/run/docker.sock} by default, the address
+ * can be changed by {@code DOCKER_HOST} environment variable the same way as for {@code docker} command line tool.
+ * <p>
+ * Connecting to Unix socket requires JDK 16+ as older JDKs do not support Unix domain sockets. Use
+ * {@code DOCKER_HOST=tcp://host:port} on older JDKs.
+ */
+public final class EngineApiEndpoint {
+
+    public static final String DOCKER_HOST_ENV_VARIABLE = "DOCKER_HOST";
+    public static final String DEFAULT_UNIX_SOCKET_PATH = "/var/run/docker.sock";
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 10_000;
+
+    private final String unixSocketPath;
+    private final String host;
+    private final int port;
+
+    private EngineApiEndpoint(String unixSocketPath, String host, int port) {
+        this.unixSocketPath = unixSocketPath;
+        this.host = host;
+        this.port = port;
+    }
+
+    /**
+     * @return endpoint defined by {@code DOCKER_HOST} environment variable or default Unix socket if not defined
+     */
+    public static EngineApiEndpoint fromEnvironment() {
+        String dockerHost = System.getenv(DOCKER_HOST_ENV_VARIABLE);
+        if (dockerHost == null || dockerHost.isEmpty()) {
+            return unixSocket(DEFAULT_UNIX_SOCKET_PATH);
+        }
+        if (dockerHost.startsWith("unix://")) {
+            return unixSocket(dockerHost.substring("unix://".length()));
+        }
+        if (dockerHost.startsWith("tcp://")) {
+            URI uri = URI.create(dockerHost);
+            return tcp(uri.getHost(), uri.getPort() == -1 ? 2375 : uri.getPort());
+        }
+        throw new DockerException("Unsupported format of " + DOCKER_HOST_ENV_VARIABLE + " environment variable: "
+                + dockerHost + ". Only unix:// and tcp:// addresses are supported.");
+    }
+
+    public static EngineApiEndpoint unixSocket(String path) {
+        return new EngineApiEndpoint(path, null, -1);
+    }
+
+    public static EngineApiEndpoint tcp(String host, int port) {
+        return new EngineApiEndpoint(null, host, port);
+    }
+
+    /**
+     * Opens new connection to Docker Engine.
+     *
+     * @return opened connection, don't forget to close it
+     */
+    EngineApiConnection connect() throws IOException {
+        if (unixSocketPath != null) {
+            return connectUnixSocket();
+        }
+        Socket socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MILLIS);
+            socket.setTcpNoDelay(true);
+            return new EngineApiConnection(socket, new BufferedInputStream(socket.getInputStream()),
+                    new BufferedOutputStream(socket.getOutputStream()));
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Unix domain sockets are available since JDK 16, reflection is used so the class can be compiled and used on older
+     * JDKs with TCP endpoints.
+     */
+    private EngineApiConnection connectUnixSocket() throws IOException {
+        final SocketChannel channel;
+        final SocketAddress address;
+        try {
+            address = (SocketAddress) Class.forName("java.net.UnixDomainSocketAddress")
+                    .getMethod("of", String.class)
+                    .invoke(null, unixSocketPath);
+            channel = (SocketChannel) SocketChannel.class.getMethod("open", ProtocolFamily.class)
+                    .invoke(null, StandardProtocolFamily.valueOf("UNIX"));
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalArgumentException | IllegalAccessException e) {
+            throw new DockerException("Connecting to Docker Engine on Unix socket " + unixSocketPath + " requires JDK 16 "
+                    + "or newer. Set " + DOCKER_HOST_ENV_VARIABLE + "=tcp://host:port or use " + CliDockerClient.class
+                            .getSimpleName(),
+                    e);
+        } catch (InvocationTargetException e) {
+            throw new IOException("Unable to open Unix socket " + unixSocketPath, e.getCause());
+        }
+        try {
+            channel.connect(address);
+            return new EngineApiConnection(channel, new BufferedInputStream(Channels.newInputStream(channel)),
+                    new BufferedOutputStream(Channels.newOutputStream(channel)));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return unixSocketPath != null ? "unix://" + unixSocketPath : "tcp://" + host + ":" + port;
+    }
+}
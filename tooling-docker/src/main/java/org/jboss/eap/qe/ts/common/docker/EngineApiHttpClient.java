@@ -0,0 +1,353 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Minimal HTTP/1.1 client for Docker Engine REST API. Connections are kept alive and reused so the API calls do not pay
+ * connection setup each time.
+ */
+final class EngineApiHttpClient implements Closeable {
+
+    private static final int MAX_IDLE_CONNECTIONS = 4;
+
+    private final EngineApiEndpoint endpoint;
+    private final Deque<EngineApiConnection> idleConnections = new ArrayDeque<>();
+
+    EngineApiHttpClient(EngineApiEndpoint endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * Executes request and reads whole response body. Request sent over an idle connection which turns out to be closed
+     * by Docker Engine is sent again over a new connection if the connection failed before the request was written, or
+     * before any byte of the response was read and the request is idempotent (not {@code POST}).
+     *
+     * @param method HTTP method
+     * @param path request path including query string
+     * @param jsonBody JSON request body or null
+     * @return response of Docker Engine
+     */
+    Response execute(String method, String path, String jsonBody) throws IOException {
+        EngineApiConnection pooledConnection = pollIdleConnection();
+        if (pooledConnection != null) {
+            try {
+                return execute(pooledConnection, method, path, jsonBody);
+            } catch (StaleConnectionException e) {
+                if (e.requestWritten && !isIdempotent(method)) {
+                    // Docker Engine may have received and processed the request
+                    throw e;
+                }
+            }
+        }
+        return execute(endpoint.connect(), method, path, jsonBody);
+    }
+
+    private Response execute(EngineApiConnection connection, String method, String path, String jsonBody)
+            throws IOException {
+        boolean reusable = false;
+        try {
+            try {
+                writeRequest(connection.getOutput(), method, path, jsonBody, false);
+            } catch (IOException e) {
+                throw new StaleConnectionException(method, path, false, e);
+            }
+            InputStream input = connection.getInput();
+            int firstByte;
+            try {
+                firstByte = input.read();
+            } catch (SocketTimeoutException e) {
+                // Docker Engine is slow to respond, the connection is not stale
+                throw e;
+            } catch (IOException e) {
+                throw new StaleConnectionException(method, path, true, e);
+            }
+            if (firstByte == -1) {
+                throw new StaleConnectionException(method, path, true, null);
+            }
+            Response response = readResponse(input, firstByte, method);
+            reusable = response.keepAlive;
+            return response;
+        } finally {
+            if (reusable) {
+                release(connection);
+            } else {
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * Executes request which response is a stream, for example container attach or events. Connection is not returned
+     * into the pool, it's closed together with returned stream.
+     *
+     * @param method HTTP method
+     * @param path request path including query string
+     * @param upgrade true if connection should be upgraded to raw stream, required by attach
+     * @return stream with response body
+     */
+    InputStream openStream(String method, String path, boolean upgrade) throws IOException {
+        EngineApiConnection connection = endpoint.connect();
+        try {
+            writeRequest(connection.getOutput(), method, path, null, upgrade);
+            InputStream input = connection.getInput();
+            int status = readStatus(input);
+            Map<String, String> headers = readHeaders(input);
+            if (status != 101 && status != 200) {
+                Response response = new Response(status, readBody(input, headers, method, status), false);
+                throw new DockerException(method + " " + path + " failed: " + response.getErrorMessage());
+            }
+            InputStream body = "chunked".equalsIgnoreCase(headers.get("transfer-encoding"))
+                    ? new ChunkedInputStream(input)
+                    : input;
+            return new FilterInputStream(body) {
+                @Override
+                public void close() {
+                    connection.close();
+                }
+            };
+        } catch (IOException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    private synchronized EngineApiConnection pollIdleConnection() {
+        return idleConnections.pollFirst();
+    }
+
+    private void release(EngineApiConnection connection) {
+        synchronized (this) {
+            if (idleConnections.size() < MAX_IDLE_CONNECTIONS) {
+                idleConnections.addFirst(connection);
+                return;
+            }
+        }
+        connection.close();
+    }
+
+    @Override
+    public synchronized void close() {
+        idleConnections.forEach(EngineApiConnection::close);
+        idleConnections.clear();
+    }
+
+    private static void writeRequest(OutputStream output, String method, String path, String jsonBody, boolean upgrade)
+            throws IOException {
+        byte[] body = jsonBody == null ? new byte[0] : jsonBody.getBytes(StandardCharsets.UTF_8);
+        StringBuilder request = new StringBuilder()
+                .append(method).append(' ').append(path).append(" HTTP/1.1\r\n")
+                .append("Host: docker\r\n");
+        if (upgrade) {
+            request.append("Connection: Upgrade\r\n").append("Upgrade: tcp\r\n");
+        }
+        if (jsonBody != null) {
+            request.append("Content-Type: application/json\r\n");
+        }
+        if (jsonBody != null || !"GET".equals(method)) {
+            request.append("Content-Length: ").append(body.length).append("\r\n");
+        }
+        request.append("\r\n");
+        output.write(request.toString().getBytes(StandardCharsets.US_ASCII));
+        output.write(body);
+        output.flush();
+    }
+
+    private static boolean isIdempotent(String method) {
+        return !"POST".equals(method) && !"PATCH".equals(method);
+    }
+
+    private static Response readResponse(InputStream input, int firstByte, String method) throws IOException {
+        int status = parseStatus((char) firstByte + readLine(input));
+        Map<String, String> headers = readHeaders(input);
+        byte[] body = readBody(input, headers, method, status);
+        boolean keepAlive = !"close".equalsIgnoreCase(headers.get("connection"))
+                && (headers.containsKey("content-length") || headers.containsKey("transfer-encoding")
+                        || hasNoBody(method, status));
+        return new Response(status, body, keepAlive);
+    }
+
+    private static int readStatus(InputStream input) throws IOException {
+        return parseStatus(readLine(input));
+    }
+
+    private static int parseStatus(String statusLine) throws IOException {
+        String[] parts = statusLine.split(" ", 3);
+        if (parts.length < 2 || !parts[0].startsWith("HTTP/")) {
+            throw new IOException("Malformed HTTP status line: " + statusLine);
+        }
+        return Integer.parseInt(parts[1]);
+    }
+
+    private static Map<String, String> readHeaders(InputStream input) throws IOException {
+        Map<String, String> headers = new HashMap<>();
+        String line;
+        while (!(line = readLine(input)).isEmpty()) {
+            int separator = line.indexOf(':');
+            if (separator > 0) {
+                headers.put(line.substring(0, separator).trim().toLowerCase(Locale.ROOT),
+                        line.substring(separator + 1).trim());
+            }
+        }
+        return headers;
+    }
+
+    private static byte[] readBody(InputStream input, Map<String, String> headers, String method, int status)
+            throws IOException {
+        if (hasNoBody(method, status)) {
+            return new byte[0];
+        }
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        if ("chunked".equalsIgnoreCase(headers.get("transfer-encoding"))) {
+            copy(new ChunkedInputStream(input), body, Long.MAX_VALUE);
+        } else if (headers.containsKey("content-length")) {
+            long length = Long.parseLong(headers.get("content-length"));
+            if (copy(input, body, length) < length) {
+                throw new EOFException("Connection closed before whole response body was read");
+            }
+        } else {
+            copy(input, body, Long.MAX_VALUE);
+        }
+        return body.toByteArray();
+    }
+
+    private static boolean hasNoBody(String method, int status) {
+        return "HEAD".equals(method) || status == 204 || status == 304 || (status >= 100 && status < 200);
+    }
+
+    private static long copy(InputStream input, OutputStream output, long limit) throws IOException {
+        byte[] buffer = new byte[8192];
+        long copied = 0;
+        int read;
+        while (copied < limit && (read = input.read(buffer, 0, (int) Math.min(buffer.length, limit - copied))) != -1) {
+            output.write(buffer, 0, read);
+            copied += read;
+        }
+        return copied;
+    }
+
+    private static String readLine(InputStream input) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = input.read()) != '\n') {
+            if (b == -1) {
+                throw new EOFException("Connection closed by Docker Engine");
+            }
+            if (b != '\r') {
+                line.append((char) b);
+            }
+        }
+        return line.toString();
+    }
+
+    /**
+     * Decodes body sent with {@code Transfer-Encoding: chunked}
+     */
+    private static final class ChunkedInputStream extends InputStream {
+
+        private final InputStream input;
+        private long remainingInChunk;
+        private boolean finished;
+
+        private ChunkedInputStream(InputStream input) {
+            this.input = input;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (finished) {
+                return -1;
+            }
+            if (remainingInChunk == 0) {
+                String sizeLine = readLine(input);
+                int extension = sizeLine.indexOf(';');
+                remainingInChunk = Long.parseLong(extension == -1 ? sizeLine.trim() : sizeLine.substring(0, extension)
+                        .trim(), 16);
+                if (remainingInChunk == 0) {
+                    // skip trailers
+                    while (!readLine(input).isEmpty()) {
+                        // ignore
+                    }
+                    finished = true;
+                    return -1;
+                }
+            }
+            int read = input.read(buffer, offset, (int) Math.min(length, remainingInChunk));
+            if (read == -1) {
+                throw new EOFException("Connection closed in the middle of chunk");
+            }
+            remainingInChunk -= read;
+            if (remainingInChunk == 0) {
+                readLine(input); // CRLF after chunk data
+            }
+            return read;
+        }
+    }
+
+    /**
+     * Connection failed before any byte of the response was read, typically idle connection closed by Docker Engine
+     */
+    private static final class StaleConnectionException extends IOException {
+
+        private final boolean requestWritten;
+
+        private StaleConnectionException(String method, String path, boolean requestWritten, IOException cause) {
+            super("Connection closed by Docker Engine " + (requestWritten ? "before response to " : "while sending ")
+                    + method + " " + path, cause);
+            this.requestWritten = requestWritten;
+        }
+    }
+
+    /**
+     * Response of Docker Engine with whole body
+     */
+    static final class Response {
+
+        private final int status;
+        private final byte[] body;
+        private final boolean keepAlive;
+
+        private Response(int status, byte[] body, boolean keepAlive) {
+            this.status = status;
+            this.body = body;
+            this.keepAlive = keepAlive;
+        }
+
+        int getStatus() {
+            return status;
+        }
+
+        String getBody() {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+
+        boolean isSuccessful() {
+            return status >= 200 && status < 300;
+        }
+
+        /**
+         * @return status code and error message sent by Docker Engine
+         */
+        String getErrorMessage() {
+            return "HTTP " + status + " " + getBody().trim();
+        }
+    }
+}
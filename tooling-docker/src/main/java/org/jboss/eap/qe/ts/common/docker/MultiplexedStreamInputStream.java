@@ -0,0 +1,75 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Merges standard and error output from stream returned by Docker Engine for containers without TTY. Stream consists of
+ * frames with 8 bytes long header {@code [STREAM_TYPE, 0, 0, 0, SIZE1, SIZE2, SIZE3, SIZE4]} followed by the payload.
+ */
+final class MultiplexedStreamInputStream extends InputStream {
+
+    private static final int HEADER_LENGTH = 8;
+
+    private final InputStream input;
+    private final byte[] header = new byte[HEADER_LENGTH];
+    private long remainingInFrame;
+    private volatile boolean endOfStream;
+
+    MultiplexedStreamInputStream(InputStream input) {
+        this.input = input;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        while (remainingInFrame == 0) {
+            if (!readHeader()) {
+                endOfStream = true;
+                return -1;
+            }
+        }
+        int read = input.read(buffer, offset, (int) Math.min(length, remainingInFrame));
+        if (read == -1) {
+            endOfStream = true;
+            throw new EOFException("Stream closed in the middle of frame");
+        }
+        remainingInFrame -= read;
+        return read;
+    }
+
+    private boolean readHeader() throws IOException {
+        int read = 0;
+        while (read < HEADER_LENGTH) {
+            int count = input.read(header, read, HEADER_LENGTH - read);
+            if (count == -1) {
+                if (read == 0) {
+                    return false;
+                }
+                throw new EOFException("Stream closed in the middle of frame header");
+            }
+            read += count;
+        }
+        remainingInFrame = ((header[4] & 0xFFL) << 24) | ((header[5] & 0xFFL) << 16) | ((header[6] & 0xFFL) << 8)
+                | (header[7] & 0xFFL);
+        return true;
+    }
+
+    /**
+     * @return true once the stream was read to its end, which means the container was stopped
+     */
+    boolean isEndOfStream() {
+        return endOfStream;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+}
@@ -0,0 +1,95 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+/**
+ * Parsed port mapping in format used by docker command - {@code [hostIp:][hostPort:]containerPort[/protocol]}, for
+ * example "8080:80", "8080:80/udp" or "127.0.0.1:8080:80".
+ */
+final class PortMapping {
+
+    private final String hostIp;
+    private final String hostPort;
+    private final int containerPort;
+    private final String protocol;
+
+    private PortMapping(String hostIp, String hostPort, int containerPort, String protocol) {
+        this.hostIp = hostIp;
+        this.hostPort = hostPort;
+        this.containerPort = containerPort;
+        this.protocol = protocol;
+    }
+
+    /**
+     * @param portMapping port mapping as defined by docker command
+     * @return parsed port mapping
+     * @throws DockerException if port mapping is malformed
+     */
+    static PortMapping parse(String portMapping) {
+        String mapping = portMapping;
+        String protocol = "tcp";
+        int protocolSeparator = mapping.lastIndexOf('/');
+        if (protocolSeparator != -1) {
+            protocol = mapping.substring(protocolSeparator + 1);
+            mapping = mapping.substring(0, protocolSeparator);
+        }
+        String[] parts = mapping.split(":", -1);
+        try {
+            switch (parts.length) {
+                case 1:
+                    return new PortMapping("", "", parsePort(parts[0]), protocol);
+                case 2:
+                    return new PortMapping("", checkHostPort(parts[0]), parsePort(parts[1]), protocol);
+                case 3:
+                    return new PortMapping(parts[0], checkHostPort(parts[1]), parsePort(parts[2]), protocol);
+                default:
+                    throw new NumberFormatException();
+            }
+        } catch (NumberFormatException e) {
+            throw new DockerException("Invalid port mapping \"" + portMapping + "\". Expected format is "
+                    + "[hostIp:][hostPort:]containerPort[/protocol], for example \"8080:80\" or \"8080:80/udp\".", e);
+        }
+    }
+
+    private static int parsePort(String port) {
+        int parsed = Integer.parseInt(port);
+        if (parsed < 0 || parsed > 65535) {
+            throw new NumberFormatException();
+        }
+        return parsed;
+    }
+
+    private static String checkHostPort(String hostPort) {
+        if (!hostPort.isEmpty()) {
+            parsePort(hostPort);
+        }
+        return hostPort;
+    }
+
+    /**
+     * @return host IP the port is bound to, empty string means all interfaces
+     */
+    String getHostIp() {
+        return hostIp;
+    }
+
+    /**
+     * @return host port, empty string means port is chosen by docker
+     */
+    String getHostPort() {
+        return hostPort;
+    }
+
+    int getContainerPort() {
+        return containerPort;
+    }
+
+    String getProtocol() {
+        return protocol;
+    }
+
+    /**
+     * @return container port in format used by Docker Engine API, for example "80/tcp"
+     */
+    String getContainerPortKey() {
+        return containerPort + "/" + protocol;
+    }
+}
@@ -0,0 +1,32 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import java.io.InputStream;
+
+/**
+ * Handle to container started by {@link DockerClient#run(ContainerSpec)}.
+ */
+public interface StartedContainer extends AutoCloseable {
+
+    /**
+     * @return stream with merged standard and error output of the container
+     */
+    InputStream getOutput();
+
+    /**
+     * Fail fast check in case of malformed container configuration, for example bad arguments or invalid image version.
+     *
+     * @return true if container terminated with non-zero exit code
+     */
+    boolean hasFailed() throws Exception;
+
+    /**
+     * @return human readable description of the command used to start the container, used in error messages
+     */
+    String getStartCommand();
+
+    /**
+     * Releases resources held by this handle. It does not stop the container.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,41 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Naming of warm images, see {@link Docker.Builder#setWarmImage(boolean)}.
+ * <p>
+ * Warm image is a snapshot of container file system taken once the container was ready for the first time. Its name is
+ * derived from ID of the base image and configuration of the container, so the warm image is not used once the base
+ * image is updated or configuration changes - a new warm image is created instead.
+ */
+final class WarmImages {
+
+    /**
+     * Repository of all warm images
+     */
+    static final String REPOSITORY_PREFIX = "eap-qe-warm/";
+    /**
+     * Label of warm image with ID of its base image
+     */
+    static final String BASE_IMAGE_LABEL = "org.jboss.eap.qe.ts.docker.warm.base";
+
+    private WarmImages() {
+    } // avoid instantiation
+
+    /**
+     * @param baseImageId ID of the image the container was started from
+     * @return warm image name including tag, for example "eap-qe-warm/jaeger:3f2a9c0e17d4b6a8"
+     */
+    static String warmImageName(String name, String baseImageId, Map<String, String> environmentVariables,
+            List<String> options, List<String> commandArguments) {
+        String key = DockerContainerPool.sha256(String.join("\n", baseImageId,
+                new TreeMap<>(environmentVariables).toString(), options.toString(), commandArguments.toString()));
+        // repository name must be lowercase and can not contain some of the characters allowed in container name
+        String repository = name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9._-]", "-");
+        return REPOSITORY_PREFIX + repository + ":" + key.substring(0, 16);
+    }
+}
@@ -0,0 +1,93 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests {@link ContainerLogPump} and {@link ContainerLog}
+ */
+public class ContainerLogPumpTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static ByteArrayInputStream output(String... lines) {
+        return new ByteArrayInputStream((String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testOnlyRecentLinesAreKept() {
+        ContainerLog log = new ContainerLog("container", 3, null);
+        for (int i = 1; i <= 5; i++) {
+            log.append("line " + i);
+        }
+        assertEquals(Arrays.asList("line 3", "line 4", "line 5"), log.getLines());
+        assertEquals(5, log.getLineCount());
+        assertTrue(log.contains("line 4"));
+        assertFalse("Dropped line should not be found", log.contains("line 1"));
+        assertTrue(log.containsLineMatching(Pattern.compile("line [0-9]")));
+    }
+
+    @Test
+    public void testOutputIsPrintedStoredAndWrittenToFile() throws Exception {
+        ByteArrayOutputStream console = new ByteArrayOutputStream();
+        ContainerLogPump pump = new ContainerLogPump(new PrintStream(console, true, StandardCharsets.UTF_8.name()));
+        Path logFile = temporaryFolder.getRoot().toPath().resolve("logs").resolve("container.log");
+        ContainerLog log = new ContainerLog("container", 10, logFile);
+        List<String> notifiedLines = new CopyOnWriteArrayList<>();
+
+        pump.pump(output("first", "second"), log, notifiedLines::add).get(10, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList("first", "second"), notifiedLines);
+        assertEquals(Arrays.asList("first", "second"), log.getLines());
+        assertEquals(Arrays.asList("first", "second"), Files.readAllLines(logFile, StandardCharsets.UTF_8));
+        String printed = new String(console.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(printed, printed.contains("container") && printed.contains("> first"));
+        assertTrue(printed, printed.indexOf("> first") < printed.indexOf("> second"));
+    }
+
+    @Test
+    public void testOutputOfSeveralContainers() throws Exception {
+        ContainerLogPump pump = new ContainerLogPump(new PrintStream(new ByteArrayOutputStream()));
+        ContainerLog first = new ContainerLog("first", 10, null);
+        ContainerLog second = new ContainerLog("second", 10, null);
+
+        pump.pump(output("a", "b"), first, line -> {
+        }).get(10, TimeUnit.SECONDS);
+        pump.pump(output("c"), second, line -> {
+        }).get(10, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList("a", "b"), first.getLines());
+        assertEquals(Arrays.asList("c"), second.getLines());
+    }
+
+    @Test
+    public void testOutputIsReadOnNamedDaemonThread() throws Exception {
+        ContainerLogPump pump = new ContainerLogPump(new PrintStream(new ByteArrayOutputStream()));
+        List<Thread> readers = new CopyOnWriteArrayList<>();
+
+        pump.pump(output("a"), new ContainerLog("container", 10, null), line -> readers.add(Thread.currentThread()))
+                .get(10, TimeUnit.SECONDS);
+
+        assertEquals(1, readers.size());
+        assertEquals("docker-log-reader-container", readers.get(0).getName());
+        assertTrue("Reader should not keep the JVM alive", readers.get(0).isDaemon());
+    }
+}
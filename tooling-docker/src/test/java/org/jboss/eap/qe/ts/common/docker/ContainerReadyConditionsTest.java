@@ -0,0 +1,169 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Tests {@link ContainerReadyConditions} and waiting for container readiness, containers are started in
+ * {@link StandInDockerEngine} so docker does not need to be installed.
+ */
+public class ContainerReadyConditionsTest {
+
+    private StandInDockerEngine engine;
+    private EngineApiDockerClient client;
+
+    @Before
+    public void startEngine() throws IOException {
+        engine = new StandInDockerEngine();
+        client = new EngineApiDockerClient(engine.getEndpoint());
+    }
+
+    @After
+    public void stopEngine() throws IOException {
+        client.close();
+        engine.close();
+    }
+
+    @Test
+    public void testLogLineContains() throws Exception {
+        Docker container = new Docker.Builder("stand-in", "stand-in:latest")
+                .withDockerClient(client)
+                .setContainerReadyCondition(ContainerReadyConditions.logLineContains(StandInDockerEngine.CONTAINER_OUTPUT))
+                .setContainerReadyTimeout(10, TimeUnit.SECONDS)
+                .build();
+        try {
+            container.start();
+            assertTrue("Time to ready should be reported", container.getTimeToReadyMillis() >= 0);
+        } finally {
+            container.stop();
+        }
+    }
+
+    @Test(expected = DockerTimeoutException.class)
+    public void testLogLineNotContained() throws Exception {
+        new Docker.Builder("stand-in", "stand-in:latest")
+                .withDockerClient(client)
+                .setContainerReadyCondition(ContainerReadyConditions.logLineContains("Foooqux 42"))
+                .setContainerReadyTimeout(1, TimeUnit.SECONDS)
+                .build()
+                .start();
+    }
+
+    @Test
+    public void testHealthy() throws Exception {
+        Docker container = new Docker.Builder("stand-in", "stand-in:latest")
+                .withDockerClient(client)
+                .setContainerReadyCondition(ContainerReadyConditions.healthy())
+                .setContainerReadyTimeout(10, TimeUnit.SECONDS)
+                .build();
+        try {
+            container.start();
+        } finally {
+            container.stop();
+        }
+    }
+
+    @Test
+    public void testTcpPortOpened() throws IOException {
+        int port;
+        try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            port = serverSocket.getLocalPort();
+            assertTrue("Opened port should be detected",
+                    ContainerReadyConditions.tcpPortOpened("127.0.0.1", port).isReady());
+        }
+        assertFalse("Closed port should be detected",
+                ContainerReadyConditions.tcpPortOpened("127.0.0.1", port).isReady());
+    }
+
+    @Test
+    public void testPublishedTcpPortOpened() throws Exception {
+        Docker container = new Docker.Builder("stand-in", "stand-in:latest")
+                .withDockerClient(client)
+                .withEphemeralPort(8080)
+                .withEphemeralPort(9090, "udp")
+                .setContainerReadyCondition(ContainerReadyConditions.publishedTcpPortOpened(8080))
+                .setContainerReadyTimeout(10, TimeUnit.SECONDS)
+                .build();
+        try {
+            container.start();
+            int hostPort = container.getMappedPort(8080);
+            assertTrue("Port should be published on ephemeral host port", hostPort > 0 && hostPort != 8080);
+            assertTrue(ContainerReadyConditions.tcpPortOpened("127.0.0.1", hostPort).isReady());
+        } finally {
+            container.stop();
+        }
+    }
+
+    @Test(expected = DockerException.class)
+    public void testUnpublishedPortIsNotResolved() throws Exception {
+        Docker container = new Docker.Builder("stand-in", "stand-in:latest")
+                .withDockerClient(client)
+                .withEphemeralPort(8080)
+                .build();
+        try {
+            container.start();
+            container.getMappedPort(8081);
+        } finally {
+            container.stop();
+        }
+    }
+
+    @Test
+    public void testHttpResponds() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/health", exchange -> {
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.createContext("/starting", exchange -> {
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+            assertTrue("Successful response should be detected",
+                    ContainerReadyConditions.httpResponds(baseUrl + "/health").isReady());
+            assertFalse("Unsuccessful response should be detected",
+                    ContainerReadyConditions.httpResponds(baseUrl + "/starting").isReady());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void testSignalWakesUpWaiting() throws Exception {
+        try (ContainerReadinessWaiter waiter = new ContainerReadinessWaiter("stand-in", client)) {
+            long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+            // let the backoff grow to its maximum
+            for (int i = 0; i < 6; i++) {
+                waiter.awaitNextCheck(deadline);
+            }
+            new Thread(() -> {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException ignored) {
+                    // signal immediately
+                }
+                waiter.signal();
+            }).start();
+            long waitStart = System.nanoTime();
+            waiter.awaitNextCheck(deadline);
+            long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - waitStart);
+            assertTrue("Waiting should end once signalled but took " + waitedMillis + " ms",
+                    waitedMillis < ContainerReadinessWaiter.MAX_BACKOFF_MILLIS);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link DockerContainerPool}, containers are started in {@link StandInDockerEngine} so docker does not need to be
+ * installed.
+ */
+public class DockerContainerPoolTest {
+
+    private StandInDockerEngine engine;
+    private EngineApiDockerClient client;
+    private DockerContainerPool pool;
+
+    @Before
+    public void startEngine() throws IOException {
+        engine = new StandInDockerEngine();
+        client = new EngineApiDockerClient(engine.getEndpoint());
+        pool = new DockerContainerPool(false);
+    }
+
+    @After
+    public void stopEngine() throws IOException {
+        pool.stopAll();
+        client.close();
+        engine.close();
+    }
+
+    private Docker.Builder sharedContainer(String envValue) {
+        return new Docker.Builder("stand-in", "stand-in:latest")
+                .withDockerClient(client)
+                .withEnvVar("FOO", envValue)
+                .setShared(true);
+    }
+
+    @Test
+    public void testSharedContainerIsStartedOnce() throws Throwable {
+        Docker first = sharedContainer("bar").build(pool);
+        Docker second = sharedContainer("bar").build(pool);
+        assertSame("Containers with identical configuration should be shared", first, second);
+
+        first.before();
+        second.before();
+        assertEquals("Shared container should be started once", 1, engine.getCreatedContainers());
+        assertEquals(2, pool.getReferenceCount(first));
+
+        first.after();
+        second.after();
+        assertEquals(0, pool.getReferenceCount(first));
+        assertTrue("Shared container should be kept running for other test classes", first.isRunning());
+
+        pool.stopAll();
+        assertFalse("Shared container should be stopped by reaper", first.isRunning());
+    }
+
+    @Test
+    public void testDifferentConfigurationIsNotShared() {
+        assertNotSame("Containers with different configuration must not be shared",
+                sharedContainer("bar").build(pool), sharedContainer("baz").build(pool));
+    }
+
+    @Test
+    public void testContainerIsReusedAcrossJvms() throws Throwable {
+        Docker started = sharedContainer("bar").build(pool);
+        started.before();
+
+        // pool of another JVM finds the container by its fingerprint label
+        DockerContainerPool otherJvmPool = new DockerContainerPool(true);
+        Docker reused = sharedContainer("bar").build(otherJvmPool);
+        assertNotSame(started, reused);
+        reused.before();
+
+        assertEquals("Running container should be reused", 1, engine.getCreatedContainers());
+        assertTrue(reused.isRunning());
+        reused.after();
+        started.after();
+    }
+}
@@ -0,0 +1,128 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link DockerEnvironment}, containers are started in {@link StandInDockerEngine} so docker does not need to be
+ * installed.
+ */
+public class DockerEnvironmentTest {
+
+    private static final long DATABASE_STARTUP_MILLIS = 300;
+
+    private StandInDockerEngine engine;
+    private EngineApiDockerClient client;
+
+    @Before
+    public void startEngine() throws IOException {
+        engine = new StandInDockerEngine();
+        client = new EngineApiDockerClient(engine.getEndpoint());
+    }
+
+    @After
+    public void stopEngine() throws IOException {
+        client.close();
+        engine.close();
+    }
+
+    private Docker.Builder container(String name) {
+        return new Docker.Builder(name, "stand-in:latest").withDockerClient(client);
+    }
+
+    private Docker.Builder slowContainer(String name) {
+        return container(name).setContainerReadyCondition(new ContainerReadyCondition() {
+            private volatile long startedAt;
+
+            @Override
+            public boolean isReady() {
+                return System.currentTimeMillis() - startedAt > DATABASE_STARTUP_MILLIS;
+            }
+
+            @Override
+            public void containerStarted(ContainerReadinessContext context) {
+                startedAt = System.currentTimeMillis();
+            }
+        });
+    }
+
+    @Test
+    public void testContainersAreStartedInDependencyOrder() throws Exception {
+        DockerEnvironment environment = new DockerEnvironment.Builder()
+                .withContainer(container("app"), "db")
+                .withContainer(slowContainer("db"))
+                .withContainer(container("cache"))
+                .build();
+        environment.start();
+        try {
+            int dbCreated = indexOfRequest("POST /containers/create?name=db-");
+            int cacheCreated = indexOfRequest("POST /containers/create?name=cache-");
+            int appCreated = indexOfRequest("POST /containers/create?name=app-");
+            assertTrue("Dependency must be created before dependent container", dbCreated >= 0 && dbCreated < appCreated);
+            assertTrue("Independent container should not wait for others", cacheCreated >= 0 && cacheCreated < appCreated);
+
+            DockerEnvironment.ContainerTimeline db = timelineOf(environment, "db");
+            DockerEnvironment.ContainerTimeline cache = timelineOf(environment, "cache");
+            DockerEnvironment.ContainerTimeline app = timelineOf(environment, "app");
+            assertTrue("Dependent container must be started once dependency is ready",
+                    app.getStartRequestedMillis() >= db.getReadyMillis());
+            assertTrue("Independent containers should be started concurrently",
+                    cache.getReadyMillis() < db.getReadyMillis());
+            assertTrue(environment.getContainer("app").isRunning());
+        } finally {
+            environment.stop();
+        }
+
+        int appStopped = indexOfRequest("POST /containers/app-");
+        int dbStopped = indexOfRequest("POST /containers/db-");
+        assertTrue("Dependent container must be stopped before its dependency", appStopped >= 0 && appStopped < dbStopped);
+        assertEquals(3, environment.getTimeline().size());
+        for (DockerEnvironment.ContainerTimeline timeline : environment.getTimeline()) {
+            assertTrue(timeline.getName() + " should be stopped", timeline.getStoppedMillis() >= 0);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCyclicDependencyIsRejected() {
+        new DockerEnvironment.Builder()
+                .withContainer(container("a"), "b")
+                .withContainer(container("b"), "a")
+                .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownDependencyIsRejected() {
+        new DockerEnvironment.Builder()
+                .withContainer(container("a"), "b")
+                .build();
+    }
+
+    /**
+     * @param prefix prefix of the request, container IDs are generated from container name
+     * @return index of the first matching request received by the engine for container stop or create
+     */
+    private int indexOfRequest(String prefix) {
+        List<String> requests = engine.getRequests();
+        for (int i = 0; i < requests.size(); i++) {
+            String request = requests.get(i);
+            if (request.startsWith(prefix) && (request.contains("create") || request.contains("/stop"))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static DockerEnvironment.ContainerTimeline timelineOf(DockerEnvironment environment, String name) {
+        return environment.getTimeline().stream()
+                .filter(timeline -> timeline.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No timeline of " + name));
+    }
+}
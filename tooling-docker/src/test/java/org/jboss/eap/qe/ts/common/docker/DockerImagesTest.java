@@ -0,0 +1,122 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link DockerImages}, images are pulled by {@link StandInDockerEngine} so docker does not need to be installed.
+ */
+public class DockerImagesTest {
+
+    private StandInDockerEngine engine;
+    private EngineApiDockerClient client;
+
+    @Before
+    public void startEngine() throws IOException {
+        engine = new StandInDockerEngine();
+        client = new EngineApiDockerClient(engine.getEndpoint());
+    }
+
+    @After
+    public void stopEngine() throws IOException {
+        client.close();
+        engine.close();
+    }
+
+    private static String remoteImage() {
+        return StandInDockerEngine.REMOTE_IMAGE_PREFIX + UUID.randomUUID() + ":1.0";
+    }
+
+    private long pullRequests() {
+        return pullRequests(engine);
+    }
+
+    private static long pullRequests(StandInDockerEngine engine) {
+        return engine.getRequests().stream().filter(request -> request.startsWith("POST /images/create")).count();
+    }
+
+    @Test
+    public void testMissingImagesArePulled() throws Exception {
+        String missing = remoteImage();
+        String otherMissing = remoteImage();
+        Map<String, Long> pullTimes = DockerImages.pullMissing(client, Arrays.asList(missing, "stand-in:latest",
+                otherMissing));
+
+        assertEquals(3, pullTimes.size());
+        assertEquals("Present image should not be pulled", 0L, (long) pullTimes.get("stand-in:latest"));
+        assertEquals(2, pullRequests());
+        assertTrue(client.isImagePresent(missing));
+        assertTrue(client.isImagePresent(otherMissing));
+
+        DockerImages.pullMissing(client, Arrays.asList(missing, otherMissing));
+        assertEquals("Pulled images should not be pulled again", 2, pullRequests());
+    }
+
+    @Test
+    public void testImagePresentOnOtherEngineIsPulled() throws Exception {
+        String image = remoteImage();
+        DockerImages.ensurePresent(client, image);
+        assertEquals(1, pullRequests());
+
+        try (StandInDockerEngine otherEngine = new StandInDockerEngine();
+                EngineApiDockerClient otherClient = new EngineApiDockerClient(otherEngine.getEndpoint())) {
+            DockerImages.ensurePresent(otherClient, image);
+            assertEquals("Image pulled to other Docker Engine should be pulled", 1, pullRequests(otherEngine));
+            assertTrue(otherClient.isImagePresent(image));
+        }
+    }
+
+    @Test
+    public void testImageIsPulledBeforeContainerIsStarted() throws Exception {
+        Docker container = new Docker.Builder("stand-in", remoteImage())
+                .withDockerClient(client)
+                .setContainerReadyTimeout(10, TimeUnit.SECONDS)
+                .build();
+        try {
+            container.start();
+            assertEquals(1, pullRequests());
+            int pull = engine.getRequests().indexOf(engine.getRequests().stream()
+                    .filter(request -> request.startsWith("POST /images/create")).findFirst().get());
+            int create = engine.getRequests().indexOf(engine.getRequests().stream()
+                    .filter(request -> request.startsWith("POST /containers/create")).findFirst().get());
+            assertTrue("Image should be pulled before container is created", pull < create);
+            assertTrue(container.getPullTimeMillis() >= 0);
+        } finally {
+            container.stop();
+        }
+    }
+
+    @Test
+    public void testFailedPullIsReportedByContainerStart() throws Exception {
+        Docker container = new Docker.Builder("stand-in", StandInDockerEngine.UNKNOWN_IMAGE_PREFIX + "app:1.0")
+                .withDockerClient(client)
+                .withCmdOption("--init")
+                .setContainerReadyTimeout(10, TimeUnit.SECONDS)
+                .build();
+        try {
+            container.start();
+            fail("Container with image which can't be pulled should not start");
+        } catch (DockerException e) {
+            assertTrue("Start of the container should report the failure: " + e.getMessage(),
+                    e.getMessage().contains("are not supported"));
+        } finally {
+            container.stop();
+        }
+    }
+
+    @Test
+    public void testImagesOfDockerContainers() {
+        assertTrue(DockerImages.getImages().contains("jaegertracing/all-in-one:1.15.1"));
+    }
+}
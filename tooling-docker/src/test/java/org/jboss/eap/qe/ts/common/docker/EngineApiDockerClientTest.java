@@ -0,0 +1,103 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link EngineApiDockerClient} against {@link StandInDockerEngine} so docker does not need to be installed.
+ */
+public class EngineApiDockerClientTest {
+
+    private StandInDockerEngine engine;
+    private EngineApiDockerClient client;
+
+    @Before
+    public void startEngine() throws IOException {
+        engine = new StandInDockerEngine();
+        client = new EngineApiDockerClient(engine.getEndpoint());
+    }
+
+    @After
+    public void stopEngine() throws IOException {
+        client.close();
+        engine.close();
+    }
+
+    @Test
+    public void testContainerLifecycle() throws Exception {
+        Docker container = new Docker.Builder("stand-in", "registry.hub.docker.com/jboss/wildfly:18.0.0.Final")
+                .withDockerClient(client)
+                .withPortMapping("11111:8080")
+                .withPortMapping("127.0.0.1:11990:9990/tcp")
+                .withEnvVar("FOO", "bar")
+                .withCmdArg("/opt/jboss/wildfly/bin/standalone.sh")
+                .build();
+
+        container.start();
+        assertTrue("Container should be running after start", container.isRunning());
+
+        String createBody = engine.getRequestBodies().get(indexOfRequest("POST /containers/create"));
+        assertTrue(createBody, createBody.contains("\"Image\":\"registry.hub.docker.com/jboss/wildfly:18.0.0.Final\""));
+        assertTrue(createBody, createBody.contains("\"Env\":[\"FOO=bar\"]"));
+        assertTrue(createBody, createBody.contains("\"Cmd\":[\"/opt/jboss/wildfly/bin/standalone.sh\"]"));
+        assertTrue(createBody, createBody.contains("\"8080/tcp\":[{\"HostIp\":\"\",\"HostPort\":\"11111\"}]"));
+        assertTrue(createBody, createBody.contains("\"9990/tcp\":[{\"HostIp\":\"127.0.0.1\",\"HostPort\":\"11990\"}]"));
+
+        container.stop();
+        assertFalse("Container should not exist after stop", container.isRunning());
+    }
+
+    @Test
+    public void testAttachedOutputIsDemultiplexed() throws Exception {
+        client.checkDockerPresent();
+        ContainerSpec spec = new ContainerSpec("stand-in", "stand-in:latest", Collections.emptyList(),
+                Collections.emptyMap(), Collections.emptyMap(), Collections.emptyList(), Collections.emptyList());
+        StartedContainer started = client.run(spec);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(started.getOutput(),
+                StandardCharsets.UTF_8))) {
+            assertEquals(StandInDockerEngine.CONTAINER_OUTPUT, reader.readLine());
+            assertFalse("Running container must not be reported as failed", started.hasFailed());
+        } finally {
+            client.kill(spec.getName());
+            client.remove(spec.getName());
+        }
+    }
+
+    @Test
+    public void testConnectionsAreReused() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            client.checkDockerPresent();
+            assertFalse(client.isRunning("not-existing"));
+        }
+        assertEquals("Requests are expected to be sent through single connection", 1, engine.getAcceptedConnections());
+    }
+
+    @Test(expected = DockerException.class)
+    public void testMalformedPortMapping() throws Exception {
+        new Docker.Builder("stand-in", "stand-in:latest")
+                .withDockerClient(client)
+                .withPortMapping("bad:mapping")
+                .build()
+                .start();
+    }
+
+    private int indexOfRequest(String prefix) {
+        for (int i = 0; i < engine.getRequests().size(); i++) {
+            if (engine.getRequests().get(i).startsWith(prefix)) {
+                return i;
+            }
+        }
+        throw new AssertionError("Request " + prefix + " was not sent, sent requests: " + engine.getRequests());
+    }
+}
@@ -0,0 +1,110 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests resending of requests by {@link EngineApiHttpClient} when pooled connection is closed by Docker Engine
+ */
+public class EngineApiHttpClientTest {
+
+    private ServerSocket serverSocket;
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private EngineApiHttpClient client;
+
+    @Before
+    public void startEngine() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptConnections, "dropping-docker-engine");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        client = new EngineApiHttpClient(EngineApiEndpoint.tcp(serverSocket.getInetAddress().getHostAddress(),
+                serverSocket.getLocalPort()));
+    }
+
+    @After
+    public void stopEngine() throws IOException {
+        client.close();
+        serverSocket.close();
+    }
+
+    @Test
+    public void testIdempotentRequestIsResentWhenConnectionIsClosedWithoutResponse() throws IOException {
+        client.execute("GET", "/_ping", null);
+
+        assertEquals(200, client.execute("GET", "/containers/json", null).getStatus());
+        assertEquals(3, requests.size());
+    }
+
+    @Test
+    public void testPostIsNotResentWhenConnectionIsClosedWithoutResponse() throws IOException {
+        client.execute("GET", "/_ping", null);
+
+        try {
+            client.execute("POST", "/containers/create?name=stand-in", "{}");
+            fail("POST request received by Docker Engine must not be sent again");
+        } catch (IOException expected) {
+            // connection closed after the request was received
+        }
+        assertEquals(2, requests.size());
+    }
+
+    /**
+     * Every connection responds to its first request and is closed once the second request is received
+     */
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread handler = new Thread(() -> handleConnection(socket), "dropping-docker-engine-connection");
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                // server socket closed
+            }
+        }
+    }
+
+    private void handleConnection(Socket socket) {
+        try (Socket s = socket) {
+            BufferedReader input = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+            OutputStream output = s.getOutputStream();
+            for (int i = 0; i < 2; i++) {
+                String requestLine = input.readLine();
+                if (requestLine == null) {
+                    return;
+                }
+                int contentLength = 0;
+                String header;
+                while (!(header = input.readLine()).isEmpty()) {
+                    if (header.toLowerCase().startsWith("content-length:")) {
+                        contentLength = Integer.parseInt(header.substring("content-length:".length()).trim());
+                    }
+                }
+                input.skip(contentLength);
+                requests.add(requestLine);
+                if (i == 0) {
+                    output.write("HTTP/1.1 200 OK\r\nContent-Length: 2\r\n\r\nOK".getBytes(StandardCharsets.US_ASCII));
+                    output.flush();
+                }
+            }
+        } catch (IOException e) {
+            // connection closed
+        }
+    }
+}
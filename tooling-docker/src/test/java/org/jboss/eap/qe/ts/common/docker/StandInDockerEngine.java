@@ -0,0 +1,388 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Stand-in for Docker Engine REST API listening on local TCP port. It implements just the subset of the API used by
+ * {@link EngineApiDockerClient}, containers are not started, only their state is tracked.
+ */
+class StandInDockerEngine implements Closeable {
+
+    static final String CONTAINER_OUTPUT = "stand-in container started";
+    /**
+     * Images with this prefix are not present until they are pulled, other images are always present
+     */
+    static final String REMOTE_IMAGE_PREFIX = "remote/";
+    /**
+     * Images with this prefix are not present and their pull fails
+     */
+    static final String UNKNOWN_IMAGE_PREFIX = "unknown/";
+
+    private final ServerSocket serverSocket;
+    private final Map<String, StandInContainer> containers = new ConcurrentHashMap<>();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final List<String> requestBodies = new CopyOnWriteArrayList<>();
+    private final AtomicInteger acceptedConnections = new AtomicInteger();
+    private final Set<String> pulledImages = ConcurrentHashMap.newKeySet();
+    private final Map<String, Integer> imageVersions = new ConcurrentHashMap<>();
+
+    StandInDockerEngine() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptConnections, "stand-in-docker-engine");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    EngineApiEndpoint getEndpoint() {
+        return EngineApiEndpoint.tcp(serverSocket.getInetAddress().getHostAddress(), serverSocket.getLocalPort());
+    }
+
+    /**
+     * @return received requests in format "METHOD path"
+     */
+    List<String> getRequests() {
+        return requests;
+    }
+
+    List<String> getRequestBodies() {
+        return requestBodies;
+    }
+
+    int getAcceptedConnections() {
+        return acceptedConnections.get();
+    }
+
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                acceptedConnections.incrementAndGet();
+                Thread handler = new Thread(() -> handleConnection(socket), "stand-in-docker-engine-connection");
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                // server socket closed
+            }
+        }
+    }
+
+    private void handleConnection(Socket socket) {
+        try (Socket s = socket) {
+            InputStream input = new BufferedInputStream(s.getInputStream());
+            OutputStream output = s.getOutputStream();
+            while (true) {
+                String requestLine = readLine(input);
+                if (requestLine == null) {
+                    return;
+                }
+                int contentLength = 0;
+                String header;
+                while (!(header = readLine(input)).isEmpty()) {
+                    if (header.toLowerCase().startsWith("content-length:")) {
+                        contentLength = Integer.parseInt(header.substring("content-length:".length()).trim());
+                    }
+                }
+                byte[] body = new byte[contentLength];
+                int read = 0;
+                while (read < contentLength) {
+                    int count = input.read(body, read, contentLength - read);
+                    if (count == -1) {
+                        throw new EOFException();
+                    }
+                    read += count;
+                }
+                String[] parts = requestLine.split(" ");
+                requests.add(parts[0] + " " + parts[1]);
+                requestBodies.add(new String(body, StandardCharsets.UTF_8));
+                if (!handleRequest(parts[0], parts[1], new String(body, StandardCharsets.UTF_8), output)) {
+                    return;
+                }
+            }
+        } catch (IOException | InterruptedException e) {
+            // connection closed
+        }
+    }
+
+    /**
+     * @return false if connection can not be reused
+     */
+    private boolean handleRequest(String method, String uri, String body, OutputStream output)
+            throws IOException, InterruptedException {
+        String path = uri.contains("?") ? uri.substring(0, uri.indexOf('?')) : uri;
+        String[] segments = path.split("/");
+        if ("GET".equals(method) && "/_ping".equals(path)) {
+            respond(output, 200, "OK");
+            return true;
+        }
+        if ("POST".equals(method) && "/containers/create".equals(path)) {
+            String name = URLDecoder.decode(uri.substring(uri.indexOf("name=") + "name=".length()), "UTF-8");
+            StandInContainer container = new StandInContainer(name);
+            JsonObject request = JsonParser.parseString(body).getAsJsonObject();
+            JsonObject labels = request.getAsJsonObject("Labels");
+            if (labels != null) {
+                labels.entrySet().forEach(label -> container.labels.add(label.getKey() + "=" + label.getValue()
+                        .getAsString()));
+            }
+            JsonObject portBindings = request.getAsJsonObject("HostConfig").getAsJsonObject("PortBindings");
+            for (Map.Entry<String, JsonElement> port : portBindings.entrySet()) {
+                container.publishedPorts.put(port.getKey(), port.getValue().getAsJsonArray().get(0)
+                        .getAsJsonObject().get("HostPort").getAsString());
+            }
+            containers.put(name, container);
+            respond(output, 201, "{\"Id\":\"" + name + "\",\"Warnings\":[]}");
+            return true;
+        }
+        if ("GET".equals(method) && path.startsWith("/images/") && path.endsWith("/json")) {
+            String image = path.substring("/images/".length(), path.length() - "/json".length());
+            if ((image.startsWith(REMOTE_IMAGE_PREFIX) || image.startsWith(WarmImages.REPOSITORY_PREFIX)
+                    || image.startsWith(UNKNOWN_IMAGE_PREFIX)) && !pulledImages.contains(image)) {
+                respond(output, 404, "{\"message\":\"No such image: " + image + "\"}");
+            } else {
+                respond(output, 200, "{\"Id\":\"sha256:" + Integer.toHexString(image.hashCode()) + "-"
+                        + imageVersions.getOrDefault(image, 0) + "\"}");
+            }
+            return true;
+        }
+        if ("POST".equals(method) && "/commit".equals(path)) {
+            Map<String, String> query = new HashMap<>();
+            for (String parameter : uri.substring(uri.indexOf('?') + 1).split("&")) {
+                String[] nameAndValue = parameter.split("=", 2);
+                query.put(nameAndValue[0], URLDecoder.decode(nameAndValue[1], "UTF-8"));
+            }
+            if (!containers.containsKey(query.get("container"))) {
+                respond(output, 404, "{\"message\":\"No such container: " + query.get("container") + "\"}");
+                return true;
+            }
+            pulledImages.add(query.get("repo") + ":" + query.get("tag"));
+            respond(output, 201, "{\"Id\":\"sha256:committed\"}");
+            return true;
+        }
+        if ("POST".equals(method) && "/images/create".equals(path)) {
+            String query = URLDecoder.decode(uri.substring(uri.indexOf('?') + 1), "UTF-8");
+            String image = query.substring("fromImage=".length(), query.indexOf("&tag=")) + ":"
+                    + query.substring(query.indexOf("&tag=") + "&tag=".length());
+            if (image.startsWith(UNKNOWN_IMAGE_PREFIX)) {
+                respond(output, 200, "{\"status\":\"Pulling from " + image + "\"}\n{\"error\":\"manifest unknown\"}\n");
+                return true;
+            }
+            pulledImages.add(image);
+            respond(output, 200, "{\"status\":\"Pulling from " + image + "\"}\n{\"status\":\"Downloaded\"}\n");
+            return true;
+        }
+        if ("GET".equals(method) && "/events".equals(path)) {
+            // health status events, every container becomes healthy shortly after the subscription
+            output.write(("HTTP/1.1 200 OK\r\nContent-Type: application/json\r\nTransfer-Encoding: chunked\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            output.flush();
+            Thread.sleep(100);
+            byte[] event = "{\"status\":\"health_status: healthy\",\"Type\":\"container\"}\n"
+                    .getBytes(StandardCharsets.UTF_8);
+            output.write((Integer.toHexString(event.length) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            output.write(event);
+            output.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+            output.flush();
+            return false;
+        }
+        if ("GET".equals(method) && "/containers/json".equals(path)) {
+            String filters = URLDecoder.decode(uri.substring(uri.indexOf("filters=") + "filters=".length()), "UTF-8");
+            String label = JsonParser.parseString(filters).getAsJsonObject().getAsJsonArray("label").get(0)
+                    .getAsString();
+            JsonArray result = new JsonArray();
+            containers.values().stream()
+                    .filter(container -> container.running && container.labels.contains(label))
+                    .forEach(container -> {
+                        JsonObject item = new JsonObject();
+                        JsonArray names = new JsonArray();
+                        names.add("/" + container.name);
+                        item.add("Names", names);
+                        result.add(item);
+                    });
+            respond(output, 200, result.toString());
+            return true;
+        }
+        if (segments.length < 3 || !"containers".equals(segments[1])) {
+            respond(output, 404, "{\"message\":\"page not found\"}");
+            return true;
+        }
+        StandInContainer container = containers.get(URLDecoder.decode(segments[2], "UTF-8"));
+        if (container == null) {
+            respond(output, 404, "{\"message\":\"No such container: " + segments[2] + "\"}");
+            return true;
+        }
+        String action = segments.length > 3 ? segments[3] : "";
+        switch (method + " " + action) {
+            case "POST start":
+                container.running = true;
+                container.publishPorts();
+                respond(output, 204, null);
+                return true;
+            case "POST attach":
+                output.write(("HTTP/1.1 101 UPGRADED\r\nContent-Type: application/vnd.docker.raw-stream\r\n"
+                        + "Connection: Upgrade\r\nUpgrade: tcp\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+                writeFrame(output, CONTAINER_OUTPUT + "\n");
+                output.flush();
+                container.stopped.await();
+                return false;
+            case "GET json":
+                JsonObject ports = new JsonObject();
+                container.publishedPorts.forEach((containerPort, hostPort) -> {
+                    JsonArray bindings = new JsonArray();
+                    JsonObject binding = new JsonObject();
+                    binding.addProperty("HostIp", "0.0.0.0");
+                    binding.addProperty("HostPort", hostPort);
+                    bindings.add(binding);
+                    ports.add(containerPort, bindings);
+                });
+                respond(output, 200, "{\"State\":{\"Running\":" + container.running
+                        + ",\"ExitCode\":0,\"Health\":{\"Status\":\"starting\"}},\"NetworkSettings\":{\"Ports\":"
+                        + ports + "}}");
+                return true;
+            case "POST stop":
+            case "POST kill":
+                container.running = false;
+                container.closePorts();
+                container.stopped.countDown();
+                respond(output, 204, null);
+                return true;
+            case "DELETE ":
+                containers.values().remove(container);
+                respond(output, 204, null);
+                return true;
+            default:
+                respond(output, 404, "{\"message\":\"page not found\"}");
+                return true;
+        }
+    }
+
+    private static void writeFrame(OutputStream output, String payload) throws IOException {
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        output.write(new byte[] { 1, 0, 0, 0, (byte) (bytes.length >>> 24), (byte) (bytes.length >>> 16),
+                (byte) (bytes.length >>> 8), (byte) bytes.length });
+        output.write(bytes);
+    }
+
+    private static void respond(OutputStream output, int status, String body) throws IOException {
+        byte[] bytes = body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8);
+        StringBuilder response = new StringBuilder("HTTP/1.1 ").append(status).append(" Stand-in\r\n");
+        if (body != null) {
+            response.append("Content-Type: application/json\r\n")
+                    .append("Content-Length: ").append(bytes.length).append("\r\n");
+        }
+        response.append("\r\n");
+        output.write(response.toString().getBytes(StandardCharsets.US_ASCII));
+        output.write(bytes);
+        output.flush();
+    }
+
+    private static String readLine(InputStream input) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = input.read()) != '\n') {
+            if (b == -1) {
+                return null;
+            }
+            if (b != '\r') {
+                line.write(b);
+            }
+        }
+        return new String(line.toByteArray(), StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    public void close() throws IOException {
+        containers.values().forEach(container -> {
+            container.stopped.countDown();
+            container.closePorts();
+        });
+        serverSocket.close();
+    }
+
+    /**
+     * Simulates pull of newer version of the image, ID of the image is changed
+     */
+    void updateImage(String image) {
+        imageVersions.merge(image, 1, Integer::sum);
+    }
+
+    /**
+     * @return images containers were created from, in order of creation
+     */
+    List<String> getCreatedContainerImages() {
+        List<String> images = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (requests.get(i).startsWith("POST /containers/create")) {
+                images.add(JsonParser.parseString(requestBodies.get(i)).getAsJsonObject().get("Image").getAsString());
+            }
+        }
+        return images;
+    }
+
+    /**
+     * @return number of containers created so far
+     */
+    long getCreatedContainers() {
+        return requests.stream().filter(request -> request.startsWith("POST /containers/create")).count();
+    }
+
+    private static final class StandInContainer {
+        private final String name;
+        private final List<String> labels = new ArrayList<>();
+        private final Map<String, String> publishedPorts = new ConcurrentHashMap<>();
+        private final List<ServerSocket> openedPorts = new CopyOnWriteArrayList<>();
+        private volatile boolean running;
+        private final CountDownLatch stopped = new CountDownLatch(1);
+
+        private StandInContainer(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Ports published without host port are opened on a free local TCP port as docker would do
+         */
+        private void publishPorts() throws IOException {
+            for (Map.Entry<String, String> port : publishedPorts.entrySet()) {
+                if (port.getValue().isEmpty()) {
+                    ServerSocket socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+                    openedPorts.add(socket);
+                    port.setValue(String.valueOf(socket.getLocalPort()));
+                }
+            }
+        }
+
+        private void closePorts() {
+            for (ServerSocket socket : openedPorts) {
+                try {
+                    socket.close();
+                } catch (IOException ignored) {
+                    // port is not used anymore
+                }
+            }
+        }
+    }
+}
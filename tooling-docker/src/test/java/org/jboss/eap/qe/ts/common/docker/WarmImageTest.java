@@ -0,0 +1,72 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests containers started from warm images, see {@link Docker.Builder#setWarmImage(boolean)}. Containers are started in
+ * {@link StandInDockerEngine} so docker does not need to be installed.
+ */
+public class WarmImageTest {
+
+    private static final String IMAGE = "stand-in:latest";
+
+    private StandInDockerEngine engine;
+    private EngineApiDockerClient client;
+    private String containerName;
+
+    @Before
+    public void startEngine() throws IOException {
+        engine = new StandInDockerEngine();
+        client = new EngineApiDockerClient(engine.getEndpoint());
+        containerName = "warm-" + UUID.randomUUID();
+    }
+
+    @After
+    public void stopEngine() throws IOException {
+        client.close();
+        engine.close();
+    }
+
+    private Docker startContainer() throws Exception {
+        Docker container = new Docker.Builder(containerName, IMAGE)
+                .withDockerClient(client)
+                .withEnvVar("FOO", "bar")
+                .setWarmImage(true)
+                .build();
+        container.start();
+        container.stop();
+        return container;
+    }
+
+    @Test
+    public void testSecondStartUsesWarmImage() throws Exception {
+        assertFalse("First start should use the image", startContainer().isStartedFromWarmImage());
+        assertTrue("Second start should use warm image", startContainer().isStartedFromWarmImage());
+
+        List<String> images = engine.getCreatedContainerImages();
+        assertEquals(IMAGE, images.get(0));
+        assertTrue("Container should be started from warm image, was " + images.get(1),
+                images.get(1).startsWith(WarmImages.REPOSITORY_PREFIX + containerName + ":"));
+    }
+
+    @Test
+    public void testUpdatedImageIsNotStartedFromStaleWarmImage() throws Exception {
+        startContainer();
+        engine.updateImage(IMAGE);
+
+        assertFalse("Warm image of previous image version must not be used", startContainer().isStartedFromWarmImage());
+        assertTrue("New warm image should be created", startContainer().isStartedFromWarmImage());
+        List<String> images = engine.getCreatedContainerImages();
+        assertFalse("Warm images of different versions should differ", images.get(2).equals(images.get(1)));
+    }
+}
@@ -0,0 +1,185 @@
+package org.jboss.eap.qe.microprofile.tooling.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.exporter.ZipExporter;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+
+/**
+ * Content addressed cache of module JARs created by {@link ModuleUtil}. JAR is stored in a directory named by hash of
+ * its name and bytes of its classes (including their inner classes), so a JAR is built only when the classes change and
+ * is reused by all test classes and later runs. Cache is in {@code target/module-jar-cache} by default, different
+ * directory can be set by {@value #CACHE_DIRECTORY_PROPERTY} system property.
+ * <p>
+ * JARs are built asynchronously, so independent resources of a module are exported in parallel.
+ */
+public final class ModuleJarCache {
+
+    public static final String CACHE_DIRECTORY_PROPERTY = "module.jar.cache.dir";
+    public static final String DEFAULT_CACHE_DIRECTORY = "target/module-jar-cache";
+
+    // change when layout of cached JARs changes so that old entries are not reused
+    private static final String CACHE_VERSION = "1";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final ModuleJarCache INSTANCE = new ModuleJarCache(
+            Paths.get(System.getProperty(CACHE_DIRECTORY_PROPERTY, DEFAULT_CACHE_DIRECTORY)));
+
+    private final Path directory;
+    private final ConcurrentMap<Path, CompletableFuture<File>> jars = new ConcurrentHashMap<>();
+
+    ModuleJarCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return cache shared by the whole JVM
+     */
+    public static ModuleJarCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get JAR with the classes, the JAR is built in background if it's not cached yet
+     *
+     * @param jarName name of the JAR without {@code .jar} suffix
+     * @param classes classes of the JAR
+     * @return future completed with the JAR file, or completed exceptionally by {@link UncheckedIOException} if the
+     *         JAR can't be built
+     */
+    public CompletableFuture<File> getJar(String jarName, Class<?>... classes) {
+        final Path jar;
+        try {
+            jar = directory.resolve(hash(jarName, classes)).resolve(jarName + ".jar");
+        } catch (IOException e) {
+            CompletableFuture<File> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new UncheckedIOException(e));
+            return failed;
+        }
+        final CompletableFuture<File> file = jars.computeIfAbsent(jar,
+                path -> CompletableFuture.supplyAsync(() -> build(path, classes)));
+        // failed build is tried again next time
+        file.whenComplete((built, failure) -> {
+            if (failure != null) {
+                jars.remove(jar, file);
+            }
+        });
+        return file;
+    }
+
+    private static File build(Path jar, Class<?>[] classes) {
+        if (Files.isRegularFile(jar)) {
+            return jar.toFile();
+        }
+        try {
+            Files.createDirectories(jar.getParent());
+            // JAR is exported into unique file and moved, so other JVM never sees partially written JAR
+            Path exported = Files.createTempFile(jar.getParent(), jar.getFileName().toString(), ".tmp");
+            ShrinkWrap.create(JavaArchive.class)
+                    .addClasses(classes)
+                    .as(ZipExporter.class)
+                    .exportTo(exported.toFile(), true);
+            try {
+                Files.move(exported, jar, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(exported, jar, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return jar.toFile();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to build module JAR " + jar, e);
+        }
+    }
+
+    /**
+     * @return hex encoded SHA-256 hash of the JAR name and bytes of the classes and their inner classes
+     */
+    static String hash(String jarName, Class<?>... classes) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update((CACHE_VERSION + "/" + jarName).getBytes("UTF-8"));
+        Class<?>[] sorted = classes.clone();
+        Arrays.sort(sorted, Comparator.comparing(Class::getName));
+        for (Class<?> cls : sorted) {
+            digest.update(cls.getName().getBytes("UTF-8"));
+            digest.update(readClass(cls));
+            for (Path innerClass : findInnerClasses(cls)) {
+                digest.update(innerClass.getFileName().toString().getBytes("UTF-8"));
+                digest.update(Files.readAllBytes(innerClass));
+            }
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+        }
+        return hex.toString();
+    }
+
+    private static byte[] readClass(Class<?> cls) throws IOException {
+        try (InputStream in = cls.getResourceAsStream(classFileName(cls))) {
+            if (in == null) {
+                throw new IOException("Class file of " + cls.getName() + " not found");
+            }
+            final byte[] buffer = new byte[8192];
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                bytes.write(buffer, 0, read);
+            }
+            return bytes.toByteArray();
+        }
+    }
+
+    private static String classFileName(Class<?> cls) {
+        return cls.getName().substring(cls.getName().lastIndexOf('.') + 1) + ".class";
+    }
+
+    /**
+     * Inner classes are found only for classes loaded from a directory, e.g. test classes of the module. Classes
+     * loaded from a JAR don't change between builds.
+     */
+    private static List<Path> findInnerClasses(Class<?> cls) throws IOException {
+        final List<Path> innerClasses = new ArrayList<>();
+        final URL url = cls.getResource(classFileName(cls));
+        if (url == null || !"file".equals(url.getProtocol())) {
+            return innerClasses;
+        }
+        final Path classFile;
+        try {
+            classFile = Paths.get(url.toURI());
+        } catch (URISyntaxException e) {
+            return innerClasses;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(classFile.getParent(),
+                classFile.getFileName().toString().replace(".class", "$*.class"))) {
+            stream.forEach(innerClasses::add);
+        }
+        innerClasses.sort(Comparator.comparing(Path::toString));
+        return innerClasses;
+    }
+}
@@ -2,14 +2,19 @@ package org.jboss.eap.qe.microprofile.tooling.server;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
-import org.jboss.shrinkwrap.api.ShrinkWrap;
-import org.jboss.shrinkwrap.api.exporter.ZipExporter;
-import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.jboss.eap.qe.microprofile.tooling.server.configuration.arquillian.ForkedServerInstance;
 import org.wildfly.extras.creaper.core.online.CliException;
 import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
 
@@ -17,6 +22,9 @@ import com.google.common.base.Joiner;
 
 /**
  * Class provides support for add/remove module
+ * <p>
+ * JARs of module resources are taken from {@link ModuleJarCache}, so they are built only when their classes change and
+ * resources of a module are built in parallel. Adding of a module is skipped when the same module is installed already.
  */
 public class ModuleUtil {
 
@@ -39,7 +47,7 @@ public class ModuleUtil {
     public static class AddModuleHandler {
         private final String name;
         private String moduleXMLPath;
-        private List<File> resources;
+        private List<CompletableFuture<File>> resources;
 
         private AddModuleHandler(String name) {
             this.name = name;
@@ -55,37 +63,34 @@ public class ModuleUtil {
         }
 
         /**
-         * Add jar resource to the module. ShrinkWrap is used to create JAR archive. It create archive in temp directory
-         * if possible or in a project root directory. Archive is deleted at the end of
-         * {@link #executeOn(OnlineManagementClient)} execution.
+         * Add jar resource to the module. ShrinkWrap is used to create JAR archive in background, the archive is cached
+         * by {@link ModuleJarCache} and reused while the classes don't change.
          * 
          * @param jarName - desired name - shall lead to `{@param jarName}.jar`
          * @param classes - classes to be added
          * @return
          */
         public AddModuleHandler addResource(String jarName, Class... classes) {
-            File testJar;
-            try {
-                Path tempDirectory = Files.createTempDirectory(null);
-                testJar = new File(tempDirectory.toFile(), jarName + ".jar");
-            } catch (IOException e) {
-                e.printStackTrace();
-                testJar = new File(jarName + ".jar");
-            }
-            ShrinkWrap.create(JavaArchive.class)
-                    .addClasses(classes)
-                    .as(ZipExporter.class)
-                    .exportTo(testJar, true);
-            resources.add(testJar);
+            resources.add(ModuleJarCache.getInstance().getJar(jarName, classes));
             return this;
         }
 
         /**
-         * Execute the operation on {@param client}. ENV property {@code JBOSS_HOME} must be set.
+         * Execute the operation on {@param client}. ENV property {@code JBOSS_HOME} must be set. Nothing is done if the
+         * module is already installed with the same module.xml and resources.
          */
         public void executeOn(OnlineManagementClient client) throws IOException, CliException {
+            List<File> resources = getResources();
+            if (isInstalled(resources)) {
+                return;
+            }
             StringBuilder cmd = new StringBuilder("module add");
             cmd.append(" --name=").append(name);
+            // server of a fork doesn't use modules of JBOSS_HOME
+            Optional<ForkedServerInstance> fork = ForkedServerInstance.get();
+            if (fork.isPresent()) {
+                cmd.append(" --module-root-dir=").append(fork.get().getJbossHome().resolve("modules"));
+            }
 
             if (this.moduleXMLPath != null) {
                 cmd.append(" --module-xml=").append(this.moduleXMLPath);
@@ -97,10 +102,57 @@ public class ModuleUtil {
 
             if (!this.resources.isEmpty()) {
                 cmd.append(" --resources=").append(resourcesJoiner
-                        .join(this.resources.stream().map(File::getAbsolutePath).toArray()).replaceAll(" ", "\\\\ "));
+                        .join(resources.stream().map(File::getAbsolutePath).toArray()).replaceAll(" ", "\\\\ "));
             }
             client.executeCli(cmd.toString());
-            resources.forEach(File::delete);
+        }
+
+        private List<File> getResources() throws IOException {
+            List<File> files = new ArrayList<>();
+            try {
+                for (CompletableFuture<File> resource : resources) {
+                    files.add(resource.join());
+                }
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException) e.getCause()).getCause();
+                }
+                throw e;
+            }
+            return files;
+        }
+
+        /**
+         * Installed module is the same if it has the same module.xml (when it's set) and all the resources with the
+         * same content. Module installed without module.xml must refer all the resources.
+         */
+        private boolean isInstalled(List<File> resources) throws IOException {
+            Path moduleDirectory = getModuleDirectory(name);
+            if (moduleDirectory == null) {
+                return false;
+            }
+            Path installedModuleXml = moduleDirectory.resolve("module.xml");
+            if (!Files.isRegularFile(installedModuleXml)) {
+                return false;
+            }
+            String installedModuleXmlContent = new String(Files.readAllBytes(installedModuleXml), StandardCharsets.UTF_8);
+            if (moduleXMLPath != null
+                    && !installedModuleXmlContent.equals(new String(Files.readAllBytes(Paths.get(moduleXMLPath)),
+                            StandardCharsets.UTF_8))) {
+                return false;
+            }
+            for (File resource : resources) {
+                Path installed = moduleDirectory.resolve(resource.getName());
+                if (!Files.isRegularFile(installed)
+                        || Files.size(installed) != resource.length()
+                        || !Arrays.equals(Files.readAllBytes(installed), Files.readAllBytes(resource.toPath()))) {
+                    return false;
+                }
+                if (moduleXMLPath == null && !installedModuleXmlContent.contains("\"" + resource.getName() + "\"")) {
+                    return false;
+                }
+            }
+            return true;
         }
     }
 
@@ -115,7 +167,26 @@ public class ModuleUtil {
          * Execute the operation on {@param client}. ENV property {@code JBOSS_HOME} must be set.
          */
         public void executeOn(OnlineManagementClient client) throws IOException, CliException {
+            Optional<ForkedServerInstance> fork = ForkedServerInstance.get();
+            if (fork.isPresent()) {
+                client.executeCli("module remove --name=" + name + " --module-root-dir="
+                        + fork.get().getJbossHome().resolve("modules"));
+                return;
+            }
             client.executeCli("module remove --name=" + name);
         }
     }
+
+    /**
+     * @return directory of the main slot of the module in {@code JBOSS_HOME} (or server home of the fork, see
+     *         {@link ForkedServerInstance}), null if {@code JBOSS_HOME} is not set
+     */
+    private static Path getModuleDirectory(String name) {
+        String jbossHome = ForkedServerInstance.get().map(fork -> fork.getJbossHome().toString())
+                .orElse(System.getenv("JBOSS_HOME"));
+        if (jbossHome == null) {
+            return null;
+        }
+        return Paths.get(jbossHome, "modules").resolve(name.replace('.', File.separatorChar)).resolve("main");
+    }
 }
@@ -2,10 +2,14 @@ package org.jboss.eap.qe.microprofile.tooling.server.configuration.arquillian;
 
 import org.jboss.arquillian.container.test.spi.RemoteLoadableExtension;
 import org.jboss.arquillian.core.spi.LoadableExtension;
+import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ServerStateObserver;
+import org.jboss.eap.qe.microprofile.tooling.server.log.LogArchiveObserver;
 
 /**
  * Extension which sets property descriptor in {@link ArquillianContainerProperties} class which is used in MP specs
- * tests
+ * tests, archives server log of each test by {@link LogArchiveObserver} and reverts server states left by the test
+ * suite by {@link ServerStateObserver}. Server instance of a surefire fork is prepared by {@link ForkedServerInstance}
+ * when the extension is registered, i.e. before arquillian.xml is read.
  */
 public class ArquillianConfigurationExtension implements RemoteLoadableExtension {
 
@@ -16,6 +20,9 @@ public class ArquillianConfigurationExtension implements RemoteLoadableExtension
      */
     @Override
     public void register(LoadableExtension.ExtensionBuilder builder) {
+        ForkedServerInstance.configure();
         builder.observer(ArquillianDescriptorWrapper.class);
+        builder.observer(LogArchiveObserver.class);
+        builder.observer(ServerStateObserver.class);
     }
 }
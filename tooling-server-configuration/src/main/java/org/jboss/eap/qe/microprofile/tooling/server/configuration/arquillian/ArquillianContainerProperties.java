@@ -1,6 +1,14 @@
 package org.jboss.eap.qe.microprofile.tooling.server.configuration.arquillian;
 
-import java.util.Optional;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.jboss.arquillian.config.descriptor.api.ArquillianDescriptor;
 import org.jboss.arquillian.config.descriptor.api.ContainerDef;
@@ -8,31 +16,144 @@ import org.jboss.eap.qe.microprofile.tooling.server.configuration.ConfigurationE
 
 /**
  * Provides access to Arquillian container configuration properties
+ * <p>
+ * Properties of all containers, including containers of groups, are indexed when the instance is created, so lookups
+ * don't iterate over the descriptor. Instance is immutable and can be shared by threads, shared instance for the suite
+ * is provided by {@link ArquillianDescriptorWrapper#getArquillianContainerProperties()}. URIs of management, health and
+ * metrics endpoints of the containers are computed once.
+ * <p>
+ * Descriptor can define several server containers, e.g. instances with different port offsets, and each test JVM
+ * launches one of them by {@value #ARQ_LAUNCH_PROPERTY_NAME} system property. The launched container is the default
+ * container used by {@code getDefault*} methods, so test classes are sharded across the servers by the JVM they run in.
+ * Without the property the container marked as default in the descriptor is used, {@value #DEFAULT_CONTAINER_NAME} is the
+ * last resort.
  */
 public class ArquillianContainerProperties {
 
-    private final ArquillianDescriptor arquillianDescriptor;
-
     public static final String DEFAULT_CONTAINER_NAME = "jboss";
     public static final String DEFAULT_MANAGEMENT_ADDRESS_VALUE = "127.0.0.1";
     public static final String DEFAULT_MANAGEMENT_PORT_VALUE = "9990";
     public static final String ARQ_MANAGEMENT_ADDRESS_PROPERTY_NAME = "managementAddress";
     public static final String ARQ_MANAGEMENT_PORT_PROPERTY_NAME = "managementPort";
+    public static final String ARQ_LAUNCH_PROPERTY_NAME = "arquillian.launch";
+
+    private final Map<String, Map<String, String>> containers;
+    private final Map<String, List<String>> groups;
+    private final String defaultContainerName;
+    private final Map<String, URI> managementBaseUris;
+    private final Map<String, ConfigurationException> managementBaseUriFailures;
 
     public ArquillianContainerProperties(ArquillianDescriptor descriptor) {
-        this.arquillianDescriptor = descriptor;
+        this(descriptor, System.getProperty(ARQ_LAUNCH_PROPERTY_NAME));
+    }
+
+    /**
+     * @param descriptor Arquillian descriptor
+     * @param launch name of container or group launched in this JVM, {@code null} if the default one is launched
+     */
+    ArquillianContainerProperties(ArquillianDescriptor descriptor, String launch) {
+        Map<String, Map<String, String>> containers = new LinkedHashMap<>();
+        Map<String, List<String>> groups = new LinkedHashMap<>();
+        List<String> defaults = new ArrayList<>();
+        if (descriptor != null) {
+            descriptor.getContainers().forEach(container -> index(containers, defaults, container));
+            descriptor.getGroups().forEach(group -> {
+                List<String> members = new ArrayList<>();
+                group.getGroupContainers().forEach(container -> {
+                    index(containers, defaults, container);
+                    members.add(container.getContainerName());
+                });
+                groups.put(group.getGroupName(), Collections.unmodifiableList(members));
+            });
+        }
+        this.containers = Collections.unmodifiableMap(containers);
+        this.groups = Collections.unmodifiableMap(groups);
+        this.defaultContainerName = resolveDefaultContainer(launch, defaults);
+        Map<String, URI> uris = new HashMap<>();
+        Map<String, ConfigurationException> failures = new HashMap<>();
+        Set<String> names = new LinkedHashSet<>(containers.keySet());
+        names.add(defaultContainerName);
+        for (String name : names) {
+            try {
+                uris.put(name, createManagementBaseUri(name));
+            } catch (ConfigurationException e) {
+                failures.put(name, e);
+            }
+        }
+        this.managementBaseUris = Collections.unmodifiableMap(uris);
+        this.managementBaseUriFailures = Collections.unmodifiableMap(failures);
+    }
+
+    private static void index(Map<String, Map<String, String>> containers, List<String> defaults, ContainerDef container) {
+        Map<String, String> properties = container.getContainerProperties();
+        containers.put(container.getContainerName(),
+                Collections.unmodifiableMap(properties == null ? new HashMap<>() : new HashMap<>(properties)));
+        if (container.isDefault()) {
+            defaults.add(container.getContainerName());
+        }
+    }
+
+    /**
+     * Default container is the launched container, the default container of the launched group (or its first
+     * container), the container marked as default in the descriptor, or {@value #DEFAULT_CONTAINER_NAME}
+     */
+    private String resolveDefaultContainer(String launch, List<String> defaults) {
+        if (launch != null && !launch.trim().isEmpty()) {
+            String launched = launch.trim();
+            if (containers.containsKey(launched)) {
+                return launched;
+            }
+            List<String> members = groups.get(launched);
+            if (members != null && !members.isEmpty()) {
+                return members.stream().filter(defaults::contains).findFirst().orElse(members.get(0));
+            }
+        }
+        return defaults.stream().findFirst().orElse(DEFAULT_CONTAINER_NAME);
     }
 
     /**
-     * Retrieves definition for the given Arquillian container name
+     * Retrieves properties of the given Arquillian container
      *
      * @param container Name of requested container definition
-     * @return Instance of {@link ContainerDef} that describes the container
+     * @return properties of the container
+     * @throws {@link ConfigurationException} instance if no container for given name is found
+     */
+    private Map<String, String> getNamedContainerProperties(String container) throws ConfigurationException {
+        Map<String, String> properties = containers.get(container);
+        if (properties == null) {
+            throw new ConfigurationException(
+                    String.format("Definition for container with name [%s] was not found in arquillian.xml descriptor",
+                            container));
+        }
+        return properties;
+    }
+
+    /**
+     * @return names of all containers defined in arquillian.xml descriptor, including containers of groups, in order
+     *         they are defined
+     */
+    public Set<String> getContainerNames() {
+        return containers.keySet();
+    }
+
+    /**
+     * @return names of containers of the given group, in order they are defined
+     * @throws ConfigurationException if no group for given name is found
+     */
+    public List<String> getGroupContainerNames(String group) throws ConfigurationException {
+        List<String> members = groups.get(group);
+        if (members == null) {
+            throw new ConfigurationException(
+                    String.format("Definition for group with name [%s] was not found in arquillian.xml descriptor", group));
+        }
+        return members;
+    }
+
+    /**
+     * @return name of the container used by {@code getDefault*} methods, i.e. the container launched in this JVM
      */
-    private Optional<ContainerDef> getNamedContainerDefinition(String container) {
-        return arquillianDescriptor.getContainers().stream()
-                .filter(c -> c.getContainerName().equals(container))
-                .findFirst();
+    public String getDefaultContainerName() {
+        return defaultContainerName;
     }
 
     /**
@@ -44,13 +165,7 @@ public class ArquillianContainerProperties {
      * @throws {@link ConfigurationException} instance if no container for given name is found
      */
     public String getContainerProperty(String container, String key) throws ConfigurationException {
-        Optional<ContainerDef> containerDefinition = getNamedContainerDefinition(container);
-        if (!containerDefinition.isPresent()) {
-            throw new ConfigurationException(
-                    String.format("Definition for container with name [%s] was not found in arquillian.xml descriptor",
-                            container));
-        }
-        return containerDefinition.get().getContainerProperty(key);
+        return getNamedContainerProperties(container).get(key);
     }
 
     /**
@@ -65,16 +180,35 @@ public class ArquillianContainerProperties {
      * @throws {@link ConfigurationException} instance if no container for given name is found
      */
     public String getContainerProperty(String container, String key, String defaultValue) throws ConfigurationException {
-        Optional<ContainerDef> containerDefinition = getNamedContainerDefinition(container);
-        if (!containerDefinition.isPresent()) {
-            throw new ConfigurationException(
-                    String.format("Definition for container with name [%s] was not found in arquillian.xml descriptor",
-                            container));
-        }
-        String result = containerDefinition.get().getContainerProperty(key);
+        String result = getContainerProperty(container, key);
         return (result == null) || result.isEmpty() ? defaultValue : result;
     }
 
+    /**
+     * Gets the integer value for a property of a given Arquillian container and returns the default value passed when
+     * the given property value is null or empty
+     *
+     * @param container The name of the container
+     * @param key The name of the property
+     * @param defaultValue The default value to be returned when the given property name is not found
+     * @return The value for the requested property or the given default value when the given property value is null or
+     *         empty
+     * @throws {@link ConfigurationException} instance if no container for given name is found or the value is not an
+     *         integer
+     */
+    public int getContainerPropertyAsInt(String container, String key, int defaultValue) throws ConfigurationException {
+        String result = getContainerProperty(container, key);
+        if (result == null || result.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(result.trim());
+        } catch (NumberFormatException e) {
+            throw new ConfigurationException(String.format("Property [%s] of container [%s] is not an integer: %s", key,
+                    container, result), e);
+        }
+    }
+
     /**
      * Gets the default value for the management address, which is taken from arquillian.xml configuration file
      * <b>"127.0.0.1"</b> is returned if no value is found for "managementAddress" property.
@@ -82,10 +216,7 @@ public class ArquillianContainerProperties {
      * @return The default Wildfly management interface address
      */
     public String getDefaultManagementAddress() throws ConfigurationException {
-        return getContainerProperty(
-                DEFAULT_CONTAINER_NAME,
-                ARQ_MANAGEMENT_ADDRESS_PROPERTY_NAME,
-                DEFAULT_MANAGEMENT_ADDRESS_VALUE);
+        return getManagementAddress(defaultContainerName);
     }
 
     /**
@@ -95,10 +226,91 @@ public class ArquillianContainerProperties {
      * @return The default Wildfly management interface port
      */
     public int getDefaultManagementPort() throws ConfigurationException {
-        return Integer.parseInt(
-                getContainerProperty(
-                        DEFAULT_CONTAINER_NAME,
-                        ARQ_MANAGEMENT_PORT_PROPERTY_NAME,
-                        DEFAULT_MANAGEMENT_PORT_VALUE));
+        return getManagementPort(defaultContainerName);
+    }
+
+    /**
+     * @param container The name of the container
+     * @return management interface address of the container, <b>"127.0.0.1"</b> if the property is not set
+     * @throws ConfigurationException if no container for given name is found
+     */
+    public String getManagementAddress(String container) throws ConfigurationException {
+        return getContainerProperty(container, ARQ_MANAGEMENT_ADDRESS_PROPERTY_NAME, DEFAULT_MANAGEMENT_ADDRESS_VALUE);
+    }
+
+    /**
+     * @param container The name of the container
+     * @return management interface port of the container, <b>9990</b> if the property is not set
+     * @throws ConfigurationException if no container for given name is found or the port is not an integer
+     */
+    public int getManagementPort(String container) throws ConfigurationException {
+        return getContainerPropertyAsInt(container, ARQ_MANAGEMENT_PORT_PROPERTY_NAME,
+                Integer.parseInt(DEFAULT_MANAGEMENT_PORT_VALUE));
+    }
+
+    /**
+     * @param container The name of the container
+     * @return base URI of the management interface of the container, e.g. {@code http://127.0.0.1:9990}
+     * @throws ConfigurationException if no container for given name is found or its management port is invalid
+     */
+    public URI getManagementBaseUri(String container) throws ConfigurationException {
+        URI uri = managementBaseUris.get(container);
+        if (uri != null) {
+            return uri;
+        }
+        ConfigurationException failure = managementBaseUriFailures.get(container);
+        if (failure != null) {
+            throw failure;
+        }
+        // container is not defined in the descriptor, fails with the same message as other lookups
+        return createManagementBaseUri(container);
+    }
+
+    /**
+     * @return base URI of the management interface of the default container, e.g. {@code http://127.0.0.1:9990}
+     * @throws ConfigurationException if the default container is not defined or its management port is invalid
+     */
+    public URI getManagementBaseUri() throws ConfigurationException {
+        return getManagementBaseUri(defaultContainerName);
+    }
+
+    /**
+     * @return URI of {@code /health} endpoint of the default container
+     */
+    public URI getHealthUri() throws ConfigurationException {
+        return getManagementBaseUri().resolve("/health");
+    }
+
+    /**
+     * @return URI of {@code /health/live} endpoint of the default container
+     */
+    public URI getHealthLiveUri() throws ConfigurationException {
+        return getManagementBaseUri().resolve("/health/live");
+    }
+
+    /**
+     * @return URI of {@code /health/ready} endpoint of the default container
+     */
+    public URI getHealthReadyUri() throws ConfigurationException {
+        return getManagementBaseUri().resolve("/health/ready");
+    }
+
+    /**
+     * @return URI of {@code /metrics} endpoint of the default container
+     */
+    public URI getMetricsUri() throws ConfigurationException {
+        return getManagementBaseUri().resolve("/metrics");
+    }
+
+    private URI createManagementBaseUri(String container) throws ConfigurationException {
+        String address = getManagementAddress(container);
+        int port = getManagementPort(container);
+        // IPv6 address must be enclosed in brackets
+        String host = address.indexOf(':') >= 0 && !address.startsWith("[") ? "[" + address + "]" : address;
+        try {
+            return URI.create("http://" + host + ":" + port);
+        } catch (IllegalArgumentException e) {
+            throw new ConfigurationException("Invalid management address of container " + container, e);
+        }
     }
 }
@@ -14,6 +14,11 @@ public class ArquillianDescriptorWrapper {
      */
     private static ArquillianDescriptor arquillianDescriptor;
 
+    /**
+     * Properties indexed from {@link ArquillianDescriptorWrapper#arquillianDescriptor}, built once per suite
+     */
+    private static volatile ArquillianContainerProperties arquillianContainerProperties;
+
     public ArquillianDescriptorWrapper() {
     }
 
@@ -27,9 +32,25 @@ public class ArquillianDescriptorWrapper {
      */
     public static void setArquillianDescriptor(@Observes BeforeSuite event, ArquillianDescriptor descriptor) {
         arquillianDescriptor = descriptor;
+        arquillianContainerProperties = new ArquillianContainerProperties(descriptor);
     }
 
     public static ArquillianDescriptor getArquillianDescriptor() {
         return arquillianDescriptor;
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets properties of containers defined in the descriptor. The instance is immutable and shared, so it should be
+     * preferred to creating new {@link ArquillianContainerProperties} instances.
+     *
+     * @return {@link ArquillianContainerProperties} instance for the descriptor of the current suite
+     */
+    public static ArquillianContainerProperties getArquillianContainerProperties() {
+        ArquillianContainerProperties properties = arquillianContainerProperties;
+        if (properties == null) {
+            // descriptor was not set by the extension yet, don't cache properties of a missing descriptor
+            return new ArquillianContainerProperties(arquillianDescriptor);
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,336 @@
+package org.jboss.eap.qe.microprofile.tooling.server.configuration.arquillian;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+/**
+ * Server instance of a surefire fork. When tests run in several forks, each fork gets its own copy of the server home
+ * and its own port offset, so the forks can run their servers in parallel:
+ *
+ * <pre>
+ * mvn clean verify -Dserver.forks=4
+ * </pre>
+ *
+ * Fork number and count are passed by surefire in {@value #FORK_NUMBER_PROPERTY} and {@value #FORK_COUNT_PROPERTY}
+ * system properties. Fork {@code N} prepares server home {@code <jboss.home>-fork-N} - standalone directory of
+ * {@code jboss.home} is copied (without data, tmp and log directories), other entries like read-only modules and bin
+ * directories are linked - and uses port offset {@code (N - 1) * step}, the step is taken from
+ * {@value #PORT_OFFSET_STEP_PROPERTY} system property, {@value #DEFAULT_PORT_OFFSET_STEP} by default. Management port
+ * of the fork is {@code managementPort} of the launched container in arquillian.xml (9990 by default) plus the port
+ * offset, unless it's set by {@code arq.container.<qualifier>.configuration.managementPort} system property. Properties of
+ * the launched Arquillian container are overridden by {@code arq.container.<qualifier>.configuration.<property>} system
+ * properties before arquillian.xml is read, properties already set by the user are kept. The port offset is appended
+ * to {@code jbossArguments} set by the user or in arquillian.xml.
+ * <p>
+ * Nothing is done when the tests run in a single fork.
+ */
+public final class ForkedServerInstance {
+
+    public static final String FORK_NUMBER_PROPERTY = "server.fork.number";
+    public static final String FORK_COUNT_PROPERTY = "server.fork.count";
+    public static final String PORT_OFFSET_STEP_PROPERTY = "server.fork.port.offset.step";
+    public static final int DEFAULT_PORT_OFFSET_STEP = 100;
+    public static final String JBOSS_HOME_PROPERTY = "jboss.home";
+    public static final String ARQ_JBOSS_HOME_PROPERTY_NAME = "jbossHome";
+    public static final String ARQ_WAIT_FOR_PORTS_PROPERTY_NAME = "waitForPorts";
+    public static final String ARQ_JBOSS_ARGUMENTS_PROPERTY_NAME = "jbossArguments";
+    public static final String ARQUILLIAN_XML_PROPERTY = "arquillian.xml";
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{([^}:]+)(?::([^}]*))?}");
+
+    // only standalone server is modified by tests, other entries of the server home are linked
+    private static final String STANDALONE_DIRECTORY = "standalone";
+    // runtime state of standalone server is not copied
+    private static final Set<Path> EXCLUDED_DIRECTORIES = new HashSet<>(Arrays.asList(
+            Paths.get("standalone", "data"), Paths.get("standalone", "tmp"), Paths.get("standalone", "log")));
+
+    private static volatile ForkedServerInstance instance;
+    private static boolean configured;
+
+    private final int forkNumber;
+    private final int portOffset;
+    private final Path jbossHome;
+    private final int managementPort;
+
+    ForkedServerInstance(int forkNumber, int portOffset, Path jbossHome, int managementPort) {
+        this.forkNumber = forkNumber;
+        this.portOffset = portOffset;
+        this.jbossHome = jbossHome;
+        this.managementPort = managementPort;
+    }
+
+    /**
+     * @return server instance of this fork, empty if the tests don't run in several forks
+     */
+    public static Optional<ForkedServerInstance> get() {
+        return Optional.ofNullable(instance);
+    }
+
+    /**
+     * Prepares server home of this fork and Arquillian container properties, it must be called before arquillian.xml is
+     * read, see {@link ArquillianConfigurationExtension}. Only the first call has an effect.
+     *
+     * @throws UncheckedIOException if the server home can't be copied
+     */
+    static synchronized void configure() {
+        if (configured) {
+            return;
+        }
+        configured = true;
+        final Integer forkNumber = parseInt(System.getProperty(FORK_NUMBER_PROPERTY));
+        final String forkCount = System.getProperty(FORK_COUNT_PROPERTY, "1").trim();
+        final String source = System.getProperty(JBOSS_HOME_PROPERTY);
+        if (forkNumber == null || "1".equals(forkCount) || "0".equals(forkCount) || source == null
+                || !Files.isDirectory(Paths.get(source))) {
+            return;
+        }
+        final int step = Integer.getInteger(PORT_OFFSET_STEP_PROPERTY, DEFAULT_PORT_OFFSET_STEP);
+        final int portOffset = (forkNumber - 1) * step;
+        final String container = System.getProperty(ArquillianContainerProperties.ARQ_LAUNCH_PROPERTY_NAME,
+                ArquillianContainerProperties.DEFAULT_CONTAINER_NAME);
+        final String managementPortOverride = System.getProperty("arq.container." + container + ".configuration."
+                + ArquillianContainerProperties.ARQ_MANAGEMENT_PORT_PROPERTY_NAME);
+        // port set by the user is the port of the fork already
+        final int managementPort = managementPortOverride != null ? Integer.parseInt(managementPortOverride.trim())
+                : getConfiguredManagementPort(container) + portOffset;
+        final Path sourceHome = Paths.get(source).toAbsolutePath().normalize();
+        final ForkedServerInstance fork = new ForkedServerInstance(forkNumber, portOffset,
+                sourceHome.resolveSibling(sourceHome.getFileName() + "-fork-" + forkNumber), managementPort);
+        try {
+            copyServerHome(sourceHome, fork.jbossHome);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to copy server home for fork " + forkNumber, e);
+        }
+        final String argumentsProperty = "arq.container." + container + ".configuration." + ARQ_JBOSS_ARGUMENTS_PROPERTY_NAME;
+        final String jbossArguments = System.getProperty(argumentsProperty) != null ? System.getProperty(argumentsProperty)
+                : getConfiguredProperty(container, ARQ_JBOSS_ARGUMENTS_PROPERTY_NAME);
+        fork.getContainerProperties(container, jbossArguments).forEach((name, value) -> {
+            // arguments set by the user are part of the value
+            if (System.getProperty(name) == null || name.equals(argumentsProperty)) {
+                System.setProperty(name, value);
+            }
+        });
+        System.setProperty(JBOSS_HOME_PROPERTY, fork.jbossHome.toString());
+        System.out.println("Fork " + forkNumber + " uses server " + fork.jbossHome + " with port offset "
+                + fork.portOffset);
+        instance = fork;
+    }
+
+    /**
+     * @param jbossArguments {@code jbossArguments} of the container set by the user or in arquillian.xml, null if not set
+     * @return system properties which override configuration of the Arquillian container for this fork
+     */
+    Map<String, String> getContainerProperties(String container, String jbossArguments) {
+        final String prefix = "arq.container." + container + ".configuration.";
+        final String managementPort = String.valueOf(getManagementPort());
+        final Map<String, String> properties = new LinkedHashMap<>();
+        properties.put(prefix + ARQ_JBOSS_HOME_PROPERTY_NAME, jbossHome.toString());
+        properties.put(prefix + ArquillianContainerProperties.ARQ_MANAGEMENT_PORT_PROPERTY_NAME, managementPort);
+        properties.put(prefix + ARQ_WAIT_FOR_PORTS_PROPERTY_NAME, managementPort);
+        properties.put(prefix + ARQ_JBOSS_ARGUMENTS_PROPERTY_NAME,
+                (jbossArguments == null || jbossArguments.trim().isEmpty() ? "" : jbossArguments.trim() + " ")
+                        + "-Djboss.socket.binding.port-offset=" + portOffset);
+        return properties;
+    }
+
+    /**
+     * @return number of the fork, starting from 1
+     */
+    public int getForkNumber() {
+        return forkNumber;
+    }
+
+    /**
+     * @return port offset of the server of the fork
+     */
+    public int getPortOffset() {
+        return portOffset;
+    }
+
+    /**
+     * @return management port of the server of the fork
+     */
+    public int getManagementPort() {
+        return managementPort;
+    }
+
+    /**
+     * @return server home of the fork
+     */
+    public Path getJbossHome() {
+        return jbossHome;
+    }
+
+    /**
+     * Reads {@code managementPort} of the container from arquillian.xml, which is not read by Arquillian yet. The file is
+     * looked up the same way as by Arquillian - path or class path resource given by {@value #ARQUILLIAN_XML_PROPERTY}
+     * system property.
+     *
+     * @return management port of the container without port offset, 9990 if it's not configured
+     */
+    static int getConfiguredManagementPort(String container) {
+        final String port = getConfiguredProperty(container, ArquillianContainerProperties.ARQ_MANAGEMENT_PORT_PROPERTY_NAME);
+        return port == null ? Integer.parseInt(ArquillianContainerProperties.DEFAULT_MANAGEMENT_PORT_VALUE)
+                : Integer.parseInt(port.trim());
+    }
+
+    /**
+     * Reads property of the container from arquillian.xml, see {@link #getConfiguredManagementPort(String)}
+     *
+     * @return value of the property with resolved placeholders, null if it's not configured
+     */
+    static String getConfiguredProperty(String container, String property) {
+        final String arquillianXml = System.getProperty(ARQUILLIAN_XML_PROPERTY, "arquillian.xml");
+        try (InputStream input = Files.isRegularFile(Paths.get(arquillianXml))
+                ? Files.newInputStream(Paths.get(arquillianXml))
+                : ForkedServerInstance.class.getClassLoader().getResourceAsStream(arquillianXml)) {
+            if (input == null) {
+                return null;
+            }
+            final String value = getContainerProperty(input, container, property);
+            return value == null ? null : resolvePlaceholders(value);
+        } catch (IOException | ParserConfigurationException | SAXException e) {
+            throw new IllegalStateException("Unable to read " + arquillianXml, e);
+        }
+    }
+
+    static String getContainerProperty(InputStream arquillianXml, String container, String property)
+            throws IOException, ParserConfigurationException, SAXException {
+        final Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(arquillianXml);
+        // containers of groups included
+        final NodeList containers = document.getElementsByTagName("container");
+        for (int i = 0; i < containers.getLength(); i++) {
+            final Element containerElement = (Element) containers.item(i);
+            if (!container.equals(containerElement.getAttribute("qualifier"))) {
+                continue;
+            }
+            final NodeList properties = containerElement.getElementsByTagName("property");
+            for (int j = 0; j < properties.getLength(); j++) {
+                final Element propertyElement = (Element) properties.item(j);
+                if (property.equals(propertyElement.getAttribute("name"))) {
+                    return propertyElement.getTextContent();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Replaces {@code ${property}} and {@code ${property:default}} by values of system properties as Arquillian does
+     */
+    private static String resolvePlaceholders(String value) {
+        final Matcher matcher = PLACEHOLDER.matcher(value);
+        final StringBuffer resolved = new StringBuffer();
+        while (matcher.find()) {
+            final String replacement = System.getProperty(matcher.group(1),
+                    matcher.group(2) != null ? matcher.group(2) : matcher.group());
+            matcher.appendReplacement(resolved, Matcher.quoteReplacement(replacement));
+        }
+        matcher.appendTail(resolved);
+        return resolved.toString();
+    }
+
+    /**
+     * Prepares server home of the fork, previous copy is deleted so the fork always starts from the original
+     * configuration. Only standalone directory is copied, other entries are linked, they are copied only if the file
+     * system doesn't support symbolic links.
+     */
+    static void copyServerHome(Path source, Path target) throws IOException {
+        if (Files.exists(target, LinkOption.NOFOLLOW_LINKS)) {
+            delete(target);
+        }
+        Files.createDirectories(target);
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(source)) {
+            for (Path entry : entries) {
+                final Path targetEntry = target.resolve(entry.getFileName().toString());
+                if (STANDALONE_DIRECTORY.equals(entry.getFileName().toString())) {
+                    copy(source, entry, target);
+                    continue;
+                }
+                try {
+                    Files.createSymbolicLink(targetEntry, entry);
+                } catch (UnsupportedOperationException | IOException e) {
+                    copy(source, entry, target);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies file or directory of the server home without runtime state of standalone server
+     */
+    private static void copy(Path sourceHome, Path entry, Path targetHome) throws IOException {
+        Files.walkFileTree(entry, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                final Path relative = sourceHome.relativize(dir);
+                if (EXCLUDED_DIRECTORIES.contains(relative)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                Files.createDirectories(targetHome.resolve(relative.toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.copy(file, targetHome.resolve(sourceHome.relativize(file).toString()),
+                        StandardCopyOption.COPY_ATTRIBUTES);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static void delete(Path directory) throws IOException {
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static Integer parseInt(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            // placeholder not replaced, e.g. tests not forked by surefire
+            return null;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import org.jboss.as.cli.CliInitializationException;
+import org.jboss.as.cli.CommandContext;
+import org.jboss.as.cli.CommandContextFactory;
+import org.jboss.as.cli.CommandFormatException;
+import org.jboss.dmr.ModelNode;
+import org.wildfly.extras.creaper.core.online.ModelNodeResult;
+import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
+import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
+
+/**
+ * Builder of {@code composite} management operation. Operations are collected and executed in one round-trip as steps
+ * of a single composite operation, which is atomic - if any step fails, all steps are rolled back.
+ * <p>
+ * Result reports outcome of every step and whether the server must be reloaded or restarted after the composite, so a
+ * setup consisting of several operations costs at most one reload:
+ *
+ * <pre>
+ * ManagementClientHelper.batch()
+ *         .addCliCommand("/extension=org.wildfly.extension.microprofile.openapi-smallrye:add")
+ *         .addCliCommand("/subsystem=microprofile-openapi-smallrye:add")
+ *         .execute(client)
+ *         .assertSuccess()
+ *         .reloadIfRequired(client);
+ * </pre>
+ */
+public class CompositeOperation {
+
+    private static final String OUTCOME_SUCCESS = "success";
+    private static final String RELOAD_REQUIRED = "reload-required";
+    private static final String RESTART_REQUIRED = "restart-required";
+
+    private static CommandContext commandContext;
+
+    private final List<ModelNode> steps = new ArrayList<>();
+    private final List<String> descriptions = new ArrayList<>();
+
+    /**
+     * Adds CLI operation, e.g. {@code /subsystem=logging/logger=org.jboss:add(level=DEBUG)}, as a step of the
+     * composite. Only operations are supported, CLI commands like {@code module add} can't be a part of composite.
+     *
+     * @param command A valid CLI operation
+     * @throws ManagementClientRelatedException if the operation can't be parsed
+     */
+    public CompositeOperation addCliCommand(String command) throws ManagementClientRelatedException {
+        try {
+            steps.add(parseCliCommand(command));
+        } catch (CliInitializationException | CommandFormatException e) {
+            throw new ManagementClientRelatedException("Invalid CLI operation " + command, e);
+        }
+        descriptions.add(command);
+        return this;
+    }
+
+    /**
+     * Adds management operation as a step of the composite
+     *
+     * @param operation management operation
+     */
+    public CompositeOperation addOperation(ModelNode operation) {
+        steps.add(operation);
+        descriptions.add(operation.get("operation").asString() + " " + operation.get("address"));
+        return this;
+    }
+
+    /**
+     * @return number of steps of the composite
+     */
+    public int size() {
+        return steps.size();
+    }
+
+    /**
+     * @return composite operation of all added steps
+     */
+    public ModelNode toModelNode() {
+        ModelNode composite = new ModelNode();
+        composite.get("operation").set("composite");
+        composite.get("address").setEmptyList();
+        ModelNode compositeSteps = composite.get("steps");
+        compositeSteps.setEmptyList();
+        steps.forEach(compositeSteps::add);
+        return composite;
+    }
+
+    /**
+     * Executes all steps in one composite operation
+     *
+     * @param client {@link OnlineManagementClient} instance used to execute the composite
+     * @return outcome of the composite and its steps
+     * @throws ManagementClientRelatedException Wraps exceptions thrown by the internal operation executed by
+     *         {@link OnlineManagementClient} API
+     */
+    public Result execute(OnlineManagementClient client) throws ManagementClientRelatedException {
+        if (steps.isEmpty()) {
+            return new Result(null, Collections.emptyList());
+        }
+        ModelNodeResult result;
+        try {
+            result = client.execute(toModelNode());
+        } catch (IOException e) {
+            throw new ManagementClientRelatedException(e);
+        }
+        List<StepResult> stepResults = new ArrayList<>();
+        for (int i = 0; i < steps.size(); i++) {
+            stepResults.add(new StepResult(descriptions.get(i), result.get("result").get("step-" + (i + 1))));
+        }
+        return new Result(result, stepResults);
+    }
+
+    private static synchronized ModelNode parseCliCommand(String command)
+            throws CliInitializationException, CommandFormatException {
+        if (commandContext == null) {
+            // context is used only for parsing, it's never connected to a server
+            commandContext = CommandContextFactory.getInstance().newCommandContext();
+        }
+        return commandContext.buildRequest(command);
+    }
+
+    private static boolean requiresReload(ModelNode response) {
+        ModelNode headers = response.get("response-headers");
+        return headers.get("operation-requires-reload").asBoolean(false)
+                || RELOAD_REQUIRED.equals(headers.get("process-state").asString());
+    }
+
+    private static boolean requiresRestart(ModelNode response) {
+        ModelNode headers = response.get("response-headers");
+        return headers.get("operation-requires-restart").asBoolean(false)
+                || RESTART_REQUIRED.equals(headers.get("process-state").asString());
+    }
+
+    /**
+     * Outcome of the composite operation
+     */
+    public static class Result {
+        private final ModelNodeResult result;
+        private final List<StepResult> steps;
+
+        private Result(ModelNodeResult result, List<StepResult> steps) {
+            this.result = result;
+            this.steps = Collections.unmodifiableList(steps);
+        }
+
+        /**
+         * @return true if all steps succeeded, composite without steps is successful
+         */
+        public boolean isSuccess() {
+            return result == null || result.isSuccess();
+        }
+
+        /**
+         * @return outcome of every step in order the steps were added
+         */
+        public List<StepResult> getSteps() {
+            return steps;
+        }
+
+        /**
+         * @return result of the whole composite operation, null if there were no steps
+         */
+        public ModelNodeResult getModelNodeResult() {
+            return result;
+        }
+
+        /**
+         * @return true if any step put the server into reload-required state
+         */
+        public boolean isReloadRequired() {
+            return result != null && (requiresReload(result) || steps.stream().anyMatch(StepResult::isReloadRequired));
+        }
+
+        /**
+         * @return true if any step put the server into restart-required state
+         */
+        public boolean isRestartRequired() {
+            return result != null && (requiresRestart(result) || steps.stream().anyMatch(StepResult::isRestartRequired));
+        }
+
+        /**
+         * @throws ManagementClientRelatedException if the composite failed, failed steps are described in the message
+         */
+        public Result assertSuccess() throws ManagementClientRelatedException {
+            if (!isSuccess()) {
+                StringBuilder message = new StringBuilder("Composite operation failed: ")
+                        .append(result.get("failure-description").asString());
+                steps.stream().filter(step -> !step.isSuccess()).forEach(step -> message.append(System.lineSeparator())
+                        .append("    ").append(step.getDescription()).append(": ").append(step.getFailureDescription()));
+                throw new ManagementClientRelatedException(message.toString());
+            }
+            return this;
+        }
+
+        /**
+         * Restarts the server if any step requires restart, reloads it if any step requires reload, does nothing
+         * otherwise
+         *
+         * @param client {@link OnlineManagementClient} instance used to reload the server
+         * @return true if the server was reloaded or restarted
+         * @throws ManagementClientRelatedException Wraps exceptions thrown by the internal operation executed by
+         *         {@link OnlineManagementClient} API
+         */
+        public boolean reloadIfRequired(OnlineManagementClient client) throws ManagementClientRelatedException {
+            try {
+                if (isRestartRequired()) {
+                    new Administration(client).restart();
+                    return true;
+                }
+                if (isReloadRequired()) {
+                    new Administration(client).reload();
+                    return true;
+                }
+                return false;
+            } catch (IOException | InterruptedException | TimeoutException e) {
+                throw new ManagementClientRelatedException(e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "CompositeOperation.Result{success=" + isSuccess() + ", steps=" + steps + "}";
+        }
+    }
+
+    /**
+     * Outcome of a single step of the composite operation
+     */
+    public static class StepResult {
+        private final String description;
+        private final ModelNode response;
+
+        private StepResult(String description, ModelNode response) {
+            this.description = description;
+            this.response = response;
+        }
+
+        /**
+         * @return CLI operation or description of the step operation
+         */
+        public String getDescription() {
+            return description;
+        }
+
+        public boolean isSuccess() {
+            return OUTCOME_SUCCESS.equals(response.get("outcome").asString());
+        }
+
+        /**
+         * @return result of the step operation
+         */
+        public ModelNode getResult() {
+            return response.get("result");
+        }
+
+        /**
+         * @return failure description, null if the step succeeded
+         */
+        public String getFailureDescription() {
+            return response.has("failure-description") ? response.get("failure-description").asString() : null;
+        }
+
+        public boolean isReloadRequired() {
+            return requiresReload(response);
+        }
+
+        public boolean isRestartRequired() {
+            return requiresRestart(response);
+        }
+
+        @Override
+        public String toString() {
+            return description + " - " + (isSuccess() ? "success" : "failed: " + getFailureDescription())
+                    + (isRestartRequired() ? " (restart required)" : isReloadRequired() ? " (reload required)" : "");
+        }
+    }
+}
@@ -25,4 +25,14 @@ public class ManagementClientHelper {
             throw new ManagementClientRelatedException(e);
         }
     }
+
+    /**
+     * Creates builder of a {@code composite} operation, which executes several CLI operations atomically in one
+     * round-trip and reports whether the server needs to be reloaded afterwards.
+     *
+     * @return empty {@link CompositeOperation}
+     */
+    public static CompositeOperation batch() {
+        return new CompositeOperation();
+    }
 }
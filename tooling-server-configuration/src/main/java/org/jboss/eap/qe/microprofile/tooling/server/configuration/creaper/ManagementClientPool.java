@@ -0,0 +1,342 @@
+package org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.wildfly.extras.creaper.core.ManagementClient;
+import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
+import org.wildfly.extras.creaper.core.online.OnlineOptions;
+import org.wildfly.extras.creaper.core.online.operations.Address;
+import org.wildfly.extras.creaper.core.online.operations.Operations;
+
+/**
+ * Pool of {@link OnlineManagementClient} instances keyed by management host, port and credentials. Clients are leased
+ * from the pool and closing of the leased client returns it into the pool instead of closing the connection, so code
+ * which creates and closes client for every operation does not pay for connection setup and authentication each time:
+ *
+ * <pre>
+ * try (OnlineManagementClient client = ManagementClientPool.getInstance().lease("127.0.0.1", 9990)) {
+ *     ...
+ * }
+ * </pre>
+ *
+ * Client idle for more than {@link #VALIDATION_INTERVAL_MILLIS} is checked by reading {@code server-state} attribute
+ * before it's leased again, broken clients are closed and replaced. Clients idle for more than
+ * {@link #IDLE_TIMEOUT_MILLIS} are closed. Leases which were not closed are reported when JVM exits, together with
+ * stack trace of the code which leased them.
+ */
+public final class ManagementClientPool {
+
+    public static final long IDLE_TIMEOUT_MILLIS = 60_000;
+    public static final long VALIDATION_INTERVAL_MILLIS = 5_000;
+    public static final int MAX_IDLE_CLIENTS_PER_KEY = 4;
+
+    private static final ManagementClientPool INSTANCE = new ManagementClientPool(ManagementClientPool::createClient,
+            ManagementClientPool::isHealthy, IDLE_TIMEOUT_MILLIS, VALIDATION_INTERVAL_MILLIS);
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            INSTANCE.reportLeaks(System.out);
+            INSTANCE.close();
+        }, "management-client-pool-shutdown"));
+    }
+
+    private final Function<Key, OnlineManagementClient> clientFactory;
+    private final Predicate<OnlineManagementClient> healthCheck;
+    private final long idleTimeoutNanos;
+    private final long validationIntervalNanos;
+    private final Map<Key, Deque<IdleClient>> idleClients = new HashMap<>();
+    private final Map<Lease, Throwable> leases = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "management-client-pool-evictor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    ManagementClientPool(Function<Key, OnlineManagementClient> clientFactory,
+            Predicate<OnlineManagementClient> healthCheck, long idleTimeoutMillis, long validationIntervalMillis) {
+        this.clientFactory = clientFactory;
+        this.healthCheck = healthCheck;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.validationIntervalNanos = TimeUnit.MILLISECONDS.toNanos(validationIntervalMillis);
+        long evictionPeriod = Math.max(1, idleTimeoutMillis / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdleClients, evictionPeriod, evictionPeriod, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return pool shared by the whole JVM
+     */
+    public static ManagementClientPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Lease client for <b>standalone</b> server without authentication
+     *
+     * @param host management address of the server
+     * @param port management port of the server
+     * @return leased client, close it to return it into the pool
+     */
+    public OnlineManagementClient lease(String host, int port) {
+        return lease(host, port, null, null);
+    }
+
+    /**
+     * Lease client for <b>standalone</b> server
+     *
+     * @param host management address of the server
+     * @param port management port of the server
+     * @param username management user, null if authentication is not used
+     * @param password password of the management user
+     * @return leased client, close it to return it into the pool
+     */
+    public OnlineManagementClient lease(String host, int port, String username, String password) {
+        Key key = new Key(host, port, username, password);
+        OnlineManagementClient client = takeIdleClient(key);
+        if (client == null) {
+            client = clientFactory.apply(key);
+        }
+        Lease lease = new Lease(key, client);
+        leases.put(lease, new Throwable("Management client for " + key + " leased by thread "
+                + Thread.currentThread().getName()));
+        return (OnlineManagementClient) Proxy.newProxyInstance(OnlineManagementClient.class.getClassLoader(),
+                new Class<?>[] { OnlineManagementClient.class }, lease);
+    }
+
+    /**
+     * @return number of clients which are leased and were not closed yet
+     */
+    public int getLeasedCount() {
+        return leases.size();
+    }
+
+    /**
+     * @return number of clients available in the pool
+     */
+    public synchronized int getIdleCount() {
+        return idleClients.values().stream().mapToInt(Deque::size).sum();
+    }
+
+    /**
+     * Prints leases which were not closed
+     *
+     * @param out stream the report is printed to
+     * @return number of leases which were not closed
+     */
+    public int reportLeaks(PrintStream out) {
+        List<Throwable> leaks = new ArrayList<>(leases.values());
+        for (Throwable leak : leaks) {
+            out.println("Leaked management client, it was not closed:");
+            leak.printStackTrace(out);
+        }
+        return leaks.size();
+    }
+
+    /**
+     * Closes all idle clients and stops eviction of idle clients, clients leased later are not evicted.
+     */
+    public void close() {
+        evictor.shutdownNow();
+        List<OnlineManagementClient> clients = new ArrayList<>();
+        synchronized (this) {
+            idleClients.values().forEach(idle -> idle.forEach(idleClient -> clients.add(idleClient.client)));
+            idleClients.clear();
+        }
+        clients.forEach(ManagementClientPool::closeQuietly);
+    }
+
+    private OnlineManagementClient takeIdleClient(Key key) {
+        while (true) {
+            IdleClient idleClient;
+            synchronized (this) {
+                Deque<IdleClient> idle = idleClients.get(key);
+                idleClient = idle == null ? null : idle.pollFirst();
+            }
+            if (idleClient == null) {
+                return null;
+            }
+            if (System.nanoTime() - idleClient.idleSince < validationIntervalNanos || healthCheck.test(idleClient.client)) {
+                return idleClient.client;
+            }
+            closeQuietly(idleClient.client);
+        }
+    }
+
+    private void release(Lease lease) {
+        leases.remove(lease);
+        if (lease.broken) {
+            closeQuietly(lease.client);
+            return;
+        }
+        synchronized (this) {
+            Deque<IdleClient> idle = idleClients.computeIfAbsent(lease.key, key -> new ArrayDeque<>());
+            if (idle.size() < MAX_IDLE_CLIENTS_PER_KEY) {
+                // the most recently used client is leased first, so the others can expire
+                idle.addFirst(new IdleClient(lease.client));
+                return;
+            }
+        }
+        closeQuietly(lease.client);
+    }
+
+    private void evictIdleClients() {
+        List<OnlineManagementClient> evicted = new ArrayList<>();
+        synchronized (this) {
+            long now = System.nanoTime();
+            for (Deque<IdleClient> idle : idleClients.values()) {
+                Iterator<IdleClient> iterator = idle.iterator();
+                while (iterator.hasNext()) {
+                    IdleClient idleClient = iterator.next();
+                    if (now - idleClient.idleSince > idleTimeoutNanos) {
+                        evicted.add(idleClient.client);
+                        iterator.remove();
+                    }
+                }
+            }
+        }
+        evicted.forEach(ManagementClientPool::closeQuietly);
+    }
+
+    private static OnlineManagementClient createClient(Key key) {
+        if (key.username == null) {
+            return ManagementClient.onlineLazy(OnlineOptions.standalone().hostAndPort(key.host, key.port).build());
+        }
+        return ManagementClient.onlineLazy(OnlineOptions.standalone().hostAndPort(key.host, key.port)
+                .auth(key.username, key.password).build());
+    }
+
+    private static boolean isHealthy(OnlineManagementClient client) {
+        try {
+            return new Operations(client).readAttribute(Address.root(), "server-state").isSuccess();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static void closeQuietly(OnlineManagementClient client) {
+        try {
+            client.close();
+        } catch (IOException | RuntimeException e) {
+            // nothing to do, the client is not used anymore
+        }
+    }
+
+    /**
+     * Management host, port and credentials clients are pooled by
+     */
+    static final class Key {
+        private final String host;
+        private final int port;
+        private final String username;
+        private final String password;
+
+        Key(String host, int port, String username, String password) {
+            this.host = host;
+            this.port = port;
+            this.username = username;
+            this.password = password;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return port == key.port && host.equals(key.host) && Objects.equals(username, key.username)
+                    && Objects.equals(password, key.password);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(host, port, username, password);
+        }
+
+        @Override
+        public String toString() {
+            return (username == null ? "" : username + "@") + host + ":" + port;
+        }
+    }
+
+    private static final class IdleClient {
+        private final OnlineManagementClient client;
+        private final long idleSince = System.nanoTime();
+
+        private IdleClient(OnlineManagementClient client) {
+            this.client = client;
+        }
+    }
+
+    /**
+     * Leased client, closing the lease returns the client into the pool. Client which failed with
+     * {@link IOException} is closed instead as its connection may be broken.
+     */
+    private final class Lease implements InvocationHandler {
+        private final Key key;
+        private final OnlineManagementClient client;
+        private volatile boolean closed;
+        private volatile boolean broken;
+
+        private Lease(Key key, OnlineManagementClient client) {
+            this.key = key;
+            this.client = client;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (method.getParameterCount() == 0) {
+                        synchronized (this) {
+                            if (!closed) {
+                                closed = true;
+                                release(this);
+                            }
+                        }
+                        return null;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Leased management client for " + key + (closed ? " (closed)" : "");
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new IllegalStateException("Management client for " + key + " was already returned into the pool");
+            }
+            try {
+                return method.invoke(client, args);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof IOException) {
+                    broken = true;
+                }
+                throw e.getCause();
+            }
+        }
+    }
+}
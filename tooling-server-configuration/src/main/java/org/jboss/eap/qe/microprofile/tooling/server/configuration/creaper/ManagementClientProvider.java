@@ -8,9 +8,15 @@ import org.wildfly.extras.creaper.core.online.OnlineOptions;
 
 /**
  * Provider for Creaper's OnlineManagementClient
+ * <p>
+ * Clients created from {@link ArquillianContainerProperties} are leased from {@link ManagementClientPool}, closing the
+ * client returns it into the pool. Pooling can be disabled by setting {@value #POOL_PROPERTY} system property to
+ * {@code false}.
  */
 public class ManagementClientProvider {
 
+    public static final String POOL_PROPERTY = "management.client.pool";
+
     private ManagementClientProvider() {
     }
 
@@ -23,7 +29,7 @@ public class ManagementClientProvider {
      *         {@link ArquillianContainerProperties} API
      */
     public static OnlineManagementClient onlineStandalone() throws ConfigurationException {
-        return onlineStandalone(new ArquillianContainerProperties(ArquillianDescriptorWrapper.getArquillianDescriptor()));
+        return onlineStandalone(ArquillianDescriptorWrapper.getArquillianContainerProperties());
     }
 
     /**
@@ -37,10 +43,31 @@ public class ManagementClientProvider {
      */
     public static OnlineManagementClient onlineStandalone(ArquillianContainerProperties arquillianContainerProperties)
             throws ConfigurationException {
+        return onlineStandalone(arquillianContainerProperties,
+                arquillianContainerProperties.getDefaultContainerName());
+    }
+
+    /**
+     * Creates {@link OnlineManagementClient} for <b>standalone</b> mode targeting the given Arquillian container, based
+     * on {@link ArquillianContainerProperties} obtained from {@link ArquillianDescriptorWrapper}
+     *
+     * @param containerName name of the container in arquillian.xml descriptor, e.g. one of the server instances
+     * @return Initialized {@link OnlineManagementClient} instance, don't forget to close it
+     * @throws ConfigurationException if no container for given name is found or its configuration is invalid
+     */
+    public static OnlineManagementClient onlineStandalone(String containerName) throws ConfigurationException {
+        return onlineStandalone(ArquillianDescriptorWrapper.getArquillianContainerProperties(), containerName);
+    }
+
+    private static OnlineManagementClient onlineStandalone(ArquillianContainerProperties arquillianContainerProperties,
+            String containerName) throws ConfigurationException {
+        final String address = arquillianContainerProperties.getManagementAddress(containerName);
+        final int port = arquillianContainerProperties.getManagementPort(containerName);
+        if (Boolean.parseBoolean(System.getProperty(POOL_PROPERTY, "true"))) {
+            return ManagementClientPool.getInstance().lease(address, port);
+        }
         return org.wildfly.extras.creaper.core.ManagementClient.onlineLazy(
-                OnlineOptions.standalone().hostAndPort(
-                        arquillianContainerProperties.getDefaultManagementAddress(),
-                        arquillianContainerProperties.getDefaultManagementPort()).build());
+                OnlineOptions.standalone().hostAndPort(address, port).build());
     }
 
     /**
@@ -0,0 +1,310 @@
+package org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.dmr.Property;
+import org.wildfly.extras.creaper.core.online.ModelNodeResult;
+import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
+
+/**
+ * Snapshot of the server configuration. The configuration file is saved by {@code :take-snapshot} operation and the
+ * configuration model is kept in memory, so the server can be restored later by a minimal set of operations - resources
+ * added since the snapshot are removed, removed resources are added back and changed attributes are written back. All
+ * the operations are executed as one composite operation followed by at most one reload:
+ *
+ * <pre>
+ * // ServerSetupTask#setup
+ * snapshot = ServerSnapshot.take(client);
+ * client.execute("/system-property=foo:add(value=bar)");
+ * // ServerSetupTask#tearDown
+ * snapshot.restore(client);
+ * </pre>
+ *
+ * Child types of resources are taken from recursive {@code read-resource-description} read once together with the
+ * model. The configuration file of the snapshot is deleted once the configuration is restored, it's kept only if the
+ * restore fails.
+ * <p>
+ * Deployments are not a part of the snapshot as they are managed by Arquillian. Content which is not a part of the
+ * model, like modules, is not restored.
+ */
+public final class ServerSnapshot {
+
+    private static final Set<String> IGNORED_ROOT_CHILD_TYPES = Collections.singleton("deployment");
+    // extensions are added before and removed after subsystems
+    private static final String EXTENSION = "extension";
+    private static final String CHILDREN = "children";
+    private static final String MODEL_DESCRIPTION = "model-description";
+    private static final String WILDCARD = "*";
+
+    private final ModelNode model;
+    private final ModelNode description;
+    private final String snapshotFile;
+
+    private ServerSnapshot(ModelNode model, ModelNode description, String snapshotFile) {
+        this.model = model;
+        this.description = description;
+        this.snapshotFile = snapshotFile;
+    }
+
+    /**
+     * Takes snapshot of the current server configuration
+     *
+     * @param client {@link OnlineManagementClient} instance used to read the configuration
+     * @return snapshot of the configuration
+     * @throws ManagementClientRelatedException Wraps exceptions thrown by the internal operation executed by
+     *         {@link OnlineManagementClient} API
+     */
+    public static ServerSnapshot take(OnlineManagementClient client) throws ManagementClientRelatedException {
+        ModelNodeResult snapshotFile = execute(client, operation("take-snapshot", new ModelNode().setEmptyList()));
+        return new ServerSnapshot(readModel(client), readDescription(client), snapshotFile.get("result").asString());
+    }
+
+    /**
+     * @return path of the configuration file saved by {@code :take-snapshot} operation, it can be used to restore the
+     *         configuration manually
+     */
+    public String getSnapshotFile() {
+        return snapshotFile;
+    }
+
+    /**
+     * Computes operations which restore the configuration of the snapshot
+     *
+     * @param client {@link OnlineManagementClient} instance used to read the current configuration
+     * @return operations in order they must be executed, empty list if the configuration was not changed
+     * @throws ManagementClientRelatedException Wraps exceptions thrown by the internal operation executed by
+     *         {@link OnlineManagementClient} API
+     */
+    public List<ModelNode> diff(OnlineManagementClient client) throws ManagementClientRelatedException {
+        // resources which exist in both models existed when the snapshot was taken, so they are described
+        return diff(model, readModel(client), address -> childTypes(description, address));
+    }
+
+    /**
+     * Restores the configuration of the snapshot by one composite operation and reloads or restarts the server if any
+     * of the operations requires it. The configuration file of the snapshot is deleted then.
+     *
+     * @param client {@link OnlineManagementClient} instance used to restore the configuration
+     * @return outcome of the composite operation
+     * @throws ManagementClientRelatedException if the configuration can't be restored, the message contains path of
+     *         the snapshot file
+     */
+    public CompositeOperation.Result restore(OnlineManagementClient client) throws ManagementClientRelatedException {
+        CompositeOperation composite = ManagementClientHelper.batch();
+        diff(client).forEach(composite::addOperation);
+        CompositeOperation.Result result = composite.execute(client);
+        if (!result.isSuccess()) {
+            throw new ManagementClientRelatedException("Server configuration was not restored, it can be restored from "
+                    + snapshotFile + ": " + result);
+        }
+        result.reloadIfRequired(client);
+        deleteSnapshotFile(client);
+        return result;
+    }
+
+    /**
+     * Computes operations which change configuration model {@code current} into {@code snapshot}
+     *
+     * @param snapshot desired configuration model, result of recursive {@code read-resource}
+     * @param current current configuration model, result of recursive {@code read-resource}
+     * @param childTypes child types of a resource which exists in both models, by its address
+     * @return operations in order they must be executed
+     */
+    static List<ModelNode> diff(ModelNode snapshot, ModelNode current, Function<ModelNode, Set<String>> childTypes) {
+        Diff diff = new Diff(childTypes);
+        diff.resource(new ModelNode().setEmptyList(), snapshot, current);
+        List<ModelNode> operations = new ArrayList<>();
+        // resources added later may depend on resources added before them
+        for (int i = diff.removals.size() - 1; i >= 0; i--) {
+            operations.add(diff.removals.get(i));
+        }
+        operations.addAll(diff.writes);
+        operations.addAll(diff.additions);
+        return operations;
+    }
+
+    private static ModelNode readModel(OnlineManagementClient client) throws ManagementClientRelatedException {
+        ModelNode readResource = operation("read-resource", new ModelNode().setEmptyList());
+        readResource.get("recursive").set(true);
+        readResource.get("include-defaults").set(false);
+        return execute(client, readResource).get("result");
+    }
+
+    private static ModelNode readDescription(OnlineManagementClient client) throws ManagementClientRelatedException {
+        ModelNode readDescription = operation("read-resource-description", new ModelNode().setEmptyList());
+        readDescription.get("recursive").set(true);
+        return execute(client, readDescription).get("result");
+    }
+
+    /**
+     * Finds child types of a resource in recursive description of the root resource
+     *
+     * @param description result of recursive {@code read-resource-description} of the root resource
+     * @param address address of the resource
+     * @return child types of the resource, empty if the resource is not described
+     */
+    static Set<String> childTypes(ModelNode description, ModelNode address) {
+        ModelNode resource = description;
+        for (Property element : address.asPropertyList()) {
+            ModelNode models = value(value(value(resource, CHILDREN), element.getName()), MODEL_DESCRIPTION);
+            String name = element.getValue().asString();
+            resource = models.has(name) ? models.get(name) : value(models, WILDCARD);
+        }
+        return new LinkedHashSet<>(keys(value(resource, CHILDREN)));
+    }
+
+    /**
+     * Deletes the configuration file of the snapshot, failure is not fatal as the configuration is already restored
+     */
+    private void deleteSnapshotFile(OnlineManagementClient client) {
+        ModelNode delete = operation("delete-snapshot", new ModelNode().setEmptyList());
+        delete.get("name").set(snapshotFile.substring(Math.max(snapshotFile.lastIndexOf('/'),
+                snapshotFile.lastIndexOf('\\')) + 1));
+        try {
+            execute(client, delete);
+        } catch (ManagementClientRelatedException e) {
+            System.out.println("Snapshot " + snapshotFile + " was not deleted: " + e.getMessage());
+        }
+    }
+
+    private static ModelNodeResult execute(OnlineManagementClient client, ModelNode operation)
+            throws ManagementClientRelatedException {
+        ModelNodeResult result;
+        try {
+            result = client.execute(operation);
+        } catch (IOException e) {
+            throw new ManagementClientRelatedException(e);
+        }
+        if (!result.isSuccess()) {
+            throw new ManagementClientRelatedException(operation.get("operation").asString() + " failed: "
+                    + result.get("failure-description").asString());
+        }
+        return result;
+    }
+
+    private static ModelNode operation(String name, ModelNode address) {
+        ModelNode operation = new ModelNode();
+        operation.get("operation").set(name);
+        operation.get("address").set(address);
+        return operation;
+    }
+
+    private static ModelNode child(ModelNode address, String type, String name) {
+        ModelNode child = address.clone();
+        child.add(type, name);
+        return child;
+    }
+
+    private static Set<String> keys(ModelNode node) {
+        return node.isDefined() ? node.keys() : Collections.emptySet();
+    }
+
+    private static ModelNode value(ModelNode node, String key) {
+        return node.has(key) ? node.get(key) : new ModelNode();
+    }
+
+    /**
+     * Operations collected while both models are walked through
+     */
+    private static final class Diff {
+        private final Function<ModelNode, Set<String>> childTypes;
+        private final List<ModelNode> removals = new ArrayList<>();
+        private final List<ModelNode> writes = new ArrayList<>();
+        private final List<ModelNode> additions = new ArrayList<>();
+
+        private Diff(Function<ModelNode, Set<String>> childTypes) {
+            this.childTypes = childTypes;
+        }
+
+        private void resource(ModelNode address, ModelNode snapshot, ModelNode current) {
+            Set<String> types = childTypes(address);
+            Set<String> attributes = new LinkedHashSet<>(keys(snapshot));
+            attributes.addAll(keys(current));
+            attributes.removeAll(types);
+            for (String attribute : attributes) {
+                ModelNode value = value(snapshot, attribute);
+                if (value.equals(value(current, attribute))) {
+                    continue;
+                }
+                ModelNode write = operation(value.isDefined() ? "write-attribute" : "undefine-attribute", address);
+                write.get("name").set(attribute);
+                if (value.isDefined()) {
+                    write.get("value").set(value);
+                }
+                writes.add(write);
+            }
+            for (String type : types) {
+                if (address.asList().isEmpty() && IGNORED_ROOT_CHILD_TYPES.contains(type)) {
+                    continue;
+                }
+                ModelNode snapshotChildren = value(snapshot, type);
+                ModelNode currentChildren = value(current, type);
+                for (String name : keys(currentChildren)) {
+                    if (!snapshotChildren.has(name)) {
+                        removals.add(operation("remove", child(address, type, name)));
+                    }
+                }
+                for (String name : keys(snapshotChildren)) {
+                    ModelNode childAddress = child(address, type, name);
+                    if (currentChildren.has(name)) {
+                        resource(childAddress, snapshotChildren.get(name), currentChildren.get(name));
+                    } else {
+                        add(childAddress, snapshotChildren.get(name));
+                    }
+                }
+            }
+        }
+
+        /**
+         * Resource does not exist in the current model so its child types can't be read, they are recognized by
+         * structure of the snapshot - child type is an object whose values are resources, i.e. objects too
+         */
+        private void add(ModelNode address, ModelNode snapshot) {
+            ModelNode add = operation("add", address);
+            List<String> types = new ArrayList<>();
+            for (String key : keys(snapshot)) {
+                ModelNode value = snapshot.get(key);
+                if (isChildType(value)) {
+                    types.add(key);
+                } else if (value.isDefined()) {
+                    add.get(key).set(value);
+                }
+            }
+            additions.add(add);
+            for (String type : types) {
+                ModelNode children = snapshot.get(type);
+                for (String name : children.keys()) {
+                    add(child(address, type, name), children.get(name));
+                }
+            }
+        }
+
+        private static boolean isChildType(ModelNode value) {
+            if (value.getType() != ModelType.OBJECT || value.keys().isEmpty()) {
+                return false;
+            }
+            return value.keys().stream().allMatch(name -> value.get(name).getType() == ModelType.OBJECT);
+        }
+
+        private Set<String> childTypes(ModelNode address) {
+            Set<String> types = new LinkedHashSet<>(childTypes.apply(address));
+            if (address.asList().isEmpty()) {
+                if (types.remove(EXTENSION)) {
+                    List<String> ordered = new ArrayList<>(Arrays.asList(EXTENSION));
+                    ordered.addAll(types);
+                    return new LinkedHashSet<>(ordered);
+                }
+            }
+            return types;
+        }
+    }
+}
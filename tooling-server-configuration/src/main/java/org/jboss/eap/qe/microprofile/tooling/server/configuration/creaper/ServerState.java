@@ -0,0 +1,197 @@
+package org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Desired state of the server configuration - list of management resources which must be present or absent. State is
+ * applied by {@link ServerStatePlanner}, which changes only resources which differ from the current model.
+ *
+ * <pre>
+ * ServerState openApiEnabled = new ServerState.Builder("MP OpenAPI enabled")
+ *         .present("/extension=org.wildfly.extension.microprofile.openapi-smallrye")
+ *         .present("/subsystem=microprofile-openapi-smallrye")
+ *         .build();
+ * </pre>
+ *
+ * Resources are added in order they were declared and removed in the reverse order, so a subsystem should be declared
+ * after its extension.
+ */
+public final class ServerState {
+
+    private final String name;
+    private final List<Resource> resources;
+    private final boolean reloadOnChange;
+
+    private ServerState(Builder builder) {
+        this.name = builder.name;
+        this.reloadOnChange = builder.reloadOnChange;
+        List<Resource> resources = new ArrayList<>();
+        builder.resources.forEach(resource -> resources.add(new Resource(resource.address, resource.addOperation,
+                resource.present, reloadOnChange)));
+        this.resources = Collections.unmodifiableList(resources);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return resources of the state in order they were declared
+     */
+    public List<Resource> getResources() {
+        return resources;
+    }
+
+    /**
+     * @return true if the server is reloaded after the state is applied and any resource was changed, otherwise it's
+     *         reloaded only if the server requires it
+     */
+    public boolean isReloadOnChange() {
+        return reloadOnChange;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /**
+     * Management resource of the desired state
+     */
+    public static final class Resource {
+        private final String address;
+        private final String addOperation;
+        private final boolean present;
+        private final boolean reloadOnChange;
+
+        Resource(String address, String addOperation, boolean present, boolean reloadOnChange) {
+            this.address = address;
+            this.addOperation = addOperation;
+            this.present = present;
+            this.reloadOnChange = reloadOnChange;
+        }
+
+        /**
+         * @return CLI address of the resource, e.g. {@code /subsystem=microprofile-openapi-smallrye}
+         */
+        public String getAddress() {
+            return address;
+        }
+
+        /**
+         * @return CLI operation which adds the resource
+         */
+        public String getAddOperation() {
+            return addOperation;
+        }
+
+        /**
+         * @return CLI operation which removes the resource
+         */
+        public String getRemoveOperation() {
+            return address + ":remove";
+        }
+
+        /**
+         * @return true if the resource must be present, false if it must be absent
+         */
+        public boolean isPresent() {
+            return present;
+        }
+
+        boolean isReloadOnChange() {
+            return reloadOnChange;
+        }
+
+        /**
+         * @return the same resource with opposite presence
+         */
+        Resource inverse() {
+            return new Resource(address, addOperation, !present, reloadOnChange);
+        }
+
+        @Override
+        public String toString() {
+            return address + (present ? " present" : " absent");
+        }
+    }
+
+    /**
+     * Builder of {@link ServerState}
+     */
+    public static final class Builder {
+        private final String name;
+        private final List<Resource> resources = new ArrayList<>();
+        private boolean reloadOnChange = true;
+
+        /**
+         * @param name name of the state used in messages
+         */
+        public Builder(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Resource which must be present, it's added by {@code <address>:add} operation
+         *
+         * @param address CLI address of the resource
+         */
+        public Builder present(String address) {
+            return present(address, address + ":add");
+        }
+
+        /**
+         * Resource which must be present
+         *
+         * @param address CLI address of the resource
+         * @param addOperation CLI operation which adds the resource, e.g. {@code /system-property=foo:add(value=bar)}
+         */
+        public Builder present(String address, String addOperation) {
+            return resource(address, addOperation, true);
+        }
+
+        /**
+         * Resource which must be absent, it's added back by {@code <address>:add} operation when the state is released
+         *
+         * @param address CLI address of the resource
+         */
+        public Builder absent(String address) {
+            return absent(address, address + ":add");
+        }
+
+        /**
+         * Resource which must be absent
+         *
+         * @param address CLI address of the resource
+         * @param addOperation CLI operation which adds the resource back when the state is released
+         */
+        public Builder absent(String address, String addOperation) {
+            return resource(address, addOperation, false);
+        }
+
+        /**
+         * Server is reloaded after the state is applied and any resource was changed, this is the default. When set to
+         * false, the server is reloaded only if any operation requires it.
+         *
+         * @param reloadOnChange true if a change of the state always requires reload
+         */
+        public Builder setReloadOnChange(boolean reloadOnChange) {
+            this.reloadOnChange = reloadOnChange;
+            return this;
+        }
+
+        public ServerState build() {
+            return new ServerState(this);
+        }
+
+        private Builder resource(String address, String addOperation, boolean present) {
+            if (resources.stream().anyMatch(resource -> resource.getAddress().equals(address))) {
+                throw new IllegalArgumentException("Resource " + address + " is already a part of state " + name);
+            }
+            resources.add(new Resource(address, addOperation, present, true));
+            return this;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper;
+
+import org.jboss.arquillian.core.api.annotation.Observes;
+import org.jboss.arquillian.test.spi.event.suite.AfterSuite;
+import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
+
+/**
+ * Reverts server states released during the test suite whose revert was deferred by {@link ServerStatePlanner}, so the
+ * server configuration is left as it was before the suite. Observer is invoked before containers are stopped, states of
+ * the launched container are reverted.
+ */
+public class ServerStateObserver {
+
+    /**
+     * Reverts pending server states
+     *
+     * @param event {@link AfterSuite} instance of Arquillian event the method listens to
+     */
+    public void afterSuite(@Observes(precedence = 100) AfterSuite event) {
+        if (!ServerStatePlanner.hasAnyPendingReverts()) {
+            return;
+        }
+        try (OnlineManagementClient client = ManagementClientProvider.onlineStandalone()) {
+            ServerStatePlanner.getInstance(client).restore(client);
+        } catch (Exception e) {
+            System.out.println("Server configuration changed by the test suite was not reverted: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+import org.wildfly.extras.creaper.core.online.ModelNodeResult;
+import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
+import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
+
+/**
+ * Applies {@link ServerState} to the server so that the server is reloaded only when its configuration really
+ * changes. Current model is compared with the desired state and only differing resources are added or removed, by one
+ * composite operation followed by at most one reload.
+ * <p>
+ * Releasing a state does not revert it immediately. Reverting is deferred until another state is applied - if the next
+ * test class needs the same state, e.g. the same subsystem enabled, nothing is changed and the server is not reloaded
+ * at all. Otherwise the revert is merged with changes of the next state, so a switch of states costs one reload
+ * instead of two. Reverts which are still pending are applied by {@link #restore(OnlineManagementClient)}, which is
+ * called by {@link ServerStateObserver} after the test suite.
+ * <p>
+ * Each server has its own planner. A resource required by several states which were applied and not released, e.g. by
+ * server setup tasks of more test classes, is reverted once all of them are released. State which requires different
+ * presence of the resource overrides the previous states.
+ *
+ * <pre>
+ * // ServerSetupTask#setup
+ * ServerStatePlanner.getInstance(client).apply(client, OPEN_API_ENABLED);
+ * // ServerSetupTask#tearDown
+ * ServerStatePlanner.getInstance(client).release(OPEN_API_ENABLED);
+ * </pre>
+ */
+public final class ServerStatePlanner {
+
+    // planners by base directory of the server
+    private static final Map<String, ServerStatePlanner> PLANNERS = new ConcurrentHashMap<>();
+
+    // original state of resources changed by the planner, by address
+    private final Map<String, ServerState.Resource> originals = new LinkedHashMap<>();
+    // resources required by states which were applied and not released, by address
+    private final Map<String, Hold> held = new HashMap<>();
+
+    ServerStatePlanner() {
+    }
+
+    /**
+     * @param client {@link OnlineManagementClient} instance connected to the server
+     * @return planner of the server the client is connected to
+     * @throws ManagementClientRelatedException if the server can't be identified
+     */
+    public static ServerStatePlanner getInstance(OnlineManagementClient client) throws ManagementClientRelatedException {
+        ModelNodeResult result;
+        try {
+            result = client.execute("/core-service=server-environment:read-attribute(name=base-dir)");
+        } catch (Exception e) {
+            throw new ManagementClientRelatedException(e);
+        }
+        if (!result.isSuccess()) {
+            throw new ManagementClientRelatedException("Unable to identify the server: " + result);
+        }
+        return getInstance(result.stringValue());
+    }
+
+    /**
+     * @param server identification of the server
+     * @return planner of the server
+     */
+    static ServerStatePlanner getInstance(String server) {
+        return PLANNERS.computeIfAbsent(server, key -> new ServerStatePlanner());
+    }
+
+    /**
+     * @return true if any server has a released state which was not reverted yet
+     */
+    public static boolean hasAnyPendingReverts() {
+        return PLANNERS.values().stream().anyMatch(ServerStatePlanner::hasPendingReverts);
+    }
+
+    /**
+     * Brings the server into the desired state. Reverts of released states which are not overridden by this state are
+     * applied together with it.
+     *
+     * @param client {@link OnlineManagementClient} instance used to read and change the model
+     * @param state desired state
+     * @return true if the server configuration was changed
+     * @throws ManagementClientRelatedException Wraps exceptions thrown by the internal operation executed by
+     *         {@link OnlineManagementClient} API
+     */
+    public synchronized boolean apply(OnlineManagementClient client, ServerState state)
+            throws ManagementClientRelatedException {
+        Plan plan = plan(state.getResources(), address -> exists(client, address));
+        execute(client, plan);
+        commit(plan, state.getResources());
+        return !plan.getOperations().isEmpty();
+    }
+
+    /**
+     * Marks the state as not required anymore. Resources changed by the state are reverted when another state is
+     * applied or by {@link #restore(OnlineManagementClient)}.
+     *
+     * @param state state which was applied before
+     */
+    public synchronized void release(ServerState state) {
+        for (ServerState.Resource resource : state.getResources()) {
+            Hold hold = held.get(resource.getAddress());
+            // state overridden by a later state holds nothing
+            if (hold != null && hold.present == resource.isPresent() && --hold.count == 0) {
+                held.remove(resource.getAddress());
+            }
+        }
+    }
+
+    /**
+     * Reverts all released states which were not reverted yet
+     *
+     * @param client {@link OnlineManagementClient} instance used to read and change the model
+     * @return true if the server configuration was changed
+     * @throws ManagementClientRelatedException Wraps exceptions thrown by the internal operation executed by
+     *         {@link OnlineManagementClient} API
+     */
+    public synchronized boolean restore(OnlineManagementClient client) throws ManagementClientRelatedException {
+        if (!hasPendingReverts()) {
+            return false;
+        }
+        Plan plan = plan(Collections.emptyList(), address -> exists(client, address));
+        execute(client, plan);
+        commit(plan, Collections.emptyList());
+        return !plan.getOperations().isEmpty();
+    }
+
+    /**
+     * @return true if any released state was not reverted yet
+     */
+    public synchronized boolean hasPendingReverts() {
+        return originals.keySet().stream().anyMatch(address -> !held.containsKey(address));
+    }
+
+    /**
+     * Computes operations which bring the server into the desired state and revert released states. Original state of
+     * changed resources is recorded when the plan is committed.
+     *
+     * @param desired resources of the desired state
+     * @param exists check whether a resource exists in the current model
+     * @return operations to execute
+     */
+    synchronized Plan plan(List<ServerState.Resource> desired, Predicate<String> exists) {
+        Map<String, ServerState.Resource> plannedOriginals = new LinkedHashMap<>(originals);
+        Map<String, ServerState.Resource> target = new LinkedHashMap<>();
+        desired.forEach(resource -> target.put(resource.getAddress(), resource));
+        // pending reverts which are not overridden by the desired state
+        for (Map.Entry<String, ServerState.Resource> original : originals.entrySet()) {
+            if (!held.containsKey(original.getKey()) && !target.containsKey(original.getKey())) {
+                target.put(original.getKey(), original.getValue());
+            }
+        }
+        List<ServerState.Resource> additions = new ArrayList<>();
+        List<ServerState.Resource> removals = new ArrayList<>();
+        for (ServerState.Resource resource : target.values()) {
+            if (exists.test(resource.getAddress()) == resource.isPresent()) {
+                continue;
+            }
+            if (resource.isPresent()) {
+                additions.add(resource);
+            } else {
+                removals.add(0, resource);
+            }
+            ServerState.Resource original = plannedOriginals.get(resource.getAddress());
+            if (original == null) {
+                plannedOriginals.put(resource.getAddress(), resource.inverse());
+            } else if (original.isPresent() == resource.isPresent()) {
+                // resource is being reverted to its original state
+                plannedOriginals.remove(resource.getAddress());
+            }
+        }
+        List<String> operations = new ArrayList<>();
+        boolean reload = false;
+        for (ServerState.Resource resource : removals) {
+            operations.add(resource.getRemoveOperation());
+            reload |= resource.isReloadOnChange();
+        }
+        for (ServerState.Resource resource : additions) {
+            operations.add(resource.getAddOperation());
+            reload |= resource.isReloadOnChange();
+        }
+        return new Plan(operations, reload, plannedOriginals);
+    }
+
+    /**
+     * Records original state of resources changed by executed plan
+     *
+     * @param plan executed plan
+     * @param desired resources of the applied state, they are held until the state is released
+     */
+    synchronized void commit(Plan plan, List<ServerState.Resource> desired) {
+        originals.clear();
+        originals.putAll(plan.originals);
+        for (ServerState.Resource resource : desired) {
+            Hold hold = held.get(resource.getAddress());
+            if (hold != null && hold.present == resource.isPresent()) {
+                hold.count++;
+            } else {
+                held.put(resource.getAddress(), new Hold(resource.isPresent()));
+            }
+        }
+    }
+
+    private static void execute(OnlineManagementClient client, Plan plan) throws ManagementClientRelatedException {
+        if (plan.getOperations().isEmpty()) {
+            return;
+        }
+        CompositeOperation composite = ManagementClientHelper.batch();
+        for (String operation : plan.getOperations()) {
+            composite.addCliCommand(operation);
+        }
+        CompositeOperation.Result result = composite.execute(client).assertSuccess();
+        if (result.isRestartRequired() || !plan.isReload()) {
+            result.reloadIfRequired(client);
+            return;
+        }
+        try {
+            new Administration(client).reload();
+        } catch (IOException | InterruptedException | TimeoutException e) {
+            throw new ManagementClientRelatedException(e);
+        }
+    }
+
+    private static boolean exists(OnlineManagementClient client, String address) {
+        try {
+            ModelNodeResult result = client.execute(address + ":read-resource");
+            return result.isSuccess();
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to read resource " + address, e);
+        }
+    }
+
+    /**
+     * Presence of a resource required by applied states and the number of the states
+     */
+    private static final class Hold {
+        private final boolean present;
+        private int count = 1;
+
+        private Hold(boolean present) {
+            this.present = present;
+        }
+    }
+
+    /**
+     * Operations which bring the server into the desired state
+     */
+    static final class Plan {
+        private final List<String> operations;
+        private final boolean reload;
+        private final Map<String, ServerState.Resource> originals;
+
+        private Plan(List<String> operations, boolean reload, Map<String, ServerState.Resource> originals) {
+            this.operations = Collections.unmodifiableList(operations);
+            this.reload = reload;
+            this.originals = originals;
+        }
+
+        /**
+         * @return CLI operations in order they must be executed
+         */
+        List<String> getOperations() {
+            return operations;
+        }
+
+        /**
+         * @return true if the server must be reloaded after the operations
+         */
+        boolean isReload() {
+            return reload;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package org.jboss.eap.qe.microprofile.tooling.server.deployment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jboss.arquillian.container.spi.client.container.DeployableContainer;
+import org.jboss.arquillian.container.spi.client.container.DeploymentException;
+import org.jboss.arquillian.container.spi.client.container.LifecycleException;
+import org.jboss.arquillian.container.spi.client.protocol.ProtocolDescription;
+import org.jboss.arquillian.container.spi.client.protocol.metadata.ProtocolMetaData;
+import org.jboss.arquillian.core.api.Injector;
+import org.jboss.arquillian.core.api.Instance;
+import org.jboss.arquillian.core.api.annotation.Inject;
+import org.jboss.as.arquillian.container.managed.ManagedContainerConfiguration;
+import org.jboss.as.arquillian.container.managed.ManagedDeployableContainer;
+import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.Node;
+import org.jboss.shrinkwrap.descriptor.api.Descriptor;
+
+/**
+ * Managed WildFly container which keeps archives deployed after a test class. When the next test class deploys an
+ * archive with the same name and content (SHA-256 of all entries), the deployed archive is reused instead of undeploying
+ * and deploying it again. Archives which the next test class does not deploy are undeployed before its deployments, see
+ * {@link DeploymentCacheObserver}, and before the container stops.
+ * <p>
+ * Archives are kept and reused only by test classes marked by {@link ReusableDeployments}, see limitations there.
+ * Archives with different names are never shared because the name is the context root and the name of the deployment
+ * resource.
+ */
+public class CachingDeployableContainer implements DeployableContainer<ManagedContainerConfiguration> {
+
+    @Inject
+    private Instance<Injector> injector;
+
+    private DeployableContainer<ManagedContainerConfiguration> delegate;
+    // deployed archives by name
+    private final Map<String, Deployed> deployed = new ConcurrentHashMap<>();
+    private volatile boolean reuseAllowed;
+
+    public CachingDeployableContainer() {
+    }
+
+    CachingDeployableContainer(DeployableContainer<ManagedContainerConfiguration> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Class<ManagedContainerConfiguration> getConfigurationClass() {
+        return ManagedContainerConfiguration.class;
+    }
+
+    @Override
+    public void setup(ManagedContainerConfiguration configuration) {
+        if (delegate == null) {
+            // container is created by Arquillian, so its dependencies must be injected into the delegate too
+            delegate = injector.get().inject(new ManagedDeployableContainer());
+        }
+        delegate.setup(configuration);
+    }
+
+    @Override
+    public void start() throws LifecycleException {
+        delegate.start();
+    }
+
+    @Override
+    public void stop() throws LifecycleException {
+        try {
+            undeployUnused(Collections.emptySet());
+        } catch (DeploymentException e) {
+            throw new LifecycleException("Kept deployments were not undeployed", e);
+        }
+        delegate.stop();
+    }
+
+    @Override
+    public ProtocolDescription getDefaultProtocol() {
+        return delegate.getDefaultProtocol();
+    }
+
+    @Override
+    public ProtocolMetaData deploy(Archive<?> archive) throws DeploymentException {
+        final String hash = hash(archive);
+        final Deployed kept = deployed.get(archive.getName());
+        if (kept != null) {
+            if (kept.unused && reuseAllowed && kept.hash.equals(hash)) {
+                kept.unused = false;
+                return kept.metaData;
+            }
+            deployed.remove(archive.getName());
+            delegate.undeploy(kept.archive);
+        }
+        final ProtocolMetaData metaData = delegate.deploy(archive);
+        deployed.put(archive.getName(), new Deployed(archive, hash, metaData));
+        return metaData;
+    }
+
+    @Override
+    public void undeploy(Archive<?> archive) throws DeploymentException {
+        final Deployed kept = deployed.get(archive.getName());
+        if (kept != null && reuseAllowed) {
+            kept.unused = true;
+            return;
+        }
+        deployed.remove(archive.getName());
+        delegate.undeploy(archive);
+    }
+
+    @Override
+    public void deploy(Descriptor descriptor) throws DeploymentException {
+        delegate.deploy(descriptor);
+    }
+
+    @Override
+    public void undeploy(Descriptor descriptor) throws DeploymentException {
+        delegate.undeploy(descriptor);
+    }
+
+    /**
+     * @param reuseAllowed whether archives of the current test class can be kept deployed and reused
+     */
+    void setReuseAllowed(boolean reuseAllowed) {
+        this.reuseAllowed = reuseAllowed;
+    }
+
+    /**
+     * Undeploys archives kept after the previous test class which are not going to be reused
+     *
+     * @param deployedNames names of archives which the current test class is going to deploy, they stay deployed if
+     *        reuse is allowed
+     * @throws DeploymentException if an archive can't be undeployed, other archives are undeployed anyway
+     */
+    void undeployUnused(final Collection<String> deployedNames) throws DeploymentException {
+        DeploymentException failure = null;
+        for (Deployed kept : deployed.values()) {
+            if (!kept.unused || reuseAllowed && deployedNames.contains(kept.archive.getName())) {
+                continue;
+            }
+            deployed.remove(kept.archive.getName());
+            try {
+                delegate.undeploy(kept.archive);
+            } catch (DeploymentException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * @return hex encoded SHA-256 hash of the archive name and all its entries
+     */
+    static String hash(Archive<?> archive) throws DeploymentException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(archive.getName().getBytes(StandardCharsets.UTF_8));
+        final Map<String, Node> entries = new TreeMap<>();
+        archive.getContent().forEach((path, node) -> entries.put(path.get(), node));
+        final byte[] buffer = new byte[8192];
+        for (Map.Entry<String, Node> entry : entries.entrySet()) {
+            digest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+            // directories have no asset
+            if (entry.getValue().getAsset() == null) {
+                continue;
+            }
+            try (InputStream in = entry.getValue().getAsset().openStream()) {
+                int read;
+                while ((read = in.read(buffer)) >= 0) {
+                    digest.update(buffer, 0, read);
+                }
+            } catch (IOException e) {
+                throw new DeploymentException("Unable to read " + entry.getKey() + " of " + archive.getName(), e);
+            }
+        }
+        final StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private static final class Deployed {
+        private final Archive<?> archive;
+        private final String hash;
+        private final ProtocolMetaData metaData;
+        // undeployed by Arquillian, but kept deployed for the next test class
+        private volatile boolean unused;
+
+        private Deployed(Archive<?> archive, String hash, ProtocolMetaData metaData) {
+            this.archive = archive;
+            this.hash = hash;
+            this.metaData = metaData;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.jboss.eap.qe.microprofile.tooling.server.deployment;
+
+import org.jboss.arquillian.container.spi.client.container.DeployableContainer;
+import org.jboss.arquillian.core.spi.LoadableExtension;
+import org.jboss.eap.qe.microprofile.tooling.server.configuration.arquillian.ArquillianContainerProperties;
+
+/**
+ * Extension which keeps archives of test classes marked by {@link ReusableDeployments} deployed between test classes by
+ * {@link CachingDeployableContainer}. It's enabled by
+ * setting {@value #DEPLOYMENT_CACHE_PROPERTY} system property to {@code true}, the caching container is then selected
+ * as the adapter of the launched Arquillian container by {@value #ADAPTER_IMPL_CLASS_PROPERTY_NAME} property.
+ */
+public class DeploymentCacheExtension implements LoadableExtension {
+
+    public static final String DEPLOYMENT_CACHE_PROPERTY = "deployment.cache";
+    public static final String ADAPTER_IMPL_CLASS_PROPERTY_NAME = "adapterImplClass";
+
+    /**
+     * Registers the extension
+     *
+     * @param builder Instance of builder to be used by the registered extension
+     */
+    @Override
+    public void register(ExtensionBuilder builder) {
+        if (!Boolean.getBoolean(DEPLOYMENT_CACHE_PROPERTY)) {
+            return;
+        }
+        // arquillian.xml is read after extensions are registered
+        final String container = System.getProperty(ArquillianContainerProperties.ARQ_LAUNCH_PROPERTY_NAME,
+                ArquillianContainerProperties.DEFAULT_CONTAINER_NAME);
+        final String adapter = "arq.container." + container + ".configuration." + ADAPTER_IMPL_CLASS_PROPERTY_NAME;
+        if (System.getProperty(adapter) == null) {
+            System.setProperty(adapter, CachingDeployableContainer.class.getName());
+        }
+        builder.service(DeployableContainer.class, CachingDeployableContainer.class);
+        builder.observer(DeploymentCacheObserver.class);
+    }
+}
@@ -0,0 +1,104 @@
+package org.jboss.eap.qe.microprofile.tooling.server.deployment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jboss.arquillian.container.spi.Container;
+import org.jboss.arquillian.container.spi.ContainerRegistry;
+import org.jboss.arquillian.container.spi.client.container.DeploymentException;
+import org.jboss.arquillian.container.spi.client.deployment.Deployment;
+import org.jboss.arquillian.container.spi.client.deployment.DeploymentDescription;
+import org.jboss.arquillian.container.spi.client.deployment.DeploymentScenario;
+import org.jboss.arquillian.container.spi.event.DeployManagedDeployments;
+import org.jboss.arquillian.core.api.Instance;
+import org.jboss.arquillian.core.api.annotation.Inject;
+import org.jboss.arquillian.core.api.annotation.Observes;
+import org.jboss.arquillian.test.spi.event.suite.BeforeClass;
+import org.jboss.as.arquillian.api.ServerSetup;
+
+/**
+ * Tells {@link CachingDeployableContainer}s whether archives of the test class can be reused and undeploys archives of
+ * the previous test class which are not going to be reused before managed deployments of the test class are deployed
+ */
+public class DeploymentCacheObserver {
+
+    @Inject
+    private Instance<ContainerRegistry> containerRegistry;
+
+    @Inject
+    private Instance<DeploymentScenario> deploymentScenario;
+
+    /**
+     * Runs before deployments of the test class are generated
+     *
+     * @param event {@link BeforeClass} instance of Arquillian event the method listens to
+     */
+    public void beforeClass(@Observes(precedence = 100) BeforeClass event) {
+        final boolean reuseAllowed = isReuseAllowed(event.getTestClass().getJavaClass());
+        for (CachingDeployableContainer container : getCachingContainers()) {
+            container.setReuseAllowed(reuseAllowed);
+        }
+    }
+
+    /**
+     * Runs before managed deployments of the test class are deployed, so archives of the previous test class do not run
+     * together with other archives of the test class and server setup tasks
+     *
+     * @param event {@link DeployManagedDeployments} instance of Arquillian event the method listens to
+     * @throws DeploymentException if archives kept after the previous test class can't be undeployed
+     */
+    public void beforeDeployments(@Observes(precedence = 100) DeployManagedDeployments event) throws DeploymentException {
+        final Set<String> deployedNames = new HashSet<>();
+        if (deploymentScenario.get() != null) {
+            for (Deployment deployment : deploymentScenario.get().managedDeploymentsInDeployOrder()) {
+                final DeploymentDescription description = deployment.getDescription();
+                if (description.isArchiveDeployment()) {
+                    deployedNames.add(description.getArchive().getName());
+                    if (description.getTestableArchive() != null) {
+                        deployedNames.add(description.getTestableArchive().getName());
+                    }
+                }
+            }
+        }
+        for (CachingDeployableContainer container : getCachingContainers()) {
+            container.undeployUnused(deployedNames);
+        }
+    }
+
+    /**
+     * Runs after managed deployments of the test class are deployed, undeploys kept archives which were deployed to
+     * other container
+     *
+     * @param event {@link BeforeClass} instance of Arquillian event the method listens to
+     * @throws DeploymentException if archives kept after the previous test class can't be undeployed
+     */
+    public void afterDeployments(@Observes(precedence = -100) BeforeClass event) throws DeploymentException {
+        for (CachingDeployableContainer container : getCachingContainers()) {
+            container.undeployUnused(Collections.emptySet());
+        }
+    }
+
+    /**
+     * @param testClass test class
+     * @return whether archives of the test class can be kept deployed and reused
+     */
+    static boolean isReuseAllowed(Class<?> testClass) {
+        return testClass.isAnnotationPresent(ReusableDeployments.class) && !testClass.isAnnotationPresent(ServerSetup.class);
+    }
+
+    private List<CachingDeployableContainer> getCachingContainers() {
+        final List<CachingDeployableContainer> containers = new ArrayList<>();
+        if (containerRegistry.get() == null) {
+            return containers;
+        }
+        for (Container container : containerRegistry.get().getContainers()) {
+            if (container.getDeployableContainer() instanceof CachingDeployableContainer) {
+                containers.add((CachingDeployableContainer) container.getDeployableContainer());
+            }
+        }
+        return containers;
+    }
+}
@@ -0,0 +1,23 @@
+package org.jboss.eap.qe.microprofile.tooling.server.deployment;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks test class whose managed deployments can be kept deployed by {@link CachingDeployableContainer} for following
+ * test classes and which can reuse archives kept deployed after the previous test class.
+ * <p>
+ * Deployment is not restarted between the classes, so mark only classes which do not change server configuration (e.g.
+ * reload the server in {@code @Before}) and do not depend on runtime state of the deployment, like metric counters or
+ * health check state. Classes with {@code @ServerSetup} never reuse archives.
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ReusableDeployments {
+}
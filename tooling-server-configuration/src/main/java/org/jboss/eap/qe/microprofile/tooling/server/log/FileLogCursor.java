@@ -0,0 +1,120 @@
+package org.jboss.eap.qe.microprofile.tooling.server.log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Position in a local log file. The cursor remembers byte offset of the first line which was not read yet, every
+ * {@link #readNewLines()} reads only bytes appended since the previous read. Only complete lines (terminated by a line
+ * separator) are returned, incomplete line is returned by a read once it's complete.
+ * <p>
+ * Rotation of the file is detected by change of the file identity or its size getting smaller, the file is read from
+ * its beginning then.
+ * <p>
+ * Instances are thread safe.
+ */
+public final class FileLogCursor implements LogCursor {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final Path logFile;
+    private long position;
+    private Object fileKey;
+    private long lastFileSize;
+
+    /**
+     * Create cursor at the beginning of the log file
+     *
+     * @param logFile path to the log file
+     */
+    public FileLogCursor(final Path logFile) {
+        this.logFile = logFile;
+    }
+
+    /**
+     * Create cursor at the current end of the log file, so only lines logged after this call are read by the cursor
+     *
+     * @param logFile path to the log file
+     * @return cursor at the end of the log file
+     * @throws IOException if size of the log file can not be read
+     */
+    public static FileLogCursor atEnd(final Path logFile) throws IOException {
+        final FileLogCursor cursor = new FileLogCursor(logFile);
+        if (Files.exists(logFile)) {
+            final BasicFileAttributes attributes = Files.readAttributes(logFile, BasicFileAttributes.class);
+            cursor.fileKey = attributes.fileKey();
+            cursor.position = attributes.size();
+            cursor.lastFileSize = attributes.size();
+        }
+        return cursor;
+    }
+
+    /**
+     * @return byte offset of the first line of the log file which was not read yet
+     */
+    public synchronized long getPosition() {
+        return position;
+    }
+
+    @Override
+    public synchronized List<String> readNewLines() throws IOException {
+        final BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(logFile, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return Collections.emptyList();
+        }
+        if (!Objects.equals(fileKey, attributes.fileKey()) || attributes.size() < lastFileSize) {
+            // file was rotated
+            position = 0;
+        }
+        fileKey = attributes.fileKey();
+        lastFileSize = attributes.size();
+        if (position >= lastFileSize) {
+            return Collections.emptyList();
+        }
+
+        final List<String> lines = new ArrayList<>();
+        final ByteArrayOutputStream line = new ByteArrayOutputStream();
+        final ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            long offset = position;
+            while (offset < lastFileSize && channel.read(buffer, offset) > 0) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    final byte current = buffer.get();
+                    offset++;
+                    if (current == '\n') {
+                        lines.add(toLine(line));
+                        line.reset();
+                        position = offset;
+                    } else {
+                        line.write(current);
+                    }
+                }
+                buffer.clear();
+            }
+        } catch (NoSuchFileException e) {
+            // file was rotated during the read, rest of the file is read from the new file
+        }
+        return lines;
+    }
+
+    private static String toLine(final ByteArrayOutputStream line) {
+        final byte[] bytes = line.toByteArray();
+        final int length = bytes.length > 0 && bytes[bytes.length - 1] == '\r' ? bytes.length - 1 : bytes.length;
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,210 @@
+package org.jboss.eap.qe.microprofile.tooling.server.log;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compressed archive of log slices, one slice per test. Every slice is stored as a separate gzip member of
+ * {@link #DATA_FILE}, so the whole file is still readable by {@code zcat}. Offsets of the slices are stored in
+ * {@link #INDEX_FILE}, one line per slice with tab separated test name, offset and length of the compressed slice and
+ * byte range of the slice in the original log. Slice of a test is read without decompressing slices of other tests.
+ * <p>
+ * Slices can be appended by several JVMs at once, appends are guarded by a file lock.
+ */
+public final class LogArchive {
+
+    public static final String DATA_FILE = "server.log.gz";
+    public static final String INDEX_FILE = "server.log.index";
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final Path dataFile;
+    private final Path indexFile;
+
+    /**
+     * @param directory directory of the archive, it's created if it does not exist
+     */
+    public LogArchive(final Path directory) {
+        this.dataFile = directory.resolve(DATA_FILE);
+        this.indexFile = directory.resolve(INDEX_FILE);
+    }
+
+    /**
+     * Append a slice of the log to the archive
+     *
+     * @param testName name of the test the slice belongs to
+     * @param logFile log file
+     * @param from offset of the slice start in the log file
+     * @param to offset of the slice end (exclusive) in the log file
+     * @throws IOException if reading of the log or writing of the archive fails
+     */
+    public void append(final String testName, final Path logFile, final long from, final long to) throws IOException {
+        if (testName.indexOf('\t') >= 0 || testName.indexOf('\n') >= 0) {
+            throw new IllegalArgumentException("Test name must not contain tab or line separator: " + testName);
+        }
+        Files.createDirectories(dataFile.getParent());
+        try (FileChannel data = FileChannel.open(dataFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                FileLock lock = data.lock();
+                FileChannel log = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            final long blockOffset = data.size();
+            data.position(blockOffset);
+            // channel output stream is not closed, the channel is closed by try-with-resources
+            final OutputStream dataStream = Channels.newOutputStream(data);
+            final GZIPOutputStream gzip = new GZIPOutputStream(new NonClosingOutputStream(dataStream), COPY_BUFFER_SIZE);
+            final ByteBuffer buffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
+            long position = from;
+            while (position < to) {
+                buffer.clear().limit((int) Math.min(COPY_BUFFER_SIZE, to - position));
+                final int read = log.read(buffer, position);
+                if (read < 0) {
+                    break;
+                }
+                gzip.write(buffer.array(), 0, read);
+                position += read;
+            }
+            gzip.close();
+            final String entry = testName + "\t" + blockOffset + "\t" + (data.size() - blockOffset) + "\t" + from + "\t"
+                    + position + "\n";
+            Files.write(indexFile, entry.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+        }
+    }
+
+    /**
+     * @return names of archived tests in order they were archived
+     */
+    public List<String> getTests() throws IOException {
+        final List<String> tests = new ArrayList<>();
+        readIndex().forEach(entry -> tests.add(entry.testName));
+        return tests;
+    }
+
+    /**
+     * Read the log slice of a test. Slices of tests with the same name (e.g. repeated runs) are concatenated.
+     *
+     * @param testName name of the test
+     * @return lines of the slice, empty list if the test is not archived
+     * @throws IOException if reading of the archive fails
+     */
+    public List<String> read(final String testName) throws IOException {
+        final List<String> lines = new ArrayList<>();
+        if (!Files.exists(dataFile)) {
+            return lines;
+        }
+        try (FileChannel data = FileChannel.open(dataFile, StandardOpenOption.READ)) {
+            for (Entry entry : readIndex()) {
+                if (entry.testName.equals(testName)) {
+                    lines.addAll(readBlock(data, entry));
+                }
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Search archived slices for lines matching the pattern
+     *
+     * @param pattern a pattern which will be the log line matched against
+     * @return matching lines by test name in order the tests were archived, tests without matching lines are omitted
+     * @throws IOException if reading of the archive fails
+     */
+    public Map<String, List<String>> search(final Pattern pattern) throws IOException {
+        final Map<String, List<String>> matches = new LinkedHashMap<>();
+        if (!Files.exists(dataFile)) {
+            return matches;
+        }
+        try (FileChannel data = FileChannel.open(dataFile, StandardOpenOption.READ)) {
+            for (Entry entry : readIndex()) {
+                for (String line : readBlock(data, entry)) {
+                    if (pattern.matcher(line).matches()) {
+                        matches.computeIfAbsent(entry.testName, test -> new ArrayList<>()).add(line);
+                    }
+                }
+            }
+        }
+        return matches;
+    }
+
+    private List<Entry> readIndex() throws IOException {
+        if (!Files.exists(indexFile)) {
+            return Collections.emptyList();
+        }
+        final List<Entry> entries = new ArrayList<>();
+        for (String line : Files.readAllLines(indexFile, StandardCharsets.UTF_8)) {
+            final String[] fields = line.split("\t");
+            if (fields.length == 5) {
+                entries.add(new Entry(fields[0], Long.parseLong(fields[1]), Integer.parseInt(fields[2])));
+            }
+        }
+        return entries;
+    }
+
+    private static List<String> readBlock(final FileChannel data, final Entry entry) throws IOException {
+        final ByteBuffer block = ByteBuffer.allocate(entry.blockLength);
+        while (block.hasRemaining() && data.read(block, entry.blockOffset + block.position()) > 0) {
+            // read whole block
+        }
+        final List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(block.array(), 0, block.position())),
+                StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    private static final class Entry {
+        private final String testName;
+        private final long blockOffset;
+        private final int blockLength;
+
+        private Entry(final String testName, final long blockOffset, final int blockLength) {
+            this.testName = testName;
+            this.blockOffset = blockOffset;
+            this.blockLength = blockLength;
+        }
+    }
+
+    /**
+     * Stream which flushes instead of closing the underlying stream
+     */
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+
+        private NonClosingOutputStream(final OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+            out.write(bytes, offset, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.jboss.eap.qe.microprofile.tooling.server.log;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+
+import org.jboss.arquillian.core.api.annotation.Observes;
+import org.jboss.arquillian.test.spi.event.suite.After;
+import org.jboss.arquillian.test.spi.event.suite.Before;
+import org.jboss.arquillian.test.spi.event.suite.TestEvent;
+
+/**
+ * Archives slice of local {@code server.log} written during each test into {@link LogArchive}, so the log of a failed
+ * test can be found without searching the whole server log. Archive is written into {@code target/server-log-archive}
+ * by default, different directory can be set by {@value #ARCHIVE_DIRECTORY_PROPERTY} system property. Archiving is
+ * disabled by setting {@value #ARCHIVE_PROPERTY} system property to {@code false} and when the server log is not
+ * reachable locally, see {@link LogCheckers#getLocalServerLog()}.
+ */
+public class LogArchiveObserver {
+
+    public static final String ARCHIVE_PROPERTY = "server.log.archive";
+    public static final String ARCHIVE_DIRECTORY_PROPERTY = "server.log.archive.dir";
+    public static final String DEFAULT_ARCHIVE_DIRECTORY = "target/server-log-archive";
+
+    private Path logFile;
+    private long testStartOffset;
+
+    /**
+     * Remembers size of the server log before the test
+     *
+     * @param event {@link Before} instance of Arquillian event the method listens to
+     */
+    public void beforeTest(@Observes Before event) {
+        logFile = null;
+        if (!Boolean.parseBoolean(System.getProperty(ARCHIVE_PROPERTY, "true"))) {
+            return;
+        }
+        final Optional<Path> serverLog = LogCheckers.getLocalServerLog();
+        if (!serverLog.isPresent()) {
+            return;
+        }
+        try {
+            testStartOffset = Files.size(serverLog.get());
+            logFile = serverLog.get();
+        } catch (IOException e) {
+            System.out.println("Server log of " + getTestName(event) + " won't be archived: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Archives server log written since the test start
+     *
+     * @param event {@link After} instance of Arquillian event the method listens to
+     */
+    public void afterTest(@Observes After event) {
+        if (logFile == null) {
+            return;
+        }
+        try {
+            final long testEndOffset = Files.size(logFile);
+            // log was rotated during the test, only the current file is archived
+            final long from = testEndOffset < testStartOffset ? 0 : testStartOffset;
+            new LogArchive(getArchiveDirectory()).append(getTestName(event), logFile, from, testEndOffset);
+        } catch (IOException e) {
+            System.out.println("Server log of " + getTestName(event) + " was not archived: " + e.getMessage());
+        } finally {
+            logFile = null;
+        }
+    }
+
+    /**
+     * @return directory of the archive written by the observer
+     */
+    public static Path getArchiveDirectory() {
+        return Paths.get(System.getProperty(ARCHIVE_DIRECTORY_PROPERTY, DEFAULT_ARCHIVE_DIRECTORY));
+    }
+
+    static String getTestName(TestEvent event) {
+        return event.getTestClass().getName() + "#" + event.getTestMethod().getName();
+    }
+}
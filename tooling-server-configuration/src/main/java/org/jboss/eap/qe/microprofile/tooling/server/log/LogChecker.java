@@ -23,4 +23,18 @@ public interface LogChecker {
      */
     boolean logContains(final String subString);
 
+    /**
+     * Perform search of several sub strings and patterns in log or its excerpt at once. Each line is read once no
+     * matter how many sub strings and patterns are searched.
+     * <p>
+     * Default implementation checks the sub strings and patterns one by one by {@link #logContains(String)} and
+     * {@link #logMatches(Pattern)}, line numbers are not known then and found ones are reported at line 0.
+     *
+     * @param search sub strings and patterns to be searched
+     * @return numbers of lines containing the sub strings and matching the patterns
+     */
+    default LogSearch.Result search(final LogSearch search) {
+        return search.checkEach(this);
+    }
+
 }
@@ -0,0 +1,104 @@
+package org.jboss.eap.qe.microprofile.tooling.server.log;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+
+import org.jboss.arquillian.config.descriptor.api.ArquillianDescriptor;
+import org.jboss.eap.qe.microprofile.tooling.server.configuration.ConfigurationException;
+import org.jboss.eap.qe.microprofile.tooling.server.configuration.arquillian.ArquillianContainerProperties;
+import org.jboss.eap.qe.microprofile.tooling.server.configuration.arquillian.ArquillianDescriptorWrapper;
+import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
+
+/**
+ * Creates the most efficient {@link LogChecker} for log of the server. Log file of a server running on the same machine
+ * is read directly by {@link MappedFileLogChecker}, log of other servers is read through management model by
+ * {@link ModelNodeLogChecker}.
+ * <p>
+ * Server home is taken from {@code jbossHome} property of Arquillian container, {@code JBOSS_HOME} environment variable
+ * is used when the property is not set.
+ */
+public final class LogCheckers {
+
+    public static final String ARQ_JBOSS_HOME_PROPERTY_NAME = "jbossHome";
+    public static final String JBOSS_HOME_ENV = "JBOSS_HOME";
+    public static final String STANDALONE_SERVER_LOG = "standalone/log/server.log";
+
+    private LogCheckers() {
+    }
+
+    /**
+     * Create log checker which searches only lines of {@code server.log} logged after this call
+     *
+     * @param client client which will be used to read the log if the log file is not reachable locally
+     * @return log checker searching the server log from its current end
+     * @throws IOException if reading of the log fails
+     */
+    public static LogChecker serverLogFromCurrentEnd(final OnlineManagementClient client) throws IOException {
+        final Optional<Path> localServerLog = getLocalServerLog();
+        if (localServerLog.isPresent()) {
+            return MappedFileLogChecker.fromCurrentEnd(localServerLog.get());
+        }
+        return ModelNodeLogChecker.fromCurrentEnd(client);
+    }
+
+    /**
+     * Create log checker which searches last lines of {@code server.log}. Checker reading local log file searches also
+     * lines logged after this call.
+     *
+     * @param client client which will be used to read the log if the log file is not reachable locally
+     * @param countOfLines number of last lines to be searched, -1 means whole file
+     * @return log checker searching last lines of the server log
+     * @throws IOException if reading of the log fails
+     */
+    public static LogChecker serverLog(final OnlineManagementClient client, final int countOfLines) throws IOException {
+        final Optional<Path> localServerLog = getLocalServerLog();
+        if (localServerLog.isPresent()) {
+            return MappedFileLogChecker.fromLastLines(localServerLog.get(), countOfLines);
+        }
+        return new ModelNodeLogChecker(client, countOfLines);
+    }
+
+    /**
+     * @return path to {@code server.log} of the default Arquillian container if the server runs locally and the file is
+     *         readable, empty otherwise
+     */
+    public static Optional<Path> getLocalServerLog() {
+        final ArquillianDescriptor descriptor = ArquillianDescriptorWrapper.getArquillianDescriptor();
+        String jbossHome = null;
+        if (descriptor != null) {
+            final ArquillianContainerProperties properties = ArquillianDescriptorWrapper.getArquillianContainerProperties();
+            try {
+                if (!isLocalAddress(properties.getDefaultManagementAddress())) {
+                    return Optional.empty();
+                }
+                jbossHome = properties.getContainerProperty(properties.getDefaultContainerName(),
+                        ARQ_JBOSS_HOME_PROPERTY_NAME, null);
+            } catch (ConfigurationException e) {
+                return Optional.empty();
+            }
+        }
+        if (jbossHome == null) {
+            jbossHome = System.getenv(JBOSS_HOME_ENV);
+        }
+        if (jbossHome == null) {
+            return Optional.empty();
+        }
+        final Path serverLog = Paths.get(jbossHome, STANDALONE_SERVER_LOG);
+        return Files.isReadable(serverLog) ? Optional.of(serverLog) : Optional.empty();
+    }
+
+    private static boolean isLocalAddress(final String address) {
+        try {
+            final InetAddress inetAddress = InetAddress.getByName(address);
+            return inetAddress.isLoopbackAddress() || inetAddress.isAnyLocalAddress()
+                    || NetworkInterface.getByInetAddress(inetAddress) != null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
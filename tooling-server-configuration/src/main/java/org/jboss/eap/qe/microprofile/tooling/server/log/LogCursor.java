@@ -0,0 +1,20 @@
+package org.jboss.eap.qe.microprofile.tooling.server.log;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Position in a log which is read incrementally - every read returns only lines appended to the log since the previous
+ * read.
+ */
+public interface LogCursor {
+
+    /**
+     * Read lines appended to the log since the previous read
+     *
+     * @return new lines of the log without line separators, empty list if there are none
+     * @throws IOException if reading of the log fails
+     */
+    List<String> readNewLines() throws IOException;
+
+}
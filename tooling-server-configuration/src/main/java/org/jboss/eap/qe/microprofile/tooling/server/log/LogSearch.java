@@ -0,0 +1,355 @@
+package org.jboss.eap.qe.microprofile.tooling.server.log;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Set of sub strings and patterns searched in a log at once, see {@link LogChecker#search(LogSearch)}. Every line is
+ * read once no matter how many sub strings and patterns are searched. Sub strings are found by Aho-Corasick automaton,
+ * so time of the search does not grow with number of sub strings. Patterns are matched against whole lines same as by
+ * {@link LogChecker#logMatches(Pattern)}.
+ * <p>
+ * Instances are immutable and can be used for any number of searches.
+ *
+ * <pre>
+ * LogSearch.Result result = logChecker.search(new LogSearch.Builder()
+ *         .contains("WFLYSRV0025", "WFLYSRV0050")
+ *         .matches(Pattern.compile(".*ERROR.*"))
+ *         .build());
+ * </pre>
+ */
+public final class LogSearch {
+
+    private static final int ROOT = 0;
+    private static final List<Long> UNKNOWN_LINE = Collections.singletonList(0L);
+
+    private final List<String> subStrings;
+    private final List<Pattern> patterns;
+    private final int maxLinesPerTerm;
+    // automaton - transitions of states by character, failure transitions and sub strings ending in the states
+    private final List<Map<Character, Integer>> transitions = new ArrayList<>();
+    private final int[] failures;
+    private final int[][] outputs;
+
+    private LogSearch(final Builder builder) {
+        this.subStrings = Collections.unmodifiableList(new ArrayList<>(builder.subStrings));
+        this.patterns = Collections.unmodifiableList(new ArrayList<>(builder.patterns));
+        this.maxLinesPerTerm = builder.maxLinesPerTerm;
+
+        final List<List<Integer>> stateOutputs = new ArrayList<>();
+        transitions.add(new HashMap<>());
+        stateOutputs.add(new ArrayList<>());
+        for (int i = 0; i < subStrings.size(); i++) {
+            int state = ROOT;
+            for (char character : subStrings.get(i).toCharArray()) {
+                Integer next = transitions.get(state).get(character);
+                if (next == null) {
+                    next = transitions.size();
+                    transitions.add(new HashMap<>());
+                    stateOutputs.add(new ArrayList<>());
+                    transitions.get(state).put(character, next);
+                }
+                state = next;
+            }
+            stateOutputs.get(state).add(i);
+        }
+
+        // failure transition leads to the state of the longest proper suffix, states are visited breadth first
+        failures = new int[transitions.size()];
+        final Queue<Integer> queue = new ArrayDeque<>(transitions.get(ROOT).values());
+        while (!queue.isEmpty()) {
+            final int state = queue.poll();
+            for (Map.Entry<Character, Integer> transition : transitions.get(state).entrySet()) {
+                final int next = transition.getValue();
+                int failure = failures[state];
+                while (failure != ROOT && !transitions.get(failure).containsKey(transition.getKey())) {
+                    failure = failures[failure];
+                }
+                final Integer failureNext = state == ROOT ? null : transitions.get(failure).get(transition.getKey());
+                failures[next] = failureNext != null ? failureNext : ROOT;
+                stateOutputs.get(next).addAll(stateOutputs.get(failures[next]));
+                queue.add(next);
+            }
+        }
+        outputs = new int[stateOutputs.size()][];
+        for (int i = 0; i < outputs.length; i++) {
+            outputs[i] = stateOutputs.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * @return searched sub strings
+     */
+    public List<String> getSubStrings() {
+        return subStrings;
+    }
+
+    /**
+     * @return searched patterns
+     */
+    public List<Pattern> getPatterns() {
+        return patterns;
+    }
+
+    /**
+     * Start evaluation of the search, lines of the log are passed to the evaluation one by one
+     *
+     * @return new evaluation
+     */
+    public Evaluation evaluate() {
+        return new Evaluation();
+    }
+
+    /**
+     * Check the sub strings and patterns one by one by {@link LogChecker#logContains(String)} and
+     * {@link LogChecker#logMatches(Pattern)}, see {@link LogChecker#search(LogSearch)}
+     *
+     * @param checker checker of the log
+     * @return result with found sub strings and patterns at line 0
+     */
+    Result checkEach(final LogChecker checker) {
+        final Map<String, List<Long>> subStringLines = new LinkedHashMap<>();
+        for (String subString : subStrings) {
+            subStringLines.put(subString, checker.logContains(subString) ? UNKNOWN_LINE : Collections.emptyList());
+        }
+        final Map<Pattern, List<Long>> patternLines = new LinkedHashMap<>();
+        for (Pattern pattern : patterns) {
+            patternLines.put(pattern, checker.logMatches(pattern) ? UNKNOWN_LINE : Collections.emptyList());
+        }
+        return new Result(subStringLines, patternLines);
+    }
+
+    /**
+     * Evaluation of the search over lines of a log. Instances are not thread safe.
+     */
+    public final class Evaluation {
+
+        private final Matcher[] matchers;
+        private final long[][] lines;
+        private final int[] lineCounts;
+        private long lineNumber;
+
+        private Evaluation() {
+            matchers = patterns.stream().map(pattern -> pattern.matcher("")).toArray(Matcher[]::new);
+            lines = new long[subStrings.size() + patterns.size()][];
+            Arrays.setAll(lines, term -> new long[4]);
+            lineCounts = new int[lines.length];
+        }
+
+        /**
+         * Search the next line of the log
+         *
+         * @param line line without line separator
+         */
+        public void accept(final CharSequence line) {
+            lineNumber++;
+            int state = ROOT;
+            for (int i = 0; i < line.length(); i++) {
+                final char character = line.charAt(i);
+                Integer next = transitions.get(state).get(character);
+                while (next == null && state != ROOT) {
+                    state = failures[state];
+                    next = transitions.get(state).get(character);
+                }
+                state = next != null ? next : ROOT;
+                for (int subString : outputs[state]) {
+                    addLine(subString);
+                }
+            }
+            for (int i = 0; i < matchers.length; i++) {
+                if (matchers[i].reset(line).matches()) {
+                    addLine(subStrings.size() + i);
+                }
+            }
+        }
+
+        /**
+         * @return number of lines searched so far
+         */
+        public long getLineCount() {
+            return lineNumber;
+        }
+
+        /**
+         * @return true if every sub string and pattern was found at least once
+         */
+        public boolean isAllFound() {
+            return Arrays.stream(lineCounts).allMatch(count -> count > 0);
+        }
+
+        /**
+         * @return result of the search of lines passed so far
+         */
+        public Result getResult() {
+            final Map<String, List<Long>> subStringLines = new LinkedHashMap<>();
+            for (int i = 0; i < subStrings.size(); i++) {
+                subStringLines.put(subStrings.get(i), toList(i));
+            }
+            final Map<Pattern, List<Long>> patternLines = new LinkedHashMap<>();
+            for (int i = 0; i < patterns.size(); i++) {
+                patternLines.put(patterns.get(i), toList(subStrings.size() + i));
+            }
+            return new Result(subStringLines, patternLines);
+        }
+
+        private void addLine(final int term) {
+            final int count = lineCounts[term];
+            if (count == maxLinesPerTerm || count > 0 && lines[term][count - 1] == lineNumber) {
+                // limit reached or the line was already recorded for the sub string
+                return;
+            }
+            if (count == lines[term].length) {
+                lines[term] = Arrays.copyOf(lines[term], count * 2);
+            }
+            lines[term][count] = lineNumber;
+            lineCounts[term] = count + 1;
+        }
+
+        private List<Long> toList(final int term) {
+            final List<Long> termLines = new ArrayList<>(lineCounts[term]);
+            for (int i = 0; i < lineCounts[term]; i++) {
+                termLines.add(lines[term][i]);
+            }
+            return Collections.unmodifiableList(termLines);
+        }
+    }
+
+    /**
+     * Numbers of lines (starting with 1) containing the sub strings and matching the patterns. Lines are numbered
+     * within the searched log or its excerpt, line 0 means that the line was found but its number is not known.
+     */
+    public static final class Result {
+
+        private final Map<String, List<Long>> subStringLines;
+        private final Map<Pattern, List<Long>> patternLines;
+
+        private Result(final Map<String, List<Long>> subStringLines, final Map<Pattern, List<Long>> patternLines) {
+            this.subStringLines = Collections.unmodifiableMap(subStringLines);
+            this.patternLines = Collections.unmodifiableMap(patternLines);
+        }
+
+        /**
+         * @param subString searched sub string
+         * @return numbers of lines containing the sub string, empty if there are none
+         */
+        public List<Long> getLines(final String subString) {
+            return get(subStringLines, subString);
+        }
+
+        /**
+         * @param pattern searched pattern, the same instance as passed to {@link Builder#matches(Pattern...)}
+         * @return numbers of lines matching the pattern, empty if there are none
+         */
+        public List<Long> getLines(final Pattern pattern) {
+            return get(patternLines, pattern);
+        }
+
+        /**
+         * @return true if a line containing the sub string was found
+         */
+        public boolean contains(final String subString) {
+            return !getLines(subString).isEmpty();
+        }
+
+        /**
+         * @return true if a line matching the pattern was found
+         */
+        public boolean matches(final Pattern pattern) {
+            return !getLines(pattern).isEmpty();
+        }
+
+        /**
+         * @return true if every sub string and pattern was found at least once
+         */
+        public boolean isAllFound() {
+            return subStringLines.values().stream().noneMatch(List::isEmpty)
+                    && patternLines.values().stream().noneMatch(List::isEmpty);
+        }
+
+        /**
+         * @return numbers of lines by searched sub string
+         */
+        public Map<String, List<Long>> getSubStringLines() {
+            return subStringLines;
+        }
+
+        /**
+         * @return numbers of lines by searched pattern
+         */
+        public Map<Pattern, List<Long>> getPatternLines() {
+            return patternLines;
+        }
+
+        private static <T> List<Long> get(final Map<T, List<Long>> lines, final T term) {
+            final List<Long> termLines = lines.get(term);
+            if (termLines == null) {
+                throw new IllegalArgumentException(term + " was not searched, searched were " + lines.keySet());
+            }
+            return termLines;
+        }
+
+        @Override
+        public String toString() {
+            return "LogSearch.Result{subStrings=" + subStringLines + ", patterns=" + patternLines + "}";
+        }
+    }
+
+    public static class Builder {
+        private final Set<String> subStrings = new LinkedHashSet<>();
+        private final Set<Pattern> patterns = new LinkedHashSet<>();
+        private int maxLinesPerTerm = Integer.MAX_VALUE;
+
+        /**
+         * Sub strings to be searched in lines of the log
+         */
+        public Builder contains(final String... subStrings) {
+            for (String subString : subStrings) {
+                if (subString.isEmpty()) {
+                    throw new IllegalArgumentException("Searched sub string must not be empty");
+                }
+                this.subStrings.add(subString);
+            }
+            return this;
+        }
+
+        /**
+         * Patterns to be matched against whole lines of the log
+         */
+        public Builder matches(final Pattern... patterns) {
+            this.patterns.addAll(Arrays.asList(patterns));
+            return this;
+        }
+
+        /**
+         * Limit number of recorded lines per sub string or pattern, only first lines are recorded then. Not limited by
+         * default.
+         */
+        public Builder setMaxLinesPerTerm(final int maxLinesPerTerm) {
+            if (maxLinesPerTerm <= 0) {
+                throw new IllegalArgumentException("Max lines must be positive, was " + maxLinesPerTerm);
+            }
+            this.maxLinesPerTerm = maxLinesPerTerm;
+            return this;
+        }
+
+        /**
+         * Builds instance of LogSearch class.
+         *
+         * @return build LogSearch instance
+         */
+        public LogSearch build() {
+            return new LogSearch(this);
+        }
+    }
+}
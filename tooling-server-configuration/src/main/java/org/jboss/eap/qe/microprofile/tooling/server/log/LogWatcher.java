@@ -0,0 +1,210 @@
+package org.jboss.eap.qe.microprofile.tooling.server.log;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
+
+/**
+ * Watches a log continuously and notifies about lines matching registered predicates. New lines of the log are read by
+ * {@link LogCursor} on one background thread every {@link #DEFAULT_POLL_INTERVAL_MILLIS} milliseconds (by default) and
+ * every registered predicate is evaluated against them. Future returned for the predicate is completed with the first
+ * matching line, so waiting for a log message does not need repeated reads of the log:
+ *
+ * <pre>
+ * try (LogWatcher watcher = LogWatcher.watchServerLog(client)) {
+ *     CompletableFuture&lt;String&gt; started = watcher.awaitContains("WFLYSRV0025", 60, TimeUnit.SECONDS);
+ *     new Administration(client).reload();
+ *     started.get();
+ * }
+ * </pre>
+ *
+ * Predicates are evaluated against lines read after their registration. Failures of reading the log, e.g. when server
+ * is reloaded and its management interface is not available, are ignored and the log is read again later.
+ */
+public final class LogWatcher implements Closeable {
+
+    public static final long DEFAULT_POLL_INTERVAL_MILLIS = 50;
+
+    private final LogCursor cursor;
+    private final Queue<Watch> watches = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "log-watcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile IOException lastFailure;
+
+    /**
+     * Create watcher and start reading the log with default poll interval
+     *
+     * @param cursor cursor used to read new lines of the log
+     */
+    public LogWatcher(final LogCursor cursor) {
+        this(cursor, DEFAULT_POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Create watcher and start reading the log
+     *
+     * @param cursor cursor used to read new lines of the log
+     * @param pollInterval delay between reads of the log
+     * @param timeUnit time unit of the delay
+     */
+    public LogWatcher(final LogCursor cursor, final long pollInterval, final TimeUnit timeUnit) {
+        this.cursor = cursor;
+        executor.scheduleWithFixedDelay(this::readNewLines, 0, pollInterval, timeUnit);
+    }
+
+    /**
+     * Create watcher of {@code server.log} which reports lines logged after this call. Local log file is read
+     * directly, see {@link LogCheckers#getLocalServerLog()}, log of remote server is read through management model.
+     *
+     * @param client client which will be used to read the log if the log file is not reachable locally
+     * @return watcher of the server log, don't forget to close it
+     * @throws IOException if reading of the log fails
+     */
+    public static LogWatcher watchServerLog(final OnlineManagementClient client) throws IOException {
+        final Optional<Path> localServerLog = LogCheckers.getLocalServerLog();
+        if (localServerLog.isPresent()) {
+            return new LogWatcher(FileLogCursor.atEnd(localServerLog.get()));
+        }
+        return new LogWatcher(ModelNodeLogCursor.atEnd(client));
+    }
+
+    /**
+     * Register a predicate evaluated against new lines of the log
+     *
+     * @param predicate predicate of a log line
+     * @return future completed with the first matching line, cancelling the future unregisters the predicate
+     */
+    public CompletableFuture<String> await(final Predicate<String> predicate) {
+        if (executor.isShutdown()) {
+            throw new IllegalStateException("Log watcher is closed");
+        }
+        final Watch watch = new Watch(predicate);
+        watches.add(watch);
+        watch.line.whenComplete((line, failure) -> watches.remove(watch));
+        return watch.line;
+    }
+
+    /**
+     * Register a predicate evaluated against new lines of the log
+     *
+     * @param predicate predicate of a log line
+     * @param timeout time for which the line is awaited
+     * @param timeUnit time unit of the timeout
+     * @return future completed with the first matching line or completed exceptionally by {@link TimeoutException} if
+     *         no line matches within the timeout
+     */
+    public CompletableFuture<String> await(final Predicate<String> predicate, final long timeout, final TimeUnit timeUnit) {
+        final CompletableFuture<String> line = await(predicate);
+        executor.schedule(() -> line.completeExceptionally(new TimeoutException(
+                "No log line matched within " + timeout + " " + timeUnit + lastFailureDescription())), timeout, timeUnit);
+        return line;
+    }
+
+    /**
+     * @param subString sub string of awaited line
+     * @return future completed with the first line containing the sub string
+     */
+    public CompletableFuture<String> awaitContains(final String subString) {
+        return await(line -> line.contains(subString));
+    }
+
+    /**
+     * @param subString sub string of awaited line
+     * @param timeout time for which the line is awaited
+     * @param timeUnit time unit of the timeout
+     * @return future completed with the first line containing the sub string or completed exceptionally by
+     *         {@link TimeoutException} if there is no such line within the timeout
+     */
+    public CompletableFuture<String> awaitContains(final String subString, final long timeout, final TimeUnit timeUnit) {
+        return await(line -> line.contains(subString), timeout, timeUnit);
+    }
+
+    /**
+     * @param pattern pattern of awaited line
+     * @return future completed with the first line matching the pattern
+     */
+    public CompletableFuture<String> awaitMatches(final Pattern pattern) {
+        return await(line -> pattern.matcher(line).matches());
+    }
+
+    /**
+     * @param pattern pattern of awaited line
+     * @param timeout time for which the line is awaited
+     * @param timeUnit time unit of the timeout
+     * @return future completed with the first line matching the pattern or completed exceptionally by
+     *         {@link TimeoutException} if there is no such line within the timeout
+     */
+    public CompletableFuture<String> awaitMatches(final Pattern pattern, final long timeout, final TimeUnit timeUnit) {
+        return await(line -> pattern.matcher(line).matches(), timeout, timeUnit);
+    }
+
+    /**
+     * Stops watching of the log, futures of lines which were not found are cancelled.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        watches.forEach(watch -> watch.line.completeExceptionally(new CancellationException("Log watcher was closed")));
+    }
+
+    private void readNewLines() {
+        final List<String> lines;
+        try {
+            lines = cursor.readNewLines();
+            lastFailure = null;
+        } catch (IOException | RuntimeException e) {
+            lastFailure = e instanceof IOException ? (IOException) e : new IOException(e);
+            return;
+        }
+        if (lines.isEmpty() || watches.isEmpty()) {
+            return;
+        }
+        // predicates registered while the lines are evaluated are not evaluated against them
+        for (Watch watch : new ArrayList<>(watches)) {
+            for (String line : lines) {
+                if (watch.line.isDone()) {
+                    break;
+                }
+                try {
+                    if (watch.predicate.test(line)) {
+                        watch.line.complete(line);
+                    }
+                } catch (RuntimeException e) {
+                    watch.line.completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    private String lastFailureDescription() {
+        final IOException failure = lastFailure;
+        return failure == null ? "" : ", last read of the log failed: " + failure.getMessage();
+    }
+
+    private static final class Watch {
+        private final Predicate<String> predicate;
+        private final CompletableFuture<String> line = new CompletableFuture<>();
+
+        private Watch(final Predicate<String> predicate) {
+            this.predicate = predicate;
+        }
+    }
+}
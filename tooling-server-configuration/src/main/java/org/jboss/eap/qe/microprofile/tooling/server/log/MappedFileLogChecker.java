@@ -0,0 +1,353 @@
+package org.jboss.eap.qe.microprofile.tooling.server.log;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Log checker reading a local log file, e.g. {@code standalone/log/server.log} of a server running on the same machine
+ * as tests. The file is mapped into memory by {@link FileChannel}, so it's not copied into heap.
+ * <p>
+ * Every sub string, pattern or {@link LogSearch} remembers offset in the file up to which it was searched, so repeated
+ * checks search only lines appended since the previous check. Sub strings are searched directly in UTF-8 bytes of the file. Lines are
+ * decoded for pattern matching only if they contain non ASCII characters, ASCII lines are matched through a view of the
+ * mapped bytes. Only complete lines (terminated by a line separator) are searched.
+ * <p>
+ * Rotation of the file is detected by change of the file identity or its size getting smaller, the new file is
+ * searched from its beginning then. Sub strings and patterns found in the rotated file are still reported as found.
+ * <p>
+ * Instances are thread safe.
+ */
+public final class MappedFileLogChecker implements LogChecker {
+
+    // size of mapped region, large files are searched region by region
+    private static final int MAX_REGION_SIZE = 64 * 1024 * 1024;
+
+    private final Path logFile;
+    private final long startOffset;
+    // search states by sub string, pattern or LogSearch instance
+    private final Map<Object, SearchState> searches = new HashMap<>();
+    private Object fileKey;
+    private long lastFileSize;
+    // incremented on every rotation of the file
+    private int generation;
+
+    /**
+     * Create an instance of log checker which searches whole log file
+     *
+     * @param logFile path to the log file
+     */
+    public MappedFileLogChecker(final Path logFile) {
+        this(logFile, 0);
+    }
+
+    private MappedFileLogChecker(final Path logFile, final long startOffset) {
+        this.logFile = logFile;
+        this.startOffset = startOffset;
+        this.lastFileSize = startOffset;
+    }
+
+    /**
+     * Create an instance of log checker which searches only lines logged after this call
+     *
+     * @param logFile path to the log file
+     * @return log checker searching the log file from its current end
+     * @throws IOException if size of the log file can not be read
+     */
+    public static MappedFileLogChecker fromCurrentEnd(final Path logFile) throws IOException {
+        final MappedFileLogChecker checker;
+        if (Files.exists(logFile)) {
+            final BasicFileAttributes attributes = Files.readAttributes(logFile, BasicFileAttributes.class);
+            checker = new MappedFileLogChecker(logFile, attributes.size());
+            checker.fileKey = attributes.fileKey();
+        } else {
+            checker = new MappedFileLogChecker(logFile, 0);
+        }
+        return checker;
+    }
+
+    /**
+     * @return path to the log file
+     */
+    public Path getLogFile() {
+        return logFile;
+    }
+
+    @Override
+    public boolean logMatches(final Pattern pattern) {
+        final Matcher matcher = pattern.matcher("");
+        return search("matches:" + pattern.flags() + ":" + pattern.pattern(),
+                (region, from, to) -> anyLine(region, from, to, line -> matcher.reset(line).matches()));
+    }
+
+    @Override
+    public boolean logContains(final String subString) {
+        final byte[] bytes = subString.getBytes(StandardCharsets.UTF_8);
+        if (subString.indexOf('\n') >= 0) {
+            // line never contains line separator
+            return false;
+        }
+        return search("contains:" + subString, (region, from, to) -> indexOf(region, from, to, bytes) >= 0);
+    }
+
+    /**
+     * Search all lines of the log file logged since creation of the checker (or since rotation of the file) in one
+     * pass. Line numbers of the result are counted from the first searched line. Repeated searches by the same
+     * {@link LogSearch} instance search only lines logged since the previous search and return result of all lines.
+     */
+    @Override
+    public synchronized LogSearch.Result search(final LogSearch search) {
+        final SearchState state = searches.computeIfAbsent(search, key -> new SearchState(startOffset, 0));
+        if (state.evaluation == null) {
+            state.evaluation = search.evaluate();
+        }
+        search(search, (region, from, to) -> anyLine(region, from, to, line -> {
+            state.evaluation.accept(line);
+            return false;
+        }));
+        return state.evaluation.getResult();
+    }
+
+    private synchronized boolean search(final Object searchKey, final RegionSearch regionSearch) {
+        try {
+            final long fileSize = checkRotation();
+            final SearchState state = searches.computeIfAbsent(searchKey,
+                    key -> new SearchState(generation == 0 ? startOffset : 0, generation));
+            if (state.found) {
+                return true;
+            }
+            if (state.generation != generation || state.offset > fileSize) {
+                // file was rotated since the last search
+                state.offset = 0;
+                state.generation = generation;
+            }
+            if (state.offset >= fileSize) {
+                return false;
+            }
+            try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+                while (state.offset < fileSize) {
+                    final long regionSize = Math.min(MAX_REGION_SIZE, fileSize - state.offset);
+                    final MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, state.offset, regionSize);
+                    final int end = lastLineEnd(region, (int) regionSize);
+                    if (end < 0) {
+                        // incomplete line, it's searched once it's complete
+                        return false;
+                    }
+                    if (regionSearch.found(region, 0, end)) {
+                        state.found = true;
+                        return true;
+                    }
+                    state.offset += end + 1;
+                }
+            }
+            return false;
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Create an instance of log checker which searches last lines of the log file and lines logged after this call, the
+     * same lines as {@link ModelNodeLogChecker} reading the file in tail mode finds
+     *
+     * @param logFile path to the log file
+     * @param countOfLines number of last complete lines to be searched, -1 means whole file
+     * @return log checker searching last lines of the log file
+     * @throws IOException if the log file can not be read
+     */
+    public static MappedFileLogChecker fromLastLines(final Path logFile, final int countOfLines) throws IOException {
+        if (!Files.exists(logFile)) {
+            return new MappedFileLogChecker(logFile, 0);
+        }
+        final Object fileKey = Files.readAttributes(logFile, BasicFileAttributes.class).fileKey();
+        long startOffset = 0;
+        if (countOfLines >= 0) {
+            try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+                startOffset = lastLinesStart(channel, countOfLines);
+            }
+        }
+        final MappedFileLogChecker checker = new MappedFileLogChecker(logFile, startOffset);
+        checker.fileKey = fileKey;
+        return checker;
+    }
+
+    /**
+     * @return offset of the first of last complete lines in the file, 0 if the file has less lines
+     */
+    private static long lastLinesStart(final FileChannel channel, final int countOfLines) throws IOException {
+        long regionEnd = channel.size();
+        int lineEnds = 0;
+        while (regionEnd > 0) {
+            final long regionSize = Math.min(MAX_REGION_SIZE, regionEnd);
+            final long regionStart = regionEnd - regionSize;
+            final MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, regionStart, regionSize);
+            for (int i = (int) regionSize - 1; i >= 0; i--) {
+                // the line separator before the last complete lines ends the line which is not searched
+                if (region.get(i) == '\n' && ++lineEnds > countOfLines) {
+                    return regionStart + i + 1;
+                }
+            }
+            regionEnd = regionStart;
+        }
+        return 0;
+    }
+
+    private long checkRotation() throws IOException {
+        if (!Files.exists(logFile)) {
+            return 0;
+        }
+        final BasicFileAttributes attributes = Files.readAttributes(logFile, BasicFileAttributes.class);
+        final Object currentFileKey = attributes.fileKey();
+        if (!Objects.equals(fileKey, currentFileKey) || attributes.size() < lastFileSize) {
+            generation++;
+        }
+        fileKey = currentFileKey;
+        lastFileSize = attributes.size();
+        return lastFileSize;
+    }
+
+    /**
+     * @return index of the last line separator in the region, -1 if there is none
+     */
+    private static int lastLineEnd(final ByteBuffer region, final int size) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (region.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOf(final ByteBuffer region, final int from, final int to, final byte[] bytes) {
+        if (bytes.length == 0) {
+            return from;
+        }
+        final byte first = bytes[0];
+        final int last = to - bytes.length;
+        outer: for (int i = from; i <= last; i++) {
+            if (region.get(i) != first) {
+                continue;
+            }
+            for (int j = 1; j < bytes.length; j++) {
+                if (region.get(i + j) != bytes[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * @return true if any line in the region between the offsets (exclusive end) satisfies the predicate
+     */
+    private static boolean anyLine(final ByteBuffer region, final int from, final int to,
+            final Predicate<CharSequence> predicate) {
+        final AsciiCharSequence asciiLine = new AsciiCharSequence(region);
+        int lineStart = from;
+        while (lineStart <= to) {
+            int lineEnd = lineStart;
+            boolean ascii = true;
+            byte current;
+            while (lineEnd < to && (current = region.get(lineEnd)) != '\n') {
+                ascii &= current >= 0;
+                lineEnd++;
+            }
+            int contentEnd = lineEnd;
+            if (contentEnd > lineStart && region.get(contentEnd - 1) == '\r') {
+                contentEnd--;
+            }
+            final CharSequence line;
+            if (ascii) {
+                line = asciiLine.view(lineStart, contentEnd);
+            } else {
+                final ByteBuffer lineBytes = region.duplicate();
+                lineBytes.limit(contentEnd).position(lineStart);
+                line = StandardCharsets.UTF_8.decode(lineBytes);
+            }
+            if (predicate.test(line)) {
+                return true;
+            }
+            lineStart = lineEnd + 1;
+        }
+        return false;
+    }
+
+    @FunctionalInterface
+    private interface RegionSearch {
+        /**
+         * @return true if any line in the region between the offsets (exclusive end) satisfies the search
+         */
+        boolean found(ByteBuffer region, int from, int to);
+    }
+
+    private static final class SearchState {
+        private long offset;
+        private int generation;
+        private boolean found;
+        private LogSearch.Evaluation evaluation;
+
+        private SearchState(final long offset, final int generation) {
+            this.offset = offset;
+            this.generation = generation;
+        }
+    }
+
+    /**
+     * Character sequence backed by ASCII bytes of a buffer
+     */
+    private static final class AsciiCharSequence implements CharSequence {
+        private final ByteBuffer buffer;
+        private int start;
+        private int end;
+
+        private AsciiCharSequence(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        private AsciiCharSequence view(final int start, final int end) {
+            this.start = start;
+            this.end = end;
+            return this;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(final int index) {
+            return (char) buffer.get(start + index);
+        }
+
+        @Override
+        public CharSequence subSequence(final int subStart, final int subEnd) {
+            return new AsciiCharSequence(buffer).view(start + subStart, start + subEnd);
+        }
+
+        @Override
+        public String toString() {
+            final byte[] bytes = new byte[length()];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = buffer.get(start + i);
+            }
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+    }
+}
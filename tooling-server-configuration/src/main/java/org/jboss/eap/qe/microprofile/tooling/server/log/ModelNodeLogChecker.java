@@ -1,6 +1,10 @@
 package org.jboss.eap.qe.microprofile.tooling.server.log;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
@@ -15,17 +19,32 @@ import org.wildfly.extras.creaper.core.online.operations.Values;
 /**
  * Log checker based on accessing messages through {@link org.jboss.dmr.ModelNode} returned from {@code :read-log-file}
  * operation.
+ * <p>
+ * Checker created with {@link ModelNodeLogCursor} reads the log incrementally - every check fetches only lines logged
+ * since the previous check and lines already searched for the same sub string, pattern or {@link LogSearch} are not
+ * searched again. Repeated checks of the log, e.g. when waiting for a message, are then proportional to number of new
+ * lines instead of the log size. Lines are kept only until all checks searched them (at most
+ * {@value #MAX_KEPT_LINES} lines), a check searching older lines reads them through the cursor again.
  */
 public final class ModelNodeLogChecker implements LogChecker {
 
     private static final String READ_LOG_FILE_OPERATION = "read-log-file";
 
-    private static final Address DEFAULT_STANDALONE_LOG_ADDRESS = Address.subsystem("logging")
-            .and("log-file", "server.log");
+    private static final Address DEFAULT_STANDALONE_LOG_ADDRESS = ModelNodeLogCursor.DEFAULT_STANDALONE_LOG_ADDRESS;
+    private static final int MAX_KEPT_LINES = 10_000;
 
     private final OnlineManagementClient client;
     private final int countOfLines;
     private final boolean readLogFromEnd;
+    private final ModelNodeLogCursor cursor;
+    // lines read by the cursor which are not searched by all checks yet, positions are lines of the log file
+    private final List<String> cursorLines = new ArrayList<>();
+    private long firstCursorLine;
+    // position of the cursor when the checker was created, the beginning of the log file once it's rotated
+    private long cursorOrigin;
+    private long cursorRotations;
+    // progress of checks by searched sub string, pattern or LogSearch instance
+    private final Map<Object, Progress> progresses = new HashMap<>();
 
     /**
      * Create an instance of log checker. File will be read from the end (tail).
@@ -50,10 +69,43 @@ public final class ModelNodeLogChecker implements LogChecker {
         this.client = client;
         this.countOfLines = countOfLines;
         this.readLogFromEnd = readFromEnd;
+        this.cursor = null;
+    }
+
+    /**
+     * Create an instance of log checker which reads the log incrementally. Checks search all lines logged since the
+     * cursor position and fetch only lines which were not read yet. The cursor must not be read by anything else.
+     *
+     * @param cursor cursor used to read new lines of the log
+     */
+    public ModelNodeLogChecker(final ModelNodeLogCursor cursor) {
+        this.client = null;
+        this.countOfLines = -1;
+        this.readLogFromEnd = false;
+        this.cursor = cursor;
+        this.cursorOrigin = cursor.getPosition();
+        this.firstCursorLine = cursorOrigin;
+        this.cursorRotations = cursor.getRotations();
+    }
+
+    /**
+     * Create an instance of log checker which searches only lines logged after this call. The log is read
+     * incrementally, see {@link #ModelNodeLogChecker(ModelNodeLogCursor)}.
+     *
+     * @param client client which will be used to invoke log file reading operation on server
+     * @return log checker reading the log from its current end
+     * @throws IOException if reading of the log file fails
+     */
+    public static ModelNodeLogChecker fromCurrentEnd(final OnlineManagementClient client) throws IOException {
+        return new ModelNodeLogChecker(ModelNodeLogCursor.atEnd(client));
     }
 
     @Override
     public boolean logMatches(Pattern pattern) {
+        if (cursor != null) {
+            return anyNewLineMatchesPredicate("matches:" + pattern.flags() + ":" + pattern.pattern(),
+                    (final String line) -> pattern.matcher(line).matches());
+        }
         try {
             return anyLineMatchesPredicate(readLogFileFromManagementModel(),
                     (final String line) -> pattern.matcher(line).matches());
@@ -65,6 +117,9 @@ public final class ModelNodeLogChecker implements LogChecker {
 
     @Override
     public boolean logContains(String subString) {
+        if (cursor != null) {
+            return anyNewLineMatchesPredicate("contains:" + subString, (final String line) -> line.contains(subString));
+        }
         try {
             return anyLineMatchesPredicate(readLogFileFromManagementModel(),
                     (final String line) -> line.contains(subString));
@@ -74,6 +129,37 @@ public final class ModelNodeLogChecker implements LogChecker {
         }
     }
 
+    /**
+     * Search the log in one pass. Checker created with {@link ModelNodeLogCursor} searches all lines logged since the
+     * cursor position, line numbers of the result are counted from the first searched line. Repeated searches by the
+     * same {@link LogSearch} instance search only lines logged since the previous search and return result of all lines.
+     */
+    @Override
+    public LogSearch.Result search(final LogSearch search) {
+        if (cursor != null) {
+            synchronized (this) {
+                readNewCursorLines();
+                final Progress progress = progresses.computeIfAbsent(search, key -> new Progress(cursorOrigin));
+                if (progress.evaluation == null) {
+                    progress.evaluation = search.evaluate();
+                }
+                searchNewLines(progress, line -> {
+                    progress.evaluation.accept(line);
+                    return false;
+                });
+                dropSearchedLines();
+                return progress.evaluation.getResult();
+            }
+        }
+        final LogSearch.Evaluation evaluation = search.evaluate();
+        try {
+            readLogFileFromManagementModel().asList().forEach(line -> evaluation.accept(line.asString()));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return evaluation.getResult();
+    }
+
     private ModelNode readLogFileFromManagementModel() throws IOException {
         final Operations ops = new Operations(this.client);
 
@@ -96,4 +182,88 @@ public final class ModelNodeLogChecker implements LogChecker {
         return optionalMatch.isPresent();
     }
 
+    private synchronized boolean anyNewLineMatchesPredicate(final String searchKey, final Predicate<String> predicate) {
+        readNewCursorLines();
+        final Progress progress = progresses.computeIfAbsent(searchKey, key -> new Progress(cursorOrigin));
+        // once a matching line is found, the check is true until the log is rotated
+        if (!progress.found) {
+            progress.found = searchNewLines(progress, predicate);
+        }
+        dropSearchedLines();
+        return progress.found;
+    }
+
+    private void readNewCursorLines() {
+        try {
+            synchronized (cursor) {
+                final List<String> lines = cursor.readNewLines();
+                if (cursor.getRotations() != cursorRotations) {
+                    // lines of the previous file are gone, checks start again at the beginning of the new file
+                    cursorRotations = cursor.getRotations();
+                    cursorLines.clear();
+                    progresses.clear();
+                    cursorOrigin = cursor.getPosition() - lines.size();
+                    firstCursorLine = cursorOrigin;
+                }
+                cursorLines.addAll(lines);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Search lines after the position of the check up to the last line read by the cursor
+     *
+     * @return true if the search stopped at a line the predicate is true for
+     */
+    private boolean searchNewLines(final Progress progress, final Predicate<String> predicate) {
+        if (progress.position < firstCursorLine) {
+            // lines were already dropped, so they are read once more
+            try {
+                if (cursor.readLines(progress.position, firstCursorLine, predicate)) {
+                    return true;
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            progress.position = firstCursorLine;
+        }
+        final long lastCursorLine = firstCursorLine + cursorLines.size();
+        while (progress.position < lastCursorLine) {
+            final String line = cursorLines.get(Math.toIntExact(progress.position - firstCursorLine));
+            progress.position++;
+            if (predicate.test(line)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void dropSearchedLines() {
+        final long lastCursorLine = firstCursorLine + cursorLines.size();
+        long keptFrom = lastCursorLine;
+        for (Progress progress : progresses.values()) {
+            if (!progress.found) {
+                keptFrom = Math.min(keptFrom, progress.position);
+            }
+        }
+        keptFrom = Math.max(keptFrom, lastCursorLine - MAX_KEPT_LINES);
+        if (keptFrom > firstCursorLine) {
+            cursorLines.subList(0, Math.toIntExact(keptFrom - firstCursorLine)).clear();
+            firstCursorLine = keptFrom;
+        }
+    }
+
+    private static final class Progress {
+        // position of the first line not searched by the check yet
+        private long position;
+        private boolean found;
+        private LogSearch.Evaluation evaluation;
+
+        private Progress(final long position) {
+            this.position = position;
+        }
+    }
+
 }
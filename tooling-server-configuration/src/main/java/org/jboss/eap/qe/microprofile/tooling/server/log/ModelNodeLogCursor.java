@@ -0,0 +1,183 @@
+package org.jboss.eap.qe.microprofile.tooling.server.log;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.jboss.dmr.ModelNode;
+import org.wildfly.extras.creaper.core.online.ModelNodeResult;
+import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
+import org.wildfly.extras.creaper.core.online.operations.Address;
+import org.wildfly.extras.creaper.core.online.operations.Operations;
+import org.wildfly.extras.creaper.core.online.operations.Values;
+
+/**
+ * Position in a server log file read through {@code :read-log-file} operation. The cursor remembers how many lines of
+ * the file were already read and every {@link #readNewLines()} fetches only lines appended since the previous read, using
+ * {@code skip} parameter of the operation. Lines are fetched in pages, so the whole file is never transferred in one
+ * response.
+ * <p>
+ * Rotation of the log file is detected by size of the file getting smaller, the file is read from its beginning then.
+ * <p>
+ * Instances are thread safe.
+ */
+public final class ModelNodeLogCursor implements LogCursor {
+
+    static final Address DEFAULT_STANDALONE_LOG_ADDRESS = Address.subsystem("logging")
+            .and("log-file", "server.log");
+
+    private static final String READ_LOG_FILE_OPERATION = "read-log-file";
+    private static final String FILE_SIZE_ATTRIBUTE = "file-size";
+    private static final int DEFAULT_PAGE_SIZE = 500;
+
+    private final OnlineManagementClient client;
+    private final Address logFileAddress;
+    private final int pageSize;
+    private long position;
+    private long lastFileSize = -1;
+    private long rotations;
+
+    /**
+     * Create cursor at the beginning of {@code server.log} file of standalone server
+     *
+     * @param client client which will be used to invoke log file reading operation on server
+     */
+    public ModelNodeLogCursor(final OnlineManagementClient client) {
+        this(client, DEFAULT_STANDALONE_LOG_ADDRESS, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Create cursor at the beginning of a log file
+     *
+     * @param client client which will be used to invoke log file reading operation on server
+     * @param logFileAddress address of {@code log-file} resource of logging subsystem
+     * @param pageSize max number of lines fetched by one operation
+     */
+    public ModelNodeLogCursor(final OnlineManagementClient client, final Address logFileAddress, final int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive, was " + pageSize);
+        }
+        this.client = client;
+        this.logFileAddress = logFileAddress;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Create cursor at the current end of {@code server.log} file of standalone server, so only lines logged after this
+     * call are read by the cursor. Lines present in the file are counted, not kept in memory.
+     *
+     * @param client client which will be used to invoke log file reading operation on server
+     * @return cursor at the end of the log file
+     * @throws IOException if reading of the log file fails
+     */
+    public static ModelNodeLogCursor atEnd(final OnlineManagementClient client) throws IOException {
+        final ModelNodeLogCursor cursor = new ModelNodeLogCursor(client);
+        cursor.skipToEnd();
+        return cursor;
+    }
+
+    /**
+     * Read lines appended to the log file since the previous read
+     *
+     * @return new lines of the log file, empty list if there are none
+     * @throws IOException if reading of the log file fails
+     */
+    @Override
+    public synchronized List<String> readNewLines() throws IOException {
+        final List<String> lines = new ArrayList<>();
+        readNewLines(lines);
+        return lines;
+    }
+
+    /**
+     * Move the cursor to the end of the log file without keeping its lines
+     *
+     * @throws IOException if reading of the log file fails
+     */
+    public synchronized void skipToEnd() throws IOException {
+        readNewLines(null);
+    }
+
+    /**
+     * @return number of lines of the log file the cursor is behind
+     */
+    public synchronized long getPosition() {
+        return position;
+    }
+
+    /**
+     * @return number of rotations of the log file detected by the cursor
+     */
+    public synchronized long getRotations() {
+        return rotations;
+    }
+
+    /**
+     * Read lines of the log file between two positions again, the cursor position is not changed
+     *
+     * @param from position of the first read line
+     * @param to position after the last read line
+     * @param predicate tested for every read line, reading stops at the first line the predicate is true for
+     * @return true if reading stopped at a line the predicate is true for
+     * @throws IOException if reading of the log file fails
+     */
+    synchronized boolean readLines(final long from, final long to, final Predicate<String> predicate)
+            throws IOException {
+        final Operations ops = new Operations(this.client);
+        long skip = from;
+        while (skip < to) {
+            final List<ModelNode> page = readPage(ops, skip, (int) Math.min(pageSize, to - skip));
+            for (ModelNode line : page) {
+                if (predicate.test(line.asString())) {
+                    return true;
+                }
+            }
+            if (page.isEmpty()) {
+                return false;
+            }
+            skip += page.size();
+        }
+        return false;
+    }
+
+    private void readNewLines(final List<String> lines) throws IOException {
+        final Operations ops = new Operations(this.client);
+        detectRotation(ops);
+        while (true) {
+            final List<ModelNode> page = readPage(ops, position, pageSize);
+            if (lines != null) {
+                page.forEach(line -> lines.add(line.asString()));
+            }
+            position += page.size();
+            if (page.size() < pageSize) {
+                return;
+            }
+        }
+    }
+
+    private List<ModelNode> readPage(final Operations ops, final long skip, final int lines) throws IOException {
+        final ModelNodeResult result = ops.invoke(READ_LOG_FILE_OPERATION, logFileAddress,
+                Values.of("lines", lines)
+                        .and("skip", Math.toIntExact(skip))
+                        .and("tail", false));
+
+        result.assertSuccess("Reading log file failed!");
+
+        return result.value().asList();
+    }
+
+    private void detectRotation(final Operations ops) throws IOException {
+        final ModelNodeResult result = ops.invoke("read-attribute", logFileAddress,
+                Values.of("name", FILE_SIZE_ATTRIBUTE));
+
+        result.assertSuccess("Reading size of log file failed!");
+
+        final long fileSize = result.value().asLong();
+        if (fileSize < lastFileSize) {
+            position = 0;
+            rotations++;
+        }
+        lastFileSize = fileSize;
+    }
+}
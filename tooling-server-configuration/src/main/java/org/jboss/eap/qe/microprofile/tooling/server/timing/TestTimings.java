@@ -0,0 +1,179 @@
+package org.jboss.eap.qe.microprofile.tooling.server.timing;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Durations of test classes split into phases, in milliseconds. Durations recorded by {@link TimingObserver} are merged
+ * into {@code target/timings.json} (different file can be set by {@value #TIMINGS_FILE_PROPERTY} system property) as
+ * a moving average of the runs, see {@link #merge(TestTimings)}.
+ * <p>
+ * Instance is not thread safe.
+ */
+public final class TestTimings {
+
+    public static final String TIMINGS_FILE_PROPERTY = "test.timings.file";
+    public static final String DEFAULT_TIMINGS_FILE = "target/timings.json";
+    static final int AVERAGED_RUNS = 5;
+
+    private static final String RUNS = "runs";
+
+    /**
+     * Measured phases of a test class
+     */
+    public enum Phase {
+        /** {@code ServerSetupTask} setup and tear down */
+        SERVER_SETUP("serverSetup"),
+        DEPLOY("deploy"),
+        TEST("test"),
+        UNDEPLOY("undeploy"),
+        /** whole test class, including time not covered by other phases */
+        TOTAL("total");
+
+        private final String key;
+
+        Phase(String key) {
+            this.key = key;
+        }
+    }
+
+    private final Map<String, Map<Phase, Long>> durations = new TreeMap<>();
+    private final Map<String, Integer> runs = new TreeMap<>();
+
+    /**
+     * @return timings file set by {@value #TIMINGS_FILE_PROPERTY} system property, {@value #DEFAULT_TIMINGS_FILE} by
+     *         default
+     */
+    public static Path getTimingsFile() {
+        return Paths.get(System.getProperty(TIMINGS_FILE_PROPERTY, DEFAULT_TIMINGS_FILE));
+    }
+
+    /**
+     * @param file timings file
+     * @return timings from the file, empty timings if the file doesn't exist or is not readable
+     */
+    public static TestTimings load(Path file) {
+        TestTimings timings = new TestTimings();
+        if (!Files.isRegularFile(file)) {
+            return timings;
+        }
+        try {
+            ModelNode json = ModelNode.fromJSONString(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+            for (String testClass : json.keys()) {
+                ModelNode node = json.get(testClass);
+                for (Phase phase : Phase.values()) {
+                    if (node.has(phase.key)) {
+                        timings.add(testClass, phase, node.get(phase.key).asLong());
+                    }
+                }
+                timings.runs.put(testClass, node.has(RUNS) ? node.get(RUNS).asInt() : 1);
+            }
+        } catch (IOException | RuntimeException e) {
+            // timings are only a hint, corrupted file is replaced by the next run
+            System.out.println("Test timings " + file + " are ignored: " + e.getMessage());
+            return new TestTimings();
+        }
+        return timings;
+    }
+
+    /**
+     * Merges timings of a run into the file, the file is locked so forks running in parallel don't overwrite the
+     * timings of each other
+     *
+     * @param file timings file
+     * @param run timings of the run
+     * @throws IOException if the file can't be written
+     */
+    public static void record(Path file, TestTimings run) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path lockFile = directory.resolve(file.getFileName() + ".lock");
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                FileLock lock = channel.lock()) {
+            TestTimings merged = load(file).merge(run);
+            Path written = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            Files.write(written, merged.toJSONString().getBytes(StandardCharsets.UTF_8));
+            try {
+                Files.move(written, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(written, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    /**
+     * Adds duration to a phase of a test class, durations of the same phase are summed
+     *
+     * @param testClass name of the test class
+     * @param phase measured phase
+     * @param millis duration in milliseconds
+     */
+    public void add(String testClass, Phase phase, long millis) {
+        durations.computeIfAbsent(testClass, name -> new EnumMap<>(Phase.class)).merge(phase, millis, Long::sum);
+        runs.putIfAbsent(testClass, 1);
+    }
+
+    /**
+     * @return names of test classes with recorded durations
+     */
+    public Set<String> getTestClasses() {
+        return Collections.unmodifiableSet(durations.keySet());
+    }
+
+    /**
+     * @param testClass name of the test class
+     * @param phase measured phase
+     * @return duration in milliseconds, -1 if the duration is not known
+     */
+    public long getDuration(String testClass, Phase phase) {
+        Map<Phase, Long> phases = durations.get(testClass);
+        return phases == null ? -1 : phases.getOrDefault(phase, -1L);
+    }
+
+    /**
+     * Merges timings of a later run. Duration of each phase is the mean of the first {@value #AVERAGED_RUNS} runs, later
+     * runs are merged as an exponential moving average with weight {@code 1/}{@value #AVERAGED_RUNS} of the latest run,
+     * so durations follow changes of the test class and older runs fade out.
+     *
+     * @param run timings of the run
+     * @return this instance
+     */
+    public TestTimings merge(TestTimings run) {
+        for (Map.Entry<String, Map<Phase, Long>> testClass : run.durations.entrySet()) {
+            int count = Math.min(runs.getOrDefault(testClass.getKey(), 0) + 1, AVERAGED_RUNS);
+            Map<Phase, Long> phases = durations.computeIfAbsent(testClass.getKey(), name -> new EnumMap<>(Phase.class));
+            testClass.getValue().forEach((phase, millis) -> phases.merge(phase, millis,
+                    (average, latest) -> average + (latest - average) / count));
+            runs.put(testClass.getKey(), count);
+        }
+        return this;
+    }
+
+    /**
+     * @return compact JSON representation, e.g. {@code {"org.Test":{"runs":1,"deploy":1200,"test":300,"total":1600}}}
+     */
+    String toJSONString() {
+        ModelNode json = new ModelNode();
+        durations.forEach((testClass, phases) -> {
+            ModelNode node = json.get(testClass);
+            node.get(RUNS).set(runs.getOrDefault(testClass, 1));
+            phases.forEach((phase, millis) -> node.get(phase.key).set(millis));
+        });
+        return json.isDefined() ? json.toJSONString(true) : "{}";
+    }
+}
@@ -0,0 +1,19 @@
+package org.jboss.eap.qe.microprofile.tooling.server.timing;
+
+import org.jboss.arquillian.core.spi.LoadableExtension;
+
+/**
+ * Extension which records durations of test classes by {@link TimingObserver}
+ */
+public class TimingExtension implements LoadableExtension {
+
+    /**
+     * Registers the extension
+     *
+     * @param builder Instance of builder to be used by the registered extension
+     */
+    @Override
+    public void register(ExtensionBuilder builder) {
+        builder.observer(TimingObserver.class);
+    }
+}
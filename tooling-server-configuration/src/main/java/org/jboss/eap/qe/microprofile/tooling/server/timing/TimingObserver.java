@@ -0,0 +1,111 @@
+package org.jboss.eap.qe.microprofile.tooling.server.timing;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.arquillian.container.spi.event.container.AfterDeploy;
+import org.jboss.arquillian.container.spi.event.container.AfterUnDeploy;
+import org.jboss.arquillian.container.spi.event.container.BeforeDeploy;
+import org.jboss.arquillian.container.spi.event.container.BeforeUnDeploy;
+import org.jboss.arquillian.core.api.annotation.Observes;
+import org.jboss.arquillian.test.spi.event.suite.After;
+import org.jboss.arquillian.test.spi.event.suite.AfterClass;
+import org.jboss.arquillian.test.spi.event.suite.AfterSuite;
+import org.jboss.arquillian.test.spi.event.suite.Before;
+import org.jboss.arquillian.test.spi.event.suite.BeforeClass;
+
+/**
+ * Measures phases of each test class and merges the durations into {@link TestTimings#getTimingsFile()} after the
+ * suite. {@code ServerSetupTask}s are run by observers of {@link BeforeDeploy} and {@link AfterUnDeploy} events, so
+ * their time is measured between observers with the highest and the lowest precedence. Recording is disabled by setting
+ * {@value #TIMINGS_PROPERTY} system property to {@code false}.
+ */
+public class TimingObserver {
+
+    public static final String TIMINGS_PROPERTY = "test.timings";
+
+    private static final int FIRST = 1000;
+    private static final int LAST = -1000;
+
+    private final TestTimings run = new TestTimings();
+    private String testClass;
+    // System.nanoTime() of phase starts, null if the phase didn't start in the current test class
+    private Long classStart;
+    private Long serverSetupStart;
+    private Long deployStart;
+    private Long testStart;
+    private Long undeployStart;
+    private Long serverTearDownStart;
+
+    public void beforeClass(@Observes(precedence = FIRST) BeforeClass event) {
+        testClass = event.getTestClass().getName();
+        serverSetupStart = null;
+        deployStart = null;
+        testStart = null;
+        undeployStart = null;
+        serverTearDownStart = null;
+        classStart = System.nanoTime();
+    }
+
+    public void beforeServerSetup(@Observes(precedence = FIRST) BeforeDeploy event) {
+        serverSetupStart = System.nanoTime();
+    }
+
+    public void beforeDeploy(@Observes(precedence = LAST) BeforeDeploy event) {
+        deployStart = System.nanoTime();
+        add(TestTimings.Phase.SERVER_SETUP, serverSetupStart, deployStart);
+    }
+
+    public void afterDeploy(@Observes(precedence = FIRST) AfterDeploy event) {
+        add(TestTimings.Phase.DEPLOY, deployStart, System.nanoTime());
+    }
+
+    public void beforeTest(@Observes(precedence = FIRST) Before event) {
+        testStart = System.nanoTime();
+    }
+
+    public void afterTest(@Observes(precedence = LAST) After event) {
+        add(TestTimings.Phase.TEST, testStart, System.nanoTime());
+    }
+
+    public void beforeUndeploy(@Observes(precedence = FIRST) BeforeUnDeploy event) {
+        undeployStart = System.nanoTime();
+    }
+
+    public void afterUndeploy(@Observes(precedence = FIRST) AfterUnDeploy event) {
+        serverTearDownStart = System.nanoTime();
+        add(TestTimings.Phase.UNDEPLOY, undeployStart, serverTearDownStart);
+    }
+
+    public void afterServerTearDown(@Observes(precedence = LAST) AfterUnDeploy event) {
+        add(TestTimings.Phase.SERVER_SETUP, serverTearDownStart, System.nanoTime());
+    }
+
+    public void afterClass(@Observes(precedence = LAST) AfterClass event) {
+        add(TestTimings.Phase.TOTAL, classStart, System.nanoTime());
+        testClass = null;
+    }
+
+    /**
+     * Merges durations measured by this JVM into the timings file
+     *
+     * @param event {@link AfterSuite} instance of Arquillian event the method listens to
+     */
+    public void afterSuite(@Observes AfterSuite event) {
+        if (!Boolean.parseBoolean(System.getProperty(TIMINGS_PROPERTY, "true")) || run.getTestClasses().isEmpty()) {
+            return;
+        }
+        try {
+            TestTimings.record(TestTimings.getTimingsFile(), run);
+        } catch (IOException e) {
+            System.out.println("Test timings were not recorded: " + e.getMessage());
+        }
+    }
+
+    private void add(TestTimings.Phase phase, Long start, long end) {
+        // deployments managed by a test are deployed while the test runs, outside of the test class nothing is measured
+        if (testClass != null && start != null) {
+            run.add(testClass, phase, TimeUnit.NANOSECONDS.toMillis(end - start));
+        }
+    }
+}
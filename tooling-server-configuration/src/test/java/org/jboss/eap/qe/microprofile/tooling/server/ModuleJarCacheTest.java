@@ -0,0 +1,57 @@
+package org.jboss.eap.qe.microprofile.tooling.server;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests caching of module JARs by {@link ModuleJarCache}
+ */
+public class ModuleJarCacheTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void testHashDoesNotDependOnOrderOfClasses() throws Exception {
+        Assert.assertEquals(ModuleJarCache.hash("testJar", ModuleUtil.class, ModuleJarCache.class),
+                ModuleJarCache.hash("testJar", ModuleJarCache.class, ModuleUtil.class));
+    }
+
+    @Test
+    public void testHashDependsOnNameAndClasses() throws Exception {
+        String hash = ModuleJarCache.hash("testJar", ModuleUtil.class);
+
+        Assert.assertNotEquals(hash, ModuleJarCache.hash("otherJar", ModuleUtil.class));
+        Assert.assertNotEquals(hash, ModuleJarCache.hash("testJar", ModuleJarCache.class));
+        Assert.assertNotEquals(hash, ModuleJarCache.hash("testJar", ModuleUtil.class, ModuleJarCache.class));
+    }
+
+    @Test
+    public void testJarIsBuiltOnce() throws Exception {
+        ModuleJarCache cache = new ModuleJarCache(tmp.getRoot().toPath());
+
+        File jar = cache.getJar("testJar", ModuleUtil.class).join();
+        long modified = jar.lastModified();
+
+        Assert.assertEquals("testJar.jar", jar.getName());
+        Assert.assertTrue(jar.isFile());
+        Assert.assertSame(jar, cache.getJar("testJar", ModuleUtil.class).join());
+        Assert.assertEquals(modified, jar.lastModified());
+    }
+
+    @Test
+    public void testCachedJarIsReusedByAnotherCache() throws Exception {
+        File jar = new ModuleJarCache(tmp.getRoot().toPath()).getJar("testJar", ModuleUtil.class).join();
+        Files.write(jar.toPath(), new byte[] { 42 });
+
+        File reused = new ModuleJarCache(tmp.getRoot().toPath()).getJar("testJar", ModuleUtil.class).join();
+
+        Assert.assertEquals(jar, reused);
+        Assert.assertArrayEquals("JAR must not be rebuilt", new byte[] { 42 }, Files.readAllBytes(reused.toPath()));
+    }
+}
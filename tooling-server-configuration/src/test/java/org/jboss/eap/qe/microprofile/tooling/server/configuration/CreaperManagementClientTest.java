@@ -21,8 +21,8 @@ import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 @RunWith(Arquillian.class)
 public class CreaperManagementClientTest {
 
-    static ArquillianContainerProperties arquillianContainerProperties = new ArquillianContainerProperties(
-            ArquillianDescriptorWrapper.getArquillianDescriptor());
+    static ArquillianContainerProperties arquillianContainerProperties =
+            ArquillianDescriptorWrapper.getArquillianContainerProperties();
 
     @Test
     public void testReloadCommandWithDefaultArquillianProperties()
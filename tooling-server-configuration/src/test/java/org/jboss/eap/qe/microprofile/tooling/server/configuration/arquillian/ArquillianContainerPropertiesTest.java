@@ -0,0 +1,145 @@
+package org.jboss.eap.qe.microprofile.tooling.server.configuration.arquillian;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.jboss.arquillian.config.descriptor.api.ArquillianDescriptor;
+import org.jboss.arquillian.config.descriptor.api.ContainerDef;
+import org.jboss.arquillian.config.descriptor.api.GroupDef;
+import org.jboss.eap.qe.microprofile.tooling.server.configuration.ConfigurationException;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests lookups of {@link ArquillianContainerProperties}, descriptor is created by the test
+ */
+public class ArquillianContainerPropertiesTest {
+
+    @Test
+    public void testDefaultContainerUris() throws ConfigurationException {
+        ArquillianContainerProperties properties = new ArquillianContainerProperties(descriptor(
+                Collections.singletonList(container("jboss", "managementAddress", "10.0.0.1", "managementPort", "10090")),
+                Collections.emptyList()));
+
+        Assert.assertEquals("10.0.0.1", properties.getDefaultManagementAddress());
+        Assert.assertEquals(10090, properties.getDefaultManagementPort());
+        Assert.assertEquals("http://10.0.0.1:10090/health", properties.getHealthUri().toString());
+        Assert.assertEquals("http://10.0.0.1:10090/health/live", properties.getHealthLiveUri().toString());
+        Assert.assertEquals("http://10.0.0.1:10090/health/ready", properties.getHealthReadyUri().toString());
+        Assert.assertEquals("http://10.0.0.1:10090/metrics", properties.getMetricsUri().toString());
+    }
+
+    @Test
+    public void testDefaultsAndIpv6Address() throws ConfigurationException {
+        ArquillianContainerProperties properties = new ArquillianContainerProperties(descriptor(
+                Collections.singletonList(container("jboss", "managementAddress", "::1")), Collections.emptyList()));
+
+        Assert.assertEquals(9990, properties.getDefaultManagementPort());
+        Assert.assertEquals("http://[::1]:9990", properties.getManagementBaseUri().toString());
+    }
+
+    @Test
+    public void testContainersOfGroupsAreIndexed() throws ConfigurationException {
+        ArquillianContainerProperties properties = new ArquillianContainerProperties(descriptor(
+                Collections.singletonList(container("jboss")),
+                Collections.singletonList(group(container("node-1", "managementPort", "10090")))));
+
+        Assert.assertEquals(Arrays.asList("jboss", "node-1"), Arrays.asList(properties.getContainerNames().toArray()));
+        Assert.assertEquals(10090, properties.getContainerPropertyAsInt("node-1", "managementPort", 9990));
+        Assert.assertEquals("default", properties.getContainerProperty("node-1", "jbossHome", "default"));
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void testMissingContainer() throws ConfigurationException {
+        new ArquillianContainerProperties(descriptor(Collections.emptyList(), Collections.emptyList()))
+                .getHealthUri();
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void testInvalidPort() throws ConfigurationException {
+        new ArquillianContainerProperties(descriptor(
+                Collections.singletonList(container("jboss", "managementPort", "port")), Collections.emptyList()))
+                .getDefaultManagementPort();
+    }
+
+    @Test
+    public void testLaunchedContainerIsDefault() throws ConfigurationException {
+        ArquillianDescriptor descriptor = descriptor(
+                Arrays.asList(defaultContainer("jboss"), container("jboss-1", "managementPort", "10090")),
+                Collections.emptyList());
+
+        Assert.assertEquals("jboss", new ArquillianContainerProperties(descriptor, null).getDefaultContainerName());
+        ArquillianContainerProperties launched = new ArquillianContainerProperties(descriptor, "jboss-1");
+        Assert.assertEquals("jboss-1", launched.getDefaultContainerName());
+        Assert.assertEquals(10090, launched.getDefaultManagementPort());
+        Assert.assertEquals("http://127.0.0.1:9990", launched.getManagementBaseUri("jboss").toString());
+        Assert.assertEquals("http://127.0.0.1:10090/health", launched.getHealthUri().toString());
+    }
+
+    @Test
+    public void testDefaultContainerOfLaunchedGroup() throws ConfigurationException {
+        ArquillianDescriptor descriptor = descriptor(Collections.emptyList(), Collections.singletonList(
+                group("servers", container("server-1", "managementPort", "10090"),
+                        defaultContainer("server-2", "managementPort", "10190"))));
+
+        ArquillianContainerProperties properties = new ArquillianContainerProperties(descriptor, "servers");
+
+        Assert.assertEquals(Arrays.asList("server-1", "server-2"), properties.getGroupContainerNames("servers"));
+        Assert.assertEquals("server-2", properties.getDefaultContainerName());
+        Assert.assertEquals(10190, properties.getDefaultManagementPort());
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void testUnknownContainerUri() throws ConfigurationException {
+        new ArquillianContainerProperties(descriptor(Collections.singletonList(container("jboss")),
+                Collections.emptyList())).getManagementBaseUri("jboss-1");
+    }
+
+    private static ArquillianDescriptor descriptor(List<ContainerDef> containers, List<GroupDef> groups) {
+        return proxy(ArquillianDescriptor.class, method -> "getContainers".equals(method) ? containers : groups);
+    }
+
+    private static GroupDef group(ContainerDef... containers) {
+        return group("group", containers);
+    }
+
+    private static GroupDef group(String name, ContainerDef... containers) {
+        return proxy(GroupDef.class, method -> "getGroupName".equals(method) ? name : Arrays.asList(containers));
+    }
+
+    private static ContainerDef container(String name, String... properties) {
+        return container(name, false, properties);
+    }
+
+    private static ContainerDef defaultContainer(String name, String... properties) {
+        return container(name, true, properties);
+    }
+
+    private static ContainerDef container(String name, boolean isDefault, String... properties) {
+        Map<String, String> map = new HashMap<>();
+        for (int i = 0; i < properties.length; i += 2) {
+            map.put(properties[i], properties[i + 1]);
+        }
+        return proxy(ContainerDef.class, method -> {
+            switch (method) {
+                case "getContainerName":
+                    return name;
+                case "isDefault":
+                    return isDefault;
+                default:
+                    return map;
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Function<String, Object> answer) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                (instance, method, args) -> answer.apply(method.getName()));
+    }
+}
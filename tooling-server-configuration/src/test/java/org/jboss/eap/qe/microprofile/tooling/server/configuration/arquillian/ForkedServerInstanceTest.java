@@ -0,0 +1,100 @@
+package org.jboss.eap.qe.microprofile.tooling.server.configuration.arquillian;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests preparation of server instance of a surefire fork by {@link ForkedServerInstance}
+ */
+public class ForkedServerInstanceTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void testContainerPropertiesOfFork() {
+        Path home = tmp.getRoot().toPath().resolve("jboss-as-fork-3");
+        Map<String, String> properties = new ForkedServerInstance(3, 200, home, 10190).getContainerProperties("jboss",
+                null);
+
+        Assert.assertEquals(home.toString(), properties.get("arq.container.jboss.configuration.jbossHome"));
+        Assert.assertEquals("10190", properties.get("arq.container.jboss.configuration.managementPort"));
+        Assert.assertEquals("10190", properties.get("arq.container.jboss.configuration.waitForPorts"));
+        Assert.assertEquals("-Djboss.socket.binding.port-offset=200",
+                properties.get("arq.container.jboss.configuration.jbossArguments"));
+    }
+
+    @Test
+    public void testPortOffsetIsAppendedToJbossArguments() {
+        Path home = tmp.getRoot().toPath().resolve("jboss-as-fork-2");
+        Map<String, String> properties = new ForkedServerInstance(2, 100, home, 10090).getContainerProperties("jboss",
+                " -Dfoo=bar ");
+
+        Assert.assertEquals("-Dfoo=bar -Djboss.socket.binding.port-offset=100",
+                properties.get("arq.container.jboss.configuration.jbossArguments"));
+    }
+
+    @Test
+    public void testManagementPortIsReadFromArquillianXml() throws Exception {
+        Path arquillianXml = tmp.newFile("arquillian.xml").toPath();
+        Files.write(arquillianXml, ("<arquillian>"
+                + "<container qualifier=\"jboss\"><configuration>"
+                + "<property name=\"managementPort\">9990</property>"
+                + "<property name=\"jbossArguments\">-Dfoo=${foo:bar}</property></configuration></container>"
+                + "<group qualifier=\"servers\"><container qualifier=\"second\"><configuration>"
+                + "<property name=\"managementPort\">${second.port:10090}</property></configuration></container></group>"
+                + "</arquillian>").getBytes(StandardCharsets.UTF_8));
+        String previous = System.setProperty(ForkedServerInstance.ARQUILLIAN_XML_PROPERTY, arquillianXml.toString());
+        try {
+            Assert.assertEquals(9990, ForkedServerInstance.getConfiguredManagementPort("jboss"));
+            Assert.assertEquals(10090, ForkedServerInstance.getConfiguredManagementPort("second"));
+            Assert.assertEquals(9990, ForkedServerInstance.getConfiguredManagementPort("missing"));
+            Assert.assertEquals("-Dfoo=bar", ForkedServerInstance.getConfiguredProperty("jboss", "jbossArguments"));
+            Assert.assertNull(ForkedServerInstance.getConfiguredProperty("second", "jbossArguments"));
+        } finally {
+            if (previous == null) {
+                System.clearProperty(ForkedServerInstance.ARQUILLIAN_XML_PROPERTY);
+            } else {
+                System.setProperty(ForkedServerInstance.ARQUILLIAN_XML_PROPERTY, previous);
+            }
+        }
+    }
+
+    @Test
+    public void testStandaloneIsCopiedWithoutRuntimeStateAndOtherEntriesAreLinked() throws Exception {
+        Path source = tmp.newFolder("jboss-as").toPath();
+        Files.createDirectories(source.resolve("standalone/configuration"));
+        Files.write(source.resolve("standalone/configuration/standalone.xml"), "<server/>".getBytes("UTF-8"));
+        Files.createDirectories(source.resolve("standalone/data/content"));
+        Files.createDirectories(source.resolve("standalone/log"));
+        Files.write(source.resolve("standalone/log/server.log"), "log".getBytes("UTF-8"));
+        Files.createDirectories(source.resolve("modules/system"));
+        Files.write(source.resolve("jboss-modules.jar"), "jar".getBytes("UTF-8"));
+        Path target = source.resolveSibling("jboss-as-fork-1");
+        Files.createDirectories(target.resolve("stale"));
+
+        ForkedServerInstance.copyServerHome(source, target);
+
+        Assert.assertEquals("<server/>",
+                new String(Files.readAllBytes(target.resolve("standalone/configuration/standalone.xml")), "UTF-8"));
+        Assert.assertFalse(Files.exists(target.resolve("standalone/data")));
+        Assert.assertFalse(Files.exists(target.resolve("standalone/log")));
+        Assert.assertFalse("Previous copy must be deleted", Files.exists(target.resolve("stale")));
+        Assert.assertTrue("Read-only directories should be linked", Files.isSymbolicLink(target.resolve("modules")));
+        Assert.assertTrue(Files.isDirectory(target.resolve("modules/system")));
+        Assert.assertEquals("jar", new String(Files.readAllBytes(target.resolve("jboss-modules.jar")), "UTF-8"));
+        Assert.assertFalse(Files.isSymbolicLink(target.resolve("standalone")));
+
+        ForkedServerInstance.copyServerHome(source, target);
+        Assert.assertTrue("Linked directory must not be deleted with previous copy",
+                Files.isDirectory(source.resolve("modules/system")));
+    }
+}
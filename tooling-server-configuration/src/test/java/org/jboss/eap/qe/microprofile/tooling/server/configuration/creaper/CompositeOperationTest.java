@@ -0,0 +1,132 @@
+package org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wildfly.extras.creaper.core.online.ModelNodeResult;
+import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
+
+/**
+ * Tests building of composite operation and parsing of its outcome by {@link CompositeOperation}, responses are
+ * returned by a fake client so no server is needed.
+ */
+public class CompositeOperationTest {
+
+    private final List<ModelNode> executed = new ArrayList<>();
+
+    @Test
+    public void testStepsAreExecutedInOneCompositeOperation() throws Exception {
+        ModelNode response = successfulResponse(2);
+
+        CompositeOperation.Result result = ManagementClientHelper.batch()
+                .addOperation(operation("add", "extension", "org.wildfly.extension.microprofile.openapi-smallrye"))
+                .addOperation(operation("add", "subsystem", "microprofile-openapi-smallrye"))
+                .execute(createFakeClient(response));
+
+        Assert.assertEquals(1, executed.size());
+        ModelNode composite = executed.get(0);
+        Assert.assertEquals("composite", composite.get("operation").asString());
+        Assert.assertEquals(2, composite.get("steps").asList().size());
+        Assert.assertEquals("extension",
+                composite.get("steps").get(0).get("address").asPropertyList().get(0).getName());
+        Assert.assertEquals("subsystem",
+                composite.get("steps").get(1).get("address").asPropertyList().get(0).getName());
+        Assert.assertTrue(result.isSuccess());
+        Assert.assertEquals(2, result.getSteps().size());
+        Assert.assertFalse(result.isReloadRequired());
+        Assert.assertFalse(result.isRestartRequired());
+    }
+
+    @Test
+    public void testReloadRequiredByStepIsReported() throws Exception {
+        ModelNode response = successfulResponse(2);
+        response.get("result").get("step-2").get("response-headers").get("operation-requires-reload").set(true);
+
+        CompositeOperation.Result result = ManagementClientHelper.batch()
+                .addOperation(operation("add", "extension", "org.wildfly.extension.microprofile.openapi-smallrye"))
+                .addOperation(operation("add", "subsystem", "microprofile-openapi-smallrye"))
+                .execute(createFakeClient(response));
+
+        Assert.assertTrue(result.isReloadRequired());
+        Assert.assertFalse(result.isRestartRequired());
+        Assert.assertFalse(result.getSteps().get(0).isReloadRequired());
+        Assert.assertTrue(result.getSteps().get(1).isReloadRequired());
+    }
+
+    @Test
+    public void testRestartRequiredByProcessStateIsReported() throws Exception {
+        ModelNode response = successfulResponse(1);
+        response.get("response-headers").get("process-state").set("restart-required");
+
+        CompositeOperation.Result result = ManagementClientHelper.batch()
+                .addOperation(operation("remove", "subsystem", "microprofile-openapi-smallrye"))
+                .execute(createFakeClient(response));
+
+        Assert.assertTrue(result.isRestartRequired());
+    }
+
+    @Test
+    public void testFailedStepIsDescribed() throws Exception {
+        ModelNode response = new ModelNode();
+        response.get("outcome").set("failed");
+        response.get("failure-description").set("WFLYCTL0062: Composite operation failed and was rolled back.");
+        response.get("result").get("step-1").get("outcome").set("failed");
+        response.get("result").get("step-1").get("failure-description").set("WFLYCTL0212: Duplicate resource");
+        response.get("rolled-back").set(true);
+
+        CompositeOperation.Result result = ManagementClientHelper.batch()
+                .addOperation(operation("add", "subsystem", "microprofile-openapi-smallrye"))
+                .execute(createFakeClient(response));
+
+        Assert.assertFalse(result.isSuccess());
+        Assert.assertFalse(result.getSteps().get(0).isSuccess());
+        Assert.assertEquals("WFLYCTL0212: Duplicate resource", result.getSteps().get(0).getFailureDescription());
+        try {
+            result.assertSuccess();
+            Assert.fail("Failed composite operation should fail the assertion");
+        } catch (ManagementClientRelatedException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("WFLYCTL0212: Duplicate resource"));
+        }
+    }
+
+    @Test
+    public void testEmptyCompositeIsNotExecuted() throws Exception {
+        CompositeOperation.Result result = ManagementClientHelper.batch().execute(createFakeClient(null));
+
+        Assert.assertTrue(executed.isEmpty());
+        Assert.assertTrue(result.isSuccess());
+        Assert.assertFalse(result.isReloadRequired());
+        Assert.assertFalse(result.reloadIfRequired(createFakeClient(null)));
+    }
+
+    private static ModelNode operation(String name, String type, String value) {
+        ModelNode operation = new ModelNode();
+        operation.get("operation").set(name);
+        operation.get("address").add(type, value);
+        return operation;
+    }
+
+    private static ModelNode successfulResponse(int steps) {
+        ModelNode response = new ModelNode();
+        response.get("outcome").set("success");
+        for (int i = 1; i <= steps; i++) {
+            response.get("result").get("step-" + i).get("outcome").set("success");
+        }
+        return response;
+    }
+
+    private OnlineManagementClient createFakeClient(ModelNode response) {
+        return (OnlineManagementClient) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { OnlineManagementClient.class }, (proxy, method, args) -> {
+                    if ("execute".equals(method.getName()) && args[0] instanceof ModelNode) {
+                        executed.add((ModelNode) args[0]);
+                        return new ModelNodeResult(response);
+                    }
+                    return null;
+                });
+    }
+}
@@ -0,0 +1,162 @@
+package org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
+
+/**
+ * Tests pooling of clients by {@link ManagementClientPool}, pooled clients are fake so no server is needed.
+ */
+public class ManagementClientPoolTest {
+
+    private final List<OnlineManagementClient> createdClients = new ArrayList<>();
+    private final Set<OnlineManagementClient> closedClients = new HashSet<>();
+    private final Set<OnlineManagementClient> brokenClients = new HashSet<>();
+    private ManagementClientPool pool;
+
+    @After
+    public void closePool() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    public void testClosedClientIsReused() throws Exception {
+        pool = createPool(60_000, 0);
+
+        OnlineManagementClient first = pool.lease("127.0.0.1", 9990);
+        first.close();
+        OnlineManagementClient second = pool.lease("127.0.0.1", 9990);
+        second.executeCli("reload");
+        second.close();
+
+        Assert.assertEquals(1, createdClients.size());
+        Assert.assertTrue(closedClients.isEmpty());
+        Assert.assertEquals(1, pool.getIdleCount());
+        Assert.assertEquals(0, pool.getLeasedCount());
+    }
+
+    @Test
+    public void testClientsArePooledByKey() throws IOException {
+        pool = createPool(60_000, 0);
+
+        try (OnlineManagementClient first = pool.lease("127.0.0.1", 9990);
+                OnlineManagementClient second = pool.lease("127.0.0.1", 9990)) {
+            Assert.assertEquals(2, pool.getLeasedCount());
+        }
+        pool.lease("127.0.0.1", 10090).close();
+        pool.lease("127.0.0.1", 9990, "admin", "secret").close();
+
+        Assert.assertEquals(4, createdClients.size());
+        Assert.assertEquals(4, pool.getIdleCount());
+    }
+
+    @Test
+    public void testBrokenIdleClientIsReplaced() throws IOException {
+        pool = createPool(60_000, 0);
+
+        pool.lease("127.0.0.1", 9990).close();
+        brokenClients.add(createdClients.get(0));
+        pool.lease("127.0.0.1", 9990).close();
+
+        Assert.assertEquals(2, createdClients.size());
+        Assert.assertTrue(closedClients.contains(createdClients.get(0)));
+    }
+
+    @Test
+    public void testClientFailedWithIOExceptionIsNotReturnedIntoPool() throws IOException {
+        pool = createPool(60_000, 0);
+
+        OnlineManagementClient client = pool.lease("127.0.0.1", 9990);
+        try {
+            client.executeCli("fail");
+            Assert.fail("IOException should be thrown by the client");
+        } catch (IOException expected) {
+            // expected
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+        client.close();
+
+        Assert.assertEquals(0, pool.getIdleCount());
+        Assert.assertTrue(closedClients.contains(createdClients.get(0)));
+    }
+
+    @Test
+    public void testIdleClientsAreEvicted() throws Exception {
+        pool = createPool(50, 0);
+
+        pool.lease("127.0.0.1", 9990).close();
+        Thread.sleep(300);
+
+        Assert.assertEquals(0, pool.getIdleCount());
+        Assert.assertTrue(closedClients.contains(createdClients.get(0)));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testClosedLeaseCanNotBeUsed() throws Exception {
+        pool = createPool(60_000, 0);
+
+        OnlineManagementClient client = pool.lease("127.0.0.1", 9990);
+        client.close();
+        client.close();
+        client.executeCli("reload");
+    }
+
+    @Test
+    public void testLeakedClientIsReported() throws IOException {
+        pool = createPool(60_000, 0);
+
+        pool.lease("127.0.0.1", 9990).close();
+        pool.lease("127.0.0.1", 9990);
+
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+        Assert.assertEquals(1, pool.reportLeaks(new PrintStream(report, true, "UTF-8")));
+        Assert.assertTrue(new String(report.toByteArray(), StandardCharsets.UTF_8)
+                .contains("testLeakedClientIsReported"));
+    }
+
+    private ManagementClientPool createPool(long idleTimeoutMillis, long validationIntervalMillis) {
+        return new ManagementClientPool(key -> createFakeClient(),
+                client -> !brokenClients.contains(client), idleTimeoutMillis, validationIntervalMillis);
+    }
+
+    private synchronized OnlineManagementClient createFakeClient() {
+        OnlineManagementClient[] client = new OnlineManagementClient[1];
+        client[0] = (OnlineManagementClient) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { OnlineManagementClient.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            synchronized (this) {
+                                closedClients.add(client[0]);
+                            }
+                            return null;
+                        case "executeCli":
+                            if ("fail".equals(args[0])) {
+                                throw new IOException("Connection refused");
+                            }
+                            return null;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return null;
+                    }
+                });
+        createdClients.add(client[0]);
+        return client[0];
+    }
+}
@@ -0,0 +1,121 @@
+package org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests computing of operations which restore configuration model by {@link ServerSnapshot}, models are built by the
+ * test so no server is needed.
+ */
+public class ServerSnapshotTest {
+
+    private static final Function<ModelNode, Set<String>> CHILD_TYPES = address -> {
+        if (address.asList().isEmpty()) {
+            return new HashSet<>(Arrays.asList("subsystem", "extension", "system-property", "deployment"));
+        }
+        if ("subsystem".equals(address.asPropertyList().get(0).getName()) && address.asList().size() == 1) {
+            return Collections.singleton("logger");
+        }
+        return Collections.emptySet();
+    };
+
+    @Test
+    public void testUnchangedModelNeedsNoOperation() {
+        Assert.assertTrue(ServerSnapshot.diff(model(), model(), CHILD_TYPES).isEmpty());
+    }
+
+    @Test
+    public void testAddedResourceIsRemoved() {
+        ModelNode current = model();
+        current.get("system-property", "foo", "value").set("bar");
+
+        List<ModelNode> operations = ServerSnapshot.diff(model(), current, CHILD_TYPES);
+
+        Assert.assertEquals(1, operations.size());
+        Assert.assertEquals("remove", operations.get(0).get("operation").asString());
+        Assert.assertEquals("foo", operations.get(0).get("address").asPropertyList().get(0).getValue().asString());
+    }
+
+    @Test
+    public void testRemovedResourceIsAddedBackWithChildren() {
+        ModelNode snapshot = model();
+        snapshot.get("extension", "org.wildfly.extension.microprofile.openapi-smallrye", "module")
+                .set("org.wildfly.extension.microprofile.openapi-smallrye");
+        snapshot.get("subsystem", "microprofile-openapi-smallrye", "logger", "org.jboss", "level").set("DEBUG");
+
+        List<ModelNode> operations = ServerSnapshot.diff(snapshot, model(), CHILD_TYPES);
+
+        Assert.assertEquals(3, operations.size());
+        Assert.assertEquals("extension", operations.get(0).get("address").asPropertyList().get(0).getName());
+        Assert.assertEquals("add", operations.get(0).get("operation").asString());
+        Assert.assertEquals("org.wildfly.extension.microprofile.openapi-smallrye",
+                operations.get(0).get("module").asString());
+        Assert.assertEquals("subsystem", operations.get(1).get("address").asPropertyList().get(0).getName());
+        Assert.assertFalse("Child type is not an attribute", operations.get(1).has("logger"));
+        Assert.assertEquals(2, operations.get(2).get("address").asList().size());
+        Assert.assertEquals("DEBUG", operations.get(2).get("level").asString());
+    }
+
+    @Test
+    public void testChangedAttributesAreWrittenBack() {
+        ModelNode snapshot = model();
+        snapshot.get("subsystem", "logging", "logger", "org.jboss", "level").set("INFO");
+        ModelNode current = model();
+        current.get("subsystem", "logging", "logger", "org.jboss", "level").set("DEBUG");
+        current.get("subsystem", "logging", "logger", "org.jboss", "filter-spec").set("any");
+
+        List<ModelNode> operations = ServerSnapshot.diff(snapshot, current, CHILD_TYPES);
+
+        Assert.assertEquals(2, operations.size());
+        Assert.assertEquals("write-attribute", operations.get(0).get("operation").asString());
+        Assert.assertEquals("level", operations.get(0).get("name").asString());
+        Assert.assertEquals("INFO", operations.get(0).get("value").asString());
+        Assert.assertEquals("undefine-attribute", operations.get(1).get("operation").asString());
+        Assert.assertEquals("filter-spec", operations.get(1).get("name").asString());
+    }
+
+    @Test
+    public void testDeploymentsAreIgnored() {
+        ModelNode current = model();
+        current.get("deployment", "test.war", "enabled").set(true);
+
+        Assert.assertTrue(ServerSnapshot.diff(model(), current, CHILD_TYPES).isEmpty());
+    }
+
+    @Test
+    public void testChildTypesAreFoundInRecursiveDescription() {
+        ModelNode description = new ModelNode();
+        description.get("children", "subsystem", "model-description", "logging", "children", "logger",
+                "model-description", "*", "attributes", "level", "type").set("STRING");
+        description.get("children", "subsystem", "model-description", "logging", "children", "console-handler",
+                "model-description", "*", "attributes", "level", "type").set("STRING");
+        description.get("children", "system-property", "model-description", "*", "attributes", "value", "type")
+                .set("STRING");
+        ModelNode logging = new ModelNode().setEmptyList().add("subsystem", "logging");
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList("subsystem", "system-property")),
+                ServerSnapshot.childTypes(description, new ModelNode().setEmptyList()));
+        Assert.assertEquals(new HashSet<>(Arrays.asList("logger", "console-handler")),
+                ServerSnapshot.childTypes(description, logging));
+        Assert.assertEquals(Collections.emptySet(),
+                ServerSnapshot.childTypes(description, logging.clone().add("logger", "org.jboss")));
+        Assert.assertEquals(Collections.emptySet(),
+                ServerSnapshot.childTypes(description, new ModelNode().setEmptyList().add("subsystem", "unknown")));
+    }
+
+    private static ModelNode model() {
+        ModelNode model = new ModelNode();
+        model.get("name").set("server");
+        model.get("subsystem", "logging", "add-logging-api-dependencies").set(true);
+        model.get("extension", "org.jboss.as.logging", "module").set("org.jboss.as.logging");
+        return model;
+    }
+}
@@ -0,0 +1,183 @@
+package org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests planning of server state changes by {@link ServerStatePlanner}, the model is simulated by a set of existing
+ * resource addresses so no server is needed.
+ */
+public class ServerStatePlannerTest {
+
+    private static final String EXTENSION = "/extension=org.wildfly.extension.microprofile.openapi-smallrye";
+    private static final String SUBSYSTEM = "/subsystem=microprofile-openapi-smallrye";
+    private static final String PROPERTY = "/system-property=foo";
+
+    private static final ServerState ENABLED = new ServerState.Builder("enabled")
+            .present(EXTENSION)
+            .present(SUBSYSTEM)
+            .build();
+    private static final ServerState DISABLED = new ServerState.Builder("disabled")
+            .absent(EXTENSION)
+            .absent(SUBSYSTEM)
+            .build();
+    private static final ServerState PROPERTY_SET = new ServerState.Builder("property")
+            .present(PROPERTY, PROPERTY + ":add(value=bar)")
+            .setReloadOnChange(false)
+            .build();
+
+    private final Set<String> model = new HashSet<>();
+    private final ServerStatePlanner planner = new ServerStatePlanner();
+
+    @Test
+    public void testResourcesAreAddedInDeclaredOrder() {
+        ServerStatePlanner.Plan plan = apply(ENABLED);
+
+        Assert.assertEquals(Arrays.asList(EXTENSION + ":add", SUBSYSTEM + ":add"), plan.getOperations());
+        Assert.assertTrue(plan.isReload());
+    }
+
+    @Test
+    public void testStateWhichIsAlreadyPresentIsNotChanged() {
+        model.add(EXTENSION);
+        model.add(SUBSYSTEM);
+
+        ServerStatePlanner.Plan plan = apply(ENABLED);
+
+        Assert.assertTrue(plan.getOperations().isEmpty());
+        Assert.assertFalse(plan.isReload());
+        Assert.assertFalse(planner.hasPendingReverts());
+    }
+
+    @Test
+    public void testReleasedStateIsReusedWithoutChanges() {
+        apply(ENABLED);
+        planner.release(ENABLED);
+        Assert.assertTrue(planner.hasPendingReverts());
+
+        ServerStatePlanner.Plan plan = apply(ENABLED);
+
+        Assert.assertTrue(plan.getOperations().isEmpty());
+        Assert.assertFalse(planner.hasPendingReverts());
+    }
+
+    @Test
+    public void testRevertIsMergedWithNextState() {
+        apply(ENABLED);
+        planner.release(ENABLED);
+
+        ServerStatePlanner.Plan plan = apply(PROPERTY_SET);
+
+        Assert.assertEquals(Arrays.asList(SUBSYSTEM + ":remove", EXTENSION + ":remove", PROPERTY + ":add(value=bar)"),
+                plan.getOperations());
+        Assert.assertTrue("Revert of the released state requires reload", plan.isReload());
+        Assert.assertEquals(Collections.singleton(PROPERTY), model);
+    }
+
+    @Test
+    public void testRestoreRevertsReleasedStates() {
+        apply(ENABLED);
+        planner.release(ENABLED);
+
+        ServerStatePlanner.Plan plan = apply(Collections.emptyList());
+
+        Assert.assertEquals(Arrays.asList(SUBSYSTEM + ":remove", EXTENSION + ":remove"), plan.getOperations());
+        Assert.assertTrue(model.isEmpty());
+        Assert.assertFalse(planner.hasPendingReverts());
+    }
+
+    @Test
+    public void testHeldStateIsNotReverted() {
+        apply(ENABLED);
+
+        ServerStatePlanner.Plan plan = apply(PROPERTY_SET);
+
+        Assert.assertEquals(Collections.singletonList(PROPERTY + ":add(value=bar)"), plan.getOperations());
+        Assert.assertFalse(plan.isReload());
+        Assert.assertTrue(model.contains(SUBSYSTEM));
+    }
+
+    @Test
+    public void testDisabledStateRevertsToOriginal() {
+        apply(ENABLED);
+
+        ServerStatePlanner.Plan plan = apply(DISABLED);
+        planner.release(DISABLED);
+
+        Assert.assertEquals(Arrays.asList(SUBSYSTEM + ":remove", EXTENSION + ":remove"), plan.getOperations());
+        Assert.assertFalse(planner.hasPendingReverts());
+    }
+
+    @Test
+    public void testRemovedResourceIsAddedBack() {
+        model.add(EXTENSION);
+        model.add(SUBSYSTEM);
+        apply(DISABLED);
+        planner.release(DISABLED);
+
+        ServerStatePlanner.Plan plan = apply(Collections.emptyList());
+
+        Assert.assertEquals(Arrays.asList(EXTENSION + ":add", SUBSYSTEM + ":add"), plan.getOperations());
+        Assert.assertTrue(model.contains(SUBSYSTEM));
+    }
+
+    @Test
+    public void testStateHeldByOtherClassIsNotRevertedOnFirstRelease() {
+        apply(ENABLED);
+        apply(ENABLED);
+
+        planner.release(ENABLED);
+        Assert.assertFalse("State is still held by the other class", planner.hasPendingReverts());
+        Assert.assertTrue(apply(Collections.emptyList()).getOperations().isEmpty());
+
+        planner.release(ENABLED);
+        Assert.assertTrue(planner.hasPendingReverts());
+        Assert.assertEquals(Arrays.asList(SUBSYSTEM + ":remove", EXTENSION + ":remove"),
+                apply(Collections.emptyList()).getOperations());
+    }
+
+    @Test
+    public void testOverriddenStateIsNotHeld() {
+        apply(ENABLED);
+        apply(DISABLED);
+        planner.release(DISABLED);
+        planner.release(ENABLED);
+
+        apply(ENABLED);
+        planner.release(ENABLED);
+
+        Assert.assertTrue("State enabled again should be reverted once released", planner.hasPendingReverts());
+    }
+
+    @Test
+    public void testEachServerHasItsOwnPlanner() {
+        ServerStatePlanner first = ServerStatePlanner.getInstance("/servers/first/standalone");
+
+        Assert.assertSame(first, ServerStatePlanner.getInstance("/servers/first/standalone"));
+        Assert.assertNotSame(first, ServerStatePlanner.getInstance("/servers/second/standalone"));
+    }
+
+    private ServerStatePlanner.Plan apply(ServerState state) {
+        return apply(state.getResources());
+    }
+
+    private ServerStatePlanner.Plan apply(List<ServerState.Resource> desired) {
+        ServerStatePlanner.Plan plan = planner.plan(desired, model::contains);
+        for (String operation : plan.getOperations()) {
+            String address = operation.substring(0, operation.indexOf(':'));
+            if (operation.startsWith(":remove", address.length())) {
+                model.remove(address);
+            } else {
+                model.add(address);
+            }
+        }
+        planner.commit(plan, desired);
+        return plan;
+    }
+}
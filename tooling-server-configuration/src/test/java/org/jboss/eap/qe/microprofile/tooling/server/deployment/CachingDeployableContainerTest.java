@@ -0,0 +1,182 @@
+package org.jboss.eap.qe.microprofile.tooling.server.deployment;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.arquillian.container.spi.client.container.DeployableContainer;
+import org.jboss.arquillian.container.spi.client.protocol.metadata.ProtocolMetaData;
+import org.jboss.as.arquillian.api.ServerSetup;
+import org.jboss.as.arquillian.api.ServerSetupTask;
+import org.jboss.as.arquillian.container.managed.ManagedContainerConfiguration;
+import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.ArchivePath;
+import org.jboss.shrinkwrap.api.Node;
+import org.jboss.shrinkwrap.api.asset.Asset;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests reuse of deployed archives by {@link CachingDeployableContainer}, the delegate container only records
+ * operations
+ */
+public class CachingDeployableContainerTest {
+
+    private final List<String> operations = new ArrayList<>();
+    private final CachingDeployableContainer container = new CachingDeployableContainer(delegate());
+
+    @Test
+    public void testIdenticalArchiveIsReused() throws Exception {
+        container.setReuseAllowed(true);
+        ProtocolMetaData metaData = container.deploy(archive("app.war", "index.html", "hello"));
+        container.undeploy(archive("app.war", "index.html", "hello"));
+
+        Assert.assertSame(metaData, container.deploy(archive("app.war", "index.html", "hello")));
+        container.undeployUnused(Collections.emptySet());
+
+        Assert.assertEquals(Arrays.asList("deploy app.war"), operations);
+    }
+
+    @Test
+    public void testArchiveOfPreviousMarkedClassIsNotDeployedAgain() throws Exception {
+        container.setReuseAllowed(DeploymentCacheObserver.isReuseAllowed(FirstReusingClass.class));
+        container.undeployUnused(Collections.singleton("app.war"));
+        container.deploy(archive("app.war", "index.html", "hello"));
+        container.undeploy(archive("app.war", "index.html", "hello"));
+
+        container.setReuseAllowed(DeploymentCacheObserver.isReuseAllowed(SecondReusingClass.class));
+        container.undeployUnused(Collections.singleton("app.war"));
+        container.deploy(archive("app.war", "index.html", "hello"));
+        container.undeploy(archive("app.war", "index.html", "hello"));
+
+        Assert.assertEquals("Second deploy of the archive with the same hash should be skipped",
+                Arrays.asList("deploy app.war"), operations);
+    }
+
+    @Test
+    public void testOnlyMarkedClassesWithoutServerSetupReuseArchives() {
+        Assert.assertTrue(DeploymentCacheObserver.isReuseAllowed(FirstReusingClass.class));
+        Assert.assertFalse(DeploymentCacheObserver.isReuseAllowed(ReusingClassWithServerSetup.class));
+        Assert.assertFalse(DeploymentCacheObserver.isReuseAllowed(CachingDeployableContainerTest.class));
+    }
+
+    @Test
+    public void testChangedArchiveIsRedeployed() throws Exception {
+        container.setReuseAllowed(true);
+        container.deploy(archive("app.war", "index.html", "hello"));
+        container.undeploy(archive("app.war", "index.html", "hello"));
+
+        container.deploy(archive("app.war", "index.html", "changed"));
+
+        Assert.assertEquals(Arrays.asList("deploy app.war", "undeploy app.war", "deploy app.war"), operations);
+    }
+
+    @Test
+    public void testArchiveWhichIsNotReusedIsUndeployed() throws Exception {
+        container.setReuseAllowed(true);
+        container.deploy(archive("first.war", "index.html", "hello"));
+        container.undeploy(archive("first.war", "index.html", "hello"));
+
+        container.deploy(archive("second.war", "index.html", "hello"));
+        container.undeployUnused(Collections.emptySet());
+
+        Assert.assertEquals(Arrays.asList("deploy first.war", "deploy second.war", "undeploy first.war"), operations);
+    }
+
+    @Test
+    public void testArchiveWhichIsNotGoingToBeDeployedIsUndeployedFirst() throws Exception {
+        container.setReuseAllowed(true);
+        container.deploy(archive("first.war", "index.html", "hello"));
+        container.deploy(archive("second.war", "index.html", "hello"));
+        container.undeploy(archive("first.war", "index.html", "hello"));
+        container.undeploy(archive("second.war", "index.html", "hello"));
+
+        container.undeployUnused(Collections.singleton("second.war"));
+        container.deploy(archive("second.war", "index.html", "hello"));
+
+        Assert.assertEquals(Arrays.asList("deploy first.war", "deploy second.war", "undeploy first.war"), operations);
+    }
+
+    @Test
+    public void testAllArchivesAreUndeployedFirstWhenReuseIsNotAllowed() throws Exception {
+        container.setReuseAllowed(true);
+        container.deploy(archive("app.war", "index.html", "hello"));
+        container.undeploy(archive("app.war", "index.html", "hello"));
+
+        container.setReuseAllowed(false);
+        container.undeployUnused(Collections.singleton("app.war"));
+
+        Assert.assertEquals(Arrays.asList("deploy app.war", "undeploy app.war"), operations);
+    }
+
+    @Test
+    public void testArchiveIsNotKeptWhenReuseIsNotAllowed() throws Exception {
+        container.deploy(archive("app.war", "index.html", "hello"));
+        container.undeploy(archive("app.war", "index.html", "hello"));
+        container.deploy(archive("app.war", "index.html", "hello"));
+
+        Assert.assertEquals(Arrays.asList("deploy app.war", "undeploy app.war", "deploy app.war"), operations);
+    }
+
+    @Test
+    public void testHashDependsOnNameAndContent() throws Exception {
+        String hash = CachingDeployableContainer.hash(archive("app.war", "index.html", "hello"));
+
+        Assert.assertEquals(hash, CachingDeployableContainer.hash(archive("app.war", "index.html", "hello")));
+        Assert.assertNotEquals(hash, CachingDeployableContainer.hash(archive("other.war", "index.html", "hello")));
+        Assert.assertNotEquals(hash, CachingDeployableContainer.hash(archive("app.war", "index.html", "changed")));
+        Assert.assertNotEquals(hash, CachingDeployableContainer.hash(archive("app.war", "other.html", "hello")));
+    }
+
+    @ReusableDeployments
+    private static class FirstReusingClass {
+    }
+
+    @ReusableDeployments
+    private static class SecondReusingClass {
+    }
+
+    @ReusableDeployments
+    @ServerSetup(ServerSetupTask.class)
+    private static class ReusingClassWithServerSetup {
+    }
+
+    @SuppressWarnings("unchecked")
+    private DeployableContainer<ManagedContainerConfiguration> delegate() {
+        return (DeployableContainer<ManagedContainerConfiguration>) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[] { DeployableContainer.class }, (proxy, method, args) -> {
+                    operations.add(method.getName() + " " + ((Archive<?>) args[0]).getName());
+                    return "deploy".equals(method.getName()) ? new ProtocolMetaData() : null;
+                });
+    }
+
+    private static Archive<?> archive(String name, String path, String content) {
+        Map<ArchivePath, Node> entries = new LinkedHashMap<>();
+        ArchivePath archivePath = proxy(ArchivePath.class, "/" + path);
+        Asset asset = proxy(Asset.class, new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+        entries.put(archivePath, proxy(Node.class, asset));
+        return (Archive<?>) Proxy.newProxyInstance(CachingDeployableContainerTest.class.getClassLoader(),
+                new Class<?>[] { Archive.class },
+                (proxy, method, args) -> "getName".equals(method.getName()) ? name : entries);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object result) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return result;
+            }
+        });
+    }
+}
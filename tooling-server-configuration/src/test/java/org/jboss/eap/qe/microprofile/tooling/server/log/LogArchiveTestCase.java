@@ -0,0 +1,93 @@
+package org.jboss.eap.qe.microprofile.tooling.server.log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Set of tests for {@link LogArchive} tool.
+ */
+public class LogArchiveTestCase {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path logFile;
+    private LogArchive archive;
+
+    @Before
+    public void createLogFile() throws IOException {
+        logFile = temporaryFolder.newFile("server.log").toPath();
+        archive = new LogArchive(temporaryFolder.getRoot().toPath().resolve("archive"));
+    }
+
+    @Test
+    public void testSlicesAreReadByTestName() throws IOException {
+        archiveTest("FirstTest#test", "INFO first\n", "ERROR first failed\n");
+        archiveTest("SecondTest#test", "INFO second\n");
+
+        Assert.assertEquals(Arrays.asList("FirstTest#test", "SecondTest#test"), archive.getTests());
+        Assert.assertEquals(Arrays.asList("INFO first", "ERROR first failed"), archive.read("FirstTest#test"));
+        Assert.assertEquals(Collections.singletonList("INFO second"), archive.read("SecondTest#test"));
+        Assert.assertEquals(Collections.emptyList(), archive.read("MissingTest#test"));
+    }
+
+    @Test
+    public void testSearchByPattern() throws IOException {
+        archiveTest("FirstTest#test", "INFO first\n", "ERROR first failed\n");
+        archiveTest("SecondTest#test", "INFO second\n");
+        archiveTest("ThirdTest#test", "ERROR third failed\n");
+
+        final Map<String, List<String>> errors = archive.search(Pattern.compile("ERROR.*"));
+
+        Assert.assertEquals(Arrays.asList("FirstTest#test", "ThirdTest#test"), Arrays.asList(errors.keySet().toArray()));
+        Assert.assertEquals(Collections.singletonList("ERROR third failed"), errors.get("ThirdTest#test"));
+    }
+
+    @Test
+    public void testArchiveIsReadableAsOneGzipFile() throws IOException {
+        archiveTest("FirstTest#test", "INFO first\n");
+        archiveTest("SecondTest#test", "INFO second\n");
+
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try (InputStream gzip = new GZIPInputStream(Files.newInputStream(
+                temporaryFolder.getRoot().toPath().resolve("archive").resolve(LogArchive.DATA_FILE)))) {
+            final byte[] buffer = new byte[1024];
+            int read;
+            while ((read = gzip.read(buffer)) > 0) {
+                content.write(buffer, 0, read);
+            }
+        }
+        Assert.assertEquals("INFO first\nINFO second\n", new String(content.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testEmptyArchive() throws IOException {
+        Assert.assertEquals(Collections.emptyList(), archive.getTests());
+        Assert.assertTrue(archive.search(Pattern.compile(".*")).isEmpty());
+    }
+
+    private void archiveTest(final String testName, final String... lines) throws IOException {
+        final long from = Files.size(logFile);
+        for (String line : lines) {
+            Files.write(logFile, line.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        }
+        archive.append(testName, logFile, from, Files.size(logFile));
+    }
+}
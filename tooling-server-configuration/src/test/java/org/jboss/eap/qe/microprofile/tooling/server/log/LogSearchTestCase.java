@@ -0,0 +1,108 @@
+package org.jboss.eap.qe.microprofile.tooling.server.log;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.regex.Pattern;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Set of tests for {@link LogSearch} tool.
+ */
+public class LogSearchTestCase {
+
+    @Test
+    public void testOverlappingSubStrings() {
+        final LogSearch search = new LogSearch.Builder()
+                .contains("he", "she", "his", "hers", "usher")
+                .build();
+
+        final LogSearch.Result result = evaluate(search, "ushers", "this", "nothing");
+
+        Assert.assertEquals(Collections.singletonList(1L), result.getLines("he"));
+        Assert.assertEquals(Collections.singletonList(1L), result.getLines("she"));
+        Assert.assertEquals(Collections.singletonList(1L), result.getLines("hers"));
+        Assert.assertEquals(Collections.singletonList(1L), result.getLines("usher"));
+        Assert.assertEquals(Collections.singletonList(2L), result.getLines("his"));
+        Assert.assertTrue(result.isAllFound());
+    }
+
+    @Test
+    public void testSubStringsAndPatternsInOnePass() {
+        final Pattern error = Pattern.compile(".*ERROR.*");
+        final Pattern missing = Pattern.compile("Foooqux 42");
+        final LogSearch search = new LogSearch.Builder()
+                .contains("WFLYSRV0025", "WFLYSRV0050", "Foooqux 42")
+                .matches(error, missing)
+                .build();
+
+        final LogSearch.Result result = evaluate(search,
+                "INFO WFLYSRV0025: started",
+                "ERROR something failed",
+                "INFO WFLYSRV0050: stopped",
+                "INFO WFLYSRV0025: started WFLYSRV0025",
+                "ERROR again");
+
+        Assert.assertEquals(Arrays.asList(1L, 4L), result.getLines("WFLYSRV0025"));
+        Assert.assertEquals(Collections.singletonList(3L), result.getLines("WFLYSRV0050"));
+        Assert.assertFalse(result.contains("Foooqux 42"));
+        Assert.assertEquals(Arrays.asList(2L, 5L), result.getLines(error));
+        Assert.assertFalse(result.matches(missing));
+        Assert.assertFalse(result.isAllFound());
+    }
+
+    @Test
+    public void testMatchDoesNotContinueToNextLine() {
+        final LogSearch search = new LogSearch.Builder().contains("ab").build();
+
+        Assert.assertFalse(evaluate(search, "a", "b").contains("ab"));
+    }
+
+    @Test
+    public void testMaxLinesPerTerm() {
+        final LogSearch search = new LogSearch.Builder()
+                .contains("INFO")
+                .setMaxLinesPerTerm(2)
+                .build();
+
+        Assert.assertEquals(Arrays.asList(1L, 2L), evaluate(search, "INFO", "INFO", "INFO").getLines("INFO"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testResultOfNotSearchedSubString() {
+        evaluate(new LogSearch.Builder().contains("INFO").build(), "INFO").getLines("ERROR");
+    }
+
+    @Test
+    public void testDefaultSearchChecksTermsOneByOne() {
+        final LogChecker logChecker = new LogChecker() {
+            @Override
+            public boolean logMatches(final Pattern pattern) {
+                return pattern.matcher("INFO WFLYSRV0025: started").matches();
+            }
+
+            @Override
+            public boolean logContains(final String subString) {
+                return "INFO WFLYSRV0025: started".contains(subString);
+            }
+        };
+        final Pattern started = Pattern.compile(".*started");
+
+        final LogSearch.Result result = logChecker.search(new LogSearch.Builder()
+                .contains("WFLYSRV0025", "ERROR")
+                .matches(started)
+                .build());
+
+        Assert.assertEquals(Collections.singletonList(0L), result.getLines("WFLYSRV0025"));
+        Assert.assertFalse(result.contains("ERROR"));
+        Assert.assertTrue(result.matches(started));
+    }
+
+    private static LogSearch.Result evaluate(final LogSearch search, final String... lines) {
+        final LogSearch.Evaluation evaluation = search.evaluate();
+        Arrays.stream(lines).forEach(evaluation::accept);
+        Assert.assertEquals(lines.length, evaluation.getLineCount());
+        return evaluation.getResult();
+    }
+}
@@ -0,0 +1,122 @@
+package org.jboss.eap.qe.microprofile.tooling.server.log;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Set of tests for {@link LogWatcher} and {@link FileLogCursor} tools.
+ */
+public class LogWatcherTestCase {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path logFile;
+
+    @Before
+    public void createLogFile() throws IOException {
+        logFile = temporaryFolder.newFile("server.log").toPath();
+    }
+
+    @Test
+    public void testCursorReadsOnlyCompleteNewLines() throws IOException {
+        append("INFO old line\n");
+        final FileLogCursor cursor = FileLogCursor.atEnd(logFile);
+        Assert.assertEquals(Collections.emptyList(), cursor.readNewLines());
+
+        append("INFO first\r\n", "INFO Příliš žluťoučký kůň\n", "INFO incomplete");
+        Assert.assertEquals(Arrays.asList("INFO first", "INFO Příliš žluťoučký kůň"), cursor.readNewLines());
+        Assert.assertEquals(Collections.emptyList(), cursor.readNewLines());
+
+        append(" line\n");
+        Assert.assertEquals(Collections.singletonList("INFO incomplete line"), cursor.readNewLines());
+    }
+
+    @Test
+    public void testCursorReadsRotatedFileFromBeginning() throws IOException {
+        append("INFO some long line of the log before rotation\n");
+        final FileLogCursor cursor = FileLogCursor.atEnd(logFile);
+
+        Files.move(logFile, logFile.resolveSibling("server.log.1"));
+        Assert.assertEquals(Collections.emptyList(), cursor.readNewLines());
+
+        append("INFO after rotation\n");
+        Assert.assertEquals(Collections.singletonList("INFO after rotation"), cursor.readNewLines());
+    }
+
+    @Test
+    public void testFutureIsCompletedWithMatchingLine() throws Exception {
+        try (LogWatcher watcher = new LogWatcher(FileLogCursor.atEnd(logFile), 10, TimeUnit.MILLISECONDS)) {
+            final CompletableFuture<String> started = watcher.awaitContains("WFLYSRV0025");
+            final CompletableFuture<String> error = watcher.awaitMatches(Pattern.compile("ERROR.*"));
+            Assert.assertFalse(started.isDone());
+
+            append("INFO WFLYSRV0025: started\n");
+
+            Assert.assertEquals("INFO WFLYSRV0025: started", started.get(5, TimeUnit.SECONDS));
+            Assert.assertFalse(error.isDone());
+        }
+    }
+
+    @Test
+    public void testLinesBeforeRegistrationAreIgnored() throws Exception {
+        try (LogWatcher watcher = new LogWatcher(FileLogCursor.atEnd(logFile), 10, TimeUnit.MILLISECONDS)) {
+            append("INFO WFLYSRV0025: started\n");
+            // wait until the line is read by the watcher
+            watcher.awaitContains("WFLYSRV0025").get(5, TimeUnit.SECONDS);
+
+            final CompletableFuture<String> started = watcher.awaitContains("WFLYSRV0025");
+            append("INFO other\n");
+            watcher.awaitContains("other").get(5, TimeUnit.SECONDS);
+
+            Assert.assertFalse(started.isDone());
+        }
+    }
+
+    @Test
+    public void testAwaitWithTimeout() throws Exception {
+        try (LogWatcher watcher = new LogWatcher(FileLogCursor.atEnd(logFile), 10, TimeUnit.MILLISECONDS)) {
+            final CompletableFuture<String> missing = watcher.awaitContains("Foooqux 42", 50, TimeUnit.MILLISECONDS);
+            try {
+                missing.get(5, TimeUnit.SECONDS);
+                Assert.fail("Future should complete exceptionally");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof TimeoutException);
+            }
+        }
+    }
+
+    @Test(expected = CancellationException.class)
+    public void testCloseCancelsPendingFutures() throws IOException {
+        final CompletableFuture<String> missing;
+        try (LogWatcher watcher = new LogWatcher(FileLogCursor.atEnd(logFile))) {
+            missing = watcher.awaitContains("Foooqux 42");
+        }
+        Assert.assertTrue(missing.isCompletedExceptionally());
+        missing.join();
+    }
+
+    private void append(final String... lines) throws IOException {
+        for (String line : lines) {
+            Files.write(logFile, line.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+        }
+    }
+}
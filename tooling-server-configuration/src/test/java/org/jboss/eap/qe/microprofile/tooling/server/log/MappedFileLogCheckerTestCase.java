@@ -0,0 +1,167 @@
+package org.jboss.eap.qe.microprofile.tooling.server.log;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.regex.Pattern;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Set of tests for {@link MappedFileLogChecker} tool.
+ */
+public class MappedFileLogCheckerTestCase {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path logFile;
+
+    @Before
+    public void createLogFile() throws IOException {
+        logFile = temporaryFolder.newFile("server.log").toPath();
+    }
+
+    @Test
+    public void testLineContainedSubstring() throws IOException {
+        append("INFO [org.jboss.as] WFLYSRV0025: started\n", "INFO [org.jboss.as] WFLYSRV0050: stopped\n");
+        final LogChecker logChecker = new MappedFileLogChecker(logFile);
+
+        Assert.assertTrue(logChecker.logContains("WFLYSRV0025"));
+        Assert.assertTrue(logChecker.logContains("WFLYSRV0050"));
+        Assert.assertFalse(logChecker.logContains("Foooqux 42"));
+        Assert.assertFalse("Sub string spanning lines should not be found", logChecker.logContains("started\nINFO"));
+    }
+
+    @Test
+    public void testLineMatchedPattern() throws IOException {
+        append("INFO [org.jboss.as] WFLYSRV0025: started\r\n");
+        final LogChecker logChecker = new MappedFileLogChecker(logFile);
+
+        Assert.assertTrue(logChecker.logMatches(Pattern.compile(".*WFLYSRV0025.*started")));
+        Assert.assertFalse(logChecker.logMatches(Pattern.compile("WFLYSRV0025")));
+    }
+
+    @Test
+    public void testNonAsciiLines() throws IOException {
+        append("INFO Příliš žluťoučký kůň\n");
+        final LogChecker logChecker = new MappedFileLogChecker(logFile);
+
+        Assert.assertTrue(logChecker.logContains("žluťoučký"));
+        Assert.assertTrue(logChecker.logMatches(Pattern.compile("INFO P.*ň")));
+    }
+
+    @Test
+    public void testNewLinesAreFoundByRepeatedChecks() throws IOException {
+        final LogChecker logChecker = new MappedFileLogChecker(logFile);
+        Assert.assertFalse(logChecker.logContains("WFLYSRV0025"));
+
+        append("INFO first\n");
+        Assert.assertFalse(logChecker.logContains("WFLYSRV0025"));
+
+        append("INFO WFLYSRV0025");
+        Assert.assertFalse("Incomplete line should not be searched", logChecker.logMatches(Pattern.compile(".*0025")));
+
+        append(": started\n");
+        Assert.assertTrue(logChecker.logContains("WFLYSRV0025"));
+        Assert.assertTrue(logChecker.logMatches(Pattern.compile(".*0025.*")));
+        Assert.assertTrue("Found line should be found again", logChecker.logContains("WFLYSRV0025"));
+    }
+
+    @Test
+    public void testCheckerFromCurrentEndIgnoresOldLines() throws IOException {
+        append("INFO WFLYSRV0025: started\n");
+        final LogChecker logChecker = MappedFileLogChecker.fromCurrentEnd(logFile);
+
+        Assert.assertFalse(logChecker.logContains("WFLYSRV0025"));
+
+        append("INFO WFLYSRV0025: started again\n");
+        Assert.assertTrue(logChecker.logContains("started again"));
+    }
+
+    @Test
+    public void testRotatedLogIsSearchedFromBeginning() throws IOException {
+        append("INFO some long line of the log before rotation\n");
+        final LogChecker logChecker = MappedFileLogChecker.fromCurrentEnd(logFile);
+        Assert.assertFalse(logChecker.logContains("WFLYSRV0025"));
+
+        Files.move(logFile, logFile.resolveSibling("server.log.1"));
+        append("WFLYSRV0025\n");
+
+        Assert.assertTrue(logChecker.logContains("WFLYSRV0025"));
+    }
+
+    @Test
+    public void testSearchInOnePass() throws IOException {
+        append("INFO old line\n");
+        final LogChecker logChecker = MappedFileLogChecker.fromCurrentEnd(logFile);
+        append("INFO WFLYSRV0025: started\n", "ERROR Příliš žluťoučký kůň\n", "INFO WFLYSRV0050: stopped\n", "INFO old");
+        final Pattern error = Pattern.compile("ERROR.*kůň");
+
+        final LogSearch.Result result = logChecker.search(new LogSearch.Builder()
+                .contains("WFLYSRV0025", "WFLYSRV0050", "old")
+                .matches(error)
+                .build());
+
+        Assert.assertEquals(Collections.singletonList(1L), result.getLines("WFLYSRV0025"));
+        Assert.assertEquals(Collections.singletonList(3L), result.getLines("WFLYSRV0050"));
+        Assert.assertEquals(Collections.singletonList(2L), result.getLines(error));
+        Assert.assertFalse("Old and incomplete lines should not be searched", result.contains("old"));
+    }
+
+    @Test
+    public void testRepeatedSearchSearchesOnlyNewLines() throws IOException {
+        final LogChecker logChecker = MappedFileLogChecker.fromCurrentEnd(logFile);
+        final LogSearch search = new LogSearch.Builder().contains("WFLYSRV0025", "WFLYSRV0050").build();
+        append("INFO WFLYSRV0025: started\n");
+
+        Assert.assertFalse(logChecker.search(search).contains("WFLYSRV0050"));
+
+        append("INFO WFLYSRV0050: stopped\n", "INFO WFLYSRV0025: started\n");
+        final LogSearch.Result result = logChecker.search(search);
+
+        Assert.assertEquals(Arrays.asList(1L, 3L), result.getLines("WFLYSRV0025"));
+        Assert.assertEquals(Collections.singletonList(2L), result.getLines("WFLYSRV0050"));
+    }
+
+    @Test
+    public void testCheckerFromLastLinesSearchesOnlyLastLines() throws IOException {
+        append("INFO WFLYSRV0025: started\n", "INFO second\n", "INFO third\n", "INFO incomplete");
+        final LogChecker logChecker = MappedFileLogChecker.fromLastLines(logFile, 2);
+
+        Assert.assertFalse(logChecker.logContains("WFLYSRV0025"));
+        Assert.assertTrue(logChecker.logContains("second"));
+        Assert.assertTrue(logChecker.logContains("third"));
+        Assert.assertTrue(MappedFileLogChecker.fromLastLines(logFile, 10).logContains("WFLYSRV0025"));
+        Assert.assertTrue(MappedFileLogChecker.fromLastLines(logFile, -1).logContains("WFLYSRV0025"));
+
+        append("\n");
+        Assert.assertTrue("Lines completed later should be searched", logChecker.logContains("incomplete"));
+    }
+
+    @Test
+    public void testMissingLogFile() throws IOException {
+        Files.delete(logFile);
+        final LogChecker logChecker = MappedFileLogChecker.fromCurrentEnd(logFile);
+
+        Assert.assertFalse(logChecker.logContains("WFLYSRV0025"));
+
+        append("WFLYSRV0025\n");
+        Assert.assertTrue(logChecker.logContains("WFLYSRV0025"));
+    }
+
+    private void append(final String... lines) throws IOException {
+        for (String line : lines) {
+            Files.write(logFile, line.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.jboss.eap.qe.microprofile.tooling.server.log;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.concurrent.TimeoutException;
 import java.util.regex.Pattern;
 
@@ -66,4 +67,79 @@ public class ModelNodeLogCheckerTestCase {
         }
     }
 
+    @Test
+    @RunAsClient
+    public void testIncrementalCheckerSearchesOnlyNewLinesClient()
+            throws ConfigurationException, IOException, TimeoutException, InterruptedException {
+        try (final OnlineManagementClient client = ManagementClientProvider.onlineStandalone()) {
+            new Administration(client).reload();
+            final LogChecker logChecker = ModelNodeLogChecker.fromCurrentEnd(client);
+
+            Assert.assertFalse(logChecker.logContains("WFLYSRV0025"));
+
+            new Administration(client).reload();
+
+            Assert.assertTrue(logChecker.logContains("WFLYSRV0025"));
+            Assert.assertTrue("Line found by previous check should be found again",
+                    logChecker.logMatches(Pattern.compile(".*WFLYSRV0025.*")));
+            Assert.assertTrue(logChecker.logContains("WFLYSRV0025"));
+        }
+    }
+
+    @Test
+    @RunAsClient
+    public void testCursorReadsOnlyNewLinesClient()
+            throws ConfigurationException, IOException, TimeoutException, InterruptedException {
+        try (final OnlineManagementClient client = ManagementClientProvider.onlineStandalone()) {
+            final ModelNodeLogCursor cursor = ModelNodeLogCursor.atEnd(client);
+            final long position = cursor.getPosition();
+
+            new Administration(client).reload();
+
+            final List<String> newLines = cursor.readNewLines();
+            Assert.assertTrue(newLines.stream().anyMatch(line -> line.contains("WFLYSRV0025")));
+            Assert.assertEquals(position + newLines.size(), cursor.getPosition());
+            Assert.assertFalse(cursor.readNewLines().stream().anyMatch(line -> line.contains("WFLYSRV0025")));
+        }
+    }
+
+    @Test
+    @RunAsClient
+    public void testSearchInOnePassClient()
+            throws ConfigurationException, IOException, TimeoutException, InterruptedException {
+        try (final OnlineManagementClient client = ManagementClientProvider.onlineStandalone()) {
+            final LogChecker logChecker = ModelNodeLogChecker.fromCurrentEnd(client);
+
+            new Administration(client).reload();
+
+            final Pattern started = Pattern.compile(".*WFLYSRV0025.*");
+            final LogSearch.Result result = logChecker.search(new LogSearch.Builder()
+                    .contains("WFLYSRV0025", "Foooqux 42")
+                    .matches(started)
+                    .build());
+            Assert.assertTrue(result.contains("WFLYSRV0025"));
+            Assert.assertEquals(result.getLines("WFLYSRV0025"), result.getLines(started));
+            Assert.assertFalse(result.contains("Foooqux 42"));
+        }
+    }
+
+    @Test
+    @RunAsClient
+    public void testRepeatedSearchSearchesOnlyNewLinesClient()
+            throws ConfigurationException, IOException, TimeoutException, InterruptedException {
+        try (final OnlineManagementClient client = ManagementClientProvider.onlineStandalone()) {
+            final LogChecker logChecker = ModelNodeLogChecker.fromCurrentEnd(client);
+            final LogSearch search = new LogSearch.Builder().contains("WFLYSRV0025").build();
+
+            new Administration(client).reload();
+            final List<Long> firstLines = logChecker.search(search).getLines("WFLYSRV0025");
+            Assert.assertEquals(1, firstLines.size());
+
+            new Administration(client).reload();
+            final List<Long> lines = logChecker.search(search).getLines("WFLYSRV0025");
+            Assert.assertEquals(2, lines.size());
+            Assert.assertEquals(firstLines.get(0), lines.get(0));
+        }
+    }
+
 }
@@ -0,0 +1,64 @@
+package org.jboss.eap.qe.microprofile.tooling.server.timing;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests recording of test durations by {@link TestTimings}
+ */
+public class TestTimingsTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void testRunsAreMergedIntoFile() throws Exception {
+        Path file = tmp.getRoot().toPath().resolve("target/timings.json");
+
+        TestTimings.record(file, run("org.FooTest", 1000));
+        TestTimings.record(file, run("org.FooTest", 2000));
+        TestTimings.record(file, run("org.BarTest", 500));
+
+        TestTimings timings = TestTimings.load(file);
+        Assert.assertEquals(1500, timings.getDuration("org.FooTest", TestTimings.Phase.TOTAL));
+        Assert.assertEquals(150, timings.getDuration("org.FooTest", TestTimings.Phase.DEPLOY));
+        Assert.assertEquals(500, timings.getDuration("org.BarTest", TestTimings.Phase.TOTAL));
+        Assert.assertEquals(-1, timings.getDuration("org.BarTest", TestTimings.Phase.SERVER_SETUP));
+        try (Stream<Path> files = Files.list(file.getParent())) {
+            Assert.assertFalse("Temporary file left", files.anyMatch(path -> path.toString().endsWith(".tmp")));
+        }
+    }
+
+    @Test
+    public void testMovingAverageOfRuns() {
+        TestTimings timings = new TestTimings();
+        for (int i = 0; i < 20; i++) {
+            timings.merge(run("org.FooTest", 1000));
+        }
+        timings.merge(run("org.FooTest", 6000));
+
+        Assert.assertEquals(1000 + 5000 / TestTimings.AVERAGED_RUNS,
+                timings.getDuration("org.FooTest", TestTimings.Phase.TOTAL));
+    }
+
+    @Test
+    public void testCorruptedFileIsIgnored() throws Exception {
+        Path file = tmp.newFile("timings.json").toPath();
+        Files.write(file, "{\"org.FooTest\":".getBytes("UTF-8"));
+
+        Assert.assertTrue(TestTimings.load(file).getTestClasses().isEmpty());
+    }
+
+    private static TestTimings run(String testClass, long total) {
+        TestTimings run = new TestTimings();
+        run.add(testClass, TestTimings.Phase.DEPLOY, total / 10);
+        run.add(testClass, TestTimings.Phase.TOTAL, total);
+        return run;
+    }
+}